@@ -11,14 +11,28 @@
 package suncertify.business;
 
 import suncertify.db.DBMainExtended;
+import suncertify.db.Query;
 import suncertify.db.RecordNotFoundException;
+import suncertify.db.SortOrder;
+import suncertify.db.Transaction;
+import suncertify.db.Versioned;
 import suncertify.domain.Contractor;
 import suncertify.domain.ContractorPk;
 import suncertify.util.ContractorConverter;
+import suncertify.util.SlowOperationLog;
+import suncertify.util.SlowOperationLog.Operation;
 
 import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * BasicContractorService is the default implementation of {@link ContractorService}. It has an
@@ -32,9 +46,21 @@ public class BasicContractorService implements ContractorService {
    */
   private static final String MESSAGE_PREFIX = "Could not find any contractors with ";
 
+  /** The name of the name field in the database schema. */
+  private static final String NAME_FIELD = "name";
+
+  /** The name of the location field in the database schema. */
+  private static final String LOCATION_FIELD = "location";
+
+  /** The maximum time a booking of several contractors waits for their records to be unlocked. */
+  private static final long BOOKING_TIMEOUT_MILLIS = 1000;
+
   /** The data access object used to interact with the database. */
   private final DBMainExtended data;
 
+  /** The number of calls to this service which have completed, successfully or not. */
+  private final LongAdder completedCalls = new LongAdder();
+
   /**
    * Constructs a new BasicContractorService with the specified {@code data}.
    *
@@ -50,6 +76,16 @@ public class BasicContractorService implements ContractorService {
     this.data = data;
   }
 
+  /**
+   * Gets the number of calls to the methods of {@link ContractorService} which have completed
+   * since this service was constructed, including those which threw an exception.
+   *
+   * @return the number of completed service calls.
+   */
+  public long getCompletedCallCount() {
+    return completedCalls.sum();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -59,18 +95,121 @@ public class BasicContractorService implements ContractorService {
     if (contractor == null) {
       throw new IllegalArgumentException("Contractor cannot be null.");
     }
-    int recordNumber = -1;
+    final ServiceCallEvent event = new ServiceCallEvent("book");
+    event.begin();
+    final long start = System.nanoTime();
+    long lookedUp = 0;
     try {
-      final String[] fieldValues = contractor.toStringArray();
-      final String[] uniqueId = contractor.getPrimaryKey().toStringArray();
-      recordNumber = data.find(uniqueId)[0];
-      data.lock(recordNumber);
-      checkContractorIsAvailable(recordNumber);
-      data.update(recordNumber, fieldValues);
+      final int recordNumber = findRecordNumber(contractor.getPrimaryKey());
+      final String[] currentValues = data.read(recordNumber);
+      checkContractorIsAvailable(currentValues);
+      lookedUp = System.nanoTime();
+      if (!data.compareAndUpdate(recordNumber, currentValues, contractor.toStringArray())) {
+        throw new AlreadyBookedException("Contractor with " + contractor.getPrimaryKey()
+            + " was modified by another client while booking.");
+      }
     } catch (final RecordNotFoundException e) {
       throw new ContractorNotFoundException(MESSAGE_PREFIX + contractor.getPrimaryKey(), e);
     } finally {
-      data.unlock(recordNumber);
+      event.commit();
+      completedCalls.increment();
+      logIfSlowBooking(start, lookedUp, "update", contractor.getPrimaryKey());
+    }
+  }
+
+  /**
+   * Books the specified {@code contractor} like {@link #book(Contractor)}, but without blocking
+   * the calling thread. The record lock is requested with {@link DBMainExtended#lockAsync(int)},
+   * so a booking waiting for a contractor which is locked by other clients occupies a queue entry
+   * instead of a thread; once the lock is granted, the booking is completed on a pool thread. A
+   * booking whose lock isn't granted within {@value #BOOKING_TIMEOUT_MILLIS} milliseconds fails
+   * with an {@link AlreadyBookedException}, as the contractor is busy with another client.
+   *
+   * @param contractor
+   *          the contractor to book.
+   * @return a future completed once the contractor has been booked, or completed exceptionally
+   *         with a {@link ContractorNotFoundException} or an {@link AlreadyBookedException}.
+   * @throws IllegalArgumentException
+   *           if {@code contractor} is null.
+   */
+  public CompletableFuture<Void> bookAsync(final Contractor contractor)
+      throws IllegalArgumentException {
+    if (contractor == null) {
+      throw new IllegalArgumentException("Contractor cannot be null.");
+    }
+    final ContractorPk primaryKey = contractor.getPrimaryKey();
+    final int recordNumber;
+    final CompletableFuture<Void> lock;
+    try {
+      recordNumber = findRecordNumber(primaryKey);
+      lock = data.lockAsync(recordNumber, BOOKING_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (final RecordNotFoundException e) {
+      final CompletableFuture<Void> booking = new CompletableFuture<>();
+      booking.completeExceptionally(new ContractorNotFoundException(MESSAGE_PREFIX + primaryKey,
+          e));
+      return booking;
+    }
+    return lock.handleAsync((granted, failure) -> {
+      if (failure != null) {
+        final Throwable cause = failure instanceof CompletionException ? failure.getCause()
+            : failure;
+        if (cause instanceof TimeoutException) {
+          throw new CompletionException(new AlreadyBookedException("Contractor with " + primaryKey
+              + " was locked by another client for too long while booking."));
+        }
+        throw new CompletionException(
+            new ContractorNotFoundException(MESSAGE_PREFIX + primaryKey, cause));
+      }
+      try {
+        checkContractorIsAvailable(data.read(recordNumber));
+        data.update(recordNumber, contractor.toStringArray());
+      } catch (final RecordNotFoundException e) {
+        throw new CompletionException(
+            new ContractorNotFoundException(MESSAGE_PREFIX + primaryKey, e));
+      } catch (final AlreadyBookedException e) {
+        throw new CompletionException(e);
+      } finally {
+        data.unlock(recordNumber);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void bookAll(final Collection<Contractor> contractors) throws ContractorNotFoundException,
+      AlreadyBookedException, RemoteException, IllegalArgumentException {
+    if (contractors == null || contractors.contains(null)) {
+      throw new IllegalArgumentException("Contractors cannot be null.");
+    }
+    final Transaction transaction = new Transaction();
+    ContractorPk primaryKey = null;
+    final ServiceCallEvent event = new ServiceCallEvent("bookAll");
+    event.begin();
+    final long start = System.nanoTime();
+    long lookedUp = 0;
+    try {
+      for (final Contractor contractor : contractors) {
+        primaryKey = contractor.getPrimaryKey();
+        final int recordNumber = findRecordNumber(primaryKey);
+        final String[] currentValues = data.read(recordNumber);
+        checkContractorIsAvailable(currentValues);
+        transaction.expect(recordNumber, currentValues)
+            .update(recordNumber, contractor.toStringArray());
+      }
+      lookedUp = System.nanoTime();
+      if (!data.commit(transaction, BOOKING_TIMEOUT_MILLIS)) {
+        throw new AlreadyBookedException(
+            "One of the contractors was modified by another client while booking.");
+      }
+    } catch (final RecordNotFoundException e) {
+      throw new ContractorNotFoundException(MESSAGE_PREFIX + primaryKey, e);
+    } finally {
+      event.commit();
+      completedCalls.increment();
+      logIfSlowBooking(start, lookedUp, "lock wait and commit", contractors);
     }
   }
 
@@ -83,45 +222,349 @@ public class BasicContractorService implements ContractorService {
     if (searchKey == null) {
       throw new IllegalArgumentException("ContractorPk cannot be null.");
     }
-    final Map<Integer, Contractor> matchingRecords = new HashMap<>();
+    final ServiceCallEvent event = new ServiceCallEvent("find");
+    event.begin();
+    final long start = System.nanoTime();
+    long scanned = 0;
+    Map<Integer, Contractor> contractors = null;
+    try {
+      final int[] recordNumbers = data.execute(primaryKeyQuery(searchKey));
+      scanned = System.nanoTime();
+      contractors = readMatchingContractors(recordNumbers, searchKey);
+      return contractors;
+    } catch (final RecordNotFoundException e) {
+      throw new ContractorNotFoundException(MESSAGE_PREFIX + searchKey, e);
+    } finally {
+      event.commit();
+      completedCalls.increment();
+      logIfSlowSearch(start, scanned, searchKey, contractors);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned version is the one the matching record numbers were found at. The contractors
+   * are read afterwards, so if one changes in between, the returned contractors are newer than the
+   * version; a client comparing versions then merely repeats the search once more than needed.
+   */
+  @Override
+  public Versioned<Map<Integer, Contractor>> findVersioned(final ContractorPk searchKey)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (searchKey == null) {
+      throw new IllegalArgumentException("ContractorPk cannot be null.");
+    }
+    final ServiceCallEvent event = new ServiceCallEvent("findVersioned");
+    event.begin();
+    final long start = System.nanoTime();
+    long scanned = 0;
+    Map<Integer, Contractor> contractors = null;
+    try {
+      final Versioned<int[]> recordNumbers = data.executeVersioned(primaryKeyQuery(searchKey));
+      scanned = System.nanoTime();
+      contractors = readMatchingContractors(recordNumbers.getValue(), searchKey);
+      return new Versioned<>(contractors, recordNumbers.getVersion());
+    } catch (final RecordNotFoundException e) {
+      throw new ContractorNotFoundException(MESSAGE_PREFIX + searchKey, e);
+    } finally {
+      event.commit();
+      completedCalls.increment();
+      logIfSlowSearch(start, scanned, searchKey, contractors);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getVersion() throws RemoteException {
+    final ServiceCallEvent event = new ServiceCallEvent("getVersion");
+    event.begin();
+    try {
+      return data.getVersion();
+    } finally {
+      event.commit();
+      completedCalls.increment();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> search(final Query query)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (query == null) {
+      throw new IllegalArgumentException("Query cannot be null.");
+    }
+    final Map<Integer, Contractor> matchingRecords = new LinkedHashMap<>();
+    final ServiceCallEvent event = new ServiceCallEvent("search");
+    event.begin();
+    final long start = System.nanoTime();
+    long scanned = 0;
+    try {
+      final int[] recordNumbers = data.execute(query);
+      scanned = System.nanoTime();
+      for (final int recordNumber : recordNumbers) {
+        matchingRecords.put(recordNumber,
+            ContractorConverter.toContractor(data.read(recordNumber)));
+      }
+    } catch (final RecordNotFoundException e) {
+      throw new ContractorNotFoundException(MESSAGE_PREFIX + query, e);
+    } finally {
+      event.commit();
+      completedCalls.increment();
+      logIfSlowSearch(start, scanned, query, matchingRecords);
+    }
+    return matchingRecords;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> findAvailable(final ContractorPk searchKey)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (searchKey == null) {
+      throw new IllegalArgumentException("ContractorPk cannot be null.");
+    }
+    final ServiceCallEvent event = new ServiceCallEvent("findAvailable");
+    event.begin();
+    final long start = System.nanoTime();
+    long scanned = 0;
+    Map<Integer, Contractor> contractors = null;
     try {
       final String[] searchCriteria = searchKey.toStringArray();
-      final int[] recordNumbers = data.find(searchCriteria);
+      final int[] recordNumbers = data.findAvailable(searchCriteria);
+      scanned = System.nanoTime();
+      contractors = readMatchingContractors(recordNumbers, searchKey);
+      return contractors;
+    } catch (final RecordNotFoundException e) {
+      throw new ContractorNotFoundException(MESSAGE_PREFIX + searchKey, e);
+    } finally {
+      event.commit();
+      completedCalls.increment();
+      logIfSlowSearch(start, scanned, searchKey, contractors);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> findByRateAndSize(final long minRate, final long maxRate,
+      final int minSize, final int maxSize, final SortOrder order, final boolean availableOnly)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    final Map<Integer, Contractor> matchingRecords = new LinkedHashMap<>();
+    final ServiceCallEvent event = new ServiceCallEvent("findByRateAndSize");
+    event.begin();
+    final long start = System.nanoTime();
+    long scanned = 0;
+    try {
+      final int[] recordNumbers = data.findByRateAndSize(minRate, maxRate, minSize, maxSize,
+          order, availableOnly);
+      scanned = System.nanoTime();
       for (final int recordNumber : recordNumbers) {
-        final String[] fieldValues = data.read(recordNumber);
-        final Contractor contractor = ContractorConverter.toContractor(fieldValues);
-        final ContractorPk primaryKey = contractor.getPrimaryKey();
-        if (doesMatchExactly(primaryKey, searchKey)) {
-          matchingRecords.put(recordNumber, contractor);
-        }
+        matchingRecords.put(recordNumber,
+            ContractorConverter.toContractor(data.read(recordNumber)));
       }
+    } catch (final RecordNotFoundException e) {
+      throw new ContractorNotFoundException(MESSAGE_PREFIX + "a rate between " + minRate + " and "
+          + maxRate + " cents and a size between " + minSize + " and " + maxSize, e);
+    } finally {
+      event.commit();
+      completedCalls.increment();
+      logIfSlowSearch(start, scanned, "rate " + minRate + "-" + maxRate + ", size " + minSize
+          + "-" + maxSize, matchingRecords);
+    }
+    return matchingRecords;
+  }
 
-      if (matchingRecords.isEmpty()) {
-        throw new ContractorNotFoundException(MESSAGE_PREFIX + searchKey);
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> findBySpecialties(final String[] specialties,
+      final boolean matchAll)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (specialties == null) {
+      throw new IllegalArgumentException("Specialties cannot be null.");
+    }
+    final Map<Integer, Contractor> matchingRecords = new LinkedHashMap<>();
+    final ServiceCallEvent event = new ServiceCallEvent("findBySpecialties");
+    event.begin();
+    final long start = System.nanoTime();
+    long scanned = 0;
+    try {
+      final int[] recordNumbers = data.findBySpecialties(specialties, matchAll);
+      scanned = System.nanoTime();
+      for (final int recordNumber : recordNumbers) {
+        matchingRecords.put(recordNumber,
+            ContractorConverter.toContractor(data.read(recordNumber)));
       }
+    } catch (final RecordNotFoundException e) {
+      throw new ContractorNotFoundException(
+          MESSAGE_PREFIX + "specialties " + Arrays.toString(specialties), e);
+    } finally {
+      event.commit();
+      completedCalls.increment();
+      logIfSlowSearch(start, scanned, specialties, matchingRecords);
+    }
+    return matchingRecords;
+  }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> findByCustomerId(final String customerId)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (customerId == null) {
+      throw new IllegalArgumentException("Customer id cannot be null.");
+    }
+    final Map<Integer, Contractor> matchingRecords = new LinkedHashMap<>();
+    final ServiceCallEvent event = new ServiceCallEvent("findByCustomerId");
+    event.begin();
+    final long start = System.nanoTime();
+    long scanned = 0;
+    try {
+      final int[] recordNumbers = data.findByOwner(customerId);
+      scanned = System.nanoTime();
+      for (final int recordNumber : recordNumbers) {
+        matchingRecords.put(recordNumber,
+            ContractorConverter.toContractor(data.read(recordNumber)));
+      }
     } catch (final RecordNotFoundException e) {
-      throw new ContractorNotFoundException(MESSAGE_PREFIX + searchKey, e);
+      throw new ContractorNotFoundException(MESSAGE_PREFIX + "customer id '" + customerId + "'",
+          e);
+    } finally {
+      event.commit();
+      completedCalls.increment();
+      logIfSlowSearch(start, scanned, customerId, matchingRecords);
     }
     return matchingRecords;
   }
 
   /**
-   * Check that the contractor with the specified record number is available for booking. Throws an
+   * Logs a booking which took longer than its threshold to the slow operation log, split into
+   * looking up the contractors and applying the booking.
+   *
+   * @param start
+   *          the value of {@link System#nanoTime()} when the booking started.
+   * @param lookedUp
+   *          the value of {@link System#nanoTime()} when the contractors had been looked up, or 0
+   *          if the booking failed before.
+   * @param applyPhase
+   *          the name of the phase which applies the booking.
+   * @param criteria
+   *          the contractors booked.
+   */
+  private static void logIfSlowBooking(final long start, final long lookedUp,
+      final String applyPhase, final Object criteria) {
+    final long end = System.nanoTime();
+    if (SlowOperationLog.isSlow(Operation.BOOK, end - start)) {
+      final long lookupEnd = lookedUp == 0 ? end : lookedUp;
+      SlowOperationLog.entry(Operation.BOOK, end - start).criteria(criteria)
+          .phase("lookup", lookupEnd - start).phase(applyPhase, end - lookupEnd).submit();
+    }
+  }
+
+  /**
+   * Logs a search which took longer than its threshold to the slow operation log, split into
+   * scanning the records and converting the matches to contractors.
+   *
+   * @param start
+   *          the value of {@link System#nanoTime()} when the search started.
+   * @param scanned
+   *          the value of {@link System#nanoTime()} when the records had been scanned, or 0 if the
+   *          search failed before.
+   * @param criteria
+   *          the criteria searched for.
+   * @param contractors
+   *          the contractors found, {@code null} if the search failed.
+   */
+  private static void logIfSlowSearch(final long start, final long scanned,
+      final Object criteria, final Map<Integer, Contractor> contractors) {
+    final long end = System.nanoTime();
+    if (SlowOperationLog.isSlow(Operation.FIND, end - start)) {
+      final long scanEnd = scanned == 0 ? end : scanned;
+      SlowOperationLog.entry(Operation.FIND, end - start).criteria(criteria)
+          .phase("scan", scanEnd - start).phase("conversion", end - scanEnd)
+          .result(contractors, contractors == null ? 0 : contractors.size()).submit();
+    }
+  }
+
+  /**
+   * Reads the contractors with the specified {@code recordNumbers} and returns those whose primary
+   * key exactly matches the specified {@code searchKey}.
+   *
+   * @param recordNumbers
+   *          the record numbers of the candidate contractors.
+   * @param searchKey
+   *          the primary key to match.
+   * @return a map, with the record number of the contractor as the key and the contractor records
+   *         the value.
+   * @throws ContractorNotFoundException
+   *           if none of the contractors match the specified {@code searchKey}.
+   * @throws RecordNotFoundException
+   *           if a record does not exist or has been marked as deleted in the database.
+   */
+  private Map<Integer, Contractor> readMatchingContractors(final int[] recordNumbers,
+      final ContractorPk searchKey) throws ContractorNotFoundException, RecordNotFoundException {
+    final Map<Integer, Contractor> matchingRecords = new HashMap<>();
+    for (final int recordNumber : recordNumbers) {
+      final String[] fieldValues = data.read(recordNumber);
+      final Contractor contractor = ContractorConverter.toContractor(fieldValues);
+      final ContractorPk primaryKey = contractor.getPrimaryKey();
+      if (doesMatchExactly(primaryKey, searchKey)) {
+        matchingRecords.put(recordNumber, contractor);
+      }
+    }
+    if (matchingRecords.isEmpty()) {
+      throw new ContractorNotFoundException(MESSAGE_PREFIX + searchKey);
+    }
+    return matchingRecords;
+  }
+
+  /**
+   * Finds the number of the record whose name and location exactly equal those of the specified
+   * {@code primaryKey}.
+   *
+   * @param primaryKey
+   *          the primary key of the contractor.
+   * @return the record number.
+   * @throws RecordNotFoundException
+   *           if no record has the specified {@code primaryKey}.
+   */
+  private int findRecordNumber(final ContractorPk primaryKey) throws RecordNotFoundException {
+    return data.execute(Query.and(Query.exact(NAME_FIELD, primaryKey.getName()),
+        Query.exact(LOCATION_FIELD, primaryKey.getLocation())))[0];
+  }
+
+  /**
+   * Builds the query matching the contractors whose name and location start with those of the
+   * specified {@code searchKey}, ignoring case.
+   *
+   * @param searchKey
+   *          the primary key to match.
+   * @return the query.
+   */
+  private static Query primaryKeyQuery(final ContractorPk searchKey) {
+    return Query.and(Query.prefix(NAME_FIELD, searchKey.getName()),
+        Query.prefix(LOCATION_FIELD, searchKey.getLocation()));
+  }
+
+  /**
+   * Check that the contractor with the specified field values is available for booking. Throws an
    * {@link AlreadyBookedException} if the contractor is booked.
    *
-   * @param recordNumber
-   *          the number of the contractor record.
+   * @param fieldValues
+   *          the field values of the contractor record.
    * @throws AlreadyBookedException
-   *           if the contractor with the specified record number has already been booked.
-   * @throws RemoteException
-   *           if an RMI communication-related exception occurs.
-   * @throws RecordNotFoundException
-   *           if the record does not exist or has been marked as deleted in the database.
+   *           if the contractor with the specified field values has already been booked.
    */
-  private void checkContractorIsAvailable(final int recordNumber)
-      throws RecordNotFoundException, AlreadyBookedException, RemoteException {
-    final String[] fieldValues = data.read(recordNumber);
+  private void checkContractorIsAvailable(final String[] fieldValues)
+      throws AlreadyBookedException {
     final Contractor contractor = ContractorConverter.toContractor(fieldValues);
     if (contractor.isBooked()) {
       throw new AlreadyBookedException(
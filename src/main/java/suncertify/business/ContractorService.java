@@ -10,10 +10,14 @@
 
 package suncertify.business;
 
+import suncertify.db.Query;
+import suncertify.db.SortOrder;
+import suncertify.db.Versioned;
 import suncertify.domain.Contractor;
 import suncertify.domain.ContractorPk;
 
 import java.rmi.RemoteException;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -46,6 +50,26 @@ public interface ContractorService {
   void book(final Contractor contractor) throws ContractorNotFoundException, AlreadyBookedException,
       RemoteException, IllegalArgumentException;
 
+  /**
+   * Book all of the specified {@code contractors} together, or none of them, in a single request.
+   * Each contractor is booked as by {@link #book(Contractor)}; if any of them cannot be booked,
+   * none are.
+   *
+   * @param contractors
+   *          the contractors to book.
+   * @throws ContractorNotFoundException
+   *           if one of the specified {@code contractors} could not be found.
+   * @throws AlreadyBookedException
+   *           if one of the specified {@code contractors} has already been booked, or was
+   *           modified by another client while booking.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if {@code contractors} is null or contains null.
+   */
+  void bookAll(final Collection<Contractor> contractors) throws ContractorNotFoundException,
+      AlreadyBookedException, RemoteException, IllegalArgumentException;
+
   /**
    * Find all contractor records with the specified {@code primaryKey}. This method uses the
    * {@code name} and {@code location} fields in the {@code primaryKey} to find all contractors with
@@ -79,4 +103,145 @@ public interface ContractorService {
    */
   Map<Integer, Contractor> find(final ContractorPk primaryKey)
       throws ContractorNotFoundException, RemoteException, IllegalArgumentException;
+
+  /**
+   * Find all contractor records with the specified {@code primaryKey}, like
+   * {@link #find(ContractorPk)}, and return them together with the version of the database they
+   * were found at. A client can compare that version with {@link #getVersion()} later to find out
+   * whether the search needs to be repeated.
+   *
+   * @param primaryKey
+   *          the primary key
+   * @return a map, with the record number of the contractor as the key and the contractor records
+   *         the value, and the version of the database the contractors were found at.
+   * @throws ContractorNotFoundException
+   *           if no contractor with the specified {@code primaryKey} could be found.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if {@code ContractorPk} is null.
+   */
+  Versioned<Map<Integer, Contractor>> findVersioned(final ContractorPk primaryKey)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException;
+
+  /**
+   * Find all contractor records with the specified {@code primaryKey} which have not been booked.
+   * The {@code primaryKey} is matched in the same way as by {@link #find(ContractorPk)}.
+   *
+   * @param primaryKey
+   *          the primary key
+   * @return a map, with the record number of the contractor as the key and the contractor records
+   *         the value.
+   * @throws ContractorNotFoundException
+   *           if no available contractor with the specified {@code primaryKey} could be found.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if {@code ContractorPk} is null.
+   */
+  Map<Integer, Contractor> findAvailable(final ContractorPk primaryKey)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException;
+
+  /**
+   * Find all contractor records matching the specified {@code query}. The query is compiled on
+   * the server the first time it is used and the compiled form is reused for equal queries, so
+   * repeating a search costs no more than evaluating it. Returns all matching contractors in a
+   * map, with the record number of the contractor as the key and the contractor record as the
+   * value.
+   *
+   * @param query
+   *          the query, built with the factory methods of {@link Query}.
+   * @return a map, with the record number of the contractor as the key and the contractor records
+   *         the value.
+   * @throws ContractorNotFoundException
+   *           if no contractor matches the specified {@code query}.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if {@code query} is null.
+   */
+  Map<Integer, Contractor> search(final Query query)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException;
+
+  /**
+   * Find all contractor records whose hourly rate and size fall within the specified inclusive
+   * ranges. Returns all matching contractors in a map, with the record number of the contractor as
+   * the key and the contractor record as the value, iterating in the specified {@code order}.
+   *
+   * @param minRate
+   *          the minimum rate in cents, e.g. 5000 for $50.00.
+   * @param maxRate
+   *          the maximum rate in cents.
+   * @param minSize
+   *          the minimum number of staff.
+   * @param maxSize
+   *          the maximum number of staff.
+   * @param order
+   *          the order of the contractors in the returned map.
+   * @param availableOnly
+   *          true to exclude contractors which have been booked.
+   * @return a map, with the record number of the contractor as the key and the contractor records
+   *         the value.
+   * @throws ContractorNotFoundException
+   *           if no contractor falls within the specified ranges.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if a minimum exceeds its maximum or {@code order} is null.
+   */
+  Map<Integer, Contractor> findByRateAndSize(final long minRate, final long maxRate,
+      final int minSize, final int maxSize, final SortOrder order, final boolean availableOnly)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException;
+
+  /**
+   * Find all contractor records offering the specified {@code specialties}, e.g. "Painting" or
+   * "Drywall". Specialties are compared ignoring case. Returns all matching contractors in a map,
+   * with the record number of the contractor as the key and the contractor record as the value.
+   *
+   * @param specialties
+   *          the specialties to search for.
+   * @param matchAll
+   *          true to find only contractors offering every one of the {@code specialties}, false
+   *          to find contractors offering any of them.
+   * @return a map, with the record number of the contractor as the key and the contractor records
+   *         the value.
+   * @throws ContractorNotFoundException
+   *           if no contractor offers the specified {@code specialties}.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if {@code specialties} is null.
+   */
+  Map<Integer, Contractor> findBySpecialties(final String[] specialties, final boolean matchAll)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException;
+
+  /**
+   * Find all contractor records booked by the customer with the specified {@code customerId}.
+   * Returns all matching contractors in a map, with the record number of the contractor as the key
+   * and the contractor record as the value.
+   *
+   * @param customerId
+   *          the 8 digit id of the customer.
+   * @return a map, with the record number of the contractor as the key and the contractor records
+   *         the value.
+   * @throws ContractorNotFoundException
+   *           if no contractor has been booked by the customer with the specified
+   *           {@code customerId}.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if {@code customerId} is null.
+   */
+  Map<Integer, Contractor> findByCustomerId(final String customerId)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException;
+
+  /**
+   * Gets the version of the database, which increases with every change to a contractor record.
+   * If the version is unchanged, any contractors read since the last change are still current.
+   *
+   * @return the version of the database.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   */
+  long getVersion() throws RemoteException;
 }
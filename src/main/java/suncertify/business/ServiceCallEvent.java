@@ -0,0 +1,45 @@
+/*
+ * ServiceCallEvent.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.business;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event spanning a call to a {@link ContractorService} method of
+ * {@link BasicContractorService}. For a call over RMI the event is recorded on the RMI connection
+ * thread, so it encloses the database events of the call, and a recording shows how the time of
+ * each client request divides between waiting for locks, searching and everything else.
+ */
+@Name("suncertify.ServiceCall")
+@Label("Service Call")
+@Category({ "Bodgitt and Scarper", "Service" })
+@Description("A call to the contractor service")
+@StackTrace(false)
+final class ServiceCallEvent extends jdk.jfr.Event {
+
+  /** The name of the method called. */
+  @Label("Method")
+  final String method;
+
+  /**
+   * Constructs a new event for a call to the method with the specified {@code method} name.
+   *
+   * @param method
+   *          the name of the method called.
+   */
+  ServiceCallEvent(final String method) {
+    this.method = method;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * ConnectionTracker.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.business.rmi;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The server socket factory of an exported RMI server, which keeps count of the client
+ * connections currently open and of the hosts they come from. RMI keeps a client's connection
+ * open for reuse for a short while after each call, so a client is counted as connected while it
+ * is making calls and for some seconds after.
+ */
+final class ConnectionTracker implements RMIServerSocketFactory {
+
+  /** The number of open connections from each client host. */
+  private final Map<InetAddress, Integer> openConnections = new HashMap<>();
+
+  /** The total number of open connections. */
+  private int connectionCount;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ServerSocket createServerSocket(final int port) throws IOException {
+    return new TrackingServerSocket(port);
+  }
+
+  /**
+   * Gets the number of distinct hosts with at least one open connection.
+   *
+   * @return the number of connected client hosts.
+   */
+  synchronized int getClientHostCount() {
+    return openConnections.size();
+  }
+
+  /**
+   * Gets the number of open client connections.
+   *
+   * @return the number of open connections.
+   */
+  synchronized int getConnectionCount() {
+    return connectionCount;
+  }
+
+  /**
+   * Counts a connection accepted from the specified {@code host}.
+   *
+   * @param host
+   *          the address of the client host.
+   */
+  private synchronized void opened(final InetAddress host) {
+    openConnections.merge(host, 1, Integer::sum);
+    connectionCount++;
+  }
+
+  /**
+   * Stops counting a connection from the specified {@code host} which has been closed.
+   *
+   * @param host
+   *          the address of the client host.
+   */
+  private synchronized void closed(final InetAddress host) {
+    openConnections.computeIfPresent(host, (key, count) -> count == 1 ? null : count - 1);
+    connectionCount--;
+  }
+
+  /**
+   * A server socket whose accepted sockets report to this tracker when they are opened and
+   * closed.
+   */
+  private final class TrackingServerSocket extends ServerSocket {
+
+    /**
+     * Constructs a new server socket bound to the specified {@code port}.
+     *
+     * @param port
+     *          the port number, or 0 to use any free port.
+     * @throws IOException
+     *           if the socket could not be bound.
+     */
+    TrackingServerSocket(final int port) throws IOException {
+      super(port);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Socket accept() throws IOException {
+      final TrackedSocket socket = new TrackedSocket();
+      implAccept(socket);
+      socket.host = socket.getInetAddress();
+      opened(socket.host);
+      return socket;
+    }
+  }
+
+  /**
+   * An accepted socket which reports to this tracker when it is closed.
+   */
+  private final class TrackedSocket extends Socket {
+
+    /** The address of the client host. */
+    private InetAddress host;
+
+    /** True once the socket has been closed. */
+    private boolean closed;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        synchronized (this) {
+          if (closed || host == null) {
+            return;
+          }
+          closed = true;
+        }
+        closed(host);
+      }
+    }
+  }
+}
@@ -15,6 +15,9 @@ import static suncertify.util.Constants.RMI_ID;
 import suncertify.business.AlreadyBookedException;
 import suncertify.business.ContractorNotFoundException;
 import suncertify.business.ContractorService;
+import suncertify.db.Query;
+import suncertify.db.SortOrder;
+import suncertify.db.Versioned;
 import suncertify.domain.Contractor;
 import suncertify.domain.ContractorPk;
 
@@ -22,6 +25,7 @@ import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -65,6 +69,18 @@ public class RmiClient implements ContractorService {
     service.book(contractor);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void bookAll(final Collection<Contractor> contractors) throws ContractorNotFoundException,
+      AlreadyBookedException, RemoteException, IllegalArgumentException {
+    if (contractors == null || contractors.contains(null)) {
+      throw new IllegalArgumentException("Contractors cannot be null.");
+    }
+    service.bookAll(contractors);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -76,4 +92,86 @@ public class RmiClient implements ContractorService {
     }
     return service.find(primaryKey);
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Versioned<Map<Integer, Contractor>> findVersioned(final ContractorPk primaryKey)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (primaryKey == null) {
+      throw new IllegalArgumentException("ContractorPk cannot be null.");
+    }
+    return service.findVersioned(primaryKey);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> findAvailable(final ContractorPk primaryKey)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (primaryKey == null) {
+      throw new IllegalArgumentException("ContractorPk cannot be null.");
+    }
+    return service.findAvailable(primaryKey);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> search(final Query query)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (query == null) {
+      throw new IllegalArgumentException("Query cannot be null.");
+    }
+    return service.search(query);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> findByRateAndSize(final long minRate, final long maxRate,
+      final int minSize, final int maxSize, final SortOrder order, final boolean availableOnly)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (order == null) {
+      throw new IllegalArgumentException("Sort order cannot be null.");
+    }
+    return service.findByRateAndSize(minRate, maxRate, minSize, maxSize, order, availableOnly);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> findBySpecialties(final String[] specialties,
+      final boolean matchAll)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (specialties == null) {
+      throw new IllegalArgumentException("Specialties cannot be null.");
+    }
+    return service.findBySpecialties(specialties, matchAll);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Contractor> findByCustomerId(final String customerId)
+      throws ContractorNotFoundException, RemoteException, IllegalArgumentException {
+    if (customerId == null) {
+      throw new IllegalArgumentException("Customer id cannot be null.");
+    }
+    return service.findByCustomerId(customerId);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getVersion() throws RemoteException {
+    return service.getVersion();
+  }
 }
@@ -0,0 +1,95 @@
+/*
+ * RmiReplicaServer.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.business.rmi;
+
+import suncertify.business.AlreadyBookedException;
+import suncertify.business.ContractorNotFoundException;
+import suncertify.business.ContractorService;
+import suncertify.db.DBMainExtended;
+import suncertify.domain.Contractor;
+
+import java.rmi.RemoteException;
+import java.util.Collection;
+
+/**
+ * Subclass of {@link RmiServer} which serves searches from a read-only replica of the database and
+ * forwards bookings to the primary RMI server. Any number of replica servers can be started to add
+ * read capacity, each registered in its own RMI registry.
+ *
+ * <p>A booking, single or multiple, made through a replica server is applied on the primary and
+ * becomes visible on the replica once the mutation has been shipped to it, normally within
+ * milliseconds.
+ */
+public class RmiReplicaServer extends RmiServer {
+
+  /** The service of the primary RMI server, to which bookings are forwarded. */
+  private final ContractorService primary;
+
+  /**
+   * Constructs a new RMI replica server instance.
+   *
+   * @param replica
+   *          the read-only replica of the database used to serve searches.
+   * @param primaryHost
+   *          the host name or IP address of the primary RMI server.
+   * @param primaryPort
+   *          the port number of the primary RMI server.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs when connecting to the primary.
+   */
+  public RmiReplicaServer(final DBMainExtended replica, final String primaryHost,
+      final int primaryPort) throws RemoteException {
+    super(replica);
+    primary = new RmiClient(primaryHost, primaryPort);
+  }
+
+  /**
+   * Books the specified {@code contractor} by forwarding the request to the primary RMI server.
+   *
+   * @param contractor
+   *          the contractor to book.
+   * @throws ContractorNotFoundException
+   *           if the specified {@code contractor} could be found.
+   * @throws AlreadyBookedException
+   *           if the specified {@code contractor} has already been booked.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if {@code contractor} is null.
+   */
+  @Override
+  public void book(final Contractor contractor) throws ContractorNotFoundException,
+      AlreadyBookedException, RemoteException, IllegalArgumentException {
+    primary.book(contractor);
+  }
+
+  /**
+   * Books all of the specified {@code contractors}, or none of them, by forwarding the request to
+   * the primary RMI server.
+   *
+   * @param contractors
+   *          the contractors to book.
+   * @throws ContractorNotFoundException
+   *           if one of the specified {@code contractors} could not be found.
+   * @throws AlreadyBookedException
+   *           if one of the specified {@code contractors} has already been booked, or was
+   *           modified by another client while booking.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   * @throws IllegalArgumentException
+   *           if {@code contractors} is null or contains null.
+   */
+  @Override
+  public void bookAll(final Collection<Contractor> contractors) throws ContractorNotFoundException,
+      AlreadyBookedException, RemoteException, IllegalArgumentException {
+    primary.bookAll(contractors);
+  }
+}
@@ -26,6 +26,9 @@ import java.rmi.server.UnicastRemoteObject;
  */
 public class RmiServer extends BasicContractorService implements RmiService {
 
+  /** Counts the client connections to the exported server. */
+  private final ConnectionTracker connections = new ConnectionTracker();
+
   /**
    * Constructs a new RMI server instance with the specified data access object.
    *
@@ -43,8 +46,29 @@ public class RmiServer extends BasicContractorService implements RmiService {
    */
   @Override
   public void startServer(final int port) throws RemoteException {
-    final RmiService impl = (RmiService) UnicastRemoteObject.exportObject(this, 0);
+    final RmiService impl = (RmiService) UnicastRemoteObject.exportObject(this, 0, null,
+        connections);
     final Registry registry = LocateRegistry.createRegistry(port);
     registry.rebind(RMI_ID, impl);
+    ServerStats.register(port, connections);
+  }
+
+  /**
+   * Gets the number of distinct client hosts with an open connection to this server. RMI keeps a
+   * connection open for reuse for a short while after each call.
+   *
+   * @return the number of connected client hosts.
+   */
+  public int getClientHostCount() {
+    return connections.getClientHostCount();
+  }
+
+  /**
+   * Gets the number of open client connections to this server.
+   *
+   * @return the number of open connections.
+   */
+  public int getConnectionCount() {
+    return connections.getConnectionCount();
   }
 }
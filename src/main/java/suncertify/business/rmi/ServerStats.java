@@ -0,0 +1,117 @@
+/*
+ * ServerStats.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.business.rmi;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Exposes the port, uptime and client connections of the RMI server through JMX. The statistics
+ * of the database it serves are exposed separately, by {@link suncertify.db.DatabaseStats}.
+ */
+public final class ServerStats implements ServerStatsMXBean {
+
+  /** The name the MBean is registered under. */
+  public static final String OBJECT_NAME = "suncertify.business.rmi:type=ServerStats";
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The port number the RMI registry listens on. */
+  private final int port;
+
+  /** The time the server was started, in milliseconds since the epoch. */
+  private final long startTime;
+
+  /** Counts the client connections to the server. */
+  private final ConnectionTracker connections;
+
+  /**
+   * Constructs a new server statistics MBean for a server started now on the specified
+   * {@code port}.
+   *
+   * @param port
+   *          the port number the RMI registry listens on.
+   * @param connections
+   *          counts the client connections to the server.
+   */
+  private ServerStats(final int port, final ConnectionTracker connections) {
+    this.port = port;
+    this.startTime = System.currentTimeMillis();
+    this.connections = connections;
+  }
+
+  /**
+   * Registers a server statistics MBean for a server started now on the specified {@code port}
+   * with the platform MBean server, unless one is registered already. Failure to register is
+   * logged rather than thrown, since the server works just as well without it.
+   *
+   * @param port
+   *          the port number the RMI registry listens on.
+   * @param connections
+   *          counts the client connections to the server.
+   */
+  static void register(final int port, final ConnectionTracker connections) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(
+          new ServerStats(port, connections), new ObjectName(OBJECT_NAME));
+    } catch (final InstanceAlreadyExistsException e) {
+      LOGGER.finer(OBJECT_NAME + " is already registered.");
+    } catch (final JMException e) {
+      LOGGER.log(Level.WARNING, "Could not register " + OBJECT_NAME + ".", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getClientHostCount() {
+    return connections.getClientHostCount();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getConnectionCount() {
+    return connections.getConnectionCount();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getUptimeMillis() {
+    return System.currentTimeMillis() - startTime;
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * ServerStatsMXBean.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.business.rmi;
+
+/**
+ * The management interface of the RMI server, registered with the platform MBean server as
+ * {@value ServerStats#OBJECT_NAME} once the server has started.
+ */
+public interface ServerStatsMXBean {
+
+  /**
+   * Gets the number of distinct client hosts with an open connection to the server.
+   *
+   * @return the number of connected client hosts.
+   */
+  int getClientHostCount();
+
+  /**
+   * Gets the number of open client connections to the server.
+   *
+   * @return the number of open connections.
+   */
+  int getConnectionCount();
+
+  /**
+   * Gets the port number the RMI registry of the server listens on.
+   *
+   * @return the port number.
+   */
+  int getPort();
+
+  /**
+   * Gets the time the server was started.
+   *
+   * @return the start time, in milliseconds since the epoch.
+   */
+  long getStartTime();
+
+  /**
+   * Gets the time since the server was started.
+   *
+   * @return the uptime, in milliseconds.
+   */
+  long getUptimeMillis();
+}
@@ -0,0 +1,120 @@
+/*
+ * ChangeEvent.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A change to a single record, delivered to a {@link ChangeListener}. Carries the field values of
+ * the record both before and after the change, and the version of the database the change
+ * produced, as returned by {@link DBMainExtended#getVersion()}. Immutable and
+ * {@link Serializable}.
+ */
+public final class ChangeEvent implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The type of change. */
+  private final Mutation.Type type;
+
+  /** The number of the record that was changed. */
+  private final int recordNumber;
+
+  /** The field values of the record before the change, {@code null} if it didn't exist. */
+  private final String[] oldValues;
+
+  /** The field values of the record after the change, {@code null} if it was deleted. */
+  private final String[] newValues;
+
+  /** The version of the database the change produced. */
+  private final long version;
+
+  /**
+   * Constructs a new change event.
+   *
+   * @param type
+   *          the type of change.
+   * @param recordNumber
+   *          the number of the record that was changed.
+   * @param oldValues
+   *          the field values of the record before the change, {@code null} if it didn't exist.
+   * @param newValues
+   *          the field values of the record after the change, {@code null} if it was deleted.
+   * @param version
+   *          the version of the database the change produced.
+   */
+  ChangeEvent(final Mutation.Type type, final int recordNumber, final String[] oldValues,
+      final String[] newValues, final long version) {
+    this.type = type;
+    this.recordNumber = recordNumber;
+    this.oldValues = oldValues == null ? null : oldValues.clone();
+    this.newValues = newValues == null ? null : newValues.clone();
+    this.version = version;
+  }
+
+  /**
+   * Gets the field values of the record after the change.
+   *
+   * @return a copy of the new field values, {@code null} if the record was deleted.
+   */
+  public String[] getNewValues() {
+    return newValues == null ? null : newValues.clone();
+  }
+
+  /**
+   * Gets the field values of the record before the change.
+   *
+   * @return a copy of the old field values, {@code null} if the record didn't exist.
+   */
+  public String[] getOldValues() {
+    return oldValues == null ? null : oldValues.clone();
+  }
+
+  /**
+   * Gets the number of the record that was changed.
+   *
+   * @return the record number.
+   */
+  public int getRecordNumber() {
+    return recordNumber;
+  }
+
+  /**
+   * Gets the type of change.
+   *
+   * @return the type of change.
+   */
+  public Mutation.Type getType() {
+    return type;
+  }
+
+  /**
+   * Gets the version of the database the change produced. Successive events delivered to a
+   * listener have consecutive versions.
+   *
+   * @return the version.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * {@inheritDoc}.
+   */
+  @Override
+  public String toString() {
+    return "ChangeEvent [version=" + version + ", type=" + type + ", recordNumber=" + recordNumber
+        + ", oldValues=" + Arrays.toString(oldValues) + ", newValues="
+        + Arrays.toString(newValues) + "]";
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * ChangeListener.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+/**
+ * A subscriber to the changes made to the records of a database, registered through
+ * {@link DBMainExtended#subscribe(ChangeListener, int)}. Events are delivered in the order the
+ * changes were made, one at a time, on a thread dedicated to the subscription, so a listener may
+ * take its time without holding up writes to the database.
+ */
+public interface ChangeListener {
+
+  /**
+   * Invoked for each change made to a record after the listener was subscribed.
+   *
+   * @param event
+   *          the change.
+   */
+  void recordChanged(ChangeEvent event);
+
+  /**
+   * Invoked, after every event already queued has been delivered, when the subscription ends
+   * because the listener fell too far behind or the records were replaced wholesale, as happens
+   * when a replica resynchronizes. No further events are delivered; a listener which needs to keep
+   * track of the records must read them again and subscribe anew. Does nothing by default.
+   */
+  default void changesLost() {
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * ChangeSubscription.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The subscription of a {@link ChangeListener} to the changes made to the records of a
+ * {@link Data} instance, returned by {@link DBMainExtended#subscribe(ChangeListener, int)}.
+ *
+ * <p>The write path only ever offers events to the bounded queue of the subscription, and never
+ * waits for it; the events are delivered to the listener on a thread of its own. If the queue is
+ * full when an event is offered, the listener has fallen too far behind: the subscription ends,
+ * the events already queued are still delivered, and the listener is then told that changes were
+ * lost.
+ */
+public final class ChangeSubscription {
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The number of subscriptions created, used to name their delivery threads. */
+  private static final AtomicInteger SUBSCRIPTIONS = new AtomicInteger();
+
+  /** The data access object whose changes are delivered. */
+  private final Data data;
+
+  /** The subscribed listener. */
+  private final ChangeListener listener;
+
+  /** The events waiting to be delivered to the listener. */
+  private final BlockingQueue<ChangeEvent> queue;
+
+  /** The version of the database when the subscription started. */
+  private final long startVersion;
+
+  /** The thread which delivers the events to the listener. */
+  private final Thread deliverer;
+
+  /** True once the subscription has ended because events could not be queued. */
+  private volatile boolean lost;
+
+  /** True once the subscription has been cancelled. */
+  private volatile boolean cancelled;
+
+  /**
+   * Constructs a new subscription. Events are not delivered until {@link #start()} is invoked.
+   *
+   * @param data
+   *          the data access object whose changes are delivered.
+   * @param listener
+   *          the subscribed listener.
+   * @param queueCapacity
+   *          the maximum number of events waiting to be delivered.
+   * @param startVersion
+   *          the version of the database when the subscription started.
+   */
+  ChangeSubscription(final Data data, final ChangeListener listener, final int queueCapacity,
+      final long startVersion) {
+    this.data = data;
+    this.listener = listener;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.startVersion = startVersion;
+    this.deliverer = new Thread(this::deliverEvents,
+        "change-listener-" + SUBSCRIPTIONS.incrementAndGet());
+    deliverer.setDaemon(true);
+  }
+
+  /**
+   * Cancels the subscription. No further events are delivered once the event currently being
+   * delivered, if any, has been handled.
+   */
+  public void cancel() {
+    cancelled = true;
+    data.unsubscribe(this);
+  }
+
+  /**
+   * Gets the version of the database when the subscription started. The first event delivered
+   * is the change which produced the next version.
+   *
+   * @return the version of the database when the subscription started.
+   */
+  public long getStartVersion() {
+    return startVersion;
+  }
+
+  /**
+   * Checks if events are still being queued for the listener.
+   *
+   * @return true, if the subscription has neither been cancelled nor lost changes.
+   */
+  public boolean isActive() {
+    return !cancelled && !lost;
+  }
+
+  /**
+   * Ends the subscription because changes will not be delivered to the listener. The events
+   * already queued are delivered before the listener is told.
+   */
+  void lose() {
+    lost = true;
+  }
+
+  /**
+   * Queues the specified {@code event} for delivery, without waiting. If the queue is full the
+   * subscription is lost.
+   *
+   * @param event
+   *          the event.
+   * @return true, if the event was queued; false if the subscription has been lost.
+   */
+  boolean offer(final ChangeEvent event) {
+    if (!queue.offer(event)) {
+      lose();
+    }
+    return !lost;
+  }
+
+  /**
+   * Starts delivering events to the listener.
+   */
+  void start() {
+    deliverer.start();
+  }
+
+  /**
+   * Delivers queued events to the listener, in order, until the subscription is cancelled or,
+   * once it has been lost, the queue has been drained.
+   */
+  private void deliverEvents() {
+    long deliveredVersion = startVersion;
+    try {
+      while (!cancelled) {
+        final ChangeEvent event = queue.poll(1, TimeUnit.SECONDS);
+        if (event != null) {
+          deliveredVersion = event.getVersion();
+          try {
+            listener.recordChanged(event);
+          } catch (final RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Change listener failed to handle " + event + ".", e);
+          }
+        } else if (lost) {
+          LOGGER.warning(deliverer.getName() + " lost the changes after version "
+              + deliveredVersion + ".");
+          listener.changesLost();
+          return;
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
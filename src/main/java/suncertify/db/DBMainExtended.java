@@ -11,6 +11,9 @@
 package suncertify.db;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * DBMainExtended extends DBMain, the common interface for any data access objects in the
@@ -19,6 +22,76 @@ import java.io.IOException;
  */
 public interface DBMainExtended extends DBMain {
 
+  /**
+   * Applies the writes of the specified {@code transaction} together, provided all of its
+   * expectations hold. Locks the records the transaction involves one at a time, in ascending
+   * record number order, waiting for at most {@code timeoutMillis} in total, and then checks the
+   * expectations and applies the writes in a single critical section, so other clients observe
+   * either none or all of the writes. The locks are queued like any other lock request, so a
+   * transaction cannot be starved by clients locking its records one after another; taking them in
+   * a fixed order means transactions cannot deadlock with each other, and the timeout bounds the
+   * wait if a client using {@link #lock(int)} holds several records. The locks are released before
+   * returning.
+   *
+   * @param transaction
+   *          the transaction.
+   * @param timeoutMillis
+   *          the maximum time to wait for the locks of the records, in milliseconds.
+   * @return true, if the transaction was applied; false if an expectation didn't hold or the locks
+   *         could not all be granted within {@code timeoutMillis}.
+   * @throws RecordNotFoundException
+   *           If a record the transaction involves does not exist or is marked as deleted.
+   * @throws IllegalArgumentException
+   *           If {@code transaction} is {@code null}, {@code timeoutMillis} is negative or the
+   *           data of a write is invalid as described by {@link #update(int, String[])}.
+   */
+  boolean commit(Transaction transaction, long timeoutMillis)
+      throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Atomically modifies the fields of a record, like {@link #update(int, String[])}, but only if
+   * its current field values match the specified {@code expected} values and it is not locked.
+   * Field n matches if expected[n] is {@code null} or exactly equals its current value. A locked
+   * record never matches, since the holder of the lock may be about to change it; the method
+   * returns immediately rather than waiting for the lock.
+   *
+   * @param recNo
+   *          the record number.
+   * @param expected
+   *          the expected field values; {@code null} elements match any value.
+   * @param data
+   *          a string array where each element is a record value.
+   * @return true, if the record was modified; false if it didn't match or was locked.
+   * @throws RecordNotFoundException
+   *           If the specified record does not exist or is marked as deleted in the database.
+   * @throws IllegalArgumentException
+   *           If {@code expected} is {@code null}, or {@code data} is invalid as described by
+   *           {@link #update(int, String[])}.
+   */
+  boolean compareAndUpdate(int recNo, String[] expected, String[] data)
+      throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Atomically modifies the fields of a record, like {@link #update(int, String[])}, but only if
+   * its version, as returned by {@link #getRecordVersion(int)}, still equals
+   * {@code expectedVersion} and it is not locked. The method returns immediately rather than
+   * waiting for a lock.
+   *
+   * @param recNo
+   *          the record number.
+   * @param expectedVersion
+   *          the version of the record the new field values are based on.
+   * @param data
+   *          a string array where each element is a record value.
+   * @return true, if the record was modified; false if it has changed since or was locked.
+   * @throws RecordNotFoundException
+   *           If the specified record does not exist or is marked as deleted in the database.
+   * @throws IllegalArgumentException
+   *           If {@code data} is invalid as described by {@link #update(int, String[])}.
+   */
+  boolean compareAndUpdate(int recNo, long expectedVersion, String[] data)
+      throws RecordNotFoundException, IllegalArgumentException;
+
   /**
    * Creates a new record in the database (possibly reusing a deleted entry). Inserts the given
    * data, and returns the record number of the new record.
@@ -65,6 +138,241 @@ public interface DBMainExtended extends DBMain {
   @Override
   int[] find(String[] criteria) throws RecordNotFoundException, IllegalArgumentException;
 
+  /**
+   * Returns an array of record numbers of the records which match the specified {@code criteria}
+   * in the same way as {@link #find(String[])}, but only those which have not been booked. Booked
+   * records are excluded through an index of available records before any criteria are compared.
+   *
+   * @param criteria
+   *          the criteria.
+   * @return an array of record numbers of available records that match the specified criteria.
+   * @throws RecordNotFoundException
+   *           If no available record matches the specified criteria.
+   * @throws IllegalArgumentException
+   *           If {@code criteria} is {@code null}, number of elements in {@code data} exceeds
+   *           record fields or number of characters used in a field exceeds the max number of
+   *           characters permitted for that field.
+   */
+  int[] findAvailable(String[] criteria) throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Compiles the specified {@code query} into a {@link PreparedQuery}, which can be executed any
+   * number of times with {@link #execute(PreparedQuery)} without being validated or interpreted
+   * again. Compiled queries are cached, so preparing an equal query again returns the cached
+   * prepared query.
+   *
+   * @param query
+   *          the query.
+   * @return the prepared query.
+   * @throws IllegalArgumentException
+   *           If {@code query} is {@code null}.
+   */
+  PreparedQuery prepare(Query query) throws IllegalArgumentException;
+
+  /**
+   * Returns an array of the record numbers of all records matching the specified
+   * {@code preparedQuery}.
+   *
+   * @param preparedQuery
+   *          the prepared query.
+   * @return an array of the matching record numbers, in ascending order.
+   * @throws RecordNotFoundException
+   *           If no record matches the query.
+   * @throws IllegalArgumentException
+   *           If {@code preparedQuery} is {@code null}.
+   */
+  int[] execute(PreparedQuery preparedQuery)
+      throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Returns an array of the record numbers of all records matching the specified {@code query},
+   * preparing it first, or reusing the cached prepared query if an equal query has been prepared
+   * before.
+   *
+   * @param query
+   *          the query.
+   * @return an array of the matching record numbers, in ascending order.
+   * @throws RecordNotFoundException
+   *           If no record matches the query.
+   * @throws IllegalArgumentException
+   *           If {@code query} is {@code null}.
+   */
+  int[] execute(Query query) throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Returns the record numbers of all records matching the specified {@code query}, like
+   * {@link #execute(Query)}, together with the version of the database the query was evaluated
+   * at. Both are read atomically, so the record numbers are exactly those matching at that
+   * version.
+   *
+   * @param query
+   *          the query.
+   * @return the matching record numbers, in ascending order, and the version they were found at.
+   * @throws RecordNotFoundException
+   *           If no record matches the query.
+   * @throws IllegalArgumentException
+   *           If {@code query} is {@code null}.
+   */
+  Versioned<int[]> executeVersioned(Query query)
+      throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Returns an array of the record numbers of all records matching every criterion set in the
+   * specified {@code criteria}. The query is evaluated by a cost based planner, which drives it
+   * from whichever index yields the fewest candidate records and checks the remaining criteria on
+   * those candidates only.
+   *
+   * @param criteria
+   *          the query criteria.
+   * @return an array of the matching record numbers, in ascending order.
+   * @throws RecordNotFoundException
+   *           If no record matches the specified criteria.
+   * @throws IllegalArgumentException
+   *           If {@code criteria} is {@code null}.
+   */
+  int[] query(QueryCriteria criteria) throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Returns the plan which {@link #query(QueryCriteria)} would use for the specified
+   * {@code criteria}, without executing it. The plan's string form describes the chosen access
+   * path, the estimated rows of each access path considered and the residual predicates.
+   *
+   * @param criteria
+   *          the query criteria.
+   * @return the query plan.
+   * @throws IllegalArgumentException
+   *           If {@code criteria} is {@code null}.
+   */
+  QueryPlan explain(QueryCriteria criteria) throws IllegalArgumentException;
+
+  /**
+   * Returns an array of the record numbers of all records whose {@code rate} and {@code size}
+   * fields fall within the specified inclusive ranges, in the specified {@code order}. The fields
+   * are compared as numbers: the rate in cents, so "$85.00" is 8500, and the size as a head count.
+   * Records whose rate or size can't be parsed never match. Use {@code 0} and
+   * {@link Long#MAX_VALUE} or {@link Integer#MAX_VALUE} for an unbounded range.
+   *
+   * @param minRate
+   *          the minimum rate in cents.
+   * @param maxRate
+   *          the maximum rate in cents.
+   * @param minSize
+   *          the minimum size.
+   * @param maxSize
+   *          the maximum size.
+   * @param order
+   *          the order in which the record numbers are returned.
+   * @param availableOnly
+   *          true to exclude records which have been booked.
+   * @return an array of the matching record numbers.
+   * @throws RecordNotFoundException
+   *           If no record falls within the specified ranges.
+   * @throws IllegalArgumentException
+   *           If a minimum exceeds its maximum or {@code order} is {@code null}.
+   */
+  int[] findByRateAndSize(long minRate, long maxRate, int minSize, int maxSize, SortOrder order,
+      boolean availableOnly) throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Returns an array of the record numbers of all records offering the specified
+   * {@code specialties}. Each element of {@code specialties} is a single specialty, e.g.
+   * "Painting", and is compared with the comma separated entries of the {@code specialties} field
+   * ignoring case and surrounding white space. The search is served from an inverted index on the
+   * {@code specialties} field.
+   *
+   * @param specialties
+   *          the specialties to search for.
+   * @param matchAll
+   *          true to return only records offering every one of the {@code specialties}, false to
+   *          return records offering any of them.
+   * @return an array of the matching record numbers, in ascending order.
+   * @throws RecordNotFoundException
+   *           If no record offers the specified specialties.
+   * @throws IllegalArgumentException
+   *           If {@code specialties} is {@code null}.
+   */
+  int[] findBySpecialties(String[] specialties, boolean matchAll)
+      throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Returns an array of the record numbers of all records whose {@code owner} field, the id of the
+   * customer who booked the record, equals the specified {@code customerId}. The lookup is served
+   * from an index maintained on the {@code owner} field, so it takes time proportional to the
+   * number of matching records rather than the size of the database.
+   *
+   * @param customerId
+   *          the customer id.
+   * @return an array of record numbers of the records booked by the customer, in ascending order.
+   * @throws RecordNotFoundException
+   *           If no record has been booked by the specified customer.
+   * @throws IllegalArgumentException
+   *           If {@code customerId} is {@code null}.
+   */
+  int[] findByOwner(String customerId) throws RecordNotFoundException, IllegalArgumentException;
+
+  /**
+   * Returns the state of every held record lock, in record number order: the thread which
+   * requested it, when it was granted, how many requests are waiting for it and how long the
+   * oldest of them has been waiting.
+   *
+   * @return the held locks.
+   */
+  List<RecordLockInfo> getHeldLocks();
+
+  /**
+   * Returns the records whose locks have been most contended over the last one to two minutes,
+   * most contended first. A lock request is contended if it has to wait for another client to
+   * unlock the record.
+   *
+   * @param limit
+   *          the maximum number of records to return.
+   * @return the most contended records.
+   * @throws IllegalArgumentException
+   *           If {@code limit} is negative.
+   */
+  List<RecordContention> getHotRecords(int limit) throws IllegalArgumentException;
+
+  /**
+   * Returns the time the records were last written to disk, either saved to the database file by
+   * {@link #saveRecords()} or written as a checkpoint of the mutation log.
+   *
+   * @return the time of the last flush, in milliseconds since the epoch; 0 if the records haven't
+   *         been written since the database was initialized.
+   */
+  long getLastFlushTime();
+
+  /**
+   * Returns the call count, throughput and latency percentiles of each timed
+   * {@link DatabaseOperation}. Throughput and latencies cover a rolling window of the last minute.
+   *
+   * @return the statistics, one per operation, in the order of {@link DatabaseOperation}.
+   */
+  List<OperationStats> getOperationStats();
+
+  /**
+   * Returns the version of the record with the specified {@code recNo}: the value of
+   * {@link #getVersion()} just after the record was last created, updated or deleted. Records
+   * which haven't changed since the database file was loaded have the version at which they were
+   * loaded.
+   *
+   * @param recNo
+   *          the record number.
+   * @return the version of the record.
+   * @throws RecordNotFoundException
+   *           If the specified record does not exist or is marked as deleted in the database.
+   */
+  long getRecordVersion(int recNo) throws RecordNotFoundException;
+
+  /**
+   * Returns the version of the database, a number which increases by one with every create,
+   * update and delete. Two calls returning the same version are guaranteed to have observed the
+   * same records, so a caller can skip reading records again if the version hasn't changed. The
+   * version only increases while the server is running, but is not preserved across restarts.
+   *
+   * @return the version of the database.
+   */
+  long getVersion();
+
   /**
    * This method is responsible for initializing field variables, loading the contents of the
    * database file specified into the in-memory cache and adding the shutdown hook to ensure that
@@ -109,6 +417,47 @@ public interface DBMainExtended extends DBMain {
   @Override
   void lock(int recNo) throws RecordNotFoundException;
 
+  /**
+   * Requests the lock of a record without blocking. The returned future completes once the lock
+   * has been granted, in request order, after which the caller holds the lock exactly as if it
+   * had called {@link #lock(int)} and must release it with {@link #unlock(int)}. A waiting request
+   * occupies a queue entry rather than a thread. If the record is deleted while the request is
+   * waiting, the future completes exceptionally with a {@link RecordNotFoundException} and the
+   * lock is not held. A request whose future is cancelled before it is granted is skipped.
+   *
+   * <p>The future may be completed by the thread which unlocks the record, so dependent actions
+   * which do more than a little work should be registered with the asynchronous methods of
+   * {@link CompletableFuture}.
+   *
+   * @param recNo
+   *          the record number.
+   * @return a future completed when the lock has been granted.
+   * @throws RecordNotFoundException
+   *           If the specified record does not exist or is marked as deleted in the database.
+   */
+  CompletableFuture<Void> lockAsync(int recNo) throws RecordNotFoundException;
+
+  /**
+   * Requests the lock of a record without blocking, like {@link #lockAsync(int)}, giving up if
+   * the lock hasn't been granted within the specified {@code timeout}. In that case the future
+   * completes exceptionally with a {@link java.util.concurrent.TimeoutException} and the lock is
+   * not held.
+   *
+   * @param recNo
+   *          the record number.
+   * @param timeout
+   *          the maximum time to wait for the lock.
+   * @param unit
+   *          the unit of {@code timeout}.
+   * @return a future completed when the lock has been granted or the timeout has elapsed.
+   * @throws RecordNotFoundException
+   *           If the specified record does not exist or is marked as deleted in the database.
+   * @throws IllegalArgumentException
+   *           If {@code unit} is {@code null}.
+   */
+  CompletableFuture<Void> lockAsync(int recNo, long timeout, TimeUnit unit)
+      throws RecordNotFoundException, IllegalArgumentException;
+
   /**
    * Reads a record from the file. Returns an array where each element is a record value
    *
@@ -134,6 +483,25 @@ public interface DBMainExtended extends DBMain {
    */
   void saveRecords() throws IOException, IllegalStateException;
 
+  /**
+   * Subscribes the specified {@code listener} to every create, update and delete made after this
+   * method returns. The changes are delivered in order, each with the field values of the record
+   * before and after the change and the version of the database it produced, on a thread
+   * dedicated to the subscription. Up to {@code queueCapacity} events are held for a listener
+   * which hasn't caught up; if it falls further behind, the subscription ends and the listener is
+   * told through {@link ChangeListener#changesLost()}, so a slow listener never holds up writes.
+   *
+   * @param listener
+   *          the listener.
+   * @param queueCapacity
+   *          the maximum number of events waiting to be delivered to the listener.
+   * @return the subscription, which can be cancelled.
+   * @throws IllegalArgumentException
+   *           If {@code listener} is {@code null} or {@code queueCapacity} is less than one.
+   */
+  ChangeSubscription subscribe(ChangeListener listener, int queueCapacity)
+      throws IllegalArgumentException;
+
   /**
    * Releases the lock on a record.
    *
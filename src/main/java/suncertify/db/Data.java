@@ -12,19 +12,42 @@ package suncertify.db;
 
 import static suncertify.util.Constants.EMPTY_STRING;
 import static suncertify.util.Constants.RECORD_FIELDS;
+import static suncertify.util.Utils.addPadding;
+import static suncertify.util.Utils.convertStringToBytes;
 import static suncertify.util.Utils.readString;
-import static suncertify.util.Utils.writeString;
 
+import suncertify.util.SlowOperationLog;
+
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 /**
  * Data is an implementation of the {@link DBMainExtended} which acts as a DAO for a non-relation
@@ -37,7 +60,7 @@ public final class Data implements DBMainExtended {
   private static final Data INSTANCE = new Data();
 
   /** The names of the record fields, specified in schema information. */
-  private static final String[] FIELD_NAMES = { "name", "location", "specialties", "size", "rate",
+  static final String[] FIELD_NAMES = { "name", "location", "specialties", "size", "rate",
       "owner" };
 
   /** The size of the record fields in bytes, specified in schema information. */
@@ -58,17 +81,148 @@ public final class Data implements DBMainExtended {
   /** The record offset, specified in the schema information. */
   private static final int RECORD_OFFSET = 70;
 
+  /** The length in bytes of a record in the database file, including its flag. */
+  private static final int RECORD_LENGTH = 2 + Arrays.stream(MAX_FIELD_SIZES).sum();
+
+  /** The size in bytes of the buffer records are assembled in when saving. */
+  private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+  /** The file name suffix of the database file while it is being saved. */
+  private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+  /** The maximum number of compiled queries cached by {@link #prepare(Query)}. */
+  private static final int PREPARED_QUERY_CACHE_SIZE = 256;
+
+  /** The maximum number of query results cached between changes to the records they observe. */
+  private static final int QUERY_RESULT_CACHE_SIZE = 256;
+
+  /** The capacity of the ring buffer of the mutation writer in single-writer mode. */
+  private static final int WRITER_RING_BUFFER_CAPACITY = 1024;
+
+  /** The maximum number of mutations applied in one batch in single-writer mode. */
+  private static final int WRITER_MAX_BATCH_SIZE = 64;
+
+  /** The estimated size of a record cache entry with its key and version, in bytes. */
+  private static final int CACHE_ENTRY_BYTES = 2 * 32 + 16 + 24;
+
+  /** The estimated size of an array header, in bytes. */
+  private static final int ARRAY_HEADER_BYTES = 16;
+
+  /** The size of a compressed reference, in bytes. */
+  private static final int REFERENCE_BYTES = 4;
+
+  /** The estimated size of a string, excluding its character array, in bytes. */
+  private static final int STRING_BYTES = 24;
+
+  /** The default number of mutations between two checkpoints of the record cache. */
+  private static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+
   /**
    * The in-memory cache which stores record numbers and fields values of the corresponding record.
    */
   private final Map<Integer, String[]> recordCache = new HashMap<>();
 
-  /** The set which stores the record numbers of any currently locked records. */
-  private final Set<Integer> lockedRecords = new HashSet<>();
+  /** The version of each record in the record cache, keyed by record number. */
+  private final Map<Integer, Long> recordVersions = new HashMap<>();
+
+  /** The numbers of the records changed since the database file was last saved. */
+  private final BitSet dirtyRecords = new BitSet();
+
+  /** The call counters and latency histograms of the timed operations. */
+  private final OperationMetrics metrics = new OperationMetrics();
+
+  /** The record locks, granted in request order. */
+  private final RecordLocks recordLocks = new RecordLocks();
+
+  /** The secondary indexes maintained over the record cache. */
+  private final RecordIndexes indexes = new RecordIndexes();
+
+  /** The planner which evaluates structured queries using the secondary indexes. */
+  private final QueryPlanner planner = new QueryPlanner(recordCache, indexes);
+
+  /** The most recently used compiled queries, keyed by query. */
+  private final Map<Query, PreparedQuery> preparedQueries =
+      new LinkedHashMap<Query, PreparedQuery>(PREPARED_QUERY_CACHE_SIZE, 0.75f, true) {
+
+        /** The serial version UID. */
+        private static final long serialVersionUID = 17011991;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Query, PreparedQuery> eldest) {
+          return size() > PREPARED_QUERY_CACHE_SIZE;
+        }
+      };
+
+  /** The most recently used query results, invalidated by the changes to records they observe. */
+  private final QueryResultCache queryResults = new QueryResultCache(QUERY_RESULT_CACHE_SIZE);
+
+  /** The listeners notified of every mutation applied to the record cache. */
+  private final List<MutationListener> mutationListeners = new ArrayList<>();
+
+  /** The subscriptions of change listeners, in the order they were made. */
+  private final List<ChangeSubscription> changeSubscriptions = new ArrayList<>();
+
+  /** Held while the records are being saved, so that only one save is in progress at a time. */
+  private final Object saveLock = new Object();
+
+  /** The background thread which writes checkpoints of the record cache. */
+  private final ExecutorService checkpointWriter = Executors.newSingleThreadExecutor(runnable -> {
+    final Thread thread = new Thread(runnable, "checkpoint-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /** The background thread which expires lock requests made with a timeout. */
+  private final ScheduledExecutorService lockTimer = Executors.newSingleThreadScheduledExecutor(
+      runnable -> {
+        final Thread thread = new Thread(runnable, "lock-timer");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /** The journal which makes the record cache recoverable, {@code null} until initialized. */
+  private Journal journal;
+
+  /** The number of mutations between two checkpoints of the record cache. */
+  private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+  /** The sequence number of the last mutation contained in the most recent checkpoint. */
+  private long checkpointSequence;
+
+  /** True while a checkpoint is being written in the background. */
+  private boolean checkpointInProgress;
+
+  /**
+   * The time the record cache was last written to disk, as the database file or a checkpoint, in
+   * milliseconds since the epoch; 0 if it hasn't been since the database was initialized.
+   */
+  private volatile long lastFlushTime;
 
   /** The file path of the database file. */
   private String dbFilePath;
 
+  /**
+   * The sequence number of the last mutation applied to the record cache. Only changed while
+   * holding the monitor, but volatile so that it can be read without it.
+   */
+  private volatile long sequence;
+
+  /** The single writer of the record cache, {@code null} unless in single-writer mode. */
+  private volatile MutationPipeline mutationPipeline;
+
+  /**
+   * The records published to readers which don't take the monitor in single-writer mode, indexed
+   * by record number, {@code null} elements denoting deleted records. {@code null} unless in
+   * single-writer mode, and while the record cache is being reloaded.
+   */
+  private volatile AtomicReferenceArray<String[]> publishedRecords;
+
+  /**
+   * True if this instance is a read-only replica whose record cache is maintained by a
+   * {@link ReplicationFollower}.
+   */
+  private boolean replica;
+
   /**
    * Constructs a new Data instance.
    */
@@ -88,169 +242,1108 @@ public final class Data implements DBMainExtended {
    * Compares the primary keys, first two elements, of the two string arrays arguments. Returns true
    * if respective elements are equal.
    *
-   * @param existingData
-   *          the field values of a record already stored in the database.
-   * @param newData
-   *          the field values of a new record not already stored in the database.
-   * @return true, if primary keys values are equal, ignoring case considerations; false otherwise.
+   * @param existingData
+   *          the field values of a record already stored in the database.
+   * @param newData
+   *          the field values of a new record not already stored in the database.
+   * @return true, if primary keys values are equal, ignoring case considerations; false otherwise.
+   */
+  private static boolean comparePrimaryKeys(final String[] existingData, final String[] newData) {
+    final String existingKey = existingData[0] + existingData[1];
+    final String newKey = newData[0] + newData[1];
+    return existingKey.equals(newKey);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean commit(final Transaction transaction, final long timeoutMillis)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      if (transaction == null) {
+        throw new IllegalArgumentException("Transaction cannot be null.");
+      }
+      if (timeoutMillis < 0) {
+        throw new IllegalArgumentException("Timeout cannot be negative.");
+      }
+      synchronized (this) {
+        checkWritable();
+      }
+      for (final Transaction.Write write : transaction.getWrites()) {
+        if (write.getData() != null) {
+          completeFields(write.getData());
+        }
+      }
+      final int[] recordNumbers = transaction.getRecordNumbers();
+      final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      int locked = 0;
+      try {
+        for (final int recordNumber : recordNumbers) {
+          if (!lockBefore(recordNumber, deadline)) {
+            return false;
+          }
+          locked++;
+        }
+        return applyTransaction(transaction, recordNumbers);
+      } finally {
+        for (int index = locked - 1; index >= 0; index--) {
+          unlock(recordNumbers[index]);
+        }
+      }
+    } finally {
+      metrics.record(DatabaseOperation.BOOK, start);
+    }
+  }
+
+  /**
+   * Locks the record with the specified {@code recNo}, waiting at most until the specified
+   * {@code deadline}. A request which times out is withdrawn from the queue of the record.
+   *
+   * @param recNo
+   *          the record number.
+   * @param deadline
+   *          the value of {@link System#nanoTime()} after which to stop waiting.
+   * @return true, if the lock was granted; false if the deadline passed first.
+   * @throws RecordNotFoundException
+   *           if the record is not a valid record, or was deleted while waiting for its lock.
+   */
+  private boolean lockBefore(final int recNo, final long deadline)
+      throws RecordNotFoundException {
+    final CompletableFuture<Void> request = lockAsync(recNo,
+        Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    try {
+      request.join();
+      return true;
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof TimeoutException) {
+        return false;
+      }
+      if (e.getCause() instanceof RecordNotFoundException) {
+        throw (RecordNotFoundException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Checks the expectations of the specified {@code transaction} and applies its writes, in a
+   * single critical section. The caller must hold the locks of all the records of the transaction.
+   *
+   * @param transaction
+   *          the transaction.
+   * @param recordNumbers
+   *          the numbers of all the records the transaction reads or writes.
+   * @return true, if the transaction was applied; false if an expectation didn't hold.
+   * @throws RecordNotFoundException
+   *           if one of the records of the transaction is not a valid record.
+   */
+  private synchronized boolean applyTransaction(final Transaction transaction,
+      final int[] recordNumbers) throws RecordNotFoundException {
+    for (final int recordNumber : recordNumbers) {
+      if (isInvalidRecord(recordNumber)) {
+        throw new RecordNotFoundException("Record " + recordNumber + " is not a valid record.");
+      }
+    }
+    for (final Map.Entry<Integer, String[]> expectation : transaction.getExpectations()
+        .entrySet()) {
+      if (!matchesExpected(recordCache.get(expectation.getKey()), expectation.getValue())) {
+        return false;
+      }
+    }
+    for (final Transaction.Write write : transaction.getWrites()) {
+      final Mutation.Type type = write.getData() == null ? Mutation.Type.DELETE
+          : Mutation.Type.UPDATE;
+      final String[] record = write.getData() == null ? null : completeFields(write.getData());
+      final String[] previousValues = putRecord(write.getRecNo(), record, sequence + 1);
+      publishMutation(type, write.getRecNo(), previousValues, record);
+    }
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean compareAndUpdate(final int recNo, final String[] expected,
+      final String[] data) throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      if (expected == null) {
+        throw new IllegalArgumentException("Expected values cannot be null.");
+      }
+      final String[] record = completeFields(data);
+      return write(() -> {
+        checkWritable();
+        if (isInvalidRecord(recNo)) {
+          throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
+        }
+        return matchesExpected(recordCache.get(recNo), expected)
+            && updateIfUnlocked(recNo, record);
+      });
+    } finally {
+      metrics.record(DatabaseOperation.BOOK, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean compareAndUpdate(final int recNo, final long expectedVersion,
+      final String[] data) throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      final String[] record = completeFields(data);
+      return write(() -> {
+        checkWritable();
+        if (isInvalidRecord(recNo)) {
+          throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
+        }
+        return recordVersions.get(recNo) == expectedVersion && updateIfUnlocked(recNo, record);
+      });
+    } finally {
+      metrics.record(DatabaseOperation.BOOK, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int create(final String[] data)
+      throws DuplicateKeyException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      final String[] record = completeFields(data);
+      return write(() -> {
+        checkWritable();
+        checkForDuplicateKey(record);
+        final int recordNumber = recordCache.entrySet().stream()
+                                 .filter(entry -> entry.getValue() == null)
+                                 .mapToInt(entry -> entry.getKey())
+                                 .findAny()
+                                 .orElse(recordCache.size());
+        final String[] previousValues = putRecord(recordNumber, record, sequence + 1);
+        publishMutation(Mutation.Type.CREATE, recordNumber, previousValues, record);
+        return recordNumber;
+      });
+    } finally {
+      metrics.record(DatabaseOperation.CREATE, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void delete(final int recNo) {
+    final long start = System.nanoTime();
+    try {
+      write(() -> {
+        checkWritable();
+        final String[] previousValues = putRecord(recNo, null, sequence + 1);
+        publishMutation(Mutation.Type.DELETE, recNo, previousValues, null);
+        return null;
+      });
+    } finally {
+      metrics.record(DatabaseOperation.DELETE, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>In single-writer mode the published records are scanned without taking the monitor.
+   */
+  @Override
+  public int[] find(final String[] criteria)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    final FindEvent event = new FindEvent();
+    event.begin();
+    int matches = 0;
+    try {
+      validateFields(criteria);
+      final AtomicReferenceArray<String[]> records = publishedRecords;
+      final int[] recordNumbers = records == null ? findCached(criteria)
+          : IntStream.range(0, records.length())
+            .filter(recordNumber -> records.get(recordNumber) != null
+                && doFieldsMatchCriteria(records.get(recordNumber), criteria))
+            .toArray();
+      matches = recordNumbers.length;
+      if (recordNumbers.length == 0) {
+        throw new RecordNotFoundException(
+            "No matching records for selected criteria: " + Arrays.toString(criteria) + ".");
+      }
+      return recordNumbers;
+    } finally {
+      metrics.record(DatabaseOperation.FIND, start);
+      if (criteria != null && event.shouldCommit()) {
+        event.set(criteria, false, matches);
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] findAvailable(final String[] criteria)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    final FindEvent event = new FindEvent();
+    event.begin();
+    int matches = 0;
+    try {
+      synchronized (this) {
+        validateFields(criteria);
+        final int[] recordNumbers = indexes.availableRecords().stream()
+                                    .filter(recordNumber -> doFieldsMatchCriteria(
+                                        recordCache.get(recordNumber), criteria))
+                                    .toArray();
+        matches = recordNumbers.length;
+        if (recordNumbers.length == 0) {
+          throw new RecordNotFoundException("No available records for selected criteria: "
+              + Arrays.toString(criteria) + ".");
+        }
+        return recordNumbers;
+      }
+    } finally {
+      metrics.record(DatabaseOperation.FIND, start);
+      if (criteria != null && event.shouldCommit()) {
+        event.set(criteria, true, matches);
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] execute(final PreparedQuery preparedQuery)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      return executePrepared(preparedQuery);
+    } finally {
+      metrics.record(DatabaseOperation.QUERY, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] execute(final Query query)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      synchronized (this) {
+        return executePrepared(prepare(query));
+      }
+    } finally {
+      metrics.record(DatabaseOperation.QUERY, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Versioned<int[]> executeVersioned(final Query query)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      synchronized (this) {
+        return new Versioned<>(executePrepared(prepare(query)), sequence);
+      }
+    } finally {
+      metrics.record(DatabaseOperation.QUERY, start);
+    }
+  }
+
+  /**
+   * Executes the specified {@code preparedQuery}, answering it from the query result cache if its
+   * result is still current there. Untimed, so that the public methods which execute a query are
+   * each counted once.
+   *
+   * @param preparedQuery
+   *          the prepared query.
+   * @return the record numbers of the matching records.
+   * @throws RecordNotFoundException
+   *           if no record matches the query.
+   * @throws IllegalArgumentException
+   *           if {@code preparedQuery} is null.
+   */
+  private synchronized int[] executePrepared(final PreparedQuery preparedQuery)
+      throws RecordNotFoundException, IllegalArgumentException {
+    if (preparedQuery == null) {
+      throw new IllegalArgumentException("Prepared query cannot be null.");
+    }
+    final FindEvent event = new FindEvent();
+    event.begin();
+    final Query query = preparedQuery.getQuery();
+    int[] recordNumbers = queryResults.get(query);
+    final boolean cached = recordNumbers != null;
+    if (recordNumbers == null) {
+      final RecordMatcher matcher = preparedQuery.getMatcher() == null
+          ? prepare(query).getMatcher() : preparedQuery.getMatcher();
+      recordNumbers = indexes.liveRecords().stream()
+                      .filter(recordNumber -> matcher.matches(recordNumber,
+                          recordCache.get(recordNumber)))
+                      .toArray();
+      queryResults.put(query, matcher, query.fieldMask(), recordNumbers, sequence);
+    } else if (LOGGER.isLoggable(Level.FINER)) {
+      LOGGER.finer("Reused the result of " + query + " computed at mutation "
+          + queryResults.version(query) + ".");
+    }
+    if (event.shouldCommit()) {
+      event.set(query, cached, recordNumbers.length);
+      event.commit();
+    }
+    if (recordNumbers.length == 0) {
+      throw new RecordNotFoundException("No records match " + preparedQuery + ".");
+    }
+    return recordNumbers;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized PreparedQuery prepare(final Query query) throws IllegalArgumentException {
+    if (query == null) {
+      throw new IllegalArgumentException("Query cannot be null.");
+    }
+    return preparedQueries.computeIfAbsent(query,
+        key -> new PreparedQuery(key, key.compile(indexes.numericColumns())));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized QueryPlan explain(final QueryCriteria criteria)
+      throws IllegalArgumentException {
+    if (criteria == null) {
+      throw new IllegalArgumentException("Query criteria cannot be null.");
+    }
+    return planner.plan(criteria);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] query(final QueryCriteria criteria)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      if (criteria == null) {
+        throw new IllegalArgumentException("Query criteria cannot be null.");
+      }
+      final QueryPlan plan;
+      final int[] recordNumbers;
+      synchronized (this) {
+        plan = planner.plan(criteria);
+        recordNumbers = planner.execute(criteria, plan);
+      }
+      if (LOGGER.isLoggable(Level.FINE)) {
+        LOGGER.fine(plan.toString());
+      }
+      if (recordNumbers.length == 0) {
+        throw new RecordNotFoundException("No records match " + criteria + ".");
+      }
+      return recordNumbers;
+    } finally {
+      metrics.record(DatabaseOperation.QUERY, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] findByRateAndSize(final long minRate, final long maxRate,
+      final int minSize, final int maxSize, final SortOrder order, final boolean availableOnly)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      if (minRate > maxRate || minSize > maxSize) {
+        throw new IllegalArgumentException("The minimum of a range cannot exceed its maximum.");
+      }
+      if (order == null) {
+        throw new IllegalArgumentException("Sort order cannot be null.");
+      }
+      final int[] recordNumbers;
+      synchronized (this) {
+        final BitSet candidates = availableOnly ? indexes.availableRecords()
+            : indexes.liveRecords();
+        recordNumbers = indexes.numericColumns().find(candidates, minRate, maxRate, minSize,
+            maxSize, order);
+      }
+      if (recordNumbers.length == 0) {
+        throw new RecordNotFoundException("No records with a rate between " + minRate + " and "
+            + maxRate + " cents and a size between " + minSize + " and " + maxSize + ".");
+      }
+      return recordNumbers;
+    } finally {
+      metrics.record(DatabaseOperation.QUERY, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] findBySpecialties(final String[] specialties, final boolean matchAll)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      if (specialties == null) {
+        throw new IllegalArgumentException("Specialties cannot be null.");
+      }
+      final int[] recordNumbers;
+      synchronized (this) {
+        recordNumbers = indexes.specialties().find(specialties, matchAll);
+      }
+      if (recordNumbers.length == 0) {
+        throw new RecordNotFoundException("No records offer " + (matchAll ? "all" : "any")
+            + " of the specialties: " + Arrays.toString(specialties) + ".");
+      }
+      return recordNumbers;
+    } finally {
+      metrics.record(DatabaseOperation.QUERY, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] findByOwner(final String customerId)
+      throws RecordNotFoundException, IllegalArgumentException {
+    final long start = System.nanoTime();
+    try {
+      if (customerId == null) {
+        throw new IllegalArgumentException("Customer id cannot be null.");
+      }
+      final String owner = customerId.trim();
+      final int[] recordNumbers;
+      synchronized (this) {
+        recordNumbers = indexes.owners().find(owner, owner);
+      }
+      if (recordNumbers.length == 0) {
+        throw new RecordNotFoundException("No records are owned by customer " + customerId + ".");
+      }
+      return recordNumbers;
+    } finally {
+      metrics.record(DatabaseOperation.QUERY, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized List<RecordLockInfo> getHeldLocks() {
+    return recordLocks.heldLocks();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized List<RecordContention> getHotRecords(final int limit)
+      throws IllegalArgumentException {
+    if (limit < 0) {
+      throw new IllegalArgumentException("Limit cannot be negative.");
+    }
+    return recordLocks.hotRecords(limit);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getLastFlushTime() {
+    return lastFlushTime;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<OperationStats> getOperationStats() {
+    return metrics.snapshot();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized long getRecordVersion(final int recNo) throws RecordNotFoundException {
+    if (isInvalidRecord(recNo)) {
+      throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
+    }
+    return recordVersions.get(recNo);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getVersion() {
+    return sequence;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void initialize(final String dbFilePath)
+      throws DatabaseAccessException, IllegalArgumentException {
+    if (dbFilePath == null) {
+      throw new IllegalArgumentException("File path of database file cannot be null.");
+    }
+    if (!Files.exists(Paths.get(dbFilePath))) {
+      throw new DatabaseAccessException(
+          "The specified database file does not exist: " + dbFilePath + ".");
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(dbFilePath, "rwd")) {
+      if (raf.readInt() != MAGIC_COOKIE) {
+        throw new DatabaseAccessException("Invalid database file, " + dbFilePath + ", was specified. "
+            + "Magic cookie value didn't match value of expected database file: db-2x2.db");
+      }
+      this.dbFilePath = dbFilePath;
+      recoverCache();
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          saveRecords();
+        } catch (final IOException e) {
+          LOGGER.severe("Could not save data: " + e.getMessage());
+        }
+      }));
+    } catch (final IOException e) {
+      throw new DatabaseAccessException(
+          "Could not read data from the specified file: " + dbFilePath, e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized boolean isLocked(final int recNo) throws RecordNotFoundException {
+    if (isInvalidRecord(recNo)) {
+      throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
+    }
+    return recordLocks.isLocked(recNo);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void lock(final int recNo) throws RecordNotFoundException {
+    final long start = System.nanoTime();
+    final RecordLockEvent event = new RecordLockEvent();
+    event.begin();
+    boolean contended = false;
+    boolean granted = false;
+    try {
+      final CompletableFuture<Void> request = lockAsync(recNo);
+      contended = !request.isDone();
+      request.join();
+      granted = true;
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RecordNotFoundException) {
+        throw (RecordNotFoundException) e.getCause();
+      }
+      throw e;
+    } finally {
+      metrics.record(DatabaseOperation.LOCK, start);
+      if (event.shouldCommit()) {
+        event.recordNumber = recNo;
+        event.contended = contended;
+        event.granted = granted;
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized CompletableFuture<Void> lockAsync(final int recNo)
+      throws RecordNotFoundException {
+    if (isInvalidRecord(recNo)) {
+      throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
+    }
+    return recordLocks.acquire(recNo);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CompletableFuture<Void> lockAsync(final int recNo, final long timeout,
+      final TimeUnit unit) throws RecordNotFoundException, IllegalArgumentException {
+    if (unit == null) {
+      throw new IllegalArgumentException("Time unit cannot be null.");
+    }
+    final CompletableFuture<Void> request = lockAsync(recNo);
+    if (!request.isDone()) {
+      final ScheduledFuture<?> expiry = lockTimer.schedule(() -> {
+        withdrawLockRequest(recNo, request);
+        request.completeExceptionally(new TimeoutException(
+            "Lock of record " + recNo + " not granted within " + timeout + " " + unit + "."));
+      }, timeout, unit);
+      request.whenComplete((granted, failure) -> expiry.cancel(false));
+    }
+    return request;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>A copy of the field values is returned, since the record cache, its indexes and the query
+   * result cache all assume a record's array never changes once it has been stored.
+   */
+  @Override
+  public String[] read(final int recNo) throws RecordNotFoundException {
+    final long start = System.nanoTime();
+    try {
+      final AtomicReferenceArray<String[]> records = publishedRecords;
+      if (records == null) {
+        synchronized (this) {
+          if (isInvalidRecord(recNo)) {
+            throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
+          }
+          return recordCache.get(recNo).clone();
+        }
+      }
+      final String[] fieldValues = recNo < 0 || recNo >= records.length() ? null
+          : records.get(recNo);
+      if (fieldValues == null) {
+        throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
+      }
+      return fieldValues.clone();
+    } finally {
+      metrics.record(DatabaseOperation.READ, start);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Only a snapshot of the record cache is taken while holding the lock, so clients continue
+   * to be served while the records are written. The records are written to a temporary file next
+   * to the database file, forced to disk and then atomically moved over the database file, so a
+   * crash during the save leaves either the previous or the new version of the database file in
+   * place, never a partially written one. Mutations applied while the save is in progress remain
+   * in the log and are replayed on top of the new version after a crash.
+   */
+  @Override
+  public void saveRecords() throws IOException, IllegalStateException {
+    final long start = System.nanoTime();
+    final SaveRecordsEvent event = new SaveRecordsEvent();
+    event.begin();
+    try {
+      synchronized (saveLock) {
+        final RecordSnapshot snapshot;
+        final Journal target;
+        final Path dbFile;
+        final BitSet savedRecords;
+        synchronized (this) {
+          if (dbFilePath == null) {
+            throw new IllegalStateException(
+                "The saveRecords method cannot be invoked before " + this.getClass().getSimpleName()
+                    + " has been initialized through invoking the initialize method.");
+          }
+          snapshot = new RecordSnapshot(sequence, recordCache);
+          target = journal;
+          target.rotate(sequence + 1);
+          dbFile = Paths.get(dbFilePath);
+          savedRecords = (BitSet) dirtyRecords.clone();
+          dirtyRecords.clear();
+        }
+        final long snapshotTaken = System.nanoTime();
+        final Path tempFile = Paths.get(dbFile + TEMP_FILE_SUFFIX);
+        boolean saved = false;
+        long written = 0;
+        try {
+          writeDatabaseFile(dbFile, tempFile, snapshot.getRecords());
+          written = System.nanoTime();
+          target.beginSave(snapshot.getSequence(), Files.size(tempFile),
+              Files.getLastModifiedTime(tempFile).toMillis());
+          Files.move(tempFile, dbFile, StandardCopyOption.ATOMIC_MOVE);
+          saved = true;
+          lastFlushTime = System.currentTimeMillis();
+        } finally {
+          Files.deleteIfExists(tempFile);
+          if (!saved) {
+            synchronized (this) {
+              dirtyRecords.or(savedRecords);
+            }
+          }
+        }
+        target.completeSave();
+        synchronized (this) {
+          checkpointSequence = Math.max(checkpointSequence, snapshot.getSequence());
+        }
+        if (event.shouldCommit()) {
+          event.records = snapshot.getRecords().size();
+          event.bytes = Files.size(dbFile);
+          event.commit();
+        }
+        final long end = System.nanoTime();
+        if (SlowOperationLog.isSlow(SlowOperationLog.Operation.FLUSH, end - start)) {
+          SlowOperationLog.entry(SlowOperationLog.Operation.FLUSH, end - start)
+              .criteria(Files.size(dbFile) + " bytes")
+              .phase("snapshot", snapshotTaken - start).phase("write", written - snapshotTaken)
+              .phase("commit", end - written).resultSize(snapshot.getRecords().size()).submit();
+        }
+      }
+    } finally {
+      metrics.record(DatabaseOperation.SAVE_RECORDS, start);
+    }
+  }
+
+  /**
+   * Sets the number of mutations applied to the record cache between two checkpoints. A smaller
+   * interval bounds the number of log entries replayed on restart more tightly, at the cost of
+   * writing checkpoints more often.
+   *
+   * @param checkpointInterval
+   *          the number of mutations between two checkpoints.
+   * @throws IllegalArgumentException
+   *           if {@code checkpointInterval} is less than one.
+   */
+  public synchronized void setCheckpointInterval(final int checkpointInterval)
+      throws IllegalArgumentException {
+    if (checkpointInterval < 1) {
+      throw new IllegalArgumentException("Checkpoint interval must be at least one mutation.");
+    }
+    this.checkpointInterval = checkpointInterval;
+  }
+
+  /**
+   * Switches this instance to single-writer mode, unless it is already in it. From then on every
+   * create, update, delete and compare-and-set is submitted to a single writer thread, which
+   * applies them in batches, while {@link #read(int)}, {@link #find(String[])} and
+   * {@link #getVersion()} no longer take the monitor of this instance: the writer publishes each
+   * record through an atomic reference as it applies the change. Transactions and the other
+   * queries still take the monitor.
+   */
+  public synchronized void startSingleWriter() {
+    if (mutationPipeline != null) {
+      return;
+    }
+    publishAllRecords();
+    mutationPipeline = new MutationPipeline(WRITER_RING_BUFFER_CAPACITY, WRITER_MAX_BATCH_SIZE,
+        this::applyBatch);
+    mutationPipeline.start();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized ChangeSubscription subscribe(final ChangeListener listener,
+      final int queueCapacity) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("Change listener cannot be null.");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be at least one event.");
+    }
+    final ChangeSubscription subscription = new ChangeSubscription(this, listener, queueCapacity,
+        sequence);
+    changeSubscriptions.add(subscription);
+    subscription.start();
+    return subscription;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void unlock(final int recNo) {
+    CompletableFuture<Void> next = releaseLock(recNo);
+    final RecordUnlockEvent event = new RecordUnlockEvent();
+    if (event.shouldCommit()) {
+      event.recordNumber = recNo;
+      event.handedOff = next != null;
+      event.commit();
+    }
+    while (next != null) {
+      if (isInvalidRecordSynchronized(recNo)) {
+        next.completeExceptionally(new RecordNotFoundException("Record " + recNo
+            + " was deleted while waiting for its lock."));
+      } else if (next.complete(null)) {
+        return;
+      }
+      next = releaseLock(recNo);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void update(final int recNo, final String[] data) {
+    final long start = System.nanoTime();
+    try {
+      final String[] record = completeFields(data);
+      write(() -> {
+        checkWritable();
+        final String[] previousValues = putRecord(recNo, record, sequence + 1);
+        publishMutation(Mutation.Type.UPDATE, recNo, previousValues, record);
+        return null;
+      });
+    } finally {
+      metrics.record(DatabaseOperation.UPDATE, start);
+    }
+  }
+
+  /**
+   * Writes a checkpoint of the record cache in the background and starts a new log segment, so
+   * that the log entries the checkpoint contains are discarded once it has been written, unless a
+   * checkpoint is already being written.
+   *
+   * @throws IllegalStateException
+   *           if this instance hasn't been initialized.
+   */
+  synchronized void checkpoint() throws IllegalStateException {
+    if (journal == null) {
+      throw new IllegalStateException("The database has not been initialized.");
+    }
+    startCheckpoint();
+  }
+
+  /**
+   * Checks if this instance is a read-only replica, which has neither a log nor a database file.
+   *
+   * @return true, if this instance is a replica.
+   */
+  synchronized boolean isReplica() {
+    return replica;
+  }
+
+  /**
+   * Gets the number of records in the record cache which are marked as deleted, whose slots in
+   * the database file are reused by {@link #create(String[])}.
+   *
+   * @return the number of deleted records.
+   */
+  synchronized int deletedRecordCount() {
+    return recordCache.size() - indexes.liveRecords().cardinality();
+  }
+
+  /**
+   * Gets the number of records changed since the database file was last saved. Records restored
+   * from a checkpoint on startup are all counted as changed.
+   *
+   * @return the number of changed records.
+   */
+  synchronized int dirtyRecordCount() {
+    return dirtyRecords.cardinality();
+  }
+
+  /**
+   * Estimates the memory used by the record cache, its versions and the field values of the
+   * records, assuming a 64-bit JVM with compressed references and compact strings. Indexes and
+   * cached query results are not included.
+   *
+   * @return the estimated size, in bytes.
+   */
+  synchronized long estimateCacheBytes() {
+    long bytes = 0;
+    for (final String[] fieldValues : recordCache.values()) {
+      bytes += CACHE_ENTRY_BYTES;
+      if (fieldValues != null) {
+        bytes += ARRAY_HEADER_BYTES + REFERENCE_BYTES * fieldValues.length;
+        for (final String fieldValue : fieldValues) {
+          bytes += STRING_BYTES + ARRAY_HEADER_BYTES + fieldValue.length();
+        }
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Gets the number of mutations applied to the record cache between two checkpoints.
+   *
+   * @return the checkpoint interval.
+   */
+  public synchronized int getCheckpointInterval() {
+    return checkpointInterval;
+  }
+
+  /**
+   * Gets the maximum number of query results cached.
+   *
+   * @return the capacity of the query result cache.
+   */
+  synchronized int getQueryResultCacheCapacity() {
+    return queryResults.capacity();
+  }
+
+  /**
+   * Gets the number of lookups answered from the query result cache.
+   *
+   * @return the number of cache hits.
+   */
+  synchronized long getQueryResultCacheHits() {
+    return queryResults.hits();
+  }
+
+  /**
+   * Gets the number of lookups not answered from the query result cache.
+   *
+   * @return the number of cache misses.
    */
-  private static boolean comparePrimaryKeys(final String[] existingData, final String[] newData) {
-    final String existingKey = existingData[0] + existingData[1];
-    final String newKey = newData[0] + newData[1];
-    return existingKey.equals(newKey);
+  synchronized long getQueryResultCacheMisses() {
+    return queryResults.misses();
   }
 
   /**
-   * {@inheritDoc}
+   * Gets the number of query results currently cached.
+   *
+   * @return the size of the query result cache.
    */
-  @Override
-  public synchronized int create(final String[] data)
-      throws DuplicateKeyException, IllegalArgumentException {
-    validateFields(data);
-    checkForDuplicateKey(data);
-    final int recordNumber = recordCache.entrySet().stream()
-                             .filter(entry -> entry.getValue() == null)
-                             .mapToInt(entry -> entry.getKey())
-                             .findAny()
-                             .orElse(recordCache.size());
-    recordCache.put(recordNumber, data);
-    return recordNumber;
+  synchronized int getQueryResultCacheSize() {
+    return queryResults.size();
   }
 
   /**
-   * {@inheritDoc}
+   * Checks if this instance is in single-writer mode.
+   *
+   * @return true, if mutations are applied by a single writer thread.
    */
-  @Override
-  public synchronized void delete(final int recNo) {
-    recordCache.put(recNo, null);
+  boolean isSingleWriter() {
+    return mutationPipeline != null;
   }
 
   /**
-   * {@inheritDoc}
+   * Gets the number of live records, i.e. records which are not marked as deleted.
+   *
+   * @return the number of live records.
    */
-  @Override
-  public synchronized int[] find(final String[] criteria)
-      throws RecordNotFoundException, IllegalArgumentException {
-    validateFields(criteria);
-    final int[] recordNumbers = recordCache.entrySet().stream()
-                                .filter(entry -> entry.getValue() != null)
-                                .filter(entry -> doFieldsMatchCriteria(entry.getValue(), criteria))
-                                .mapToInt(entry -> entry.getKey())
-                                .toArray();
-    if (recordNumbers.length == 0) {
-      throw new RecordNotFoundException(
-          "No matching records for selected criteria: " + Arrays.toString(criteria) + ".");
-    }
-    return recordNumbers;
+  synchronized int liveRecordCount() {
+    return indexes.liveRecords().cardinality();
   }
 
   /**
-   * {@inheritDoc}
+   * Changes the maximum number of query results cached, evicting the least recently used results
+   * if the cache now holds too many.
+   *
+   * @param capacity
+   *          the maximum number of cached results; 0 disables the cache.
+   * @throws IllegalArgumentException
+   *           if {@code capacity} is negative.
    */
-  @Override
-  public synchronized void initialize(final String dbFilePath)
-      throws DatabaseAccessException, IllegalArgumentException {
-    if (dbFilePath == null) {
-      throw new IllegalArgumentException("File path of database file cannot be null.");
-    }
-    if (!Files.exists(Paths.get(dbFilePath))) {
-      throw new DatabaseAccessException(
-          "The specified database file does not exist: " + dbFilePath + ".");
-    }
-    try (RandomAccessFile raf = new RandomAccessFile(dbFilePath, "rwd")) {
-      if (raf.readInt() != MAGIC_COOKIE) {
-        throw new DatabaseAccessException("Invalid database file, " + dbFilePath + ", was specified. "
-            + "Magic cookie value didn't match value of expected database file: db-2x2.db");
-      }
-      this.dbFilePath = dbFilePath;
-      loadCache();
-      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-        try {
-          saveRecords();
-        } catch (final IOException e) {
-          LOGGER.severe("Could not save data: " + e.getMessage());
-        }
-      }));
-    } catch (final IOException e) {
-      throw new DatabaseAccessException(
-          "Could not read data from the specified file: " + dbFilePath, e);
+  synchronized void setQueryResultCacheCapacity(final int capacity)
+      throws IllegalArgumentException {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Cache capacity cannot be negative.");
     }
+    queryResults.setCapacity(capacity);
   }
 
   /**
-   * {@inheritDoc}
+   * Registers the specified {@code listener} to be notified of every mutation applied after this
+   * method returns, and returns a snapshot of the record cache as it was at that point. Taking the
+   * snapshot and registering the listener happen atomically, so the listener sees exactly the
+   * mutations which are not contained in the snapshot.
+   *
+   * @param listener
+   *          the listener to register.
+   * @return a snapshot of the record cache.
    */
-  @Override
-  public synchronized boolean isLocked(final int recNo) throws RecordNotFoundException {
-    if (isInvalidRecord(recNo)) {
-      throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
-    }
-    return lockedRecords.contains(recNo);
+  synchronized RecordSnapshot addMutationListener(final MutationListener listener) {
+    mutationListeners.add(listener);
+    return new RecordSnapshot(sequence, recordCache);
   }
 
   /**
-   * {@inheritDoc}
+   * Applies a mutation received from the mutation log of the primary database to the record cache
+   * of this replica.
+   *
+   * @param mutation
+   *          the mutation to apply.
+   * @throws IllegalStateException
+   *           if the sequence number of {@code mutation} does not directly follow the sequence
+   *           number of the last mutation applied, i.e. a mutation has been missed.
    */
-  @Override
-  public synchronized void lock(final int recNo) throws RecordNotFoundException {
-    while (isLocked(recNo)) {
-      try {
-        wait();
-      } catch (final InterruptedException e) {
-        LOGGER.warning(e.getMessage());
-      }
+  synchronized void applyReplicatedMutation(final Mutation mutation) throws IllegalStateException {
+    if (mutation.getSequence() != sequence + 1) {
+      throw new IllegalStateException("Expected mutation " + (sequence + 1) + " but received "
+          + mutation.getSequence() + ".");
     }
-    lockedRecords.add(recNo);
+    final String[] previousValues = putRecord(mutation.getRecordNumber(), mutation.getData(),
+        mutation.getSequence());
+    publishMutation(mutation.getType(), mutation.getRecordNumber(), previousValues,
+        mutation.getData());
   }
 
   /**
-   * {@inheritDoc}
+   * Removes every record from the record cache and the secondary indexes.
    */
-  @Override
-  public synchronized String[] read(final int recNo) throws RecordNotFoundException {
-    if (isInvalidRecord(recNo)) {
-      throw new RecordNotFoundException("Record " + recNo + " is not a valid record.");
-    }
-    return recordCache.get(recNo);
+  private void clearRecords() {
+    publishedRecords = null;
+    dirtyRecords.clear();
+    recordCache.clear();
+    recordVersions.clear();
+    indexes.clear();
+    queryResults.clear();
   }
 
   /**
-   * {@inheritDoc}
+   * Replaces the contents of the record cache with the specified {@code snapshot} of the primary
+   * database and marks this instance as a read-only replica. Change listeners are told that they
+   * have lost changes, since the records are replaced without any events.
+   *
+   * @param snapshot
+   *          the snapshot of the primary database.
    */
-  @Override
-  public synchronized void saveRecords() throws IOException, IllegalStateException {
-    if (dbFilePath == null) {
-      throw new IllegalStateException(
-          "The saveRecords method cannot be invoked before " + this.getClass().getSimpleName()
-              + " has been initialized through invoking the initialize method.");
+  synchronized void loadReplicaSnapshot(final RecordSnapshot snapshot) {
+    replica = true;
+    for (final ChangeSubscription subscription : changeSubscriptions) {
+      subscription.lose();
     }
-    try (RandomAccessFile raf = new RandomAccessFile(dbFilePath, "rwd")) {
-      raf.seek(RECORD_OFFSET);
-      raf.setLength(RECORD_OFFSET);
-      for (final String[] fieldValues : recordCache.values()) {
-        writeRecord(raf, fieldValues);
-      }
+    changeSubscriptions.clear();
+    loadRecords(snapshot.getRecords(), snapshot.getSequence());
+    sequence = snapshot.getSequence();
+    if (mutationPipeline != null) {
+      publishAllRecords();
     }
   }
 
   /**
-   * {@inheritDoc}
+   * Unregisters the specified {@code listener}, so that it is no longer notified of mutations.
+   *
+   * @param listener
+   *          the listener to unregister.
    */
-  @Override
-  public synchronized void unlock(final int recNo) {
-    if (lockedRecords.contains(recNo)) {
-      lockedRecords.remove(recNo);
-      notifyAll();
-    }
+  synchronized void removeMutationListener(final MutationListener listener) {
+    mutationListeners.remove(listener);
   }
 
   /**
-   * {@inheritDoc}
+   * Removes the specified {@code subscription}, so that no further events are queued for it.
+   *
+   * @param subscription
+   *          the subscription to remove.
    */
-  @Override
-  public synchronized void update(final int recNo, final String[] data) {
-    validateFields(data);
-    recordCache.put(recNo, data);
+  synchronized void unsubscribe(final ChangeSubscription subscription) {
+    changeSubscriptions.remove(subscription);
   }
 
   /**
@@ -275,13 +1368,26 @@ public final class Data implements DBMainExtended {
       fieldValues[index] = fieldValue;
     }
     if (flagvalue == VALID_FLAG) {
-      recordCache.put(recordNumber, fieldValues);
+      putRecord(recordNumber, fieldValues, 0);
     } else {
-      recordCache.put(recordNumber, null);
+      putRecord(recordNumber, null, 0);
     }
 
   }
 
+  /**
+   * Applies the specified {@code batch} of submissions of the mutation writer, in order, while
+   * holding the monitor of this instance.
+   *
+   * @param batch
+   *          the submissions to apply.
+   */
+  private synchronized void applyBatch(final List<MutationPipeline.Submission<?>> batch) {
+    for (final MutationPipeline.Submission<?> submission : batch) {
+      submission.apply();
+    }
+  }
+
   /**
    * Check if the primary key of the specified {@code data} already exists in the database. If the
    * key already exists, it will throw a {@link DuplicateKeyException}.
@@ -302,6 +1408,36 @@ public final class Data implements DBMainExtended {
     }
   }
 
+  /**
+   * Checks that the record cache may be modified directly. The record cache of a read-only replica
+   * may only be modified by the mutation log of the primary database.
+   *
+   * @throws IllegalStateException
+   *           if this instance is a read-only replica.
+   */
+  private void checkWritable() throws IllegalStateException {
+    if (replica) {
+      throw new IllegalStateException(
+          "Records cannot be modified through a read-only replica of the database.");
+    }
+  }
+
+  /**
+   * Builds the query equivalent to the specified {@code criteria} of {@link #find(String[])}: each
+   * field must start with the corresponding criterion, ignoring case.
+   *
+   * @param criteria
+   *          the criteria, one per field.
+   * @return the query.
+   */
+  private static Query criteriaQuery(final String[] criteria) {
+    final Query[] prefixes = new Query[criteria.length];
+    for (int index = 0; index < criteria.length; index++) {
+      prefixes[index] = Query.prefix(FIELD_NAMES[index], criteria[index]);
+    }
+    return Query.and(prefixes);
+  }
+
   /**
    * Checks if each element of the specified {@code fieldValues} begins with the corresponding
    * element of the specified {@code searchValues}. This is a case insensitive search. Returns true
@@ -329,6 +1465,29 @@ public final class Data implements DBMainExtended {
     return isMatch;
   }
 
+  /**
+   * Finds the records matching the specified {@code criteria} of {@link #find(String[])},
+   * reusing the cached result if there is one.
+   *
+   * @param criteria
+   *          the criteria, one per field.
+   * @return the matching record numbers.
+   */
+  private synchronized int[] findCached(final String[] criteria) {
+    final List<String> key = Arrays.asList(criteria.clone());
+    int[] recordNumbers = queryResults.get(key);
+    if (recordNumbers == null) {
+      final Query query = criteriaQuery(criteria);
+      final RecordMatcher matcher = query.compile(indexes.numericColumns());
+      recordNumbers = indexes.liveRecords().stream()
+                      .filter(recordNumber -> matcher.matches(recordNumber,
+                          recordCache.get(recordNumber)))
+                      .toArray();
+      queryResults.put(key, matcher, query.fieldMask(), recordNumbers, sequence);
+    }
+    return recordNumbers;
+  }
+
   /**
    * Checks if the record with the specified {@code recNo} is valid. Returns true if the record is
    * not stored in the database or has been marked as deleted. Otherwise, returns false.
@@ -338,9 +1497,38 @@ public final class Data implements DBMainExtended {
    * @return true, if the record is not stored in the database or has been marked as deleted.
    */
   private boolean isInvalidRecord(final int recNo) {
-    return recordCache.entrySet().stream()
-           .filter(entry -> entry.getValue() != null)
-           .noneMatch(entry -> entry.getKey() == recNo);
+    return recNo < 0 || !indexes.liveRecords().get(recNo);
+  }
+
+  /**
+   * Checks if the specified {@code fieldValues} match the {@code expected} values. Field n matches
+   * if expected[n] is {@code null} or exactly equals fieldValues[n].
+   *
+   * @param fieldValues
+   *          the field values of a record.
+   * @param expected
+   *          the expected field values; {@code null} elements match any value.
+   * @return true, if every field matches.
+   */
+  private static boolean matchesExpected(final String[] fieldValues, final String[] expected) {
+    for (int index = 0; index < expected.length && index < fieldValues.length; index++) {
+      if (expected[index] != null && !expected[index].equals(fieldValues[index])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the record with the specified {@code recNo} is invalid, as
+   * {@link #isInvalidRecord(int)}, while holding the monitor of this instance.
+   *
+   * @param recNo
+   *          the record number.
+   * @return true, if the record is not stored in the database or has been marked as deleted.
+   */
+  private synchronized boolean isInvalidRecordSynchronized(final int recNo) {
+    return isInvalidRecord(recNo);
   }
 
   /**
@@ -351,7 +1539,7 @@ public final class Data implements DBMainExtended {
    *           Signals that an I/O exception has occurred.
    */
   private void loadCache() throws IOException {
-    recordCache.clear();
+    clearRecords();
     try (RandomAccessFile raf = new RandomAccessFile(dbFilePath, "rwd")) {
       int recordNumber = 0;
       raf.seek(RECORD_OFFSET);
@@ -362,6 +1550,338 @@ public final class Data implements DBMainExtended {
     }
   }
 
+  /**
+   * Publishes every record in the record cache to readers which don't take the monitor, replacing
+   * the records published so far.
+   */
+  private void publishAllRecords() {
+    final int size = recordCache.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1)
+        + 1;
+    final AtomicReferenceArray<String[]> records = new AtomicReferenceArray<>(size);
+    recordCache.forEach(records::set);
+    publishedRecords = records;
+  }
+
+  /**
+   * Assigns the next sequence number to the change just applied to the record cache, notifies any
+   * registered {@link MutationListener}s of it and queues it for any subscribed
+   * {@link ChangeListener}s.
+   *
+   * @param type
+   *          the type of change.
+   * @param recordNumber
+   *          the number of the record that was changed.
+   * @param previousValues
+   *          the previous field values of the record, {@code null} if the record didn't exist.
+   * @param data
+   *          the new field values of the record, {@code null} if the record was deleted.
+   */
+  private void publishMutation(final Mutation.Type type, final int recordNumber,
+      final String[] previousValues, final String[] data) {
+    sequence++;
+    dirtyRecords.set(recordNumber);
+    final Mutation mutation = new Mutation(sequence, type, recordNumber, data);
+    if (journal != null) {
+      try {
+        journal.append(mutation);
+      } catch (final IOException e) {
+        LOGGER.log(Level.SEVERE, "Could not append mutation " + sequence + " to the log.", e);
+      }
+      if (sequence - checkpointSequence >= checkpointInterval) {
+        startCheckpoint();
+      }
+    }
+    for (final MutationListener listener : mutationListeners) {
+      listener.mutationApplied(mutation);
+    }
+    if (!changeSubscriptions.isEmpty()) {
+      final ChangeEvent event = new ChangeEvent(type, recordNumber, previousValues, data,
+          sequence);
+      changeSubscriptions.removeIf(subscription -> !subscription.offer(event));
+    }
+  }
+
+  /**
+   * Withdraws the specified pending lock {@code request} for the record with the specified
+   * {@code recNo} before it is completed because it timed out, so that it no longer counts as a
+   * waiter. If the lock has already been handed to the request, the request is left to be
+   * completed by whichever of the timeout and the unlocking thread gets there first.
+   *
+   * @param recNo
+   *          the record number.
+   * @param request
+   *          the request.
+   */
+  private synchronized void withdrawLockRequest(final int recNo,
+      final CompletableFuture<Void> request) {
+    recordLocks.withdraw(recNo, request);
+  }
+
+  /**
+   * Releases the lock of the record with the specified {@code recNo}, handing it to the oldest
+   * pending request.
+   *
+   * @param recNo
+   *          the record number.
+   * @return the request now holding the lock, which the caller must complete, or {@code null} if
+   *         the record is now unlocked.
+   */
+  private synchronized CompletableFuture<Void> releaseLock(final int recNo) {
+    return recordLocks.release(recNo);
+  }
+
+  /**
+   * Replaces the contents of the record cache with the specified {@code records} and rebuilds the
+   * secondary indexes.
+   *
+   * @param records
+   *          the records, keyed by record number; {@code null} values denote deleted records.
+   * @param version
+   *          the version of the database the records were taken at, assigned to every record.
+   */
+  private void loadRecords(final Map<Integer, String[]> records, final long version) {
+    clearRecords();
+    for (final Map.Entry<Integer, String[]> entry : records.entrySet()) {
+      putRecord(entry.getKey(), entry.getValue(), version);
+    }
+  }
+
+  /**
+   * Stores the specified {@code fieldValues} in the record cache as the record with the specified
+   * {@code recordNumber}, updates the secondary indexes to reflect the change and invalidates the
+   * cached query results whose membership it changes. Every change to the record cache goes
+   * through this method.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @param fieldValues
+   *          the field values of the record, or {@code null} if the record is deleted.
+   * @param version
+   *          the version of the database at which the record took these values.
+   * @return the previous field values of the record, {@code null} if it didn't exist.
+   */
+  private String[] putRecord(final int recordNumber, final String[] fieldValues,
+      final long version) {
+    final String[] previousValues = recordCache.get(recordNumber);
+    queryResults.beforeChange(recordNumber, previousValues, fieldValues);
+    recordCache.put(recordNumber, fieldValues);
+    recordVersions.put(recordNumber, version);
+    indexes.update(recordNumber, previousValues, fieldValues);
+    queryResults.afterChange(recordNumber, fieldValues);
+    AtomicReferenceArray<String[]> records = publishedRecords;
+    if (records != null) {
+      if (recordNumber >= records.length()) {
+        final AtomicReferenceArray<String[]> grown = new AtomicReferenceArray<>(
+            Math.max(recordNumber + 1, records.length() * 2));
+        for (int index = 0; index < records.length(); index++) {
+          grown.set(index, records.get(index));
+        }
+        records = grown;
+        publishedRecords = grown;
+      }
+      records.set(recordNumber, fieldValues);
+    }
+    return previousValues;
+  }
+
+  /**
+   * Writes the specified {@code records} to {@code tempFile} in the format of the database file,
+   * preceded by the header of {@code dbFile}. The records are assembled in a buffer and written
+   * through a single file channel, which is forced to disk once at the end. The modification time
+   * of the file is then set to a value later than that of {@code dbFile}, so that the two versions
+   * can always be told apart.
+   *
+   * @param dbFile
+   *          the database file whose header is copied.
+   * @param tempFile
+   *          the file the records are written to.
+   * @param records
+   *          the records to write, keyed by record number from 0 without gaps; {@code null} values
+   *          denote deleted records.
+   * @throws IOException
+   *           Signals that an I/O exception has occurred, or a record number is missing from
+   *           {@code records}, which would move every later record to the wrong position.
+   */
+  private void writeDatabaseFile(final Path dbFile, final Path tempFile,
+      final Map<Integer, String[]> records) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    try (FileChannel source = FileChannel.open(dbFile, StandardOpenOption.READ)) {
+      buffer.limit(RECORD_OFFSET);
+      while (buffer.hasRemaining()) {
+        if (source.read(buffer) < 0) {
+          throw new EOFException("The header of " + dbFile + " is incomplete.");
+        }
+      }
+      buffer.limit(buffer.capacity());
+    }
+    try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (int recordNumber = 0; recordNumber < records.size(); recordNumber++) {
+        if (!records.containsKey(recordNumber)) {
+          throw new IOException("Record " + recordNumber + " is missing from the records to save.");
+        }
+        if (buffer.remaining() < RECORD_LENGTH) {
+          drain(channel, buffer);
+        }
+        final String[] fieldValues = records.get(recordNumber);
+        buffer.putShort((short) (fieldValues == null ? DELETED_FLAG : VALID_FLAG));
+        for (int index = 0; index < RECORD_FIELDS; index++) {
+          final String value = fieldValues == null ? EMPTY_STRING : fieldValues[index];
+          buffer.put(addPadding(convertStringToBytes(value), MAX_FIELD_SIZES[index]));
+        }
+      }
+      drain(channel, buffer);
+      channel.force(true);
+    }
+    final long previousModified = Files.getLastModifiedTime(dbFile).toMillis();
+    final long modified = Math.max(System.currentTimeMillis(), previousModified + 1000) / 1000
+        * 1000;
+    Files.setLastModifiedTime(tempFile, FileTime.fromMillis(modified));
+  }
+
+  /**
+   * Writes the contents of the specified {@code buffer} to {@code channel} and clears it.
+   *
+   * @param channel
+   *          the channel to write to.
+   * @param buffer
+   *          the buffer to drain.
+   * @throws IOException
+   *           Signals that an I/O exception has occurred.
+   */
+  private static void drain(final FileChannel channel, final ByteBuffer buffer)
+      throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Restores the record cache after the application was last stopped. Loads the newest valid
+   * checkpoint of the database file, or the database file itself if there is none, and then
+   * replays the log entries which follow it. Finally opens a new log segment for the mutations
+   * applied from now on.
+   *
+   * @throws IOException
+   *           Signals that an I/O exception has occurred.
+   */
+  private void recoverCache() throws IOException {
+    if (journal != null) {
+      journal.close();
+    }
+    journal = new Journal(Paths.get(dbFilePath));
+    final RecordSnapshot checkpoint = journal.loadCheckpoint();
+    final long replayFrom;
+    if (checkpoint == null) {
+      loadCache();
+      replayFrom = -1;
+    } else {
+      loadRecords(checkpoint.getRecords(), checkpoint.getSequence());
+      checkpoint.getRecords().keySet().forEach(dirtyRecords::set);
+      replayFrom = checkpoint.getSequence();
+    }
+    final int[] replayedEntries = new int[1];
+    final long lastReplayed = journal.replay(replayFrom, mutation -> {
+      putRecord(mutation.getRecordNumber(), mutation.getData(), mutation.getSequence());
+      dirtyRecords.set(mutation.getRecordNumber());
+      replayedEntries[0]++;
+    });
+    sequence = Math.max(lastReplayed, 0);
+    checkpointSequence = sequence - replayedEntries[0];
+    if (replayedEntries[0] > 0) {
+      LOGGER.info("Recovered database to mutation " + sequence + " by replaying "
+          + replayedEntries[0] + " log entries.");
+    }
+    journal.openSegment(sequence + 1);
+    if (mutationPipeline != null) {
+      publishAllRecords();
+    }
+  }
+
+  /**
+   * Takes a snapshot of the record cache and writes it as a checkpoint on the background
+   * checkpoint writer thread, unless a checkpoint is already being written. A new log segment is
+   * started at the same time, so that the log entries contained in the checkpoint can later be
+   * discarded.
+   */
+  private void startCheckpoint() {
+    if (checkpointInProgress) {
+      return;
+    }
+    try {
+      final Journal target = journal;
+      final long generation = target.rotate(sequence + 1);
+      final RecordSnapshot snapshot = new RecordSnapshot(sequence, recordCache);
+      checkpointSequence = sequence;
+      checkpointInProgress = true;
+      checkpointWriter.execute(() -> {
+        try {
+          target.writeCheckpoint(snapshot, generation);
+          lastFlushTime = System.currentTimeMillis();
+        } catch (final IOException e) {
+          LOGGER.log(Level.WARNING, "Could not write checkpoint " + snapshot.getSequence() + ".",
+              e);
+        } finally {
+          synchronized (this) {
+            checkpointInProgress = false;
+          }
+        }
+      });
+    } catch (final IOException e) {
+      LOGGER.log(Level.WARNING, "Could not start a new log segment.", e);
+    }
+  }
+
+  /**
+   * Modifies the fields of the record with the specified {@code recNo}, unless it is locked.
+   *
+   * @param recNo
+   *          the record number.
+   * @param data
+   *          the new field values of the record.
+   * @return true, if the record was modified; false if it is locked.
+   */
+  private boolean updateIfUnlocked(final int recNo, final String[] data) {
+    if (recordLocks.isLocked(recNo)) {
+      return false;
+    }
+    final String[] previousValues = putRecord(recNo, data, sequence + 1);
+    publishMutation(Mutation.Type.UPDATE, recNo, previousValues, data);
+    return true;
+  }
+
+  /**
+   * Validates the specified {@code fieldValues} of a record, as {@link #validateFields(String[])}
+   * does, and returns a copy of them with any missing trailing fields set to the empty string.
+   * Every record put in the record cache has exactly {@code RECORD_FIELDS} non-null fields, so a
+   * short array is rejected or completed here, before anything has been changed, rather than
+   * failing when the record is appended to the log after the record cache has already been
+   * updated. The copy also keeps the caller from changing the stored record afterwards.
+   *
+   * @param fieldValues
+   *          a string array where each element is a record value.
+   * @return a copy of the field values, completed to {@code RECORD_FIELDS} fields.
+   * @throws IllegalArgumentException
+   *           if {@code fieldValues} or one of its elements is null, or {@code fieldValues} is
+   *           invalid as described by {@link #validateFields(String[])}.
+   */
+  private String[] completeFields(final String[] fieldValues) throws IllegalArgumentException {
+    if (fieldValues == null) {
+      throw new IllegalArgumentException("Record values cannot be null");
+    }
+    for (final String fieldValue : fieldValues) {
+      if (fieldValue == null) {
+        throw new IllegalArgumentException("Record values cannot contain null fields");
+      }
+    }
+    validateFields(fieldValues);
+    final String[] completed = Arrays.copyOf(fieldValues, RECORD_FIELDS);
+    Arrays.fill(completed, fieldValues.length, RECORD_FIELDS, EMPTY_STRING);
+    return completed;
+  }
+
   /**
    * Compares the size of the each element in the specified {@code fieldValues} against the max
    * permitted field size described in the schema description section of the database file for that
@@ -395,33 +1915,42 @@ public final class Data implements DBMainExtended {
   }
 
   /**
-   * Writes a record to the database using the specified {@link RandomAccessFile},where each element
-   * of the specified {@code fieldValues} is a record value. If the specified {@code fieldValues}
-   * argument is {@code null}, the record will be filled with blank space ASCII characters.
-   *
-   * <p>
-   * If any value of a field is less that the size specified for that field in the schema
-   * information, the remaining bytes of the field will be padded with blank space ASCII characters.
+   * Applies the specified {@code operation} while holding the monitor of this instance. In
+   * single-writer mode the operation is submitted to the mutation writer and the calling thread
+   * waits for it to be applied, unless it already holds the monitor, in which case the writer
+   * could never apply it.
    *
-   * @param raf
-   *          a {@link RandomAccessFile} file used for writing the records to the database file.
-   * @param fieldValues
-   *          a string array where each element is a record value
-   * @throws IOException
-   *           Signals that an I/O exception has occurred.
+   * @param <T>
+   *          the type of the result of the operation.
+   * @param <E>
+   *          the type of the checked exception thrown by the operation.
+   * @param operation
+   *          the operation to apply.
+   * @return the result of the operation.
+   * @throws E
+   *           if the operation throws it.
    */
-  private void writeRecord(final RandomAccessFile raf, final String[] fieldValues)
-      throws IOException {
-    if (fieldValues == null) {
-      raf.writeShort(DELETED_FLAG);
-      for (int index = 0; index < RECORD_FIELDS; index++) {
-        writeString(raf, EMPTY_STRING, MAX_FIELD_SIZES[index]);
+  private <T, E extends Exception> T write(final MutationPipeline.Operation<T, E> operation)
+      throws E {
+    final MutationPipeline pipeline = mutationPipeline;
+    if (pipeline == null || Thread.holdsLock(this)) {
+      synchronized (this) {
+        return operation.apply();
       }
-    } else {
-      raf.writeShort(VALID_FLAG);
-      for (int index = 0; index < RECORD_FIELDS; index++) {
-        writeString(raf, fieldValues[index], MAX_FIELD_SIZES[index]);
+    }
+    try {
+      return pipeline.submit(operation).join();
+    } catch (final CompletionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
       }
+      @SuppressWarnings("unchecked")
+      final E exception = (E) cause;
+      throw exception;
     }
   }
 }
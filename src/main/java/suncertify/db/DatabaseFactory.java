@@ -9,12 +9,18 @@
 
 package suncertify.db;
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
 /**
  * A factory for retrieving and initializing a single instance of a data access object for the
  * specified database file. Marked final to prevent overriding.
  */
 public final class DatabaseFactory {
 
+  /** The maximum time in seconds to wait for a replica to synchronize with its primary. */
+  private static final long REPLICA_SYNC_TIMEOUT = 10;
+
   /** The data access object. */
   private static DBMainExtended dao = Data.getInstance();
 
@@ -38,6 +44,91 @@ public final class DatabaseFactory {
       throw new IllegalArgumentException("The file path to the database cannot be null.");
     }
     dao.initialize(dbFilePath);
+    LockDiagnostics.register(dao);
+    DatabaseStats.register(Data.getInstance());
     return dao;
   }
+
+  /**
+   * Gets a data access object for the database file with specified file path and initializes it,
+   * like {@link #getDatabase(String)}, optionally in single-writer mode: every mutation is then
+   * applied by a dedicated writer thread, in batches, and records are read and found without
+   * waiting for it. See {@link Data#startSingleWriter()}.
+   *
+   * @param dbFilePath
+   *          the file path of the database file.
+   * @param singleWriter
+   *          true to run the data access object in single-writer mode.
+   * @return the single instance of the data access object.
+   * @throws DatabaseAccessException
+   *           if a databaseManager instance could not be created
+   */
+  public static DBMainExtended getDatabase(final String dbFilePath, final boolean singleWriter)
+      throws DatabaseAccessException {
+    final DBMainExtended database = getDatabase(dbFilePath);
+    if (singleWriter) {
+      Data.getInstance().startSingleWriter();
+    }
+    return database;
+  }
+
+  /**
+   * Gets a read-only replica of the database served by the primary database server with the
+   * specified {@code host}, which publishes its mutation log on the specified {@code port}. The
+   * replica is synchronized with the primary before this method returns and is kept current in the
+   * background from then on. Any attempt to modify records through the replica throws an
+   * {@link IllegalStateException}.
+   *
+   * @param host
+   *          the host name or IP address of the primary database server.
+   * @param port
+   *          the port number the primary publishes its mutation log on.
+   * @return the single instance of the data access object, acting as a read-only replica.
+   * @throws DatabaseAccessException
+   *           if the replica could not be synchronized with the primary.
+   */
+  public static DBMainExtended getReplica(final String host, final int port)
+      throws DatabaseAccessException {
+    if (host == null) {
+      throw new IllegalArgumentException("The host name of the primary cannot be null.");
+    }
+    final ReplicationFollower follower = new ReplicationFollower(Data.getInstance(), host, port);
+    final Thread thread = new Thread(follower, "replication-follower");
+    thread.setDaemon(true);
+    thread.start();
+    try {
+      if (!follower.awaitInitialSync(REPLICA_SYNC_TIMEOUT, TimeUnit.SECONDS)) {
+        follower.stop();
+        throw new DatabaseAccessException(
+            "Could not synchronize with the primary database at " + host + ":" + port + ".");
+      }
+    } catch (final InterruptedException e) {
+      follower.stop();
+      Thread.currentThread().interrupt();
+      throw new DatabaseAccessException("Interrupted while synchronizing with the primary.", e);
+    }
+    return dao;
+  }
+
+  /**
+   * Starts publishing the mutation log of the data access object on the specified
+   * {@code bindAddress} and {@code port}, so that read replicas obtained through
+   * {@link #getReplica(String, int)} can follow it. Should only be invoked after the data access
+   * object has been initialized through {@link #getDatabase(String)}.
+   *
+   * @param bindAddress
+   *          the host name or IP address replicas connect to.
+   * @param port
+   *          the port number replicas connect to.
+   * @return the running publisher.
+   * @throws IOException
+   *           if the bind address could not be resolved or the port could not be opened.
+   */
+  public static ReplicationPublisher startReplicationPublisher(final String bindAddress,
+      final int port) throws IOException {
+    final ReplicationPublisher publisher = new ReplicationPublisher(Data.getInstance(),
+        bindAddress, port);
+    publisher.start();
+    return publisher;
+  }
 }
@@ -0,0 +1,53 @@
+/*
+ * DatabaseOperation.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+/**
+ * The operations of a {@link Data} instance which are counted and timed, as reported by
+ * {@link DBMainExtended#getOperationStats()}. Each is timed from the call until it returns,
+ * including any time spent waiting for the monitor of the {@link Data} instance.
+ */
+public enum DatabaseOperation {
+
+  /** {@link DBMain#read(int)}. */
+  READ,
+
+  /** {@link DBMain#find(String[])} and {@link DBMainExtended#findAvailable(String[])}. */
+  FIND,
+
+  /**
+   * The indexed and compiled searches: both forms of {@code execute},
+   * {@link DBMainExtended#executeVersioned(Query)}, {@link DBMainExtended#query(QueryCriteria)},
+   * {@code findByRateAndSize}, {@code findBySpecialties} and {@code findByOwner}.
+   */
+  QUERY,
+
+  /** {@link DBMain#create(String[])}. */
+  CREATE,
+
+  /** {@link DBMain#update(int, String[])}. */
+  UPDATE,
+
+  /**
+   * The writes a booking makes: both forms of compare-and-set and
+   * {@link DBMainExtended#commit(Transaction, long)}.
+   */
+  BOOK,
+
+  /** {@link DBMain#delete(int)}. */
+  DELETE,
+
+  /** {@link DBMain#lock(int)}, timed until the lock is granted. */
+  LOCK,
+
+  /** {@link DBMainExtended#saveRecords()}. */
+  SAVE_RECORDS
+}
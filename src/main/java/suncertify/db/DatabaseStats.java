@@ -0,0 +1,215 @@
+/*
+ * DatabaseStats.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Exposes the state of the record cache, the record locks and the operation statistics of the
+ * data access object through JMX, and lets the checkpoint interval and the query result cache be
+ * changed while the server is running. Every attribute is read from the data access object when it
+ * is requested.
+ */
+public final class DatabaseStats implements DatabaseStatsMXBean {
+
+  /** The name the MBean is registered under. */
+  public static final String OBJECT_NAME = "suncertify.db:type=DatabaseStats";
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The data access object which is inspected. */
+  private final Data data;
+
+  /**
+   * Constructs a new database statistics MBean for the specified {@code data} access object.
+   *
+   * @param data
+   *          the data access object which is inspected.
+   */
+  private DatabaseStats(final Data data) {
+    this.data = data;
+  }
+
+  /**
+   * Registers a database statistics MBean for the specified {@code data} access object with the
+   * platform MBean server, unless one is registered already. Failure to register is logged rather
+   * than thrown, since the database works just as well without it.
+   *
+   * @param data
+   *          the data access object which is inspected.
+   */
+  static void register(final Data data) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new DatabaseStats(data),
+          new ObjectName(OBJECT_NAME));
+    } catch (final InstanceAlreadyExistsException e) {
+      LOGGER.finer(OBJECT_NAME + " is already registered.");
+    } catch (final JMException e) {
+      LOGGER.log(Level.WARNING, "Could not register " + OBJECT_NAME + ".", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getCacheMemoryEstimateBytes() {
+    return data.estimateCacheBytes();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getCheckpointInterval() {
+    return data.getCheckpointInterval();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDeletedRecordCount() {
+    return data.deletedRecordCount();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDirtyRecordCount() {
+    return data.dirtyRecordCount();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getHeldLockCount() {
+    return data.getHeldLocks().size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<OperationStats> getOperationStats() {
+    return data.getOperationStats();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getQueryResultCacheCapacity() {
+    return data.getQueryResultCacheCapacity();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getQueryResultCacheHits() {
+    return data.getQueryResultCacheHits();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getQueryResultCacheMisses() {
+    return data.getQueryResultCacheMisses();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getQueryResultCacheSize() {
+    return data.getQueryResultCacheSize();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getRecordCount() {
+    return data.liveRecordCount();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getVersion() {
+    return data.getVersion();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isSingleWriter() {
+    return data.isSingleWriter();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setCheckpointInterval(final int checkpointInterval)
+      throws IllegalArgumentException {
+    data.setCheckpointInterval(checkpointInterval);
+    LOGGER.info("Checkpoint interval set to " + checkpointInterval + " through JMX.");
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setQueryResultCacheCapacity(final int capacity) throws IllegalArgumentException {
+    data.setQueryResultCacheCapacity(capacity);
+    LOGGER.info("Query result cache capacity set to " + capacity + " through JMX.");
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void compactLog() throws UnsupportedOperationException {
+    if (data.isReplica()) {
+      throw new UnsupportedOperationException(
+          "A read-only replica has no log to compact; compact the log of the primary server.");
+    }
+    data.checkpoint();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void flush() throws IOException, UnsupportedOperationException {
+    if (data.isReplica()) {
+      throw new UnsupportedOperationException(
+          "A read-only replica has no database file to save; flush the primary server.");
+    }
+    data.saveRecords();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * DatabaseStatsMXBean.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The management interface of the database, registered with the platform MBean server as
+ * {@value DatabaseStats#OBJECT_NAME} so that the state of the record cache can be inspected, and
+ * the checkpoint interval and query result cache tuned, with JConsole or any other JMX client
+ * while the server is running.
+ */
+public interface DatabaseStatsMXBean {
+
+  /**
+   * Gets the estimated memory used by the record cache and the field values of the records.
+   *
+   * @return the estimated size, in bytes.
+   */
+  long getCacheMemoryEstimateBytes();
+
+  /**
+   * Gets the number of mutations applied to the record cache between two checkpoints.
+   *
+   * @return the checkpoint interval.
+   */
+  int getCheckpointInterval();
+
+  /**
+   * Gets the number of records marked as deleted, whose slots are reused by new records.
+   *
+   * @return the number of deleted records.
+   */
+  int getDeletedRecordCount();
+
+  /**
+   * Gets the number of records changed since the database file was last saved.
+   *
+   * @return the number of changed records.
+   */
+  int getDirtyRecordCount();
+
+  /**
+   * Gets the number of held record locks.
+   *
+   * @return the number of held locks.
+   */
+  int getHeldLockCount();
+
+  /**
+   * Gets the call counts, throughput and latency percentiles of every timed database operation.
+   *
+   * @return the statistics of each operation.
+   */
+  List<OperationStats> getOperationStats();
+
+  /**
+   * Gets the maximum number of query results cached.
+   *
+   * @return the capacity of the query result cache.
+   */
+  int getQueryResultCacheCapacity();
+
+  /**
+   * Gets the number of lookups answered from the query result cache.
+   *
+   * @return the number of cache hits.
+   */
+  long getQueryResultCacheHits();
+
+  /**
+   * Gets the number of lookups not answered from the query result cache.
+   *
+   * @return the number of cache misses.
+   */
+  long getQueryResultCacheMisses();
+
+  /**
+   * Gets the number of query results currently cached.
+   *
+   * @return the size of the query result cache.
+   */
+  int getQueryResultCacheSize();
+
+  /**
+   * Gets the number of live records, i.e. records which are not marked as deleted.
+   *
+   * @return the number of live records.
+   */
+  int getRecordCount();
+
+  /**
+   * Gets the version of the database, which increases with every change to a record.
+   *
+   * @return the version of the database.
+   */
+  long getVersion();
+
+  /**
+   * Checks if mutations are applied by a single writer thread.
+   *
+   * @return true, if the database is in single-writer mode.
+   */
+  boolean isSingleWriter();
+
+  /**
+   * Sets the number of mutations applied to the record cache between two checkpoints.
+   *
+   * @param checkpointInterval
+   *          the number of mutations between two checkpoints.
+   * @throws IllegalArgumentException
+   *           if {@code checkpointInterval} is less than one.
+   */
+  void setCheckpointInterval(int checkpointInterval) throws IllegalArgumentException;
+
+  /**
+   * Changes the maximum number of query results cached, evicting the least recently used results
+   * if the cache now holds too many.
+   *
+   * @param capacity
+   *          the maximum number of cached results; 0 disables the cache.
+   * @throws IllegalArgumentException
+   *           if {@code capacity} is negative.
+   */
+  void setQueryResultCacheCapacity(int capacity) throws IllegalArgumentException;
+
+  /**
+   * Writes a checkpoint of the record cache in the background, after which the log entries it
+   * contains are discarded.
+   *
+   * @throws UnsupportedOperationException
+   *           if the database is a read-only replica, which has no log of its own; the log of the
+   *           primary server must be compacted instead.
+   */
+  void compactLog() throws UnsupportedOperationException;
+
+  /**
+   * Saves every record to the database file now, rather than waiting for the server to shut
+   * down.
+   *
+   * @throws IOException
+   *           if the database file could not be written.
+   * @throws UnsupportedOperationException
+   *           if the database is a read-only replica, which has no database file of its own; the
+   *           primary server must be flushed instead.
+   */
+  void flush() throws IOException, UnsupportedOperationException;
+}
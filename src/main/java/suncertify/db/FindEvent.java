@@ -0,0 +1,111 @@
+/*
+ * FindEvent.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event spanning a search of the records by {@link Data#find(String[])},
+ * {@link Data#findAvailable(String[])} or {@link Data#execute(PreparedQuery)}. The criteria are
+ * recorded by shape only, i.e. which fields were constrained, so a recording neither contains
+ * customer data nor has one distinct value per search.
+ */
+@Name("suncertify.Find")
+@Label("Find")
+@Category({ "Bodgitt and Scarper", "Database" })
+@Description("A search of the records")
+@StackTrace(false)
+final class FindEvent extends jdk.jfr.Event {
+
+  /** The names of the fields constrained by the criteria, separated by commas. */
+  @Label("Criteria")
+  @Description("The fields constrained by the criteria")
+  String criteria;
+
+  /** True if only available records were searched. */
+  @Label("Available Only")
+  boolean availableOnly;
+
+  /** True if the result was taken from the query result cache. */
+  @Label("Cached")
+  boolean cached;
+
+  /** The number of matching records. */
+  @Label("Result Count")
+  int resultCount;
+
+  /**
+   * Sets the fields of the event for a search by field prefix. Only to be invoked once
+   * {@link #shouldCommit()} has returned true, so that the event never escapes the method which
+   * created it while it is disabled.
+   *
+   * @param searchCriteria
+   *          the field prefixes searched for.
+   * @param available
+   *          true if only available records were searched.
+   * @param matches
+   *          the number of matching records.
+   */
+  void set(final String[] searchCriteria, final boolean available, final int matches) {
+    int fieldMask = 0;
+    for (int index = 0; index < searchCriteria.length; index++) {
+      if (searchCriteria[index] != null && !searchCriteria[index].isEmpty()) {
+        fieldMask |= 1 << index;
+      }
+    }
+    set(fieldMask, available, false, matches);
+  }
+
+  /**
+   * Sets the fields of the event for the execution of the specified {@code query}. Only to be
+   * invoked once {@link #shouldCommit()} has returned true.
+   *
+   * @param query
+   *          the query executed.
+   * @param resultCached
+   *          true if the result was taken from the query result cache.
+   * @param matches
+   *          the number of matching records.
+   */
+  void set(final Query query, final boolean resultCached, final int matches) {
+    set(query.fieldMask(), false, resultCached, matches);
+  }
+
+  /**
+   * Sets the fields of the event.
+   *
+   * @param fieldMask
+   *          the positions of the fields constrained, as a bit mask.
+   * @param available
+   *          true if only available records were searched.
+   * @param resultCached
+   *          true if the result was taken from the query result cache.
+   * @param matches
+   *          the number of matching records.
+   */
+  private void set(final int fieldMask, final boolean available, final boolean resultCached,
+      final int matches) {
+    final StringBuilder shape = new StringBuilder();
+    for (int index = 0; index < Data.FIELD_NAMES.length; index++) {
+      if ((fieldMask & 1 << index) != 0) {
+        shape.append(shape.length() == 0 ? "" : ",").append(Data.FIELD_NAMES[index]);
+      }
+    }
+    criteria = shape.toString();
+    availableOnly = available;
+    cached = resultCached;
+    resultCount = matches;
+  }
+}
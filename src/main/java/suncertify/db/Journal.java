@@ -0,0 +1,631 @@
+/*
+ * Journal.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import static suncertify.util.Constants.RECORD_FIELDS;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Journal makes the record cache of a {@link Data} instance recoverable after an unclean stop. It
+ * keeps two kinds of files next to the database file:
+ * <ul>
+ * <li><b>Log segments</b>, {@code <db>.log.<n>}, to which every {@link Mutation} is appended as it
+ * is applied, starting with mutation {@code n}. Each entry carries a CRC-32 checksum.</li>
+ * <li><b>Checkpoints</b>, {@code <db>.ckpt.<n>}, compact binary images of the whole record cache
+ * as of mutation {@code n}, protected by a CRC-32 checksum.</li>
+ * </ul>
+ * On restart the newest valid checkpoint is loaded and only the log entries after it are replayed,
+ * so restart time is bounded by the checkpoint interval rather than the database size. Both kinds
+ * of file are tagged with the size and modification time of the database file they extend; once
+ * the database file has been rewritten they no longer apply and are discarded.
+ *
+ * <p>While a new version of the database file is being saved, log segments holding the mutations
+ * made after its snapshot are tagged with the identity of both versions. Whether or not the save
+ * completes before a crash, those mutations are therefore replayed on top of whichever version
+ * of the database file is found on restart.
+ *
+ * <p>Appends are made by the thread applying the mutation and are flushed to the operating system
+ * straight away, so no mutation is lost if the process dies. Checkpoints are written on a
+ * background thread from an immutable {@link RecordSnapshot}.
+ */
+final class Journal {
+
+  /** The magic value at the start of every log segment. */
+  private static final int SEGMENT_MAGIC = 0x4A524E4C;
+
+  /** The magic value at the start of every checkpoint. */
+  private static final int CHECKPOINT_MAGIC = 0x434B5054;
+
+  /** The length in bytes of the header of a log segment. */
+  private static final int SEGMENT_HEADER_LENGTH = 60;
+
+  /** The file name infix of log segments. */
+  private static final String SEGMENT_INFIX = ".log.";
+
+  /** The file name infix of checkpoints. */
+  private static final String CHECKPOINT_INFIX = ".ckpt.";
+
+  /** The file name suffix of checkpoints which are still being written. */
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /** The number of checkpoints retained, so that an older one can be used if the newest is bad. */
+  private static final int RETAINED_CHECKPOINTS = 2;
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The database file this journal extends. */
+  private final Path dbFile;
+
+  /** The buffer each log entry is assembled in before being written with a single call. */
+  private final ByteArrayOutputStream entryBuffer = new ByteArrayOutputStream(256);
+
+  /** The size of the database file this journal extends. */
+  private long baseSize;
+
+  /** The modification time of the database file this journal extends. */
+  private long baseModified;
+
+  /** The sequence number of the last mutation contained in the database file. */
+  private long baseSequence;
+
+  /** The size of the database file being saved, or zero if no save is in progress. */
+  private long pendingSize;
+
+  /** The modification time of the database file being saved, or zero if none is. */
+  private long pendingModified;
+
+  /** The sequence number of the last mutation contained in the database file being saved. */
+  private long pendingSequence = -1;
+
+  /** Incremented whenever the journal is reset, invalidating checkpoints being written. */
+  private long generation;
+
+  /** The log segment mutations are currently appended to, {@code null} until opened. */
+  private FileChannel segment;
+
+  /**
+   * Constructs a new journal for the specified database file.
+   *
+   * @param dbFile
+   *          the database file this journal extends.
+   * @throws IOException
+   *           if the attributes of the database file could not be read.
+   */
+  Journal(final Path dbFile) throws IOException {
+    this.dbFile = dbFile.toAbsolutePath();
+    readBaseIdentity();
+  }
+
+  /**
+   * Appends the specified {@code mutation} to the current log segment and flushes it to the
+   * operating system.
+   *
+   * @param mutation
+   *          the mutation to append.
+   * @throws IOException
+   *           if the entry could not be written.
+   */
+  synchronized void append(final Mutation mutation) throws IOException {
+    entryBuffer.reset();
+    final DataOutputStream output = new DataOutputStream(entryBuffer);
+    output.writeInt(0);
+    output.writeLong(mutation.getSequence());
+    output.writeByte(mutation.getType().ordinal());
+    output.writeInt(mutation.getRecordNumber());
+    writeRecord(output, mutation.getData());
+    output.writeInt(0);
+    final byte[] bytes = entryBuffer.toByteArray();
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    final int payloadLength = bytes.length - 8;
+    final CRC32 crc = new CRC32();
+    crc.update(bytes, 4, payloadLength);
+    buffer.putInt(0, payloadLength);
+    buffer.putInt(bytes.length - 4, (int) crc.getValue());
+    while (buffer.hasRemaining()) {
+      segment.write(buffer);
+    }
+  }
+
+  /**
+   * Closes the current log segment.
+   */
+  synchronized void close() {
+    closeSegment();
+  }
+
+  /**
+   * Loads the newest valid checkpoint of the database file. Checkpoints which fail their checksum
+   * or which extend a different version of the database file are skipped.
+   *
+   * @return the newest valid checkpoint, or {@code null} if there is none.
+   */
+  synchronized RecordSnapshot loadCheckpoint() {
+    final TreeMap<Long, Path> checkpoints = listFiles(CHECKPOINT_INFIX);
+    for (final Path path : checkpoints.descendingMap().values()) {
+      try {
+        final RecordSnapshot snapshot = readCheckpoint(path);
+        if (snapshot != null) {
+          return snapshot;
+        }
+      } catch (final IOException e) {
+        LOGGER.log(Level.WARNING, "Could not read checkpoint " + path + ".", e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Opens a new log segment to which mutations from {@code nextSequence} on are appended.
+   *
+   * @param nextSequence
+   *          the sequence number of the next mutation.
+   * @throws IOException
+   *           if the segment could not be created.
+   */
+  synchronized void openSegment(final long nextSequence) throws IOException {
+    closeSegment();
+    final Path path = siblingPath(SEGMENT_INFIX + nextSequence);
+    segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    writeSegmentHeader(segment, nextSequence);
+    segment.position(SEGMENT_HEADER_LENGTH);
+  }
+
+  /**
+   * Replays, in order, the log entries following the mutation with the specified
+   * {@code sequence}. If {@code sequence} is negative, replay starts after the last mutation
+   * contained in the database file, as recorded in the log segments extending it. Replay stops
+   * at the first entry which is torn or fails its checksum, or if a mutation is missing.
+   *
+   * @param sequence
+   *          the sequence number of the last mutation already applied, or a negative number if
+   *          only the database file has been loaded.
+   * @param consumer
+   *          the consumer each replayed mutation is passed to.
+   * @return the sequence number of the last mutation replayed, or the sequence number replay
+   *         started after if none was.
+   * @throws IOException
+   *           if {@code sequence} is negative and the oldest log segment extending the database
+   *           file doesn't follow on from it, so that mutations between the two have been lost.
+   */
+  synchronized long replay(final long sequence, final Consumer<Mutation> consumer)
+      throws IOException {
+    long last = sequence;
+    for (final Path path : listFiles(SEGMENT_INFIX).values()) {
+      final byte[] bytes;
+      try {
+        bytes = Files.readAllBytes(path);
+      } catch (final IOException e) {
+        LOGGER.log(Level.WARNING, "Could not read log segment " + path + ".", e);
+        continue;
+      }
+      try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+        if (input.readInt() != SEGMENT_MAGIC) {
+          continue;
+        }
+        final long size = input.readLong();
+        final long modified = input.readLong();
+        final long fileSequence = input.readLong();
+        final long otherSize = input.readLong();
+        final long otherModified = input.readLong();
+        final long otherFileSequence = input.readLong();
+        if (size == baseSize && modified == baseModified) {
+          baseSequence = fileSequence;
+        } else if (otherSize == baseSize && otherModified == baseModified) {
+          baseSequence = otherFileSequence;
+        } else {
+          continue;
+        }
+        final long start = input.readLong();
+        if (last < 0) {
+          if (start > baseSequence + 1) {
+            throw new IOException("Log segment " + path + " starts at mutation " + start
+                + " but the database file only contains mutations up to " + baseSequence
+                + "; the log segments in between are missing.");
+          }
+          last = baseSequence;
+        }
+        while (true) {
+          final Mutation mutation = readEntry(input);
+          if (mutation == null) {
+            break;
+          }
+          if (mutation.getSequence() <= last) {
+            continue;
+          }
+          if (mutation.getSequence() != last + 1) {
+            LOGGER.warning("Mutation " + (last + 1) + " is missing from the log; replay stopped.");
+            return last;
+          }
+          consumer.accept(mutation);
+          last = mutation.getSequence();
+        }
+      } catch (final EOFException e) {
+        LOGGER.log(Level.WARNING, "Log segment " + path + " has a truncated header.", e);
+      }
+    }
+    return last;
+  }
+
+  /**
+   * Prepares this journal for the database file to be replaced by a new version containing every
+   * mutation up to and including {@code sequence}. The log segments holding later mutations are
+   * tagged with the identity of the new version as well as the current one, so that they are
+   * replayed whichever version is found on restart. The current log segment must start after
+   * {@code sequence}.
+   *
+   * @param sequence
+   *          the sequence number of the last mutation contained in the new version.
+   * @param size
+   *          the size of the new version of the database file.
+   * @param modified
+   *          the modification time of the new version of the database file.
+   * @throws IOException
+   *           if a log segment could not be tagged.
+   */
+  synchronized void beginSave(final long sequence, final long size, final long modified)
+      throws IOException {
+    pendingSize = size;
+    pendingModified = modified;
+    pendingSequence = sequence;
+    for (final Map.Entry<Long, Path> entry : listFiles(SEGMENT_INFIX).entrySet()) {
+      if (entry.getKey() > sequence) {
+        try (FileChannel channel = FileChannel.open(entry.getValue(), StandardOpenOption.WRITE)) {
+          writeSegmentHeader(channel, entry.getKey());
+          channel.force(false);
+        }
+      }
+    }
+  }
+
+  /**
+   * Completes a save begun with {@link #beginSave(long, long, long)} once the new version of the
+   * database file is in place. Every checkpoint, and every log segment whose mutations are all
+   * contained in the new version, is deleted; checkpoints still being written are discarded.
+   *
+   * @throws IOException
+   *           if a file could not be deleted or the new version could not be read.
+   */
+  synchronized void completeSave() throws IOException {
+    generation++;
+    readBaseIdentity();
+    for (final Path path : listFiles(CHECKPOINT_INFIX).values()) {
+      Files.deleteIfExists(path);
+    }
+    for (final Map.Entry<Long, Path> entry : listFiles(SEGMENT_INFIX).entrySet()) {
+      if (entry.getKey() <= pendingSequence) {
+        Files.deleteIfExists(entry.getValue());
+      }
+    }
+    baseSequence = pendingSequence;
+    pendingSize = 0;
+    pendingModified = 0;
+    pendingSequence = -1;
+  }
+
+  /**
+   * Closes the current log segment and opens a new one starting at {@code nextSequence}, so that
+   * log segments wholly covered by checkpoints can later be deleted.
+   *
+   * @param nextSequence
+   *          the sequence number of the next mutation.
+   * @return the generation of the journal, to be passed to
+   *         {@link #writeCheckpoint(RecordSnapshot, long)}.
+   * @throws IOException
+   *           if the new log segment could not be created.
+   */
+  synchronized long rotate(final long nextSequence) throws IOException {
+    openSegment(nextSequence);
+    return generation;
+  }
+
+  /**
+   * Writes the specified {@code snapshot} as a new checkpoint and then deletes any checkpoints and
+   * log segments which are no longer needed. The checkpoint is written to a temporary file, forced
+   * to disk and then atomically renamed, so a crash never leaves a partially written checkpoint
+   * behind. This method is intended to be invoked on a background thread; it does not block
+   * appends while the checkpoint is being written.
+   *
+   * @param snapshot
+   *          the snapshot to write.
+   * @param snapshotGeneration
+   *          the generation returned by {@link #rotate(long)} when the snapshot was taken.
+   * @throws IOException
+   *           if the checkpoint could not be written.
+   */
+  void writeCheckpoint(final RecordSnapshot snapshot, final long snapshotGeneration)
+      throws IOException {
+    final long size;
+    final long modified;
+    synchronized (this) {
+      size = baseSize;
+      modified = baseModified;
+    }
+    final Path target = siblingPath(CHECKPOINT_INFIX + snapshot.getSequence());
+    final Path temp = siblingPath(CHECKPOINT_INFIX + snapshot.getSequence() + TEMP_SUFFIX);
+    final CRC32 crc = new CRC32();
+    try (FileOutputStream file = new FileOutputStream(temp.toFile());
+        DataOutputStream output = new DataOutputStream(
+            new CheckedOutputStream(new BufferedOutputStream(file), crc))) {
+      output.writeInt(CHECKPOINT_MAGIC);
+      output.writeLong(size);
+      output.writeLong(modified);
+      output.writeLong(snapshot.getSequence());
+      output.writeInt(snapshot.getRecords().size());
+      for (final Map.Entry<Integer, String[]> entry : snapshot.getRecords().entrySet()) {
+        output.writeInt(entry.getKey());
+        writeRecord(output, entry.getValue());
+      }
+      output.writeLong(crc.getValue());
+      output.flush();
+      file.getFD().sync();
+    }
+    synchronized (this) {
+      if (snapshotGeneration != generation) {
+        Files.deleteIfExists(temp);
+        return;
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+      prune();
+    }
+  }
+
+  /**
+   * Closes the current log segment, if one is open.
+   */
+  private void closeSegment() {
+    if (segment != null) {
+      try {
+        segment.close();
+      } catch (final IOException e) {
+        LOGGER.log(Level.WARNING, "Could not close log segment.", e);
+      }
+      segment = null;
+    }
+  }
+
+  /**
+   * Lists the files next to the database file whose names consist of the database file name, the
+   * specified {@code infix} and a sequence number, keyed and ordered by that sequence number.
+   *
+   * @param infix
+   *          the file name infix.
+   * @return the matching files, ordered by sequence number.
+   */
+  private TreeMap<Long, Path> listFiles(final String infix) {
+    final TreeMap<Long, Path> files = new TreeMap<>();
+    final String prefix = dbFile.getFileName() + infix;
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dbFile.getParent(),
+        prefix + "*")) {
+      for (final Path path : stream) {
+        final String suffix = path.getFileName().toString().substring(prefix.length());
+        try {
+          files.put(Long.parseLong(suffix), path);
+        } catch (final NumberFormatException e) {
+          LOGGER.fine("Ignoring " + path);
+        }
+      }
+    } catch (final IOException e) {
+      LOGGER.log(Level.WARNING, "Could not list journal files.", e);
+    }
+    return files;
+  }
+
+  /**
+   * Deletes all but the newest {@value #RETAINED_CHECKPOINTS} checkpoints, and any log segment
+   * whose mutations are all contained in the oldest retained checkpoint.
+   *
+   * @throws IOException
+   *           if a file could not be deleted.
+   */
+  private void prune() throws IOException {
+    final TreeMap<Long, Path> checkpoints = listFiles(CHECKPOINT_INFIX);
+    if (checkpoints.size() < RETAINED_CHECKPOINTS) {
+      return;
+    }
+    while (checkpoints.size() > RETAINED_CHECKPOINTS) {
+      Files.deleteIfExists(checkpoints.pollFirstEntry().getValue());
+    }
+    final long covered = checkpoints.firstKey();
+    final TreeMap<Long, Path> segments = listFiles(SEGMENT_INFIX);
+    for (final Map.Entry<Long, Path> entry : segments.entrySet()) {
+      final Long nextStart = segments.higherKey(entry.getKey());
+      if (nextStart != null && nextStart - 1 <= covered) {
+        Files.deleteIfExists(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Writes the header of a log segment to the start of the specified {@code channel}. The header
+   * identifies the version of the database file the segment extends and, while a save is in
+   * progress, the version being saved, each with the sequence number of the last mutation it
+   * contains.
+   *
+   * @param channel
+   *          the channel of the log segment.
+   * @param startSequence
+   *          the sequence number of the first mutation in the segment.
+   * @throws IOException
+   *           if the header could not be written.
+   */
+  private void writeSegmentHeader(final FileChannel channel, final long startSequence)
+      throws IOException {
+    final ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_LENGTH);
+    header.putInt(SEGMENT_MAGIC).putLong(baseSize).putLong(baseModified).putLong(baseSequence)
+        .putLong(pendingSize).putLong(pendingModified).putLong(pendingSequence)
+        .putLong(startSequence);
+    header.flip();
+    long position = 0;
+    while (header.hasRemaining()) {
+      position += channel.write(header, position);
+    }
+  }
+
+  /**
+   * Reads the size and modification time of the database file, which identify the version of the
+   * database file that this journal extends.
+   *
+   * @throws IOException
+   *           if the attributes could not be read.
+   */
+  private void readBaseIdentity() throws IOException {
+    baseSize = Files.size(dbFile);
+    baseModified = Files.getLastModifiedTime(dbFile).toMillis();
+  }
+
+  /**
+   * Reads and verifies the checkpoint at the specified {@code path}.
+   *
+   * @param path
+   *          the path of the checkpoint.
+   * @return the checkpoint, or {@code null} if it fails its checksum or extends a different
+   *         version of the database file.
+   * @throws IOException
+   *           if the checkpoint could not be read.
+   */
+  private RecordSnapshot readCheckpoint(final Path path) throws IOException {
+    final byte[] bytes = Files.readAllBytes(path);
+    if (bytes.length < 8) {
+      return null;
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(bytes, 0, bytes.length - 8);
+    if (crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 8, 8).getLong()) {
+      LOGGER.warning("Checkpoint " + path + " failed its checksum and was ignored.");
+      return null;
+    }
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      if (input.readInt() != CHECKPOINT_MAGIC || input.readLong() != baseSize
+          || input.readLong() != baseModified) {
+        return null;
+      }
+      final long sequence = input.readLong();
+      final int count = input.readInt();
+      final Map<Integer, String[]> records = new HashMap<>(count * 2);
+      for (int index = 0; index < count; index++) {
+        final int recordNumber = input.readInt();
+        records.put(recordNumber, readRecord(input));
+      }
+      return new RecordSnapshot(sequence, records);
+    }
+  }
+
+  /**
+   * Reads and verifies the next log entry from the specified {@code input}.
+   *
+   * @param input
+   *          the contents of a log segment, positioned at the start of an entry.
+   * @return the mutation, or {@code null} if the end of the segment was reached or the entry is
+   *         torn or fails its checksum.
+   * @throws IOException
+   *           if an I/O exception has occurred.
+   */
+  private Mutation readEntry(final DataInputStream input) throws IOException {
+    try {
+      final int length = input.readInt();
+      if (length <= 0 || length > input.available()) {
+        return null;
+      }
+      final byte[] payload = new byte[length];
+      input.readFully(payload);
+      final CRC32 crc = new CRC32();
+      crc.update(payload, 0, length);
+      if ((int) crc.getValue() != input.readInt()) {
+        LOGGER.warning("Log entry failed its checksum; replay stopped.");
+        return null;
+      }
+      final DataInputStream entry = new DataInputStream(new ByteArrayInputStream(payload));
+      final long sequence = entry.readLong();
+      final Mutation.Type type = Mutation.Type.values()[entry.readByte()];
+      final int recordNumber = entry.readInt();
+      return new Mutation(sequence, type, recordNumber, readRecord(entry));
+    } catch (final EOFException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads the field values of a record written by {@link #writeRecord(DataOutputStream, String[])}.
+   *
+   * @param input
+   *          the input to read from.
+   * @return the field values, or {@code null} if the record is deleted.
+   * @throws IOException
+   *           if an I/O exception has occurred.
+   */
+  private String[] readRecord(final DataInputStream input) throws IOException {
+    if (!input.readBoolean()) {
+      return null;
+    }
+    final String[] fieldValues = new String[RECORD_FIELDS];
+    for (int index = 0; index < RECORD_FIELDS; index++) {
+      fieldValues[index] = input.readUTF();
+    }
+    return fieldValues;
+  }
+
+  /**
+   * Resolves a file next to the database file whose name is the database file name followed by
+   * the specified {@code suffix}.
+   *
+   * @param suffix
+   *          the file name suffix.
+   * @return the path of the file.
+   */
+  private Path siblingPath(final String suffix) {
+    return dbFile.resolveSibling(dbFile.getFileName() + suffix);
+  }
+
+  /**
+   * Writes the specified {@code fieldValues} to the specified {@code output}.
+   *
+   * @param output
+   *          the output to write to.
+   * @param fieldValues
+   *          the field values, or {@code null} if the record is deleted.
+   * @throws IOException
+   *           if an I/O exception has occurred.
+   */
+  private void writeRecord(final DataOutputStream output, final String[] fieldValues)
+      throws IOException {
+    output.writeBoolean(fieldValues != null);
+    if (fieldValues != null) {
+      for (int index = 0; index < RECORD_FIELDS; index++) {
+        output.writeUTF(fieldValues[index]);
+      }
+    }
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * LatencyHistogram.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies over a rolling window, safe for concurrent use. Latencies are counted
+ * in fixed log-linear buckets, in the manner of an HDR histogram: each power of two is split into
+ * {@value #SUB_BUCKETS} equal buckets, so a percentile is never overstated by more than 12.5%, and
+ * recording a latency is a few bit operations and an atomic increment, without allocation.
+ *
+ * <p>The window is divided into slots, each holding the latencies recorded in one interval. The
+ * first latency recorded in a new interval clears the slot of the interval the window has just
+ * moved past. Latencies recorded concurrently with the clearing of a slot may be lost, so counts
+ * are approximate at slot boundaries.
+ */
+final class LatencyHistogram {
+
+  /** The number of bits of a latency below its leading bit which select its bucket. */
+  private static final int SUB_BUCKET_BITS = 3;
+
+  /** The number of buckets per power of two. */
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** The largest power of two distinguished; longer latencies share the last bucket. */
+  private static final int MAX_EXPONENT = 44;
+
+  /** The number of buckets. */
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  /** The slots of the window, each counting the latencies of one interval. */
+  private final Slot[] slots;
+
+  /** The length of the interval counted by a slot, in nanoseconds. */
+  private final long slotNanos;
+
+  /** The time the histogram was created, from {@link System#nanoTime()}. */
+  private final long createdNanos = System.nanoTime();
+
+  /**
+   * Constructs a new histogram over a window of {@code slotCount} intervals of {@code slotNanos}.
+   *
+   * @param slotCount
+   *          the number of intervals in the window.
+   * @param slotNanos
+   *          the length of an interval, in nanoseconds.
+   */
+  LatencyHistogram(final int slotCount, final long slotNanos) {
+    this.slots = new Slot[slotCount];
+    for (int index = 0; index < slotCount; index++) {
+      slots[index] = new Slot();
+    }
+    this.slotNanos = slotNanos;
+  }
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos
+   *          the latency, in nanoseconds.
+   * @param now
+   *          the current time, from {@link System#nanoTime()}.
+   */
+  void record(final long nanos, final long now) {
+    final long interval = (now - createdNanos) / slotNanos;
+    final Slot slot = slots[(int) (interval % slots.length)];
+    final long slotInterval = slot.interval.get();
+    if (slotInterval < interval && slot.interval.compareAndSet(slotInterval, interval)) {
+      slot.clear();
+    }
+    slot.counts.incrementAndGet(bucketOf(Math.max(nanos, 0)));
+    long max = slot.max.get();
+    while (nanos > max && !slot.max.compareAndSet(max, nanos)) {
+      max = slot.max.get();
+    }
+  }
+
+  /**
+   * Takes a snapshot of the latencies recorded within the window.
+   *
+   * @param now
+   *          the current time, from {@link System#nanoTime()}.
+   * @return the counts per bucket, followed by the maximum latency and the length of the window
+   *         covered, in nanoseconds.
+   */
+  Snapshot snapshot(final long now) {
+    final long interval = (now - createdNanos) / slotNanos;
+    final long[] counts = new long[BUCKETS];
+    long max = 0;
+    for (final Slot slot : slots) {
+      if (interval - slot.interval.get() < slots.length) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+          counts[bucket] += slot.counts.get(bucket);
+        }
+        max = Math.max(max, slot.max.get());
+      }
+    }
+    final long windowNanos = Math.min(now - createdNanos,
+        (slots.length - 1) * slotNanos + (now - createdNanos) % slotNanos);
+    return new Snapshot(counts, max, Math.max(windowNanos, 1));
+  }
+
+  /**
+   * Gets the bucket counting the specified latency.
+   *
+   * @param nanos
+   *          the latency, in nanoseconds, not negative.
+   * @return the bucket.
+   */
+  private static int bucketOf(final long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Gets the largest latency counted by the specified bucket.
+   *
+   * @param bucket
+   *          the bucket.
+   * @return the largest latency, in nanoseconds.
+   */
+  private static long upperBoundOf(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) * width - 1;
+  }
+
+  /**
+   * The latencies recorded in one interval of the window.
+   */
+  private static final class Slot {
+
+    /** The interval counted, numbered from the creation of the histogram. */
+    private final AtomicLong interval = new AtomicLong();
+
+    /** The number of latencies counted in each bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /** The maximum latency recorded, in nanoseconds. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Clears the counts and the maximum.
+     */
+    void clear() {
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        counts.set(bucket, 0);
+      }
+      max.set(0);
+    }
+  }
+
+  /**
+   * The latencies recorded within the window at the time of a snapshot.
+   */
+  static final class Snapshot {
+
+    /** The number of latencies counted in each bucket. */
+    private final long[] counts;
+
+    /** The maximum latency, in nanoseconds. */
+    private final long max;
+
+    /** The length of the window covered, in nanoseconds. */
+    private final long windowNanos;
+
+    /** The total number of latencies counted. */
+    private final long count;
+
+    /**
+     * Constructs a new snapshot.
+     *
+     * @param counts
+     *          the number of latencies counted in each bucket.
+     * @param max
+     *          the maximum latency, in nanoseconds.
+     * @param windowNanos
+     *          the length of the window covered, in nanoseconds.
+     */
+    Snapshot(final long[] counts, final long max, final long windowNanos) {
+      this.counts = counts;
+      this.max = max;
+      this.windowNanos = windowNanos;
+      long total = 0;
+      for (final long bucketCount : counts) {
+        total += bucketCount;
+      }
+      this.count = total;
+    }
+
+    /**
+     * Gets the number of latencies counted.
+     *
+     * @return the count.
+     */
+    long count() {
+      return count;
+    }
+
+    /**
+     * Gets the maximum latency.
+     *
+     * @return the maximum, in nanoseconds.
+     */
+    long max() {
+      return max;
+    }
+
+    /**
+     * Gets the latency which the specified {@code percentile} of the latencies counted don't
+     * exceed, rounded up to the largest latency of its bucket but never above the maximum.
+     *
+     * @param percentile
+     *          the percentile, between 0 and 100.
+     * @return the latency, in nanoseconds, or 0 if no latencies were counted.
+     */
+    long percentile(final double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+      long seen = 0;
+      for (int bucket = 0; bucket < counts.length; bucket++) {
+        seen += counts[bucket];
+        if (seen >= rank) {
+          return bucket == counts.length - 1 ? max : Math.min(upperBoundOf(bucket), max);
+        }
+      }
+      return max;
+    }
+
+    /**
+     * Gets the length of the window covered.
+     *
+     * @return the length, in nanoseconds.
+     */
+    long windowNanos() {
+      return windowNanos;
+    }
+  }
+}
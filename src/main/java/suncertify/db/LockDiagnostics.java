@@ -0,0 +1,100 @@
+/*
+ * LockDiagnostics.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Exposes the held record locks and the most contended records of a data access object through
+ * JMX. Every attribute is read from the data access object when it is requested.
+ */
+public final class LockDiagnostics implements LockDiagnosticsMXBean {
+
+  /** The name the MBean is registered under. */
+  public static final String OBJECT_NAME = "suncertify.db:type=LockDiagnostics";
+
+  /** The number of most contended records reported. */
+  private static final int HOT_RECORD_LIMIT = 10;
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The data access object whose locks are inspected. */
+  private final DBMainExtended data;
+
+  /**
+   * Constructs a new lock diagnostics MBean for the specified {@code data} access object.
+   *
+   * @param data
+   *          the data access object whose locks are inspected.
+   */
+  private LockDiagnostics(final DBMainExtended data) {
+    this.data = data;
+  }
+
+  /**
+   * Registers a lock diagnostics MBean for the specified {@code data} access object with the
+   * platform MBean server, unless one is registered already. Failure to register is logged rather
+   * than thrown, since the database works just as well without it.
+   *
+   * @param data
+   *          the data access object whose locks are inspected.
+   */
+  static void register(final DBMainExtended data) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new LockDiagnostics(data),
+          new ObjectName(OBJECT_NAME));
+    } catch (final InstanceAlreadyExistsException e) {
+      LOGGER.finer(OBJECT_NAME + " is already registered.");
+    } catch (final JMException e) {
+      LOGGER.log(Level.WARNING, "Could not register " + OBJECT_NAME + ".", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getHeldLockCount() {
+    return data.getHeldLocks().size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<RecordLockInfo> getHeldLocks() {
+    return data.getHeldLocks();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<RecordContention> getHotRecords() {
+    return data.getHotRecords(HOT_RECORD_LIMIT);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getWaitingRequestCount() {
+    return data.getHeldLocks().stream().mapToInt(RecordLockInfo::getWaiters).sum();
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * LockDiagnosticsMXBean.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.List;
+
+/**
+ * The management interface of the record locks of the database, registered with the platform
+ * MBean server as {@value LockDiagnostics#OBJECT_NAME} so that lock contention can be inspected
+ * with JConsole or any other JMX client while the server is running.
+ */
+public interface LockDiagnosticsMXBean {
+
+  /**
+   * Gets the number of held record locks.
+   *
+   * @return the number of held locks.
+   */
+  int getHeldLockCount();
+
+  /**
+   * Gets the state of every held record lock, in record number order.
+   *
+   * @return the held locks.
+   */
+  List<RecordLockInfo> getHeldLocks();
+
+  /**
+   * Gets the records whose locks have been most contended over the last one to two minutes, most
+   * contended first.
+   *
+   * @return the most contended records.
+   */
+  List<RecordContention> getHotRecords();
+
+  /**
+   * Gets the number of lock requests waiting for a held lock.
+   *
+   * @return the number of waiting requests.
+   */
+  int getWaitingRequestCount();
+}
@@ -0,0 +1,119 @@
+/*
+ * Mutation.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A single change applied to the record cache of a {@link Data} instance. Every successful
+ * {@code create}, {@code update} and {@code delete} produces exactly one mutation, stamped with a
+ * sequence number that is one greater than the sequence number of the previous mutation. The
+ * ordered stream of mutations makes up the mutation log which is shipped to read replicas.
+ * Immutable and {@link Serializable}.
+ */
+public final class Mutation implements Serializable {
+
+  /**
+   * The type of change described by a {@link Mutation}.
+   */
+  public enum Type {
+
+    /** A new record was created, possibly reusing a deleted entry. */
+    CREATE,
+
+    /** The field values of an existing record were replaced. */
+    UPDATE,
+
+    /** A record was marked as deleted. */
+    DELETE
+  }
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The sequence number of this mutation in the mutation log. */
+  private final long sequence;
+
+  /** The type of change. */
+  private final Type type;
+
+  /** The number of the record that was changed. */
+  private final int recordNumber;
+
+  /** The new field values of the record, {@code null} if the record was deleted. */
+  private final String[] data;
+
+  /**
+   * Constructs a new mutation.
+   *
+   * @param sequence
+   *          the sequence number of this mutation in the mutation log.
+   * @param type
+   *          the type of change.
+   * @param recordNumber
+   *          the number of the record that was changed.
+   * @param data
+   *          the new field values of the record, {@code null} if the record was deleted.
+   */
+  public Mutation(final long sequence, final Type type, final int recordNumber,
+      final String[] data) {
+    this.sequence = sequence;
+    this.type = type;
+    this.recordNumber = recordNumber;
+    this.data = data == null ? null : data.clone();
+  }
+
+  /**
+   * Gets the new field values of the record.
+   *
+   * @return a copy of the new field values, {@code null} if the record was deleted.
+   */
+  public String[] getData() {
+    return data == null ? null : data.clone();
+  }
+
+  /**
+   * Gets the number of the record that was changed.
+   *
+   * @return the record number.
+   */
+  public int getRecordNumber() {
+    return recordNumber;
+  }
+
+  /**
+   * Gets the sequence number of this mutation in the mutation log.
+   *
+   * @return the sequence number.
+   */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Gets the type of change.
+   *
+   * @return the type of change.
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * {@inheritDoc}.
+   */
+  @Override
+  public String toString() {
+    return "Mutation [sequence=" + sequence + ", type=" + type + ", recordNumber=" + recordNumber
+        + ", data=" + Arrays.toString(data) + "]";
+  }
+}
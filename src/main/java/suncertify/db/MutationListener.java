@@ -0,0 +1,29 @@
+/*
+ * MutationListener.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+/**
+ * MutationListener is notified by {@link Data} of every {@link Mutation} applied to its record
+ * cache, in mutation log order.
+ *
+ * <p>Implementations are invoked while the caller holds the monitor of the {@link Data} instance,
+ * so they must never block; they should hand the mutation off to another thread and return.
+ */
+interface MutationListener {
+
+  /**
+   * Invoked after the specified {@code mutation} has been applied to the record cache.
+   *
+   * @param mutation
+   *          the mutation that was applied.
+   */
+  void mutationApplied(Mutation mutation);
+}
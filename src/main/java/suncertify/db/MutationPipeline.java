@@ -0,0 +1,214 @@
+/*
+ * MutationPipeline.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The single writer of a {@link Data} instance running in single-writer mode. Client threads
+ * submit mutations to a bounded ring buffer, an {@link ArrayBlockingQueue}, and a dedicated writer
+ * thread drains it in batches, applying each batch in one pass which takes the monitor of the
+ * {@link Data} instance only once. A client submitting to a full buffer waits for the writer to
+ * catch up, so a burst of writes is throttled rather than queued without limit.
+ *
+ * <p>Each submission is completed only after the batch containing it has been applied and the
+ * monitor released, so a client never resumes while the writer still holds it.
+ */
+final class MutationPipeline {
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The submissions waiting to be applied, in submission order. */
+  private final BlockingQueue<Submission<?>> ringBuffer;
+
+  /** The maximum number of submissions applied in one batch. */
+  private final int maxBatchSize;
+
+  /** Applies a batch of submissions, in order, while holding the monitor of the data store. */
+  private final Consumer<List<Submission<?>>> batchApplier;
+
+  /** The writer thread. */
+  private final Thread writer;
+
+  /**
+   * Constructs a new pipeline. Submissions are not applied until {@link #start()} is invoked.
+   *
+   * @param capacity
+   *          the capacity of the ring buffer.
+   * @param maxBatchSize
+   *          the maximum number of submissions applied in one batch.
+   * @param batchApplier
+   *          applies a batch of submissions, in order, while holding the monitor of the data
+   *          store.
+   */
+  MutationPipeline(final int capacity, final int maxBatchSize,
+      final Consumer<List<Submission<?>>> batchApplier) {
+    this.ringBuffer = new ArrayBlockingQueue<>(capacity);
+    this.maxBatchSize = maxBatchSize;
+    this.batchApplier = batchApplier;
+    this.writer = new Thread(this::applyBatches, "mutation-writer");
+    writer.setDaemon(true);
+  }
+
+  /**
+   * Starts the writer thread.
+   */
+  void start() {
+    writer.start();
+  }
+
+  /**
+   * Submits the specified {@code operation} to the writer, waiting for space in the ring buffer if
+   * it is full.
+   *
+   * @param <T>
+   *          the type of the result of the operation.
+   * @param <E>
+   *          the type of the checked exception thrown by the operation.
+   * @param operation
+   *          the operation to apply.
+   * @return a future completed with the result of the operation once it has been applied, or
+   *         completed exceptionally with the exception it threw.
+   * @throws IllegalStateException
+   *           if the calling thread is interrupted while waiting for space in the ring buffer.
+   */
+  <T, E extends Exception> CompletableFuture<T> submit(final Operation<T, E> operation)
+      throws IllegalStateException {
+    final Submission<T> submission = new Submission<>(operation);
+    try {
+      ringBuffer.put(submission);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while submitting a mutation.", e);
+    }
+    return submission.future;
+  }
+
+  /**
+   * Takes batches of submissions from the ring buffer and applies them until the JVM exits. A
+   * batch which fails as a whole fails each of its submissions not yet applied, and the writer
+   * carries on with the next batch, since every later submission would otherwise wait forever.
+   */
+  private void applyBatches() {
+    final List<Submission<?>> batch = new ArrayList<>(maxBatchSize);
+    while (true) {
+      try {
+        batch.add(ringBuffer.take());
+      } catch (final InterruptedException e) {
+        LOGGER.log(Level.WARNING, "Mutation writer interrupted; ignoring.", e);
+        continue;
+      }
+      ringBuffer.drainTo(batch, maxBatchSize - 1);
+      try {
+        batchApplier.accept(batch);
+      } catch (final Throwable e) {
+        LOGGER.log(Level.SEVERE, "A batch of mutations could not be applied.", e);
+      } finally {
+        for (final Submission<?> submission : batch) {
+          submission.complete();
+        }
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * A mutation applied by the writer thread while it holds the monitor of the data store.
+   *
+   * @param <T>
+   *          the type of the result.
+   * @param <E>
+   *          the type of the checked exception thrown.
+   */
+  @FunctionalInterface
+  interface Operation<T, E extends Exception> {
+
+    /**
+     * Applies the mutation.
+     *
+     * @return the result.
+     * @throws E
+     *           if the mutation could not be applied.
+     */
+    T apply() throws E;
+  }
+
+  /**
+   * An operation waiting in the ring buffer, together with its outcome once applied.
+   *
+   * @param <T>
+   *          the type of the result of the operation.
+   */
+  static final class Submission<T> {
+
+    /** The operation to apply. */
+    private final Operation<T, ?> operation;
+
+    /** The future returned to the submitter. */
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    /** The result of the operation, once applied. */
+    private T result;
+
+    /** The exception thrown by the operation, {@code null} if none was thrown. */
+    private Throwable failure;
+
+    /** True once the operation has been applied. */
+    private boolean applied;
+
+    /**
+     * Constructs a new submission of the specified {@code operation}.
+     *
+     * @param operation
+     *          the operation to apply.
+     */
+    Submission(final Operation<T, ?> operation) {
+      this.operation = operation;
+    }
+
+    /**
+     * Applies the operation, recording its result or whatever it threw, errors included, so that
+     * an error fails only this submission rather than the writer thread. Must be invoked while
+     * holding the monitor of the data store.
+     */
+    void apply() {
+      try {
+        result = operation.apply();
+      } catch (final Throwable e) {
+        failure = e;
+      }
+      applied = true;
+    }
+
+    /**
+     * Completes the future returned to the submitter with the outcome of the operation. Must be
+     * invoked after the monitor of the data store has been released.
+     */
+    private void complete() {
+      if (!applied) {
+        future.completeExceptionally(
+            new IllegalStateException("The batch containing the mutation failed."));
+      } else if (failure != null) {
+        future.completeExceptionally(failure);
+      } else {
+        future.complete(result);
+      }
+    }
+  }
+}
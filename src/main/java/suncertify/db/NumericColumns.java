@@ -0,0 +1,192 @@
+/*
+ * NumericColumns.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Primitive columns holding the parsed values of the {@code rate} and {@code size} fields of every
+ * record, indexed by record number. The fields are stored as text in the database file, e.g.
+ * "$85.00" and "7"; they are parsed once when a record is written, to cents in a {@code long[]}
+ * and to a head count in an {@code int[]}, so that range queries and sorts run over the arrays
+ * without parsing or allocating per record.
+ *
+ * <p>A value which can't be parsed is stored as {@value #UNKNOWN} and never matches a range query.
+ * This class is not thread safe; it is guarded by the monitor of the owning {@link Data} instance.
+ */
+final class NumericColumns {
+
+  /** The value stored for a field which could not be parsed. */
+  static final int UNKNOWN = -1;
+
+  /** The initial capacity of the columns, in records. */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** The mask of the record number packed into the low half of a sort key. */
+  private static final long RECORD_NUMBER_MASK = 0xFFFFFFFFL;
+
+  /** The rate of each record in cents. */
+  private long[] rates = new long[INITIAL_CAPACITY];
+
+  /** The size of each record, the number of staff. */
+  private int[] sizes = new int[INITIAL_CAPACITY];
+
+  /**
+   * Parses the specified {@code rate} field value, e.g. "$85.00", to cents.
+   *
+   * @param rate
+   *          the value of the rate field.
+   * @return the rate in cents, or {@value #UNKNOWN} if it can't be parsed.
+   */
+  static long parseCents(final String rate) {
+    final String value = rate.trim();
+    int index = value.startsWith("$") ? 1 : 0;
+    long cents = 0;
+    boolean hasDigits = false;
+    for (; index < value.length() && value.charAt(index) != '.'; index++) {
+      final char character = value.charAt(index);
+      if (character == ',') {
+        continue;
+      }
+      if (character < '0' || character > '9') {
+        return UNKNOWN;
+      }
+      cents = cents * 10 + character - '0';
+      hasDigits = true;
+    }
+    cents *= 100;
+    if (index < value.length()) {
+      final String fraction = value.substring(index + 1);
+      if (fraction.length() > 2) {
+        return UNKNOWN;
+      }
+      for (int digit = 0; digit < 2; digit++) {
+        final char character = digit < fraction.length() ? fraction.charAt(digit) : '0';
+        if (character < '0' || character > '9') {
+          return UNKNOWN;
+        }
+        cents += (character - '0') * (digit == 0 ? 10 : 1);
+        hasDigits = true;
+      }
+    }
+    return hasDigits ? cents : UNKNOWN;
+  }
+
+  /**
+   * Parses the specified {@code size} field value.
+   *
+   * @param size
+   *          the value of the size field.
+   * @return the size, or {@value #UNKNOWN} if it can't be parsed.
+   */
+  static int parseSize(final String size) {
+    try {
+      final int value = Integer.parseInt(size.trim());
+      return value < 0 ? UNKNOWN : value;
+    } catch (final NumberFormatException e) {
+      return UNKNOWN;
+    }
+  }
+
+  /**
+   * Returns the record numbers of the records in {@code candidates} whose rate and size fall
+   * within the specified inclusive ranges, in the specified {@code order}.
+   *
+   * @param candidates
+   *          the record numbers of the records to consider.
+   * @param minRate
+   *          the minimum rate in cents.
+   * @param maxRate
+   *          the maximum rate in cents.
+   * @param minSize
+   *          the minimum size.
+   * @param maxSize
+   *          the maximum size.
+   * @param order
+   *          the order of the results.
+   * @return the matching record numbers.
+   */
+  int[] find(final BitSet candidates, final long minRate, final long maxRate, final int minSize,
+      final int maxSize, final SortOrder order) {
+    int count = 0;
+    final int[] matches = new int[candidates.cardinality()];
+    for (int recordNumber = candidates.nextSetBit(0); recordNumber >= 0
+        && recordNumber < sizes.length; recordNumber = candidates.nextSetBit(recordNumber + 1)) {
+      final long rate = rates[recordNumber];
+      final int size = sizes[recordNumber];
+      if (rate != UNKNOWN && size != UNKNOWN && rate >= minRate && rate <= maxRate
+          && size >= minSize && size <= maxSize) {
+        matches[count++] = recordNumber;
+      }
+    }
+    if (order == SortOrder.RECORD_NUMBER) {
+      return Arrays.copyOf(matches, count);
+    }
+    final boolean byRate = order == SortOrder.RATE_ASCENDING || order == SortOrder.RATE_DESCENDING;
+    final boolean descending = order == SortOrder.RATE_DESCENDING
+        || order == SortOrder.SIZE_DESCENDING;
+    final long[] keys = new long[count];
+    for (int index = 0; index < count; index++) {
+      final long value = byRate ? rates[matches[index]] : sizes[matches[index]];
+      keys[index] = (descending ? Integer.MAX_VALUE - value : value) << 32 | matches[index];
+    }
+    Arrays.sort(keys);
+    final int[] sorted = new int[count];
+    for (int index = 0; index < count; index++) {
+      sorted[index] = (int) (keys[index] & RECORD_NUMBER_MASK);
+    }
+    return sorted;
+  }
+
+  /**
+   * Gets the rate of the record with the specified {@code recordNumber}.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @return the rate in cents, or {@value #UNKNOWN} if it couldn't be parsed.
+   */
+  long rate(final int recordNumber) {
+    return recordNumber < rates.length ? rates[recordNumber] : UNKNOWN;
+  }
+
+  /**
+   * Gets the size of the record with the specified {@code recordNumber}.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @return the size, or {@value #UNKNOWN} if it couldn't be parsed.
+   */
+  int size(final int recordNumber) {
+    return recordNumber < sizes.length ? sizes[recordNumber] : UNKNOWN;
+  }
+
+  /**
+   * Stores the parsed {@code rate} and {@code size} of the record with the specified
+   * {@code recordNumber}.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @param rate
+   *          the value of the rate field.
+   * @param size
+   *          the value of the size field.
+   */
+  void set(final int recordNumber, final String rate, final String size) {
+    if (recordNumber >= sizes.length) {
+      final int capacity = Math.max(recordNumber + 1, sizes.length * 2);
+      rates = Arrays.copyOf(rates, capacity);
+      sizes = Arrays.copyOf(sizes, capacity);
+    }
+    rates[recordNumber] = parseCents(rate);
+    sizes[recordNumber] = parseSize(size);
+  }
+}
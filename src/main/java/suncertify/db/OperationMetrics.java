@@ -0,0 +1,81 @@
+/*
+ * OperationMetrics.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters and latency histograms of the {@link DatabaseOperation}s of a {@link Data}
+ * instance. Calls are counted in {@link LongAdder}s, which spread concurrent increments over
+ * several cells, and their latencies in a {@link LatencyHistogram} over a one minute window per
+ * operation, so recording a call never takes a lock or allocates. Safe for concurrent use.
+ */
+final class OperationMetrics {
+
+  /** The number of slots of the rolling window of each histogram. */
+  private static final int WINDOW_SLOTS = 6;
+
+  /** The length of a slot of the rolling window of each histogram, in nanoseconds. */
+  private static final long SLOT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  /** The number of calls of each operation. */
+  private final Map<DatabaseOperation, LongAdder> counters =
+      new EnumMap<>(DatabaseOperation.class);
+
+  /** The latencies of each operation over the rolling window. */
+  private final Map<DatabaseOperation, LatencyHistogram> latencies =
+      new EnumMap<>(DatabaseOperation.class);
+
+  /**
+   * Constructs new metrics with a counter and histogram for every operation.
+   */
+  OperationMetrics() {
+    for (final DatabaseOperation operation : DatabaseOperation.values()) {
+      counters.put(operation, new LongAdder());
+      latencies.put(operation, new LatencyHistogram(WINDOW_SLOTS, SLOT_NANOS));
+    }
+  }
+
+  /**
+   * Records a call of the specified {@code operation} which started at {@code startNanos} and has
+   * just returned.
+   *
+   * @param operation
+   *          the operation.
+   * @param startNanos
+   *          the time the call started, from {@link System#nanoTime()}.
+   */
+  void record(final DatabaseOperation operation, final long startNanos) {
+    final long now = System.nanoTime();
+    counters.get(operation).increment();
+    latencies.get(operation).record(now - startNanos, now);
+  }
+
+  /**
+   * Takes a snapshot of the statistics of every operation.
+   *
+   * @return the statistics, in the order of the operations.
+   */
+  List<OperationStats> snapshot() {
+    final long now = System.nanoTime();
+    final List<OperationStats> stats = new ArrayList<>(counters.size());
+    for (final DatabaseOperation operation : DatabaseOperation.values()) {
+      stats.add(new OperationStats(operation, counters.get(operation).sum(),
+          latencies.get(operation).snapshot(now)));
+    }
+    return stats;
+  }
+}
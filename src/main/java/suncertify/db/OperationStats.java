@@ -0,0 +1,156 @@
+/*
+ * OperationStats.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+
+/**
+ * The count, throughput and latency percentiles of one {@link DatabaseOperation}, as returned by
+ * {@link DBMainExtended#getOperationStats()}. The total count covers every call since the server
+ * started; the throughput and latencies cover a rolling window of the last minute. Latencies are
+ * accurate to within 12.5%. Immutable and {@link Serializable}.
+ */
+public final class OperationStats implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The number of nanoseconds in a microsecond. */
+  private static final double NANOS_PER_MICRO = 1000.0;
+
+  /** The name of the operation. */
+  private final String operation;
+
+  /** The number of calls since the server started. */
+  private final long totalCount;
+
+  /** The number of calls in the window. */
+  private final long windowCount;
+
+  /** The calls per second over the window. */
+  private final double throughput;
+
+  /** The median latency over the window, in nanoseconds. */
+  private final long p50Nanos;
+
+  /** The 95th percentile latency over the window, in nanoseconds. */
+  private final long p95Nanos;
+
+  /** The 99th percentile latency over the window, in nanoseconds. */
+  private final long p99Nanos;
+
+  /** The maximum latency over the window, in nanoseconds. */
+  private final long maxNanos;
+
+  /**
+   * Constructs new operation statistics.
+   *
+   * @param operation
+   *          the operation.
+   * @param totalCount
+   *          the number of calls since the server started.
+   * @param window
+   *          the latencies recorded over the window.
+   */
+  OperationStats(final DatabaseOperation operation, final long totalCount,
+      final LatencyHistogram.Snapshot window) {
+    this.operation = operation.name();
+    this.totalCount = totalCount;
+    this.windowCount = window.count();
+    this.throughput = window.count() * 1e9 / window.windowNanos();
+    this.p50Nanos = window.percentile(50);
+    this.p95Nanos = window.percentile(95);
+    this.p99Nanos = window.percentile(99);
+    this.maxNanos = window.max();
+  }
+
+  /**
+   * Gets the maximum latency over the window.
+   *
+   * @return the maximum latency, in microseconds.
+   */
+  public double getMaxMicros() {
+    return maxNanos / NANOS_PER_MICRO;
+  }
+
+  /**
+   * Gets the name of the operation, one of the constants of {@link DatabaseOperation}.
+   *
+   * @return the name of the operation.
+   */
+  public String getOperation() {
+    return operation;
+  }
+
+  /**
+   * Gets the median latency over the window.
+   *
+   * @return the median latency, in microseconds.
+   */
+  public double getP50Micros() {
+    return p50Nanos / NANOS_PER_MICRO;
+  }
+
+  /**
+   * Gets the 95th percentile latency over the window.
+   *
+   * @return the 95th percentile latency, in microseconds.
+   */
+  public double getP95Micros() {
+    return p95Nanos / NANOS_PER_MICRO;
+  }
+
+  /**
+   * Gets the 99th percentile latency over the window.
+   *
+   * @return the 99th percentile latency, in microseconds.
+   */
+  public double getP99Micros() {
+    return p99Nanos / NANOS_PER_MICRO;
+  }
+
+  /**
+   * Gets the number of calls per second over the window.
+   *
+   * @return the throughput.
+   */
+  public double getThroughput() {
+    return throughput;
+  }
+
+  /**
+   * Gets the number of calls since the server started.
+   *
+   * @return the total count.
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Gets the number of calls in the window.
+   *
+   * @return the window count.
+   */
+  public long getWindowCount() {
+    return windowCount;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return String.format("%s: %d calls, %.1f/s, p50 %.1f us, p95 %.1f us, p99 %.1f us, "
+        + "max %.1f us", operation, totalCount, throughput, getP50Micros(), getP95Micros(),
+        getP99Micros(), getMaxMicros());
+  }
+}
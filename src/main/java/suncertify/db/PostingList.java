@@ -0,0 +1,124 @@
+/*
+ * PostingList.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An ascending list of distinct record numbers, backed by a growable {@code int} array. Posting
+ * lists hold the records matching a single key of an index. This class is not thread safe.
+ */
+final class PostingList {
+
+  /** The initial capacity of a posting list. */
+  private static final int INITIAL_CAPACITY = 8;
+
+  /** The record numbers; only the first {@code size} elements are used. */
+  private int[] recordNumbers = new int[INITIAL_CAPACITY];
+
+  /** The number of record numbers in the list. */
+  private int size;
+
+  /**
+   * Inserts the specified {@code recordNumber} in order, unless it is already present.
+   *
+   * @param recordNumber
+   *          the record number.
+   */
+  void add(final int recordNumber) {
+    final int position = Arrays.binarySearch(recordNumbers, 0, size, recordNumber);
+    if (position >= 0) {
+      return;
+    }
+    final int insertion = -position - 1;
+    if (size == recordNumbers.length) {
+      recordNumbers = Arrays.copyOf(recordNumbers, size * 2);
+    }
+    System.arraycopy(recordNumbers, insertion, recordNumbers, insertion + 1, size - insertion);
+    recordNumbers[insertion] = recordNumber;
+    size++;
+  }
+
+  /**
+   * Passes each record number in the list, in ascending order, to the specified
+   * {@code consumer}.
+   *
+   * @param consumer
+   *          the consumer of the record numbers.
+   */
+  void forEach(final IntConsumer consumer) {
+    for (int index = 0; index < size; index++) {
+      consumer.accept(recordNumbers[index]);
+    }
+  }
+
+  /**
+   * Gets the record number at the specified {@code index}.
+   *
+   * @param index
+   *          the index, less than {@link #size()}.
+   * @return the record number.
+   */
+  int get(final int index) {
+    return recordNumbers[index];
+  }
+
+  /**
+   * Removes the specified {@code recordNumber}, if present.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @return true, if the record number was removed.
+   */
+  boolean remove(final int recordNumber) {
+    final int position = Arrays.binarySearch(recordNumbers, 0, size, recordNumber);
+    if (position < 0) {
+      return false;
+    }
+    System.arraycopy(recordNumbers, position + 1, recordNumbers, position, size - position - 1);
+    size--;
+    return true;
+  }
+
+  /**
+   * Searches the list, from the specified {@code fromIndex} on, for the specified
+   * {@code recordNumber} by binary search.
+   *
+   * @param fromIndex
+   *          the index of the first element to search.
+   * @param recordNumber
+   *          the record number to search for.
+   * @return the index of the record number if present; otherwise {@code (-(insertion point) - 1)}
+   *         as returned by {@link Arrays#binarySearch(int[], int, int, int)}.
+   */
+  int search(final int fromIndex, final int recordNumber) {
+    return Arrays.binarySearch(recordNumbers, fromIndex, size, recordNumber);
+  }
+
+  /**
+   * Gets the number of record numbers in the list.
+   *
+   * @return the size of the list.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns a copy of the record numbers in the list.
+   *
+   * @return the record numbers, in ascending order.
+   */
+  int[] toArray() {
+    return Arrays.copyOf(recordNumbers, size);
+  }
+}
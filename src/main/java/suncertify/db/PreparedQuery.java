@@ -0,0 +1,70 @@
+/*
+ * PreparedQuery.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+
+/**
+ * A {@link Query} compiled into a {@link RecordMatcher} tree, returned by
+ * {@link DBMainExtended#prepare(Query)}. Executing a prepared query evaluates the compiled tree
+ * directly, without validating or interpreting the query again. The compiled tree is not
+ * serialized; a prepared query sent to another JVM is recompiled on first use there.
+ */
+public final class PreparedQuery implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The query. */
+  private final Query query;
+
+  /** The compiled query, {@code null} after deserialization. */
+  private final transient RecordMatcher matcher;
+
+  /**
+   * Constructs a new prepared query.
+   *
+   * @param query
+   *          the query.
+   * @param matcher
+   *          the compiled query.
+   */
+  PreparedQuery(final Query query, final RecordMatcher matcher) {
+    this.query = query;
+    this.matcher = matcher;
+  }
+
+  /**
+   * Gets the query.
+   *
+   * @return the query.
+   */
+  public Query getQuery() {
+    return query;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return query.toString();
+  }
+
+  /**
+   * Gets the compiled query.
+   *
+   * @return the compiled query, or {@code null} if this prepared query has been deserialized.
+   */
+  RecordMatcher getMatcher() {
+    return matcher;
+  }
+}
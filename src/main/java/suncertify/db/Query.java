@@ -0,0 +1,510 @@
+/*
+ * Query.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import static suncertify.db.RecordIndexes.RATE_FIELD;
+import static suncertify.db.RecordIndexes.SIZE_FIELD;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable predicate over the fields of a record, built from the static factory methods of
+ * this class. Fields are identified by their names in the schema: {@code name},
+ * {@code location}, {@code specialties}, {@code size}, {@code rate} and {@code owner}.
+ *
+ * <pre>
+ * Query query = Query.and(Query.prefix("location", "Smallville"),
+ *     Query.contains("specialties", "painting"), Query.range("rate", 0, 6000));
+ * </pre>
+ *
+ * A query is compiled into a {@link RecordMatcher} tree by
+ * {@link DBMainExtended#prepare(Query)}; the resulting {@link PreparedQuery} can be executed any
+ * number of times. Queries are values: equal queries have equal string forms, which lets the
+ * database cache compiled queries.
+ */
+public abstract class Query implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The string form of this query, computed on first use. */
+  private transient String canonicalForm;
+
+  /**
+   * Constructs a new query.
+   */
+  private Query() {
+  }
+
+  /**
+   * Returns a query matching every record.
+   *
+   * @return the query.
+   */
+  public static Query all() {
+    return new All();
+  }
+
+  /**
+   * Returns a query matching records which match every one of the specified {@code queries}.
+   *
+   * @param queries
+   *          the queries.
+   * @return the query.
+   * @throws IllegalArgumentException
+   *           if {@code queries} is null or contains null.
+   */
+  public static Query and(final Query... queries) throws IllegalArgumentException {
+    return new Combination(true, queries);
+  }
+
+  /**
+   * Returns a query matching records whose {@code field} contains {@code value}, ignoring case.
+   *
+   * @param field
+   *          the name of the field.
+   * @param value
+   *          the value.
+   * @return the query.
+   * @throws IllegalArgumentException
+   *           if {@code field} is not a field of the record or {@code value} is null.
+   */
+  public static Query contains(final String field, final String value)
+      throws IllegalArgumentException {
+    return new Comparison(Comparison.CONTAINS, field, value);
+  }
+
+  /**
+   * Returns a query matching records whose {@code field} equals {@code value}, considering case.
+   *
+   * @param field
+   *          the name of the field.
+   * @param value
+   *          the value.
+   * @return the query.
+   * @throws IllegalArgumentException
+   *           if {@code field} is not a field of the record or {@code value} is null.
+   */
+  public static Query exact(final String field, final String value)
+      throws IllegalArgumentException {
+    return new Comparison(Comparison.EXACT, field, value);
+  }
+
+  /**
+   * Returns a query matching records which don't match the specified {@code query}.
+   *
+   * @param query
+   *          the query to negate.
+   * @return the query.
+   * @throws IllegalArgumentException
+   *           if {@code query} is null.
+   */
+  public static Query not(final Query query) throws IllegalArgumentException {
+    return new Negation(query);
+  }
+
+  /**
+   * Returns a query matching records which match any of the specified {@code queries}.
+   *
+   * @param queries
+   *          the queries.
+   * @return the query.
+   * @throws IllegalArgumentException
+   *           if {@code queries} is null or contains null.
+   */
+  public static Query or(final Query... queries) throws IllegalArgumentException {
+    return new Combination(false, queries);
+  }
+
+  /**
+   * Returns a query matching records whose {@code field} starts with {@code value}, ignoring
+   * case, like {@link DBMain#find(String[])}.
+   *
+   * @param field
+   *          the name of the field.
+   * @param value
+   *          the value.
+   * @return the query.
+   * @throws IllegalArgumentException
+   *           if {@code field} is not a field of the record or {@code value} is null.
+   */
+  public static Query prefix(final String field, final String value)
+      throws IllegalArgumentException {
+    return new Comparison(Comparison.PREFIX, field, value);
+  }
+
+  /**
+   * Returns a query matching records whose numeric {@code field} lies between {@code min} and
+   * {@code max}, both inclusive. Only the {@code size} field and the {@code rate} field, in cents,
+   * are numeric. Records whose value can't be parsed never match.
+   *
+   * @param field
+   *          the name of the field, {@code size} or {@code rate}.
+   * @param min
+   *          the minimum value.
+   * @param max
+   *          the maximum value.
+   * @return the query.
+   * @throws IllegalArgumentException
+   *           if {@code field} is not numeric or {@code min} exceeds {@code max}.
+   */
+  public static Query range(final String field, final long min, final long max)
+      throws IllegalArgumentException {
+    return new Range(field, min, max);
+  }
+
+  /**
+   * Resolves the specified field {@code name} to its position in a record.
+   *
+   * @param name
+   *          the name of the field.
+   * @return the position of the field.
+   * @throws IllegalArgumentException
+   *           if {@code name} is not a field of the record.
+   */
+  private static int fieldIndex(final String name) throws IllegalArgumentException {
+    final int index = Arrays.asList(Data.FIELD_NAMES).indexOf(name);
+    if (index < 0) {
+      throw new IllegalArgumentException(
+          "Unknown field " + name + "; expected one of " + Arrays.toString(Data.FIELD_NAMES));
+    }
+    return index;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final boolean equals(final Object object) {
+    return object == this
+        || object instanceof Query && canonicalForm().equals(((Query) object).canonicalForm());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final int hashCode() {
+    return canonicalForm().hashCode();
+  }
+
+  /**
+   * Gets the string form of this query, which is computed once since queries are immutable.
+   *
+   * @return the string form of this query.
+   */
+  private String canonicalForm() {
+    if (canonicalForm == null) {
+      canonicalForm = toString();
+    }
+    return canonicalForm;
+  }
+
+  /**
+   * Compiles this query into a matcher tree.
+   *
+   * @param columns
+   *          the numeric columns read by range matchers.
+   * @return the matcher.
+   */
+  abstract RecordMatcher compile(NumericColumns columns);
+
+  /**
+   * Gets the positions of the fields this query reads, as a bit mask in which bit {@code n} is set
+   * if the field at position {@code n} is read. A change to a record which leaves these fields
+   * untouched cannot change whether the record matches.
+   *
+   * @return the bit mask of the fields read.
+   */
+  abstract int fieldMask();
+
+  /**
+   * A query matching every record.
+   */
+  private static final class All extends Query {
+
+    /** The serial version UID. */
+    private static final long serialVersionUID = 17011991;
+
+    @Override
+    RecordMatcher compile(final NumericColumns columns) {
+      return (recordNumber, fieldValues) -> true;
+    }
+
+    @Override
+    int fieldMask() {
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return "all()";
+    }
+  }
+
+  /**
+   * The conjunction or disjunction of several queries.
+   */
+  private static final class Combination extends Query {
+
+    /** The serial version UID. */
+    private static final long serialVersionUID = 17011991;
+
+    /** True for a conjunction, false for a disjunction. */
+    private final boolean conjunction;
+
+    /** The combined queries. */
+    private final Query[] queries;
+
+    /**
+     * Constructs a new combination of the specified {@code queries}.
+     *
+     * @param conjunction
+     *          true for a conjunction, false for a disjunction.
+     * @param queries
+     *          the queries.
+     */
+    Combination(final boolean conjunction, final Query[] queries) {
+      if (queries == null || Arrays.asList(queries).contains(null)) {
+        throw new IllegalArgumentException("Combined queries cannot be null.");
+      }
+      this.conjunction = conjunction;
+      this.queries = queries.clone();
+    }
+
+    @Override
+    RecordMatcher compile(final NumericColumns columns) {
+      final RecordMatcher[] matchers = new RecordMatcher[queries.length];
+      for (int index = 0; index < queries.length; index++) {
+        matchers[index] = queries[index].compile(columns);
+      }
+      if (matchers.length == 1) {
+        return matchers[0];
+      }
+      if (matchers.length == 2) {
+        final RecordMatcher first = matchers[0];
+        final RecordMatcher second = matchers[1];
+        return conjunction
+            ? (recordNumber, fieldValues) -> first.matches(recordNumber, fieldValues)
+                && second.matches(recordNumber, fieldValues)
+            : (recordNumber, fieldValues) -> first.matches(recordNumber, fieldValues)
+                || second.matches(recordNumber, fieldValues);
+      }
+      return (recordNumber, fieldValues) -> {
+        for (final RecordMatcher matcher : matchers) {
+          if (matcher.matches(recordNumber, fieldValues) != conjunction) {
+            return !conjunction;
+          }
+        }
+        return conjunction;
+      };
+    }
+
+    @Override
+    int fieldMask() {
+      int mask = 0;
+      for (final Query query : queries) {
+        mask |= query.fieldMask();
+      }
+      return mask;
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.stream(queries).map(Query::toString)
+          .collect(Collectors.joining(",", conjunction ? "and(" : "or(", ")"));
+    }
+  }
+
+  /**
+   * A comparison of a text field with a value.
+   */
+  private static final class Comparison extends Query {
+
+    /** The serial version UID. */
+    private static final long serialVersionUID = 17011991;
+
+    /** The operator of a case sensitive equality comparison. */
+    static final String EXACT = "exact";
+
+    /** The operator of a case insensitive prefix comparison. */
+    static final String PREFIX = "prefix";
+
+    /** The operator of a case insensitive substring comparison. */
+    static final String CONTAINS = "contains";
+
+    /** The operator. */
+    private final String operator;
+
+    /** The name of the field. */
+    private final String field;
+
+    /** The value compared with. */
+    private final String value;
+
+    /**
+     * Constructs a new comparison.
+     *
+     * @param operator
+     *          the operator.
+     * @param field
+     *          the name of the field.
+     * @param value
+     *          the value compared with.
+     */
+    Comparison(final String operator, final String field, final String value) {
+      fieldIndex(field);
+      if (value == null) {
+        throw new IllegalArgumentException("Value cannot be null.");
+      }
+      this.operator = operator;
+      this.field = field;
+      this.value = value;
+    }
+
+    @Override
+    RecordMatcher compile(final NumericColumns columns) {
+      final int index = fieldIndex(field);
+      if (operator.equals(EXACT)) {
+        return (recordNumber, fieldValues) -> fieldValues[index].equals(value);
+      }
+      final String key = value.toUpperCase(Locale.ENGLISH);
+      if (key.isEmpty()) {
+        return (recordNumber, fieldValues) -> true;
+      }
+      if (operator.equals(PREFIX)) {
+        return (recordNumber, fieldValues) -> fieldValues[index].regionMatches(true, 0, key, 0,
+            key.length());
+      }
+      return (recordNumber, fieldValues) -> fieldValues[index].toUpperCase(Locale.ENGLISH)
+          .contains(key);
+    }
+
+    @Override
+    int fieldMask() {
+      return 1 << fieldIndex(field);
+    }
+
+    @Override
+    public String toString() {
+      return operator + "(" + field + ",'" + value.replace("'", "''") + "')";
+    }
+  }
+
+  /**
+   * The negation of a query.
+   */
+  private static final class Negation extends Query {
+
+    /** The serial version UID. */
+    private static final long serialVersionUID = 17011991;
+
+    /** The negated query. */
+    private final Query query;
+
+    /**
+     * Constructs a new negation of the specified {@code query}.
+     *
+     * @param query
+     *          the negated query.
+     */
+    Negation(final Query query) {
+      if (query == null) {
+        throw new IllegalArgumentException("Negated query cannot be null.");
+      }
+      this.query = query;
+    }
+
+    @Override
+    RecordMatcher compile(final NumericColumns columns) {
+      final RecordMatcher matcher = query.compile(columns);
+      return (recordNumber, fieldValues) -> !matcher.matches(recordNumber, fieldValues);
+    }
+
+    @Override
+    int fieldMask() {
+      return query.fieldMask();
+    }
+
+    @Override
+    public String toString() {
+      return "not(" + query + ")";
+    }
+  }
+
+  /**
+   * A range comparison of a numeric field.
+   */
+  private static final class Range extends Query {
+
+    /** The serial version UID. */
+    private static final long serialVersionUID = 17011991;
+
+    /** The name of the field. */
+    private final String field;
+
+    /** The minimum value. */
+    private final long min;
+
+    /** The maximum value. */
+    private final long max;
+
+    /**
+     * Constructs a new range comparison.
+     *
+     * @param field
+     *          the name of the field.
+     * @param min
+     *          the minimum value.
+     * @param max
+     *          the maximum value.
+     */
+    Range(final String field, final long min, final long max) {
+      final int index = fieldIndex(field);
+      if (index != RATE_FIELD && index != SIZE_FIELD) {
+        throw new IllegalArgumentException("Field " + field + " is not numeric.");
+      }
+      if (min > max) {
+        throw new IllegalArgumentException("The minimum of a range cannot exceed its maximum.");
+      }
+      this.field = field;
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    RecordMatcher compile(final NumericColumns columns) {
+      if (fieldIndex(field) == RATE_FIELD) {
+        return (recordNumber, fieldValues) -> {
+          final long rate = columns.rate(recordNumber);
+          return rate != NumericColumns.UNKNOWN && rate >= min && rate <= max;
+        };
+      }
+      return (recordNumber, fieldValues) -> {
+        final int size = columns.size(recordNumber);
+        return size != NumericColumns.UNKNOWN && size >= min && size <= max;
+      };
+    }
+
+    @Override
+    int fieldMask() {
+      return 1 << fieldIndex(field);
+    }
+
+    @Override
+    public String toString() {
+      return "range(" + field + "," + min + "," + max + ")";
+    }
+  }
+}
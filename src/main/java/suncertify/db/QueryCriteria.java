@@ -0,0 +1,268 @@
+/*
+ * QueryCriteria.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Structured search criteria combining several fields of a record, evaluated by the query planner
+ * of the database. A record matches if it satisfies every criterion which has been set; a new
+ * instance matches every record which is not deleted.
+ *
+ * <ul>
+ * <li>The name and location criteria are case insensitive prefixes, as used by
+ * {@link DBMain#find(String[])}.</li>
+ * <li>The specialties criterion lists specialties which must all be offered.</li>
+ * <li>The rate and size criteria are inclusive ranges; the rate is given in cents.</li>
+ * <li>The available criterion excludes records which have been booked.</li>
+ * </ul>
+ */
+public final class QueryCriteria implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The prefix of the name. */
+  private String namePrefix = "";
+
+  /** The prefix of the location. */
+  private String locationPrefix = "";
+
+  /** The specialties which must all be offered. */
+  private String[] specialties = new String[0];
+
+  /** The minimum rate in cents. */
+  private long minRate;
+
+  /** The maximum rate in cents. */
+  private long maxRate = Long.MAX_VALUE;
+
+  /** The minimum size. */
+  private int minSize;
+
+  /** The maximum size. */
+  private int maxSize = Integer.MAX_VALUE;
+
+  /** True if booked records are excluded. */
+  private boolean availableOnly;
+
+  /**
+   * Gets the prefix of the location.
+   *
+   * @return the location prefix, empty if any location matches.
+   */
+  public String getLocationPrefix() {
+    return locationPrefix;
+  }
+
+  /**
+   * Gets the maximum rate in cents.
+   *
+   * @return the maximum rate.
+   */
+  public long getMaxRate() {
+    return maxRate;
+  }
+
+  /**
+   * Gets the maximum size.
+   *
+   * @return the maximum size.
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Gets the minimum rate in cents.
+   *
+   * @return the minimum rate.
+   */
+  public long getMinRate() {
+    return minRate;
+  }
+
+  /**
+   * Gets the minimum size.
+   *
+   * @return the minimum size.
+   */
+  public int getMinSize() {
+    return minSize;
+  }
+
+  /**
+   * Gets the prefix of the name.
+   *
+   * @return the name prefix, empty if any name matches.
+   */
+  public String getNamePrefix() {
+    return namePrefix;
+  }
+
+  /**
+   * Gets the specialties which must all be offered.
+   *
+   * @return a copy of the specialties, empty if any specialties match.
+   */
+  public String[] getSpecialties() {
+    return specialties.clone();
+  }
+
+  /**
+   * Checks if a maximum or minimum rate has been set.
+   *
+   * @return true, if the rate is restricted.
+   */
+  public boolean hasRateRange() {
+    return minRate > 0 || maxRate < Long.MAX_VALUE;
+  }
+
+  /**
+   * Checks if a maximum or minimum size has been set.
+   *
+   * @return true, if the size is restricted.
+   */
+  public boolean hasSizeRange() {
+    return minSize > 0 || maxSize < Integer.MAX_VALUE;
+  }
+
+  /**
+   * Checks if booked records are excluded.
+   *
+   * @return true, if only available records match.
+   */
+  public boolean isAvailableOnly() {
+    return availableOnly;
+  }
+
+  /**
+   * Sets whether booked records are excluded.
+   *
+   * @param availableOnly
+   *          true to match only available records.
+   */
+  public void setAvailableOnly(final boolean availableOnly) {
+    this.availableOnly = availableOnly;
+  }
+
+  /**
+   * Sets the prefix of the location.
+   *
+   * @param locationPrefix
+   *          the location prefix, empty to match any location.
+   * @throws IllegalArgumentException
+   *           if {@code locationPrefix} is null.
+   */
+  public void setLocationPrefix(final String locationPrefix) throws IllegalArgumentException {
+    if (locationPrefix == null) {
+      throw new IllegalArgumentException("Location prefix cannot be null.");
+    }
+    this.locationPrefix = locationPrefix;
+  }
+
+  /**
+   * Sets the prefix of the name.
+   *
+   * @param namePrefix
+   *          the name prefix, empty to match any name.
+   * @throws IllegalArgumentException
+   *           if {@code namePrefix} is null.
+   */
+  public void setNamePrefix(final String namePrefix) throws IllegalArgumentException {
+    if (namePrefix == null) {
+      throw new IllegalArgumentException("Name prefix cannot be null.");
+    }
+    this.namePrefix = namePrefix;
+  }
+
+  /**
+   * Sets the inclusive range of the rate.
+   *
+   * @param minRate
+   *          the minimum rate in cents.
+   * @param maxRate
+   *          the maximum rate in cents.
+   * @throws IllegalArgumentException
+   *           if {@code minRate} exceeds {@code maxRate}.
+   */
+  public void setRateRange(final long minRate, final long maxRate)
+      throws IllegalArgumentException {
+    if (minRate > maxRate) {
+      throw new IllegalArgumentException("The minimum rate cannot exceed the maximum rate.");
+    }
+    this.minRate = minRate;
+    this.maxRate = maxRate;
+  }
+
+  /**
+   * Sets the inclusive range of the size.
+   *
+   * @param minSize
+   *          the minimum size.
+   * @param maxSize
+   *          the maximum size.
+   * @throws IllegalArgumentException
+   *           if {@code minSize} exceeds {@code maxSize}.
+   */
+  public void setSizeRange(final int minSize, final int maxSize) throws IllegalArgumentException {
+    if (minSize > maxSize) {
+      throw new IllegalArgumentException("The minimum size cannot exceed the maximum size.");
+    }
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Sets the specialties which must all be offered.
+   *
+   * @param specialties
+   *          the specialties, none to match any specialties.
+   * @throws IllegalArgumentException
+   *           if {@code specialties} is null.
+   */
+  public void setSpecialties(final String... specialties) throws IllegalArgumentException {
+    if (specialties == null) {
+      throw new IllegalArgumentException("Specialties cannot be null.");
+    }
+    this.specialties = specialties.clone();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    final List<String> criteria = new ArrayList<>();
+    if (!namePrefix.isEmpty()) {
+      criteria.add("name starts with '" + namePrefix + "'");
+    }
+    if (!locationPrefix.isEmpty()) {
+      criteria.add("location starts with '" + locationPrefix + "'");
+    }
+    if (specialties.length > 0) {
+      criteria.add("specialties include " + Arrays.toString(specialties));
+    }
+    if (hasRateRange()) {
+      criteria.add("rate between " + minRate + " and " + maxRate + " cents");
+    }
+    if (hasSizeRange()) {
+      criteria.add("size between " + minSize + " and " + maxSize);
+    }
+    if (availableOnly) {
+      criteria.add("available");
+    }
+    return criteria.isEmpty() ? "all records" : String.join(" and ", criteria);
+  }
+}
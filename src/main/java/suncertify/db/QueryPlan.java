@@ -0,0 +1,165 @@
+/*
+ * QueryPlan.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The plan chosen by the query planner to evaluate a {@link QueryCriteria}: the access path which
+ * drives the query and the predicates checked on each candidate it yields. The
+ * {@link #toString()} method describes the plan, the estimated number of rows of every access
+ * path considered and the statistics behind the estimates, in the manner of an SQL EXPLAIN.
+ */
+public final class QueryPlan implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /**
+   * The ways in which the candidate records of a query can be produced.
+   */
+  public enum AccessPath {
+
+    /** Every record which is not deleted. */
+    FULL_SCAN,
+
+    /** The bitmap of records which are neither deleted nor booked. */
+    AVAILABILITY_BITMAP,
+
+    /** A prefix range of the sorted name index. */
+    NAME_INDEX,
+
+    /** A prefix range of the sorted location index. */
+    LOCATION_INDEX,
+
+    /** The posting list of a single specialty in the inverted specialty index. */
+    SPECIALTY_INDEX,
+
+    /** A range of the sorted rate index. */
+    RATE_INDEX,
+
+    /** A range of the sorted size index. */
+    SIZE_INDEX
+  }
+
+  /** The description of the criteria the plan evaluates. */
+  private final String criteria;
+
+  /** The access path driving the query. */
+  private final AccessPath accessPath;
+
+  /** The specialty whose posting list drives the query, if driven by the specialty index. */
+  private final String drivingSpecialty;
+
+  /** The estimated number of rows of each access path considered. */
+  private final Map<AccessPath, Integer> estimates;
+
+  /** The descriptions of the predicates checked on each candidate. */
+  private final List<String> residualPredicates;
+
+  /** The descriptions of the statistics the estimates were based on. */
+  private final List<String> statistics;
+
+  /**
+   * Constructs a new query plan.
+   *
+   * @param criteria
+   *          the criteria the plan evaluates.
+   * @param accessPath
+   *          the access path driving the query.
+   * @param drivingSpecialty
+   *          the specialty whose posting list drives the query, or {@code null}.
+   * @param estimates
+   *          the estimated number of rows of each access path considered.
+   * @param residualPredicates
+   *          the descriptions of the predicates checked on each candidate.
+   * @param statistics
+   *          the descriptions of the statistics the estimates were based on.
+   */
+  QueryPlan(final QueryCriteria criteria, final AccessPath accessPath,
+      final String drivingSpecialty, final Map<AccessPath, Integer> estimates,
+      final List<String> residualPredicates, final List<String> statistics) {
+    this.criteria = criteria.toString();
+    this.accessPath = accessPath;
+    this.drivingSpecialty = drivingSpecialty;
+    this.estimates = new EnumMap<>(estimates);
+    this.residualPredicates = new ArrayList<>(residualPredicates);
+    this.statistics = new ArrayList<>(statistics);
+  }
+
+  /**
+   * Gets the access path driving the query.
+   *
+   * @return the access path.
+   */
+  public AccessPath getAccessPath() {
+    return accessPath;
+  }
+
+  /**
+   * Gets the estimated number of candidate rows produced by the driving access path.
+   *
+   * @return the estimated number of rows.
+   */
+  public int getEstimatedRows() {
+    return estimates.get(accessPath);
+  }
+
+  /**
+   * Gets the descriptions of the predicates checked on each candidate record.
+   *
+   * @return the residual predicates.
+   */
+  public List<String> getResidualPredicates() {
+    return Collections.unmodifiableList(residualPredicates);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    final StringBuilder plan = new StringBuilder();
+    plan.append("Query: ").append(criteria).append('\n');
+    plan.append("  Access path: ").append(accessPath);
+    if (drivingSpecialty != null) {
+      plan.append(" '").append(drivingSpecialty).append('\'');
+    }
+    plan.append(" (estimated rows: ").append(getEstimatedRows()).append(")\n");
+    plan.append("  Residual predicates: ")
+        .append(residualPredicates.isEmpty() ? "none" : String.join(", ", residualPredicates))
+        .append('\n');
+    plan.append("  Access paths considered:");
+    for (final Map.Entry<AccessPath, Integer> estimate : estimates.entrySet()) {
+      plan.append(' ').append(estimate.getKey()).append('=').append(estimate.getValue());
+    }
+    plan.append('\n');
+    for (final String statistic : statistics) {
+      plan.append("  Statistics: ").append(statistic).append('\n');
+    }
+    return plan.toString();
+  }
+
+  /**
+   * Gets the specialty whose posting list drives the query.
+   *
+   * @return the driving specialty, or {@code null} if the query isn't driven by the specialty
+   *         index.
+   */
+  String getDrivingSpecialty() {
+    return drivingSpecialty;
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * QueryPlanner.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import static suncertify.db.RecordIndexes.LOCATION_FIELD;
+import static suncertify.db.RecordIndexes.NAME_FIELD;
+import static suncertify.db.RecordIndexes.SPECIALTIES_FIELD;
+import static suncertify.db.RecordIndexes.toKey;
+
+import suncertify.db.QueryPlan.AccessPath;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * A cost based query planner for {@link QueryCriteria}. For every criterion with a matching index
+ * it estimates the number of candidate records that index would produce, using the exact value
+ * distribution held by the index, and picks the access path producing the fewest candidates. A
+ * full scan is used only when no index is more selective. The remaining criteria are then checked
+ * on the candidates alone.
+ *
+ * <p>This class is not thread safe; it is guarded by the monitor of the owning {@link Data}
+ * instance.
+ */
+final class QueryPlanner {
+
+  /** The highest character, appended to a prefix to form the upper bound of its key range. */
+  private static final char MAX_CHARACTER = Character.MAX_VALUE;
+
+  /** The record cache, keyed by record number. */
+  private final Map<Integer, String[]> records;
+
+  /** The indexes maintained over the record cache. */
+  private final RecordIndexes indexes;
+
+  /**
+   * Constructs a new query planner over the specified {@code records} and {@code indexes}.
+   *
+   * @param records
+   *          the record cache, keyed by record number.
+   * @param indexes
+   *          the indexes maintained over the record cache.
+   */
+  QueryPlanner(final Map<Integer, String[]> records, final RecordIndexes indexes) {
+    this.records = records;
+    this.indexes = indexes;
+  }
+
+  /**
+   * Returns the record numbers of the records matching the specified {@code criteria}, evaluated
+   * according to the specified {@code plan}.
+   *
+   * @param criteria
+   *          the criteria.
+   * @param plan
+   *          the plan made for the criteria by {@link #plan(QueryCriteria)}.
+   * @return the matching record numbers, in ascending order.
+   */
+  int[] execute(final QueryCriteria criteria, final QueryPlan plan) {
+    final AccessPath path = plan.getAccessPath();
+    final String nameKey = toKey(criteria.getNamePrefix());
+    final String locationKey = toKey(criteria.getLocationPrefix());
+    final Set<String> specialties = normalize(criteria.getSpecialties());
+    specialties.remove(plan.getDrivingSpecialty());
+    final NumericColumns columns = indexes.numericColumns();
+    return candidates(criteria, plan).filter(recordNumber -> {
+      final String[] fieldValues = records.get(recordNumber);
+      if (fieldValues == null) {
+        return false;
+      }
+      if (path != AccessPath.NAME_INDEX && !toKey(fieldValues[NAME_FIELD]).startsWith(nameKey)) {
+        return false;
+      }
+      if (path != AccessPath.LOCATION_INDEX
+          && !toKey(fieldValues[LOCATION_FIELD]).startsWith(locationKey)) {
+        return false;
+      }
+      if (path != AccessPath.AVAILABILITY_BITMAP && criteria.isAvailableOnly()
+          && !indexes.availableRecords().get(recordNumber)) {
+        return false;
+      }
+      if (path != AccessPath.RATE_INDEX && criteria.hasRateRange()) {
+        final long rate = columns.rate(recordNumber);
+        if (rate == NumericColumns.UNKNOWN || rate < criteria.getMinRate()
+            || rate > criteria.getMaxRate()) {
+          return false;
+        }
+      }
+      if (path != AccessPath.SIZE_INDEX && criteria.hasSizeRange()) {
+        final int size = columns.size(recordNumber);
+        if (size == NumericColumns.UNKNOWN || size < criteria.getMinSize()
+            || size > criteria.getMaxSize()) {
+          return false;
+        }
+      }
+      return specialties.isEmpty()
+          || SpecialtyIndex.tokenize(fieldValues[SPECIALTIES_FIELD]).containsAll(specialties);
+    }).sorted().toArray();
+  }
+
+  /**
+   * Plans the evaluation of the specified {@code criteria}, choosing the access path with the
+   * fewest estimated candidate records.
+   *
+   * @param criteria
+   *          the criteria.
+   * @return the plan.
+   */
+  QueryPlan plan(final QueryCriteria criteria) {
+    final Map<AccessPath, Integer> estimates = new EnumMap<>(AccessPath.class);
+    final List<String> residualPredicates = new ArrayList<>();
+    final List<String> statistics = new ArrayList<>();
+    final int liveRecords = indexes.liveRecords().cardinality();
+    estimates.put(AccessPath.FULL_SCAN, liveRecords);
+    statistics.add(liveRecords + " records, " + indexes.availableRecords().cardinality()
+        + " available");
+    if (criteria.isAvailableOnly()) {
+      estimates.put(AccessPath.AVAILABILITY_BITMAP, indexes.availableRecords().cardinality());
+    }
+    if (!criteria.getNamePrefix().isEmpty()) {
+      final String key = toKey(criteria.getNamePrefix());
+      estimates.put(AccessPath.NAME_INDEX, indexes.names().count(key, key + MAX_CHARACTER));
+      statistics.add("name: " + indexes.names().distinctValues() + " distinct values");
+    }
+    if (!criteria.getLocationPrefix().isEmpty()) {
+      final String key = toKey(criteria.getLocationPrefix());
+      estimates.put(AccessPath.LOCATION_INDEX,
+          indexes.locations().count(key, key + MAX_CHARACTER));
+      statistics.add("location: " + indexes.locations().distinctValues() + " distinct values");
+    }
+    String drivingSpecialty = null;
+    final Set<String> specialties = normalize(criteria.getSpecialties());
+    if (!specialties.isEmpty()) {
+      int fewest = Integer.MAX_VALUE;
+      for (final String specialty : specialties) {
+        final PostingList postings = indexes.specialties().get(specialty);
+        final int count = postings == null ? 0 : postings.size();
+        statistics.add("specialty '" + specialty + "': " + count + " records");
+        if (count < fewest) {
+          fewest = count;
+          drivingSpecialty = specialty;
+        }
+      }
+      estimates.put(AccessPath.SPECIALTY_INDEX, fewest);
+      statistics.add("specialties: " + indexes.specialties().distinctSpecialties()
+          + " distinct values");
+    }
+    if (criteria.hasRateRange()) {
+      estimates.put(AccessPath.RATE_INDEX,
+          indexes.rates().count(criteria.getMinRate(), criteria.getMaxRate()));
+      statistics.add("rate: " + indexes.rates().distinctValues() + " distinct values over "
+          + indexes.rates().size() + " records");
+    }
+    if (criteria.hasSizeRange()) {
+      estimates.put(AccessPath.SIZE_INDEX,
+          indexes.sizes().count(criteria.getMinSize(), criteria.getMaxSize()));
+      statistics.add("size: " + indexes.sizes().distinctValues() + " distinct values over "
+          + indexes.sizes().size() + " records");
+    }
+    AccessPath cheapest = AccessPath.FULL_SCAN;
+    for (final Map.Entry<AccessPath, Integer> estimate : estimates.entrySet()) {
+      if (estimate.getValue() < estimates.get(cheapest)) {
+        cheapest = estimate.getKey();
+      }
+    }
+    if (cheapest != AccessPath.SPECIALTY_INDEX) {
+      drivingSpecialty = null;
+    }
+    for (final AccessPath path : estimates.keySet()) {
+      if (path != cheapest && path != AccessPath.FULL_SCAN) {
+        residualPredicates.add(describe(path, criteria));
+      }
+    }
+    if (cheapest == AccessPath.SPECIALTY_INDEX && specialties.size() > 1) {
+      specialties.remove(drivingSpecialty);
+      residualPredicates.add("specialties include " + specialties);
+    }
+    return new QueryPlan(criteria, cheapest, drivingSpecialty, estimates, residualPredicates,
+        statistics);
+  }
+
+  /**
+   * Normalises the specified {@code specialties} as the specialty index does, dropping blanks.
+   *
+   * @param specialties
+   *          the specialties.
+   * @return the distinct normalised specialties.
+   */
+  private static Set<String> normalize(final String[] specialties) {
+    final Set<String> tokens = new LinkedHashSet<>();
+    for (final String specialty : specialties) {
+      final String token = SpecialtyIndex.normalize(specialty);
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Produces the candidate record numbers of the driving access path of the specified
+   * {@code plan}.
+   *
+   * @param criteria
+   *          the criteria.
+   * @param plan
+   *          the plan.
+   * @return the candidate record numbers.
+   */
+  private IntStream candidates(final QueryCriteria criteria, final QueryPlan plan) {
+    switch (plan.getAccessPath()) {
+      case AVAILABILITY_BITMAP:
+        return indexes.availableRecords().stream();
+      case NAME_INDEX:
+        final String nameKey = toKey(criteria.getNamePrefix());
+        return IntStream.of(indexes.names().find(nameKey, nameKey + MAX_CHARACTER));
+      case LOCATION_INDEX:
+        final String locationKey = toKey(criteria.getLocationPrefix());
+        return IntStream.of(indexes.locations().find(locationKey, locationKey + MAX_CHARACTER));
+      case SPECIALTY_INDEX:
+        final PostingList postings = indexes.specialties().get(plan.getDrivingSpecialty());
+        return postings == null ? IntStream.empty() : IntStream.of(postings.toArray());
+      case RATE_INDEX:
+        return IntStream.of(indexes.rates().find(criteria.getMinRate(), criteria.getMaxRate()));
+      case SIZE_INDEX:
+        return IntStream.of(indexes.sizes().find(criteria.getMinSize(), criteria.getMaxSize()));
+      default:
+        return indexes.liveRecords().stream();
+    }
+  }
+
+  /**
+   * Describes the predicate of the specified {@code criteria} served by the specified
+   * {@code path}.
+   *
+   * @param path
+   *          the access path.
+   * @param criteria
+   *          the criteria.
+   * @return the description of the predicate.
+   */
+  private static String describe(final AccessPath path, final QueryCriteria criteria) {
+    switch (path) {
+      case AVAILABILITY_BITMAP:
+        return "available";
+      case NAME_INDEX:
+        return "name starts with '" + criteria.getNamePrefix() + "'";
+      case LOCATION_INDEX:
+        return "location starts with '" + criteria.getLocationPrefix() + "'";
+      case SPECIALTY_INDEX:
+        return "specialties include " + normalize(criteria.getSpecialties());
+      case RATE_INDEX:
+        return "rate between " + criteria.getMinRate() + " and " + criteria.getMaxRate();
+      case SIZE_INDEX:
+        return "size between " + criteria.getMinSize() + " and " + criteria.getMaxSize();
+      default:
+        return path.toString();
+    }
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * QueryResultCache.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least recently used cache of query results, keyed by query. Each result is tagged
+ * with the modification count of the record cache it was computed at, along with the compiled
+ * matcher and the fields of the query, so that a change to a record invalidates exactly the
+ * results whose membership it changes:
+ *
+ * <ul>
+ * <li>an update leaving the fields a query reads untouched invalidates nothing;</li>
+ * <li>otherwise, a result is invalidated only if the record matched the query before the change
+ * but not after, or vice versa.</li>
+ * </ul>
+ *
+ * A change is announced in two steps, {@link #beforeChange} and {@link #afterChange}, around the
+ * update of the record cache and its secondary indexes, since some matchers read the indexes
+ * rather than the field values. This class is not thread safe.
+ */
+final class QueryResultCache {
+
+  /** The maximum number of cached results. */
+  private int capacity;
+
+  /** The cached results, in access order. */
+  private final Map<Object, Result> results;
+
+  /** The number of lookups answered from the cache. */
+  private long hits;
+
+  /** The number of lookups not answered from the cache. */
+  private long misses;
+
+  /** The number of results invalidated by changes to records. */
+  private long invalidations;
+
+  /**
+   * Constructs a new cache holding at most {@code capacity} results.
+   *
+   * @param capacity
+   *          the maximum number of cached results.
+   */
+  QueryResultCache(final int capacity) {
+    this.capacity = capacity;
+    this.results = new LinkedHashMap<>(capacity, 0.75f, true);
+  }
+
+  /**
+   * Gets a copy of the result cached for the specified {@code key}.
+   *
+   * @param key
+   *          the query.
+   * @return the record numbers matching the query, or {@code null} if no result is cached.
+   */
+  int[] get(final Object key) {
+    final Result result = results.get(key);
+    if (result == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return result.recordNumbers.clone();
+  }
+
+  /**
+   * Caches the result of a query, evicting the least recently used result if the cache is full.
+   *
+   * @param key
+   *          the query.
+   * @param matcher
+   *          the compiled query.
+   * @param fieldMask
+   *          the bit mask of the fields read by the query.
+   * @param recordNumbers
+   *          the record numbers matching the query; a copy is cached.
+   * @param version
+   *          the modification count of the record cache the result was computed at.
+   */
+  void put(final Object key, final RecordMatcher matcher, final int fieldMask,
+      final int[] recordNumbers, final long version) {
+    results.put(key, new Result(matcher, fieldMask, recordNumbers.clone(), version));
+    evictExcess();
+  }
+
+  /**
+   * Records, for each cached result the change may affect, whether the record with the specified
+   * {@code recordNumber} matches before the change is applied.
+   *
+   * @param recordNumber
+   *          the number of the record about to change.
+   * @param previousValues
+   *          the current field values of the record, {@code null} if it doesn't exist.
+   * @param fieldValues
+   *          the field values the record is about to have, {@code null} if it is being deleted.
+   */
+  void beforeChange(final int recordNumber, final String[] previousValues,
+      final String[] fieldValues) {
+    final int changedFields = changedFields(previousValues, fieldValues);
+    for (final Result result : results.values()) {
+      result.affected = (result.fieldMask & changedFields) != 0
+          || (previousValues == null) != (fieldValues == null);
+      result.matchedBefore = result.affected && previousValues != null
+          && result.matcher.matches(recordNumber, previousValues);
+    }
+  }
+
+  /**
+   * Invalidates each cached result whose membership was changed by the change to the record with
+   * the specified {@code recordNumber}, which has just been applied.
+   *
+   * @param recordNumber
+   *          the number of the record which changed.
+   * @param fieldValues
+   *          the new field values of the record, {@code null} if it was deleted.
+   */
+  void afterChange(final int recordNumber, final String[] fieldValues) {
+    final Iterator<Result> iterator = results.values().iterator();
+    while (iterator.hasNext()) {
+      final Result result = iterator.next();
+      if (result.affected) {
+        final boolean matchesAfter = fieldValues != null
+            && result.matcher.matches(recordNumber, fieldValues);
+        if (matchesAfter != result.matchedBefore) {
+          iterator.remove();
+          invalidations++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes every cached result.
+   */
+  void clear() {
+    invalidations += results.size();
+    results.clear();
+  }
+
+  /**
+   * Gets the number of lookups answered from the cache.
+   *
+   * @return the number of hits.
+   */
+  long hits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of results invalidated by changes to records.
+   *
+   * @return the number of invalidations.
+   */
+  long invalidations() {
+    return invalidations;
+  }
+
+  /**
+   * Gets the number of lookups not answered from the cache.
+   *
+   * @return the number of misses.
+   */
+  long misses() {
+    return misses;
+  }
+
+  /**
+   * Gets the modification count of the record cache the result cached for the specified
+   * {@code key} was computed at. The result remains valid until a change invalidates it, so this
+   * may be older than the current modification count.
+   *
+   * @param key
+   *          the query.
+   * @return the modification count, or -1 if no result is cached.
+   */
+  long version(final Object key) {
+    final Result result = results.get(key);
+    return result == null ? -1 : result.version;
+  }
+
+  /**
+   * Gets the maximum number of cached results.
+   *
+   * @return the capacity.
+   */
+  int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Changes the maximum number of cached results, evicting the least recently used results if the
+   * cache now holds too many.
+   *
+   * @param capacity
+   *          the maximum number of cached results.
+   */
+  void setCapacity(final int capacity) {
+    this.capacity = capacity;
+    evictExcess();
+  }
+
+  /**
+   * Gets the number of cached results.
+   *
+   * @return the number of cached results.
+   */
+  int size() {
+    return results.size();
+  }
+
+  /**
+   * Evicts least recently used results until the cache holds no more than its capacity.
+   */
+  private void evictExcess() {
+    final Iterator<Result> eldest = results.values().iterator();
+    while (results.size() > capacity) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Computes the bit mask of the fields whose values differ between the two versions of a record.
+   * Every bit is set if either version is {@code null} or
+   * they differ in length.
+   *
+   * @param previousValues
+   *          the previous field values.
+   * @param fieldValues
+   *          the new field values.
+   * @return the bit mask of the changed fields.
+   */
+  private static int changedFields(final String[] previousValues, final String[] fieldValues) {
+    if (previousValues == null || fieldValues == null
+        || previousValues.length != fieldValues.length) {
+      return -1;
+    }
+    int mask = 0;
+    for (int index = 0; index < fieldValues.length; index++) {
+      if (!fieldValues[index].equals(previousValues[index])) {
+        mask |= 1 << index;
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * A cached query result.
+   */
+  private static final class Result {
+
+    /** The compiled query. */
+    private final RecordMatcher matcher;
+
+    /** The bit mask of the fields read by the query. */
+    private final int fieldMask;
+
+    /** The record numbers matching the query. */
+    private final int[] recordNumbers;
+
+    /** The modification count of the record cache the result was computed at. */
+    private final long version;
+
+    /** True if the change being applied may affect the result. */
+    private boolean affected;
+
+    /** True if the record being changed matched the query before the change. */
+    private boolean matchedBefore;
+
+    /**
+     * Constructs a new cached result.
+     *
+     * @param matcher
+     *          the compiled query.
+     * @param fieldMask
+     *          the bit mask of the fields read by the query.
+     * @param recordNumbers
+     *          the record numbers matching the query.
+     * @param version
+     *          the modification count of the record cache the result was computed at.
+     */
+    Result(final RecordMatcher matcher, final int fieldMask, final int[] recordNumbers,
+        final long version) {
+      this.matcher = matcher;
+      this.fieldMask = fieldMask;
+      this.recordNumbers = recordNumbers;
+      this.version = version;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * RecordContention.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+
+/**
+ * How contended the lock of a record has been recently, as returned by
+ * {@link DBMainExtended#getHotRecords(int)}: the number of lock requests which had to wait for
+ * another client to unlock the record, and how long they waited. Immutable and
+ * {@link Serializable}.
+ */
+public final class RecordContention implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The record number. */
+  private final int recordNumber;
+
+  /** The number of lock requests which had to wait. */
+  private final long contendedRequests;
+
+  /** The total time the contended requests waited, in milliseconds. */
+  private final long totalWaitMillis;
+
+  /** The longest time a contended request waited, in milliseconds. */
+  private final long maxWaitMillis;
+
+  /**
+   * Constructs a new record contention.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @param contendedRequests
+   *          the number of lock requests which had to wait.
+   * @param totalWaitMillis
+   *          the total time the contended requests waited, in milliseconds.
+   * @param maxWaitMillis
+   *          the longest time a contended request waited, in milliseconds.
+   */
+  RecordContention(final int recordNumber, final long contendedRequests,
+      final long totalWaitMillis, final long maxWaitMillis) {
+    this.recordNumber = recordNumber;
+    this.contendedRequests = contendedRequests;
+    this.totalWaitMillis = totalWaitMillis;
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  /**
+   * Gets the number of lock requests which had to wait.
+   *
+   * @return the number of contended requests.
+   */
+  public long getContendedRequests() {
+    return contendedRequests;
+  }
+
+  /**
+   * Gets the longest time a contended request waited.
+   *
+   * @return the longest wait, in milliseconds.
+   */
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  /**
+   * Gets the number of the record.
+   *
+   * @return the record number.
+   */
+  public int getRecordNumber() {
+    return recordNumber;
+  }
+
+  /**
+   * Gets the total time the contended requests waited.
+   *
+   * @return the total wait, in milliseconds.
+   */
+  public long getTotalWaitMillis() {
+    return totalWaitMillis;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return "Record " + recordNumber + ": " + contendedRequests + " contended, "
+        + totalWaitMillis + " ms waited, longest " + maxWaitMillis + " ms";
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * RecordIndexes.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import static suncertify.util.Utils.isEightDigits;
+
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * The secondary indexes maintained over the record cache of a {@link Data} instance. Every change
+ * to the record cache is passed to {@link #update(int, String[], String[])}, which keeps each
+ * index current incrementally.
+ *
+ * <p>This class is not thread safe; it is guarded by the monitor of the owning {@link Data}
+ * instance.
+ */
+final class RecordIndexes {
+
+  /** The index of the name field. */
+  static final int NAME_FIELD = 0;
+
+  /** The index of the location field. */
+  static final int LOCATION_FIELD = 1;
+
+  /** The index of the specialties field, a comma separated list of specialties. */
+  static final int SPECIALTIES_FIELD = 2;
+
+  /** The index of the size field, the number of staff. */
+  static final int SIZE_FIELD = 3;
+
+  /** The index of the rate field, the hourly charge such as "$85.00". */
+  static final int RATE_FIELD = 4;
+
+  /** The index of the owner field, which holds the id of the customer who booked the record. */
+  static final int OWNER_FIELD = 5;
+
+  /** The record numbers of the records which are not deleted. */
+  private final BitSet liveRecords = new BitSet();
+
+  /** The record numbers of the records which are neither deleted nor booked. */
+  private final BitSet availableRecords = new BitSet();
+
+  /** The records, keyed by upper case name. */
+  private final ValueIndex<String> names = new ValueIndex<>();
+
+  /** The records, keyed by upper case location. */
+  private final ValueIndex<String> locations = new ValueIndex<>();
+
+  /** The inverted index from specialty to the records of the contractors offering it. */
+  private final SpecialtyIndex specialties = new SpecialtyIndex();
+
+  /** The records, keyed by size. */
+  private final ValueIndex<Integer> sizes = new ValueIndex<>();
+
+  /** The records, keyed by rate in cents. */
+  private final ValueIndex<Long> rates = new ValueIndex<>();
+
+  /** The parsed rate and size of each record. */
+  private final NumericColumns numericColumns = new NumericColumns();
+
+  /** The records booked by each customer, keyed by customer id. */
+  private final ValueIndex<String> owners = new ValueIndex<>();
+
+  /**
+   * Converts the specified field {@code value} to the form it is indexed under by the name and
+   * location indexes, which serve case insensitive prefix searches.
+   *
+   * @param value
+   *          the field value.
+   * @return the upper case value.
+   */
+  static String toKey(final String value) {
+    return value.toUpperCase(Locale.ENGLISH);
+  }
+
+  /**
+   * Gets the record numbers of the records which are neither deleted nor booked. The returned
+   * set must not be modified.
+   *
+   * @return the available records.
+   */
+  BitSet availableRecords() {
+    return availableRecords;
+  }
+
+  /**
+   * Removes every record from the indexes.
+   */
+  void clear() {
+    liveRecords.clear();
+    availableRecords.clear();
+    names.clear();
+    locations.clear();
+    specialties.clear();
+    sizes.clear();
+    rates.clear();
+    owners.clear();
+  }
+
+  /**
+   * Gets the record numbers of the records which are not deleted. The returned set must not be
+   * modified.
+   *
+   * @return the live records.
+   */
+  BitSet liveRecords() {
+    return liveRecords;
+  }
+
+  /**
+   * Gets the index of the location field.
+   *
+   * @return the location index, keyed by upper case location.
+   */
+  ValueIndex<String> locations() {
+    return locations;
+  }
+
+  /**
+   * Gets the index of the name field.
+   *
+   * @return the name index, keyed by upper case name.
+   */
+  ValueIndex<String> names() {
+    return names;
+  }
+
+  /**
+   * Gets the parsed rate and size columns.
+   *
+   * @return the numeric columns.
+   */
+  NumericColumns numericColumns() {
+    return numericColumns;
+  }
+
+  /**
+   * Gets the index of the owner field.
+   *
+   * @return the owner index, keyed by trimmed customer id.
+   */
+  ValueIndex<String> owners() {
+    return owners;
+  }
+
+  /**
+   * Gets the index of the rate field.
+   *
+   * @return the rate index, keyed by rate in cents.
+   */
+  ValueIndex<Long> rates() {
+    return rates;
+  }
+
+  /**
+   * Gets the index of the size field.
+   *
+   * @return the size index.
+   */
+  ValueIndex<Integer> sizes() {
+    return sizes;
+  }
+
+  /**
+   * Gets the inverted index of the specialties field.
+   *
+   * @return the specialty index.
+   */
+  SpecialtyIndex specialties() {
+    return specialties;
+  }
+
+  /**
+   * Updates the indexes to reflect that the record with the specified {@code recordNumber} has
+   * changed from {@code previousValues} to {@code fieldValues}.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @param previousValues
+   *          the previous field values, or {@code null} if the record was deleted or didn't exist.
+   * @param fieldValues
+   *          the new field values, or {@code null} if the record has been deleted.
+   */
+  void update(final int recordNumber, final String[] previousValues, final String[] fieldValues) {
+    if (previousValues != null) {
+      names.remove(toKey(previousValues[NAME_FIELD]), recordNumber);
+      locations.remove(toKey(previousValues[LOCATION_FIELD]), recordNumber);
+      specialties.remove(recordNumber, previousValues[SPECIALTIES_FIELD]);
+      sizes.remove(NumericColumns.parseSize(previousValues[SIZE_FIELD]), recordNumber);
+      rates.remove(NumericColumns.parseCents(previousValues[RATE_FIELD]), recordNumber);
+      owners.remove(previousValues[OWNER_FIELD].trim(), recordNumber);
+    }
+    if (fieldValues != null) {
+      names.add(toKey(fieldValues[NAME_FIELD]), recordNumber);
+      locations.add(toKey(fieldValues[LOCATION_FIELD]), recordNumber);
+      specialties.add(recordNumber, fieldValues[SPECIALTIES_FIELD]);
+      numericColumns.set(recordNumber, fieldValues[RATE_FIELD], fieldValues[SIZE_FIELD]);
+      final int size = NumericColumns.parseSize(fieldValues[SIZE_FIELD]);
+      if (size != NumericColumns.UNKNOWN) {
+        sizes.add(size, recordNumber);
+      }
+      final long rate = NumericColumns.parseCents(fieldValues[RATE_FIELD]);
+      if (rate != NumericColumns.UNKNOWN) {
+        rates.add(rate, recordNumber);
+      }
+      final String owner = fieldValues[OWNER_FIELD].trim();
+      if (!owner.isEmpty()) {
+        owners.add(owner, recordNumber);
+      }
+    }
+    liveRecords.set(recordNumber, fieldValues != null);
+    availableRecords.set(recordNumber,
+        fieldValues != null && !isEightDigits(fieldValues[OWNER_FIELD].trim()));
+  }
+}
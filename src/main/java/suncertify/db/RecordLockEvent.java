@@ -0,0 +1,47 @@
+/*
+ * RecordLockEvent.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event spanning a blocking {@link Data#lock(int)} call, from the request
+ * to the grant of the lock, so that the time spent waiting for other clients to unlock a record
+ * shows up in a recording next to GC pauses and I/O.
+ *
+ * <p>Like the other events of the database, the event is begun unconditionally but its fields are
+ * only set and it is only committed if {@link #shouldCommit()} returns true. When the event is
+ * disabled that check is constant, and the JIT compiler removes the event altogether.
+ */
+@Name("suncertify.RecordLock")
+@Label("Record Lock")
+@Category({ "Bodgitt and Scarper", "Database" })
+@Description("A blocking lock of a record, from request to grant")
+@StackTrace(false)
+final class RecordLockEvent extends jdk.jfr.Event {
+
+  /** The record number. */
+  @Label("Record Number")
+  int recordNumber;
+
+  /** True if the lock was held by another client when it was requested. */
+  @Label("Contended")
+  @Description("The lock was held by another client when it was requested")
+  boolean contended;
+
+  /** True if the lock was granted, false if the record was deleted while waiting. */
+  @Label("Granted")
+  boolean granted;
+}
@@ -0,0 +1,132 @@
+/*
+ * RecordLockInfo.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+
+/**
+ * The state of a held record lock at the moment it was inspected, as returned by
+ * {@link DBMainExtended#getHeldLocks()}. The holder of a lock is the thread which requested it;
+ * for a request made over RMI the name of that thread includes the address of the client.
+ * Immutable and {@link Serializable}.
+ */
+public final class RecordLockInfo implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The number of the locked record. */
+  private final int recordNumber;
+
+  /** The name of the thread which requested the lock. */
+  private final String holder;
+
+  /** The time the lock was granted, in milliseconds since the epoch. */
+  private final long acquiredAt;
+
+  /** The time the lock had been held for when it was inspected, in milliseconds. */
+  private final long heldMillis;
+
+  /** The number of requests waiting for the lock. */
+  private final int waiters;
+
+  /** The time the oldest waiting request had been waiting for, in milliseconds. */
+  private final long longestWaitMillis;
+
+  /**
+   * Constructs a new record lock info.
+   *
+   * @param recordNumber
+   *          the number of the locked record.
+   * @param holder
+   *          the name of the thread which requested the lock.
+   * @param acquiredAt
+   *          the time the lock was granted, in milliseconds since the epoch.
+   * @param heldMillis
+   *          the time the lock had been held for, in milliseconds.
+   * @param waiters
+   *          the number of requests waiting for the lock.
+   * @param longestWaitMillis
+   *          the time the oldest waiting request had been waiting for, in milliseconds.
+   */
+  RecordLockInfo(final int recordNumber, final String holder, final long acquiredAt,
+      final long heldMillis, final int waiters, final long longestWaitMillis) {
+    this.recordNumber = recordNumber;
+    this.holder = holder;
+    this.acquiredAt = acquiredAt;
+    this.heldMillis = heldMillis;
+    this.waiters = waiters;
+    this.longestWaitMillis = longestWaitMillis;
+  }
+
+  /**
+   * Gets the time the lock was granted.
+   *
+   * @return the time, in milliseconds since the epoch.
+   */
+  public long getAcquiredAt() {
+    return acquiredAt;
+  }
+
+  /**
+   * Gets the time the lock had been held for when it was inspected.
+   *
+   * @return the hold time, in milliseconds.
+   */
+  public long getHeldMillis() {
+    return heldMillis;
+  }
+
+  /**
+   * Gets the name of the thread which requested the lock.
+   *
+   * @return the holder.
+   */
+  public String getHolder() {
+    return holder;
+  }
+
+  /**
+   * Gets the time the oldest waiting request had been waiting for when the lock was inspected.
+   *
+   * @return the longest wait, in milliseconds, 0 if no request is waiting.
+   */
+  public long getLongestWaitMillis() {
+    return longestWaitMillis;
+  }
+
+  /**
+   * Gets the number of the locked record.
+   *
+   * @return the record number.
+   */
+  public int getRecordNumber() {
+    return recordNumber;
+  }
+
+  /**
+   * Gets the number of requests waiting for the lock.
+   *
+   * @return the number of waiters.
+   */
+  public int getWaiters() {
+    return waiters;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return "Record " + recordNumber + " held by " + holder + " for " + heldMillis + " ms, "
+        + waiters + " waiting, longest for " + longestWaitMillis + " ms";
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * RecordLocks.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import suncertify.util.SlowOperationLog;
+import suncertify.util.SlowOperationLog.Operation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The record locks of a {@link Data} instance, granted in the order they were requested. Each
+ * locked record has a queue of pending requests; when the record is unlocked, the lock is handed
+ * directly to the request at the head of its queue rather than being released for any waiting
+ * thread to grab, so a request can never be overtaken by a later one and no client starves.
+ *
+ * <p>A request is represented by a {@link CompletableFuture} which is completed when the lock is
+ * granted, so a requester may either block on it or register a continuation. This class is not
+ * thread safe; it is guarded by the monitor of the {@link Data} instance, but requests are
+ * completed outside that monitor, so continuations never run while it is held.
+ *
+ * <p>For diagnostics, each lock remembers the thread which requested it and when it was granted,
+ * and each request when it was made. Every request which had to wait is counted against its record
+ * when the lock is handed to it, in the current of two consecutive contention windows; the hot
+ * records are those with the most contended requests over the current and the previous window.
+ * A request which waited longer than the lock wait threshold is also logged to the
+ * {@link SlowOperationLog}, on behalf of its requester, when the lock is handed to it.
+ */
+final class RecordLocks {
+
+  /** The length of a contention window, in milliseconds. */
+  private static final long CONTENTION_WINDOW_MILLIS = 60_000;
+
+  /** The held locks, keyed by record number. */
+  private final Map<Integer, Lock> lockedRecords = new HashMap<>();
+
+  /** The contention of each record in the current window, keyed by record number. */
+  private Map<Integer, Contention> currentContention = new HashMap<>();
+
+  /** The contention of each record in the previous window, keyed by record number. */
+  private Map<Integer, Contention> previousContention = new HashMap<>();
+
+  /** The time the current contention window started, in milliseconds since the epoch. */
+  private long windowStart = System.currentTimeMillis();
+
+  /**
+   * Requests the lock of the record with the specified {@code recordNumber} on behalf of the
+   * calling thread. If the record is unlocked the lock is granted at once and the returned future
+   * is already complete; otherwise the request joins the queue of the record and is completed
+   * when its turn comes.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @return the request, completed once the lock has been granted.
+   */
+  CompletableFuture<Void> acquire(final int recordNumber) {
+    final String requester = Thread.currentThread().getName();
+    final long now = System.currentTimeMillis();
+    final Lock lock = lockedRecords.get(recordNumber);
+    if (lock == null) {
+      lockedRecords.put(recordNumber, new Lock(requester, now));
+      return CompletableFuture.completedFuture(null);
+    }
+    final Request request = new Request(requester, now);
+    lock.waiting.add(request);
+    return request.future;
+  }
+
+  /**
+   * Gets the state of every held lock, in record number order.
+   *
+   * @return the held locks.
+   */
+  List<RecordLockInfo> heldLocks() {
+    final long now = System.currentTimeMillis();
+    final List<RecordLockInfo> heldLocks = new ArrayList<>(lockedRecords.size());
+    for (final Map.Entry<Integer, Lock> entry : lockedRecords.entrySet()) {
+      final Lock lock = entry.getValue();
+      final Request oldest = lock.waiting.peek();
+      heldLocks.add(new RecordLockInfo(entry.getKey(), lock.holder, lock.acquiredAt,
+          now - lock.acquiredAt, lock.waiting.size(),
+          oldest == null ? 0 : now - oldest.requestedAt));
+    }
+    heldLocks.sort(Comparator.comparingInt(RecordLockInfo::getRecordNumber));
+    return heldLocks;
+  }
+
+  /**
+   * Gets the records whose locks were most contended over the current and previous contention
+   * windows, most contended first.
+   *
+   * @param limit
+   *          the maximum number of records to return.
+   * @return the most contended records.
+   */
+  List<RecordContention> hotRecords(final int limit) {
+    rotateWindow(System.currentTimeMillis());
+    final Map<Integer, Contention> merged = new HashMap<>();
+    for (final Map<Integer, Contention> window : Arrays.asList(previousContention,
+        currentContention)) {
+      window.forEach((recordNumber, contention) -> merged
+          .computeIfAbsent(recordNumber, key -> new Contention()).add(contention));
+    }
+    final List<RecordContention> hotRecords = new ArrayList<>(merged.size());
+    merged.forEach((recordNumber, total) -> hotRecords.add(new RecordContention(recordNumber,
+        total.requests, total.totalWaitMillis, total.maxWaitMillis)));
+    hotRecords.sort(Comparator.comparingLong(RecordContention::getContendedRequests).reversed()
+        .thenComparing(Comparator.comparingLong(RecordContention::getTotalWaitMillis).reversed()));
+    return new ArrayList<>(hotRecords.subList(0, Math.min(limit, hotRecords.size())));
+  }
+
+  /**
+   * Checks if the record with the specified {@code recordNumber} is locked.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @return true, if the record is locked.
+   */
+  boolean isLocked(final int recordNumber) {
+    return lockedRecords.containsKey(recordNumber);
+  }
+
+  /**
+   * Withdraws the pending request represented by the specified {@code future} from the queue of
+   * the record with the specified {@code recordNumber}, after its requester has given up on it.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @param future
+   *          the request.
+   * @return true, if the request was still waiting and has been withdrawn.
+   */
+  boolean withdraw(final int recordNumber, final CompletableFuture<Void> future) {
+    final Lock lock = lockedRecords.get(recordNumber);
+    return lock != null && lock.waiting.removeIf(request -> request.future == future);
+  }
+
+  /**
+   * Unlocks the record with the specified {@code recordNumber}, handing the lock to the oldest
+   * pending request if there is one. Requests already completed because their requesters gave up
+   * on them are discarded. The caller must then complete the request; if it is completed in the
+   * meantime, the caller must release the record again to pass the lock on.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @return the request now holding the lock, or {@code null} if the record is now unlocked or
+   *         wasn't locked.
+   */
+  CompletableFuture<Void> release(final int recordNumber) {
+    final Lock lock = lockedRecords.get(recordNumber);
+    if (lock == null) {
+      return null;
+    }
+    Request next = lock.waiting.poll();
+    while (next != null && next.future.isDone()) {
+      next = lock.waiting.poll();
+    }
+    if (next == null) {
+      lockedRecords.remove(recordNumber);
+      return null;
+    }
+    final long now = System.currentTimeMillis();
+    final long waitNanos = TimeUnit.MILLISECONDS.toNanos(now - next.requestedAt);
+    lock.holder = next.requester;
+    lock.acquiredAt = now;
+    rotateWindow(now);
+    currentContention.computeIfAbsent(recordNumber, key -> new Contention())
+        .add(now - next.requestedAt);
+    if (SlowOperationLog.isSlow(Operation.LOCK_WAIT, waitNanos)) {
+      SlowOperationLog.entry(Operation.LOCK_WAIT, waitNanos).client(next.requester)
+          .criteria("record " + recordNumber).phase("lock wait", waitNanos).submit();
+    }
+    return next.future;
+  }
+
+  /**
+   * Starts a new contention window if the current one has ended, discarding the previous one.
+   *
+   * @param now
+   *          the current time, in milliseconds since the epoch.
+   */
+  private void rotateWindow(final long now) {
+    if (now - windowStart < CONTENTION_WINDOW_MILLIS) {
+      return;
+    }
+    previousContention = now - windowStart < 2 * CONTENTION_WINDOW_MILLIS ? currentContention
+        : new HashMap<>();
+    currentContention = new HashMap<>();
+    windowStart = now;
+  }
+
+  /**
+   * The contention of a record within a window.
+   */
+  private static final class Contention {
+
+    /** The number of lock requests which had to wait. */
+    private long requests;
+
+    /** The total time the requests waited, in milliseconds. */
+    private long totalWaitMillis;
+
+    /** The longest time a request waited, in milliseconds. */
+    private long maxWaitMillis;
+
+    /**
+     * Counts a request which waited for the specified time.
+     *
+     * @param waitMillis
+     *          the time the request waited, in milliseconds.
+     */
+    void add(final long waitMillis) {
+      requests++;
+      totalWaitMillis += waitMillis;
+      maxWaitMillis = Math.max(maxWaitMillis, waitMillis);
+    }
+
+    /**
+     * Adds the requests counted by the specified {@code other} contention.
+     *
+     * @param other
+     *          the contention to add.
+     */
+    void add(final Contention other) {
+      requests += other.requests;
+      totalWaitMillis += other.totalWaitMillis;
+      maxWaitMillis = Math.max(maxWaitMillis, other.maxWaitMillis);
+    }
+  }
+
+  /**
+   * A held lock.
+   */
+  private static final class Lock {
+
+    /** The pending requests, in request order; empty if none are waiting. */
+    private final Deque<Request> waiting = new ArrayDeque<>();
+
+    /** The name of the thread which requested the lock. */
+    private String holder;
+
+    /** The time the lock was granted, in milliseconds since the epoch. */
+    private long acquiredAt;
+
+    /**
+     * Constructs a new lock.
+     *
+     * @param holder
+     *          the name of the thread which requested the lock.
+     * @param acquiredAt
+     *          the time the lock was granted, in milliseconds since the epoch.
+     */
+    Lock(final String holder, final long acquiredAt) {
+      this.holder = holder;
+      this.acquiredAt = acquiredAt;
+    }
+  }
+
+  /**
+   * A pending lock request.
+   */
+  private static final class Request {
+
+    /** The future completed when the lock is granted. */
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    /** The name of the thread which made the request. */
+    private final String requester;
+
+    /** The time the request was made, in milliseconds since the epoch. */
+    private final long requestedAt;
+
+    /**
+     * Constructs a new request.
+     *
+     * @param requester
+     *          the name of the thread which made the request.
+     * @param requestedAt
+     *          the time the request was made, in milliseconds since the epoch.
+     */
+    Request(final String requester, final long requestedAt) {
+      this.requester = requester;
+      this.requestedAt = requestedAt;
+    }
+  }
+}
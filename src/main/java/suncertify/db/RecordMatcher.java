@@ -0,0 +1,31 @@
+/*
+ * RecordMatcher.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+/**
+ * A compiled {@link Query}: a tree of matchers with field positions resolved and search values
+ * normalised in advance, so evaluating it against a record does no parsing or lookup of field
+ * names.
+ */
+@FunctionalInterface
+interface RecordMatcher {
+
+  /**
+   * Checks if the specified record matches.
+   *
+   * @param recordNumber
+   *          the record number, used by matchers reading the numeric columns.
+   * @param fieldValues
+   *          the field values of the record.
+   * @return true, if the record matches.
+   */
+  boolean matches(int recordNumber, String[] fieldValues);
+}
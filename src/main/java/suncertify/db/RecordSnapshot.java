@@ -0,0 +1,63 @@
+/*
+ * RecordSnapshot.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A point-in-time copy of the record cache of a {@link Data} instance together with the sequence
+ * number of the last {@link Mutation} it contains. Used to bring a read replica up to date before
+ * it starts consuming the mutation log.
+ */
+final class RecordSnapshot implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The sequence number of the last mutation contained in this snapshot. */
+  private final long sequence;
+
+  /** The record numbers and field values, {@code null} values denoting deleted records. */
+  private final HashMap<Integer, String[]> records;
+
+  /**
+   * Constructs a new snapshot of the specified {@code records}.
+   *
+   * @param sequence
+   *          the sequence number of the last mutation contained in the snapshot.
+   * @param records
+   *          the record cache to copy.
+   */
+  RecordSnapshot(final long sequence, final Map<Integer, String[]> records) {
+    this.sequence = sequence;
+    this.records = new HashMap<>(records);
+  }
+
+  /**
+   * Gets the record numbers and field values contained in this snapshot.
+   *
+   * @return the records, {@code null} values denoting deleted records.
+   */
+  Map<Integer, String[]> getRecords() {
+    return records;
+  }
+
+  /**
+   * Gets the sequence number of the last mutation contained in this snapshot.
+   *
+   * @return the sequence number.
+   */
+  long getSequence() {
+    return sequence;
+  }
+}
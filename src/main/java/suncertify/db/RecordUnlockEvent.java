@@ -0,0 +1,38 @@
+/*
+ * RecordUnlockEvent.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event marking the release of a record lock by {@link Data#unlock(int)},
+ * and whether the lock was handed to a waiting request.
+ */
+@Name("suncertify.RecordUnlock")
+@Label("Record Unlock")
+@Category({ "Bodgitt and Scarper", "Database" })
+@Description("The release of a record lock")
+@StackTrace(false)
+final class RecordUnlockEvent extends jdk.jfr.Event {
+
+  /** The record number. */
+  @Label("Record Number")
+  int recordNumber;
+
+  /** True if the lock was handed to a waiting request rather than released. */
+  @Label("Handed Off")
+  @Description("The lock was handed to a waiting request rather than released")
+  boolean handedOff;
+}
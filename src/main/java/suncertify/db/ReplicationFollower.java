@@ -0,0 +1,201 @@
+/*
+ * ReplicationFollower.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * ReplicationFollower runs on a read replica and keeps the record cache of a {@link Data} instance
+ * current by consuming the mutation log streamed by a {@link ReplicationPublisher} on the primary
+ * database server. If the connection to the primary is lost, or a mutation is missed, it
+ * reconnects and resynchronizes from a fresh snapshot.
+ *
+ * <p>Everything read from the primary passes through a {@link ReplicationFilter}, so a stream
+ * that does not come from a {@code ReplicationPublisher} can neither instantiate other classes nor
+ * make the replica allocate more than a snapshot's worth of memory.
+ */
+final class ReplicationFollower implements Runnable {
+
+  /** The time to wait in milliseconds before reconnecting to the primary. */
+  private static final long RECONNECT_DELAY = 2000;
+
+  /** The maximum number of bytes a snapshot of the primary's record cache may take. */
+  private static final long MAX_SNAPSHOT_BYTES = 1L << 28;
+
+  /** The maximum number of bytes a single mutation may take. */
+  private static final long MAX_MUTATION_BYTES = 1L << 16;
+
+  /** The maximum length of an array, including the table of the snapshot's record map. */
+  private static final long MAX_ARRAY_LENGTH = 1L << 21;
+
+  /** The maximum nesting depth of the objects in a snapshot or mutation. */
+  private static final long MAX_DEPTH = 4;
+
+  /**
+   * The classes the primary sends, including the serializable superclasses and the arrays whose
+   * component types are listed here.
+   */
+  private static final Set<Class<?>> ACCEPTED_CLASSES = new HashSet<Class<?>>(Arrays.asList(
+      RecordSnapshot.class, Mutation.class, Mutation.Type.class, Enum.class, HashMap.class,
+      Map.Entry.class, Integer.class, Number.class, String.class, byte.class));
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The data access object whose record cache is kept current. */
+  private final Data data;
+
+  /** The host name or IP address of the primary database server. */
+  private final String host;
+
+  /** The port number the primary publishes its mutation log on. */
+  private final int port;
+
+  /** Released once the first snapshot has been loaded into the record cache. */
+  private final CountDownLatch initialSync = new CountDownLatch(1);
+
+  /** False once this follower has been stopped. */
+  private volatile boolean running = true;
+
+  /**
+   * Constructs a new follower which keeps the record cache of the specified {@code data} current
+   * with the primary database server with the specified {@code host} and {@code port}.
+   *
+   * @param data
+   *          the data access object whose record cache is kept current.
+   * @param host
+   *          the host name or IP address of the primary database server.
+   * @param port
+   *          the port number the primary publishes its mutation log on.
+   */
+  ReplicationFollower(final Data data, final String host, final int port) {
+    this.data = data;
+    this.host = host;
+    this.port = port;
+  }
+
+  /**
+   * Waits until the first snapshot of the primary database has been loaded into the record cache,
+   * or the specified {@code timeout} elapses.
+   *
+   * @param timeout
+   *          the maximum time to wait.
+   * @param unit
+   *          the time unit of the {@code timeout} argument.
+   * @return true, if the record cache has been synchronized with the primary.
+   * @throws InterruptedException
+   *           if the current thread is interrupted while waiting.
+   */
+  boolean awaitInitialSync(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return initialSync.await(timeout, unit);
+  }
+
+  /**
+   * Connects to the primary and applies its mutation log to the record cache until this follower
+   * is stopped, reconnecting whenever the connection is lost.
+   */
+  @Override
+  public void run() {
+    while (running) {
+      try (Socket socket = new Socket(host, port);
+          ObjectInputStream input = new ObjectInputStream(
+              new BufferedInputStream(socket.getInputStream()))) {
+        final ReplicationFilter filter = new ReplicationFilter();
+        input.setObjectInputFilter(filter);
+        filter.expect(MAX_SNAPSHOT_BYTES);
+        final RecordSnapshot snapshot = (RecordSnapshot) input.readObject();
+        data.loadReplicaSnapshot(snapshot);
+        initialSync.countDown();
+        LOGGER.info("Synchronized with primary " + host + ":" + port + " at mutation "
+            + snapshot.getSequence());
+        while (running) {
+          filter.expect(MAX_MUTATION_BYTES);
+          data.applyReplicatedMutation((Mutation) input.readObject());
+        }
+      } catch (final IOException | ClassNotFoundException | ClassCastException
+          | IllegalStateException e) {
+        LOGGER.warning("Lost replication stream from " + host + ":" + port + ": " + e.getMessage());
+      }
+      if (running) {
+        try {
+          Thread.sleep(RECONNECT_DELAY);
+        } catch (final InterruptedException e) {
+          running = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops this follower. It exits the next time it receives a mutation or loses its connection to
+   * the primary.
+   */
+  void stop() {
+    running = false;
+  }
+
+  /**
+   * Filters the objects read from the primary. Only {@link #ACCEPTED_CLASSES} are accepted, nested
+   * no deeper than {@link #MAX_DEPTH}, and each object read may take no more than the number of
+   * bytes given to {@link #expect(long)} before it is read.
+   */
+  private static final class ReplicationFilter implements ObjectInputFilter {
+
+    /** The maximum number of bytes the object being read may take. */
+    private long maxBytes;
+
+    /** The position in the stream at which the object being read starts, or -1 if not yet known. */
+    private long start = -1;
+
+    /**
+     * Limits the object read next to the specified number of bytes.
+     *
+     * @param maxBytes
+     *          the maximum number of bytes the object read next may take.
+     */
+    void expect(final long maxBytes) {
+      this.maxBytes = maxBytes;
+      start = -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Status checkInput(final FilterInfo info) {
+      if (start < 0) {
+        start = info.streamBytes();
+      }
+      if (info.depth() > MAX_DEPTH || info.arrayLength() > MAX_ARRAY_LENGTH
+          || info.streamBytes() - start > maxBytes) {
+        return Status.REJECTED;
+      }
+      Class<?> type = info.serialClass();
+      if (type == null) {
+        return Status.ALLOWED;
+      }
+      while (type.isArray()) {
+        type = type.getComponentType();
+      }
+      return ACCEPTED_CLASSES.contains(type) ? Status.ALLOWED : Status.REJECTED;
+    }
+  }
+}
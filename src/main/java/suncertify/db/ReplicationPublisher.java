@@ -0,0 +1,197 @@
+/*
+ * ReplicationPublisher.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ReplicationPublisher runs on the primary database server and streams the mutation log of a
+ * {@link Data} instance over a socket to any number of read replicas. Each replica that connects
+ * first receives a snapshot of the record cache, followed by every {@link Mutation} applied after
+ * that snapshot was taken, in order.
+ *
+ * <p>Each replica is served by its own thread and bounded queue, so a slow or unresponsive replica
+ * never holds up the write path of the primary. A replica whose queue overflows is disconnected; it
+ * will reconnect and resynchronize from a fresh snapshot.
+ *
+ * <p>Replicas are not authenticated, so the publisher only accepts them on the address it is bound
+ * to, the loopback address unless another is configured.
+ */
+public final class ReplicationPublisher {
+
+  /** The maximum number of mutations queued for a single replica before it is disconnected. */
+  private static final int REPLICA_QUEUE_CAPACITY = 10000;
+
+  /** The number of mutations written to a replica before the object stream is reset. */
+  private static final int RESET_INTERVAL = 1000;
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The data access object whose mutation log is published. */
+  private final Data data;
+
+  /** The server socket replicas connect to. */
+  private final ServerSocket serverSocket;
+
+  /**
+   * Constructs a new publisher for the mutation log of the specified {@code data} and binds it to
+   * the specified {@code bindAddress} and {@code port}. Replicas are not accepted until
+   * {@link #start()} is invoked.
+   *
+   * @param data
+   *          the data access object whose mutation log is published.
+   * @param bindAddress
+   *          the host name or IP address replicas connect to.
+   * @param port
+   *          the port number replicas connect to.
+   * @throws IOException
+   *           if the bind address could not be resolved or the server socket could not be opened.
+   */
+  ReplicationPublisher(final Data data, final String bindAddress, final int port)
+      throws IOException {
+    this.data = data;
+    this.serverSocket = new ServerSocket(port, 0, InetAddress.getByName(bindAddress));
+  }
+
+  /**
+   * Stops accepting replicas and closes the server socket. Replicas which are already connected
+   * are disconnected the next time a mutation is sent to them.
+   */
+  public void close() {
+    try {
+      serverSocket.close();
+    } catch (final IOException e) {
+      LOGGER.log(Level.WARNING, "Could not close replication socket.", e);
+    }
+  }
+
+  /**
+   * Starts accepting connections from replicas on a background thread.
+   */
+  void start() {
+    final Thread acceptor = new Thread(this::acceptReplicas, "replication-publisher");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Accepts connections from replicas until the server socket is closed, starting a new
+   * {@link ReplicaConnection} for each one.
+   */
+  private void acceptReplicas() {
+    LOGGER.info("Publishing mutation log on " + serverSocket.getLocalSocketAddress());
+    while (!serverSocket.isClosed()) {
+      try {
+        final Socket socket = serverSocket.accept();
+        final Thread sender = new Thread(new ReplicaConnection(socket),
+            "replication-sender-" + socket.getRemoteSocketAddress());
+        sender.setDaemon(true);
+        sender.start();
+      } catch (final SocketException e) {
+        LOGGER.info("Replication publisher stopped: " + e.getMessage());
+      } catch (final IOException e) {
+        LOGGER.log(Level.WARNING, "Could not accept replica connection.", e);
+      }
+    }
+  }
+
+  /**
+   * A connection to a single replica. Queues mutations as they are applied on the primary and
+   * sends them to the replica on its own thread.
+   */
+  private final class ReplicaConnection implements MutationListener, Runnable {
+
+    /** The socket connected to the replica. */
+    private final Socket socket;
+
+    /** The mutations waiting to be sent to the replica. */
+    private final BlockingQueue<Mutation> queue = new ArrayBlockingQueue<>(REPLICA_QUEUE_CAPACITY);
+
+    /** True if a mutation could not be queued because the replica fell too far behind. */
+    private volatile boolean overflowed;
+
+    /**
+     * Constructs a new connection to the replica connected to the specified {@code socket}.
+     *
+     * @param socket
+     *          the socket connected to the replica.
+     */
+    ReplicaConnection(final Socket socket) {
+      this.socket = socket;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mutationApplied(final Mutation mutation) {
+      if (!queue.offer(mutation)) {
+        overflowed = true;
+      }
+    }
+
+    /**
+     * Sends a snapshot of the record cache to the replica, followed by every mutation applied after
+     * the snapshot was taken, until the replica disconnects or falls too far behind.
+     */
+    @Override
+    public void run() {
+      final RecordSnapshot snapshot = data.addMutationListener(this);
+      try (ObjectOutputStream output = new ObjectOutputStream(
+          new BufferedOutputStream(socket.getOutputStream()))) {
+        LOGGER.info("Replica connected from " + socket.getRemoteSocketAddress());
+        output.writeObject(snapshot);
+        output.flush();
+        int written = 0;
+        while (!overflowed && !serverSocket.isClosed()) {
+          final Mutation mutation = queue.poll(1, TimeUnit.SECONDS);
+          if (mutation != null) {
+            output.writeObject(mutation);
+            if (++written % RESET_INTERVAL == 0) {
+              output.reset();
+            }
+          }
+          if (queue.isEmpty()) {
+            output.flush();
+          }
+        }
+        if (overflowed) {
+          LOGGER.warning("Replica " + socket.getRemoteSocketAddress()
+              + " fell too far behind and was disconnected.");
+        }
+      } catch (final IOException e) {
+        LOGGER.info("Replica " + socket.getRemoteSocketAddress() + " disconnected: "
+            + e.getMessage());
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        data.removeMutationListener(this);
+        try {
+          socket.close();
+        } catch (final IOException e) {
+          LOGGER.log(Level.FINE, "Could not close replica socket.", e);
+        }
+      }
+    }
+  }
+}
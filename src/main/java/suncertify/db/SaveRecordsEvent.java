@@ -0,0 +1,39 @@
+/*
+ * SaveRecordsEvent.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event spanning a {@link Data#saveRecords()} call, which writes every
+ * record to the database file.
+ */
+@Name("suncertify.SaveRecords")
+@Label("Save Records")
+@Category({ "Bodgitt and Scarper", "Database" })
+@Description("A save of every record to the database file")
+@StackTrace(false)
+final class SaveRecordsEvent extends jdk.jfr.Event {
+
+  /** The number of records written, including deleted records. */
+  @Label("Records")
+  int records;
+
+  /** The size of the database file written, in bytes. */
+  @Label("Bytes Written")
+  @DataAmount
+  long bytes;
+}
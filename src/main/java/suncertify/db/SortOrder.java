@@ -0,0 +1,33 @@
+/*
+ * SortOrder.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+/**
+ * The orders in which the results of a range query on the {@code rate} and {@code size} fields can
+ * be returned.
+ */
+public enum SortOrder {
+
+  /** Ascending record number. */
+  RECORD_NUMBER,
+
+  /** Cheapest first; records with equal rates in ascending record number. */
+  RATE_ASCENDING,
+
+  /** Most expensive first; records with equal rates in ascending record number. */
+  RATE_DESCENDING,
+
+  /** Fewest staff first; records with equal sizes in ascending record number. */
+  SIZE_ASCENDING,
+
+  /** Most staff first; records with equal sizes in ascending record number. */
+  SIZE_DESCENDING
+}
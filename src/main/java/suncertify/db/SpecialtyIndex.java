@@ -0,0 +1,228 @@
+/*
+ * SpecialtyIndex.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index from specialty to the records of the contractors offering it. The
+ * {@code specialties} field of a record is a comma separated list, e.g. "Drywall, Painting,
+ * Carpets"; each entry is normalised to a token by trimming it, collapsing inner white space and
+ * converting it to lower case. Each token maps to a posting list, an ascending array of record
+ * numbers, so searches for several specialties are answered by merging posting lists rather than
+ * by scanning records.
+ *
+ * <p>This class is not thread safe; it is guarded by the monitor of the owning {@link Data}
+ * instance.
+ */
+final class SpecialtyIndex {
+
+  /** The posting lists, keyed by token. */
+  private final Map<String, PostingList> postingLists = new HashMap<>();
+
+  /**
+   * Splits the specified {@code specialties} field value into its distinct normalised tokens.
+   *
+   * @param specialties
+   *          a comma separated list of specialties.
+   * @return the distinct tokens, in the order they appear.
+   */
+  static Set<String> tokenize(final String specialties) {
+    final Set<String> tokens = new LinkedHashSet<>();
+    for (final String specialty : specialties.split(",")) {
+      final String token = normalize(specialty);
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Normalises the specified {@code specialty} to the form it is indexed under.
+   *
+   * @param specialty
+   *          a single specialty.
+   * @return the trimmed, lower case specialty with inner white space collapsed.
+   */
+  static String normalize(final String specialty) {
+    return specialty.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ENGLISH);
+  }
+
+  /**
+   * Adds the record with the specified {@code recordNumber} to the posting list of each of its
+   * {@code specialties}.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @param specialties
+   *          the value of the {@code specialties} field of the record.
+   */
+  void add(final int recordNumber, final String specialties) {
+    for (final String token : tokenize(specialties)) {
+      postingLists.computeIfAbsent(token, key -> new PostingList()).add(recordNumber);
+    }
+  }
+
+  /**
+   * Removes every record from the index.
+   */
+  void clear() {
+    postingLists.clear();
+  }
+
+  /**
+   * Gets the number of distinct specialties in the index.
+   *
+   * @return the number of distinct specialties.
+   */
+  int distinctSpecialties() {
+    return postingLists.size();
+  }
+
+  /**
+   * Returns the record numbers of the records offering the specified {@code specialties}.
+   *
+   * @param specialties
+   *          the specialties to search for.
+   * @param matchAll
+   *          true to return only records offering every one of the specialties, false to return
+   *          records offering any of them.
+   * @return the matching record numbers, in ascending order.
+   */
+  int[] find(final String[] specialties, final boolean matchAll) {
+    final List<PostingList> lists = new ArrayList<>();
+    for (final String specialty : specialties) {
+      final String token = normalize(specialty);
+      if (token.isEmpty()) {
+        continue;
+      }
+      final PostingList list = postingLists.get(token);
+      if (list != null) {
+        lists.add(list);
+      } else if (matchAll) {
+        return new int[0];
+      }
+    }
+    if (lists.isEmpty()) {
+      return new int[0];
+    }
+    if (matchAll) {
+      lists.sort(Comparator.comparingInt(PostingList::size));
+      int[] result = lists.get(0).toArray();
+      for (int index = 1; index < lists.size() && result.length > 0; index++) {
+        result = intersect(result, lists.get(index));
+      }
+      return result;
+    }
+    int[] result = new int[0];
+    for (final PostingList list : lists) {
+      result = union(result, list);
+    }
+    return result;
+  }
+
+  /**
+   * Gets the posting list of the specified {@code specialty}.
+   *
+   * @param specialty
+   *          a single specialty, normalised or not.
+   * @return the posting list, or {@code null} if no record offers the specialty.
+   */
+  PostingList get(final String specialty) {
+    return postingLists.get(normalize(specialty));
+  }
+
+  /**
+   * Removes the record with the specified {@code recordNumber} from the posting list of each of
+   * its {@code specialties}.
+   *
+   * @param recordNumber
+   *          the record number.
+   * @param specialties
+   *          the value of the {@code specialties} field of the record.
+   */
+  void remove(final int recordNumber, final String specialties) {
+    for (final String token : tokenize(specialties)) {
+      final PostingList list = postingLists.get(token);
+      if (list != null && list.remove(recordNumber) && list.size() == 0) {
+        postingLists.remove(token);
+      }
+    }
+  }
+
+  /**
+   * Intersects the ascending {@code recordNumbers} with the specified posting {@code list}. Each
+   * record number is located in the posting list by binary search, starting from the position of
+   * the previous one, so a short array is intersected with a long list in logarithmic time per
+   * record number.
+   *
+   * @param recordNumbers
+   *          ascending record numbers.
+   * @param list
+   *          the posting list.
+   * @return the record numbers present in both, in ascending order.
+   */
+  private static int[] intersect(final int[] recordNumbers, final PostingList list) {
+    final int[] result = new int[recordNumbers.length];
+    int count = 0;
+    int from = 0;
+    for (final int recordNumber : recordNumbers) {
+      final int position = list.search(from, recordNumber);
+      if (position >= 0) {
+        result[count++] = recordNumber;
+        from = position + 1;
+      } else {
+        from = -position - 1;
+      }
+      if (from == list.size()) {
+        break;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  /**
+   * Merges the ascending {@code recordNumbers} with the specified posting {@code list}.
+   *
+   * @param recordNumbers
+   *          ascending record numbers.
+   * @param list
+   *          the posting list.
+   * @return the record numbers present in either, in ascending order and without duplicates.
+   */
+  private static int[] union(final int[] recordNumbers, final PostingList list) {
+    final int[] result = new int[recordNumbers.length + list.size()];
+    int count = 0;
+    int left = 0;
+    int right = 0;
+    while (left < recordNumbers.length || right < list.size()) {
+      if (right == list.size()
+          || left < recordNumbers.length && recordNumbers[left] < list.get(right)) {
+        result[count++] = recordNumbers[left++];
+      } else if (left == recordNumbers.length || list.get(right) < recordNumbers[left]) {
+        result[count++] = list.get(right++);
+      } else {
+        result[count++] = recordNumbers[left++];
+        right++;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Transaction.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A set of changes to several records which are applied together or not at all by
+ * {@link DBMainExtended#commit(Transaction, long)}. A transaction consists of expectations, the
+ * field values the records must hold for the transaction to be applied, and writes, which are
+ * buffered until the transaction is committed.
+ *
+ * <pre>
+ * Transaction transaction = new Transaction()
+ *     .expect(3, current3).update(3, booked3)
+ *     .expect(7, current7).update(7, booked7);
+ * boolean applied = data.commit(transaction, 1000);
+ * </pre>
+ *
+ * This class is not thread safe.
+ */
+public final class Transaction {
+
+  /** The expected field values, keyed by record number. */
+  private final Map<Integer, String[]> expectations = new TreeMap<>();
+
+  /** The buffered writes, in the order they were added. */
+  private final List<Write> writes = new ArrayList<>();
+
+  /**
+   * Deletes the record with the specified {@code recNo} when the transaction is committed.
+   *
+   * @param recNo
+   *          the record number.
+   * @return this transaction.
+   */
+  public Transaction delete(final int recNo) {
+    writes.add(new Write(recNo, null));
+    return this;
+  }
+
+  /**
+   * Requires the record with the specified {@code recNo} to hold the {@code expected} field values
+   * when the transaction is committed. Field n matches if expected[n] is {@code null} or exactly
+   * equals its value. Expectations are checked before any write of the transaction is applied.
+   *
+   * @param recNo
+   *          the record number.
+   * @param expected
+   *          the expected field values; {@code null} elements match any value.
+   * @return this transaction.
+   * @throws IllegalArgumentException
+   *           if {@code expected} is {@code null}.
+   */
+  public Transaction expect(final int recNo, final String[] expected)
+      throws IllegalArgumentException {
+    if (expected == null) {
+      throw new IllegalArgumentException("Expected values cannot be null.");
+    }
+    expectations.put(recNo, expected.clone());
+    return this;
+  }
+
+  /**
+   * Replaces the field values of the record with the specified {@code recNo} when the transaction
+   * is committed.
+   *
+   * @param recNo
+   *          the record number.
+   * @param data
+   *          a string array where each element is a record value.
+   * @return this transaction.
+   * @throws IllegalArgumentException
+   *           if {@code data} is {@code null}.
+   */
+  public Transaction update(final int recNo, final String[] data)
+      throws IllegalArgumentException {
+    if (data == null) {
+      throw new IllegalArgumentException("Record values cannot be null");
+    }
+    writes.add(new Write(recNo, data.clone()));
+    return this;
+  }
+
+  /**
+   * Gets the expected field values, keyed by record number.
+   *
+   * @return the expectations.
+   */
+  Map<Integer, String[]> getExpectations() {
+    return expectations;
+  }
+
+  /**
+   * Gets the numbers of all records the transaction reads or writes, in ascending order.
+   *
+   * @return the record numbers.
+   */
+  int[] getRecordNumbers() {
+    final SortedSet<Integer> recordNumbers = new TreeSet<>(expectations.keySet());
+    for (final Write write : writes) {
+      recordNumbers.add(write.recNo);
+    }
+    return recordNumbers.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * Gets the buffered writes, in the order they were added.
+   *
+   * @return the writes.
+   */
+  List<Write> getWrites() {
+    return writes;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return "Transaction [expectations=" + expectations.keySet() + ", writes=" + writes.size()
+        + "]";
+  }
+
+  /**
+   * A buffered write of a single record.
+   */
+  static final class Write {
+
+    /** The record number. */
+    private final int recNo;
+
+    /** The new field values, {@code null} if the record is deleted. */
+    private final String[] data;
+
+    /**
+     * Constructs a new write.
+     *
+     * @param recNo
+     *          the record number.
+     * @param data
+     *          the new field values, {@code null} if the record is deleted.
+     */
+    Write(final int recNo, final String[] data) {
+      this.recNo = recNo;
+      this.data = data;
+    }
+
+    /**
+     * Gets the new field values.
+     *
+     * @return the new field values, {@code null} if the record is deleted.
+     */
+    String[] getData() {
+      return data;
+    }
+
+    /**
+     * Gets the record number.
+     *
+     * @return the record number.
+     */
+    int getRecNo() {
+      return recNo;
+    }
+  }
+}
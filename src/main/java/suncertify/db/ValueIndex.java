@@ -0,0 +1,164 @@
+/*
+ * ValueIndex.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A sorted index from the values of a single field to the records holding them. Besides serving
+ * range lookups, it doubles as the value distribution statistics of the field used by the
+ * {@link QueryPlanner}: the number of distinct values and the number of records holding each
+ * value are known exactly.
+ *
+ * <p>This class is not thread safe; it is guarded by the monitor of the owning {@link Data}
+ * instance.
+ *
+ * @param <K>
+ *          the type of the indexed values.
+ */
+final class ValueIndex<K extends Comparable<K>> {
+
+  /** The posting lists, keyed and ordered by value. */
+  private final TreeMap<K, PostingList> postingLists = new TreeMap<>();
+
+  /** The number of records in the index. */
+  private int size;
+
+  /**
+   * Adds the record with the specified {@code recordNumber} under the specified {@code value}.
+   *
+   * @param value
+   *          the value of the field.
+   * @param recordNumber
+   *          the record number.
+   */
+  void add(final K value, final int recordNumber) {
+    final PostingList list = postingLists.computeIfAbsent(value, key -> new PostingList());
+    final int before = list.size();
+    list.add(recordNumber);
+    size += list.size() - before;
+  }
+
+  /**
+   * Removes every record from the index.
+   */
+  void clear() {
+    postingLists.clear();
+    size = 0;
+  }
+
+  /**
+   * Passes the record numbers of the records whose value lies between {@code from} and
+   * {@code to}, both inclusive, to the specified {@code consumer}, ordered by value.
+   *
+   * @param from
+   *          the lowest value.
+   * @param to
+   *          the highest value.
+   * @param consumer
+   *          the consumer of the record numbers.
+   */
+  void collect(final K from, final K to, final IntConsumer consumer) {
+    for (final PostingList list : range(from, to).values()) {
+      list.forEach(consumer);
+    }
+  }
+
+  /**
+   * Counts the records whose value lies between {@code from} and {@code to}, both inclusive. The
+   * count takes time proportional to the number of distinct values in the range.
+   *
+   * @param from
+   *          the lowest value.
+   * @param to
+   *          the highest value.
+   * @return the number of records in the range.
+   */
+  int count(final K from, final K to) {
+    int count = 0;
+    for (final PostingList list : range(from, to).values()) {
+      count += list.size();
+    }
+    return count;
+  }
+
+  /**
+   * Returns the record numbers of the records whose value lies between {@code from} and
+   * {@code to}, both inclusive, ordered by value.
+   *
+   * @param from
+   *          the lowest value.
+   * @param to
+   *          the highest value.
+   * @return the matching record numbers.
+   */
+  int[] find(final K from, final K to) {
+    final IntStream.Builder recordNumbers = IntStream.builder();
+    collect(from, to, recordNumbers);
+    return recordNumbers.build().toArray();
+  }
+
+  /**
+   * Gets the number of distinct values in the index.
+   *
+   * @return the number of distinct values.
+   */
+  int distinctValues() {
+    return postingLists.size();
+  }
+
+  /**
+   * Removes the record with the specified {@code recordNumber} from under the specified
+   * {@code value}.
+   *
+   * @param value
+   *          the value of the field.
+   * @param recordNumber
+   *          the record number.
+   */
+  void remove(final K value, final int recordNumber) {
+    final PostingList list = postingLists.get(value);
+    if (list != null && list.remove(recordNumber)) {
+      size--;
+      if (list.size() == 0) {
+        postingLists.remove(value);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of records in the index.
+   *
+   * @return the number of records.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Gets the posting lists of the values between {@code from} and {@code to}, both inclusive.
+   *
+   * @param from
+   *          the lowest value.
+   * @param to
+   *          the highest value.
+   * @return a view of the posting lists in the range.
+   */
+  private NavigableMap<K, PostingList> range(final K from, final K to) {
+    if (from.compareTo(to) > 0) {
+      return new TreeMap<>();
+    }
+    return postingLists.subMap(from, true, to, true);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Versioned.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.db;
+
+import java.io.Serializable;
+
+/**
+ * A value read from the database together with the version of the database it was read at, as
+ * returned by {@link DBMainExtended#getVersion()}. A caller holding a versioned value can tell
+ * that it is still current, without reading it again, if the version of the database hasn't
+ * changed since. The value must be serializable for a versioned value to be sent over RMI.
+ *
+ * @param <T>
+ *          the type of the value.
+ */
+public final class Versioned<T> implements Serializable {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The value. */
+  private final T value;
+
+  /** The version of the database the value was read at. */
+  private final long version;
+
+  /**
+   * Constructs a new versioned value.
+   *
+   * @param value
+   *          the value.
+   * @param version
+   *          the version of the database the value was read at.
+   */
+  public Versioned(final T value, final long version) {
+    this.value = value;
+    this.version = version;
+  }
+
+  /**
+   * Gets the value.
+   *
+   * @return the value.
+   */
+  public T getValue() {
+    return value;
+  }
+
+  /**
+   * Gets the version of the database the value was read at.
+   *
+   * @return the version.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return value + "@" + version;
+  }
+}
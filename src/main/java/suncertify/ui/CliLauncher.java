@@ -14,6 +14,10 @@ import static suncertify.util.Utils.initializeLogger;
 
 import java.util.logging.Level;
 
+import suncertify.util.Config;
+import suncertify.util.SlowOperationLog;
+import suncertify.util.SlowOperationLog.Operation;
+
 /**
  * The class CliLauncher is responsible for launching the application using a command line
  * interface. It contains the only main method in the application which will launch the application
@@ -28,6 +32,9 @@ public final class CliLauncher {
   /** The mode flag value which indicates the standalone client and GUI should run. */
   private static final String STANDALONE = "alone";
 
+  /** The mode flag value which indicates a read replica of the server should run. */
+  private static final String REPLICA = "replica";
+
   /** The constant ZERO. */
   private static final int ZERO = 0;
 
@@ -46,16 +53,18 @@ public final class CliLauncher {
    * <li>If no argument is specified, the network client and GUI will run.</li>
    * <li>If the argument "server" is specified, the server program will run.</li>
    * <li>If the argument "alone" is specified, the client and GUI will run in
-   * standalone/non-networked mode.</li></ul>
+   * standalone/non-networked mode.</li>
+   * <li>If the argument "replica" is specified, a read replica of the server program will
+   * run.</li></ul>
    *
    * @param args
    *          the arguments
    * @throws IllegalArgumentException
    *           if more than one argument is specified or if the argument specified does not equal
-   *           "alone" or "server".
+   *           "alone", "server" or "replica".
    */
   public static void main(final String[] args) throws IllegalArgumentException {
-    initializeLogger(Level.ALL);
+    initializeLogger(Level.INFO);
 
     final int numberOfArgs = args.length;
 
@@ -68,11 +77,17 @@ public final class CliLauncher {
       case ONE:
         final String mode = args[0];
         if (isNetworked(mode)) {
+          configureSlowOperationLog();
           runServer();
         } else if (isNonNetworked(mode)) {
+          configureSlowOperationLog();
           runStandalone();
+        } else if (isReplica(mode)) {
+          configureSlowOperationLog();
+          runReplica();
         } else {
-          throw new IllegalArgumentException("Argument " + mode + " is invalid: [server|alone]");
+          throw new IllegalArgumentException(
+              "Argument " + mode + " is invalid: [server|alone|replica]");
         }
         break;
 
@@ -106,6 +121,29 @@ public final class CliLauncher {
     return modeFlag.equals(STANDALONE);
   }
 
+  /**
+   * Returns true if is specified {@code modeFlag} equals "replica", the argument used to run a read
+   * replica of the application's RMI server in Networked mode.
+   *
+   * @param modeFlag
+   *          the mode the application should run in.
+   * @return true, if specified {@code modeFlag} equals "replica"
+   */
+  private static boolean isReplica(final String modeFlag) {
+    return modeFlag.equals(REPLICA);
+  }
+
+  /**
+   * Sets the thresholds of the slow operation log to those in the suncertify.properties file, for
+   * the modes which open a database.
+   */
+  private static void configureSlowOperationLog() {
+    for (final Operation operation : Operation.values()) {
+      SlowOperationLog.setThresholdMillis(operation, Config.getSlowOperationThresholdMillis(
+          operation.getKey(), operation.getDefaultThresholdMillis()));
+    }
+  }
+
   /**
    * Launches the application configuration window for the client in Networked Mode.
    */
@@ -114,6 +152,14 @@ public final class CliLauncher {
     clientConfig.setVisible(true);
   }
 
+  /**
+   * Launches the application configuration window for a read replica server in Networked Mode.
+   */
+  private static void runReplica() {
+    final AbstractWindow replicaConfig = new ReplicaConfigWindow();
+    replicaConfig.setVisible(true);
+  }
+
   /**
    * Launches the application configuration window for the server in Networked Mode.
    */
@@ -18,6 +18,7 @@ import static suncertify.util.Utils.isEightDigits;
 import suncertify.business.AlreadyBookedException;
 import suncertify.business.ContractorNotFoundException;
 import suncertify.business.ContractorService;
+import suncertify.db.Versioned;
 import suncertify.domain.Contractor;
 import suncertify.domain.ContractorPk;
 import suncertify.util.ContractorConverter;
@@ -28,6 +29,7 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -94,6 +96,12 @@ public final class ClientWindow extends AbstractWindow {
   /** The main content panel. */
   private JPanel contentPanel;
 
+  /** The search whose results are displayed in the table, {@code null} if there are none. */
+  private ContractorPk displayedSearch;
+
+  /** The version of the database the displayed search results were found at. */
+  private long displayedVersion;
+
   /**
    * Constructs a new client window with the specified {@code service}. The {@code service} object
    * is then used to invoke the business methods defined in {@link ContractorService} in the service
@@ -175,16 +183,16 @@ public final class ClientWindow extends AbstractWindow {
           final Contractor contractor = ContractorConverter.toContractor(fieldValues);
           contractor.setCustomerId(customerId.get());
           service.book(contractor);
-          refreshTable();
+          reloadTable();
           displayMessage(CONTRACTOR_BOOKED_MESSAGE_TEXT, CONTRACTOR_BOOKED_MESSAGE_TITLE);
         } catch (final RemoteException exception) {
           handleFatalException(REMOTE_EXCEPTION_MESSAGE_TEXT, exception);
         } catch (final ContractorNotFoundException exception) {
-          refreshTable();
+          reloadTable();
           handleException(exception.getMessage(), CONTRACTOR_NOT_FOUND_EXCEPTION_MESSAGE_TITLE,
               exception);
         } catch (final AlreadyBookedException exception) {
-          refreshTable();
+          reloadTable();
           handleException(exception.getMessage(), CONTRACTOR_ALREADY_BOOKED_EXCEPTION_MESSAGE_TITLE,
               exception);
         }
@@ -266,20 +274,41 @@ public final class ClientWindow extends AbstractWindow {
    * updates the ContractorTable to show only records with those <i>exact</i> values, filtering out
    * non-matching records. If a field is empty then it will ignore it during the filtering
    * operation. If all search fields are empty, it will not perform any filtering operation and
-   * update the ContractorTable with all available contractor records.
+   * update the ContractorTable with all available contractor records. If the table already shows
+   * the results of the same search and the version of the database hasn't changed since, the
+   * search is not repeated.
    */
   private void filterTableOnSearchValues() {
+    filterTableOnSearchValues(false);
+  }
+
+  /**
+   * Filters table based on search values, as {@link #filterTableOnSearchValues()} does. If
+   * {@code reload} is true the search is repeated even if the version of the database hasn't
+   * changed since the table was filled.
+   *
+   * @param reload
+   *          true, if the records must be read again.
+   */
+  private void filterTableOnSearchValues(final boolean reload) {
     final String name = getNameSearchValue();
     final String location = getLocationSearchValue();
     try {
       final ContractorPk primaryKey = new ContractorPk(name, location);
-      final List<Contractor> records = new ArrayList<>(service.find(primaryKey).values());
+      if (!reload && isDisplayedAndCurrent(primaryKey)) {
+        return;
+      }
+      final Versioned<Map<Integer, Contractor>> result = service.findVersioned(primaryKey);
+      final List<Contractor> records = new ArrayList<>(result.getValue().values());
       model.updateData(records);
+      displayedSearch = primaryKey;
+      displayedVersion = result.getVersion();
       bookButton.setEnabled(false);
       scrollPane.setVisible(true);
     } catch (final RemoteException exception) {
       handleFatalException(REMOTE_EXCEPTION_MESSAGE_TEXT, exception);
     } catch (final ContractorNotFoundException exception) {
+      displayedSearch = null;
       scrollPane.setVisible(false);
       handleException(exception.getMessage(), CONTRACTOR_NOT_FOUND_EXCEPTION_MESSAGE_TITLE,
           exception);
@@ -324,15 +353,39 @@ public final class ClientWindow extends AbstractWindow {
   }
 
   /**
-   * Refreshes the records in the table by getting the latest records stored in the database and
-   * reapplying the current view.
+   * Checks if the table shows the results of the specified {@code primaryKey} search, found at the
+   * current version of the database.
+   *
+   * @param primaryKey
+   *          the search.
+   * @return true, if the displayed results of the search are still current.
+   * @throws RemoteException
+   *           if an RMI communication-related exception occurs.
+   */
+  private boolean isDisplayedAndCurrent(final ContractorPk primaryKey) throws RemoteException {
+    return displayedSearch != null
+        && Arrays.equals(displayedSearch.toStringArray(), primaryKey.toStringArray())
+        && service.getVersion() == displayedVersion;
+  }
+
+  /**
+   * Refreshes the records in the table by reapplying the current view, which only reads the
+   * records again if they have changed since they were displayed.
    */
   private void refreshTable() {
-    model.updateData(getAllRecords());
-    bookButton.setEnabled(false);
     filterTableOnSearchValues();
   }
 
+  /**
+   * Reloads the records in the table by repeating the current search, whatever the version of the
+   * database. Used after a booking: the server the client is connected to may be a replica, whose
+   * version doesn't change until the booking made on the primary has been replicated to it, so the
+   * version alone cannot tell whether the displayed records are still current.
+   */
+  private void reloadTable() {
+    filterTableOnSearchValues(true);
+  }
+
   /**
    * Checks if the 'Book' JButton should be enabled or disabled for the specified {@code rowIndex}.
    * Returns true if the row with the specified row index has no customer id value.
@@ -20,6 +20,9 @@ public final class Messages {
   /** The title displayed in the border of the Actions JPanel. */
   public static final String ACTIONS_BORDER_TITLE = "Actions";
 
+  /** The text of the booking latency label in the Server window. */
+  public static final String BOOKING_LATENCY_LABEL_TEXT = "Booking latency:";
+
   /** The text displayed for the 'Book' button. */
   public static final String BOOK_BUTTON_TEXT = "Book";
 
@@ -32,6 +35,9 @@ public final class Messages {
   /** The text displayed for the tooltip for the 'Browse' button. */
   public static final String BROWSE_BUTTON_TOOLTIP_TEXT = "Click to browseButton file system for database file.";
 
+  /** The header of the calls column of the operations table in the Server window. */
+  public static final String CALLS_COLUMN_TEXT = "Calls";
+
   /** The text displayed for the 'Clear' button. */
   public static final String CLEAR_BUTTON_TEXT = "Clear";
 
@@ -56,6 +62,15 @@ public final class Messages {
   /** The text displayed for the tooltip for the 'Confirm' button. */
   public static final String CONFIRM_BUTTON_TOOLTIP_TEXT = "Click to save configuration settings and start application";
 
+  /** The format of the connected client hosts and connections in the Server window. */
+  public static final String CONNECTED_CLIENTS_FORMAT = "%d hosts (%d connections)";
+
+  /** The text of the connected clients label in the Server window. */
+  public static final String CONNECTED_CLIENTS_LABEL_TEXT = "Connected clients:";
+
+  /** The header of the contended requests column of the hot records table in the Server window. */
+  public static final String CONTENDED_REQUESTS_COLUMN_TEXT = "Contended requests";
+
   /** The title displayed in the ContractorAlreadyBookedException dialogue box. */
   public static final String CONTRACTOR_ALREADY_BOOKED_EXCEPTION_MESSAGE_TITLE = "Contractor Not Available";
 
@@ -83,6 +98,30 @@ public final class Messages {
   /** The title displayed in the dialogue box for any serious exceptions which occur. */
   public static final String FATAL_EXCEPTION_MESSAGE_TITLE = "Unexpected System Issue";
 
+  /** The format of the heap in use and the maximum heap size in the Server window. */
+  public static final String HEAP_FORMAT = "%d of %d MiB";
+
+  /** The text of the heap label in the Server window. */
+  public static final String HEAP_LABEL_TEXT = "Heap:";
+
+  /** The header of the held time column of the held locks table in the Server window. */
+  public static final String HELD_COLUMN_TEXT = "Held (ms)";
+
+  /** The format of the held locks and waiting lock requests in the Server window. */
+  public static final String HELD_LOCKS_FORMAT = "%d (%d waiting)";
+
+  /** The text of the held locks label in the Server window. */
+  public static final String HELD_LOCKS_LABEL_TEXT = "Held locks:";
+
+  /** The title of the held locks tab in the Server window. */
+  public static final String HELD_LOCKS_TAB_TITLE = "Held locks";
+
+  /** The header of the holder column of the held locks table in the Server window. */
+  public static final String HOLDER_COLUMN_TEXT = "Holder";
+
+  /** The title of the hot records tab in the Server window. */
+  public static final String HOT_RECORDS_TAB_TITLE = "Hot records";
+
   /** The message displayed to the user when an incorrect customer ID is entered. */
   public static final String INVALID_CUSTOMER_ID_MESSAGE_TEXT = "Customer ID must be an 8 digit number.";
 
@@ -95,6 +134,9 @@ public final class Messages {
   /** The message displayed to the user when a blank ip address is entered. */
   public static final String INVALID_IP_MESSAGE_TEXT = "The ip address field cannot be blank.";
 
+  /** The message displayed to the user when a non-numeric replication port number is entered. */
+  public static final String INVALID_REPLICATION_PORT_MESSAGE_TEXT = "The replication port field must contain numbers only or be left blank.";
+
   /** The message displayed to the user when a non-numeric port number is entered. */
   public static final String INVALID_PORT_NUMBER_MESSAGE_TEXT = "The port number field must contain numbers only.";
 
@@ -104,30 +146,109 @@ public final class Messages {
   /** The text displayed for the tooltip for the 'IP Address' label. */
   public static final String IP_ADDRESS_TOOLTIP_TEXT = "The IP address of the server you wish to connect to.";
 
+  /** The text of the last flush label in the Server window. */
+  public static final String LAST_FLUSH_LABEL_TEXT = "Last flush:";
+
+  /** The format of the latency percentiles of an operation in the Server window. */
+  public static final String LATENCY_FORMAT = "p50 %.2f ms, p95 %.2f ms, p99 %.2f ms";
+
   /** The text for the 'Location' label. */
   public static final String LOCATION_LABEL_TEXT = "Location: ";
 
   /** The text displayed for the tooltip for the 'Location' textfield. */
   public static final String LOCATION_TOOLTIP_TEXT = "The location of the contractor you wish to search for.";
 
+  /** The header of the longest wait column of the lock tables in the Server window. */
+  public static final String LONGEST_WAIT_COLUMN_TEXT = "Longest wait (ms)";
+
+  /** The header of the maximum latency column of the operations table in the Server window. */
+  public static final String MAX_COLUMN_TEXT = "Max (ms)";
+
+  /** The text displayed in the Server window if the records have not been written to disk yet. */
+  public static final String NEVER_FLUSHED_TEXT = "never";
+
+  /** The title of the operations tab in the Server window. */
+  public static final String OPERATIONS_TAB_TITLE = "Operations";
+
+  /** The header of the operation column of the operations table in the Server window. */
+  public static final String OPERATION_COLUMN_TEXT = "Operation";
+
   /** The text displayed for the 'Options' menu */
   public static final String OPTIONS_MENU_TEXT = "Options";
 
+  /** The title of the overview tab in the Server window. */
+  public static final String OVERVIEW_TAB_TITLE = "Overview";
+
   /** The text for the 'Name' label. */
   public static final String NAME_LABEL_TEXT = "Name: ";
 
   /** The text displayed for the tooltip for the 'Name' textfield. */
   public static final String NAME_TOOLTIP_TEXT = "The name of the contractor you wish to search for.";
 
+  /** The header of the median latency column of the operations table in the Server window. */
+  public static final String P50_COLUMN_TEXT = "p50 (ms)";
+
+  /**
+   * The header of the 95th percentile latency column of the operations table in the Server window.
+   */
+  public static final String P95_COLUMN_TEXT = "p95 (ms)";
+
+  /**
+   * The header of the 99th percentile latency column of the operations table in the Server window.
+   */
+  public static final String P99_COLUMN_TEXT = "p99 (ms)";
+
+  /** The header of the throughput column of the operations table in the Server window. */
+  public static final String PER_SECOND_COLUMN_TEXT = "Per second";
+
+  /** The text for the 'Primary IP Address' label. */
+  public static final String PRIMARY_IP_ADDRESS_LABEL_TEXT = "Primary IP address: ";
+
+  /** The text displayed for the tooltip for the 'Primary IP Address' textfield. */
+  public static final String PRIMARY_IP_ADDRESS_TOOLTIP_TEXT = "The IP address of the primary server this replica follows.";
+
+  /** The text for the 'Primary Port' label. */
+  public static final String PRIMARY_PORT_NUMBER_LABEL_TEXT = "Primary Port: ";
+
+  /** The text displayed for the tooltip for the 'Primary Port' textfield. */
+  public static final String PRIMARY_PORT_NUMBER_TOOLTIP_TEXT = "The port number of the primary server, which bookings are forwarded to.";
+
+  /** The text for the 'Primary Replication Port' label. */
+  public static final String PRIMARY_REPLICATION_PORT_LABEL_TEXT = "Primary Replication Port: ";
+
+  /** The text displayed for the tooltip for the 'Primary Replication Port' textfield. */
+  public static final String PRIMARY_REPLICATION_PORT_TOOLTIP_TEXT = "The port number the primary server publishes its changes on.";
+
   /** The text for the 'Port' label. */
   public static final String PORT_NUMBER_LABEL_TEXT = "Server Port: ";
 
   /** The text displayed for the tooltip for the 'Port' textfield. */
   public static final String PORT_NUMBER_TOOLTIP_TEXT = "The port number of the server you wish to connect to.";
 
+  /** The header of the record column of the lock tables in the Server window. */
+  public static final String RECORD_COLUMN_TEXT = "Record";
+
+  /** The title of the replica configuration frame. */
+  public static final String REPLICA_CONFIG_FRAME_TITLE_TEXT = "Replica Configuration Settings";
+
+  /** The text for the 'Replica Port' label. */
+  public static final String REPLICA_PORT_NUMBER_LABEL_TEXT = "Replica Port: ";
+
+  /** The text displayed for the tooltip for the 'Replica Port' textfield. */
+  public static final String REPLICA_PORT_NUMBER_TOOLTIP_TEXT = "The port number the replica server will accept clients on.";
+
+  /** The text for the 'Replication Port' label. */
+  public static final String REPLICATION_PORT_LABEL_TEXT = "Replication Port: ";
+
+  /** The text displayed for the tooltip for the 'Replication Port' textfield. */
+  public static final String REPLICATION_PORT_TOOLTIP_TEXT = "The port number replicas connect to. Leave blank to disable replication.";
+
   /** The message displayed to the user in a dialogue box when a RemoteException occurs. */
   public static final String REMOTE_EXCEPTION_MESSAGE_TEXT = "Failure communicating with server.";
 
+  /** The text of the service calls per second label in the Server window. */
+  public static final String SERVICE_CALLS_PER_SECOND_LABEL_TEXT = "Service calls per second:";
+
   /** The title displayed in the border of the Results JPanel. */
   public static final String RESULTS_BORDER_TITLE = "Results";
 
@@ -137,6 +258,9 @@ public final class Messages {
   /** The text displayed for the tooltip for the 'Search' button. */
   public static final String SEARCH_BUTTON_TOOLTIP_TEXT = "Click to display all contractors with the specified name and/or location.";
 
+  /** The text of the search latency label in the Server window. */
+  public static final String SEARCH_LATENCY_LABEL_TEXT = "Search latency:";
+
   /** The title of the server configuration frame. */
   public static final String SERVER_CONFIG_FRAME_TITLE_TEXT = "Server Configuration Settings";
   
@@ -161,6 +285,12 @@ public final class Messages {
   /** The text displayed in the tooltip for the 'Stop' button. */
   public static final String STOP_BUTTON_TOOLTIP_TEXT = "Click to stop the server and exit the application";
 
+  /** The header of the total wait column of the hot records table in the Server window. */
+  public static final String TOTAL_WAIT_COLUMN_TEXT = "Total wait (ms)";
+
+  /** The header of the waiters column of the held locks table in the Server window. */
+  public static final String WAITERS_COLUMN_TEXT = "Waiters";
+
   /**
    * Private constructor to prevent instantiation by other classes.
    */
@@ -0,0 +1,220 @@
+/*
+ * ReplicaConfigWindow.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.ui;
+
+import static suncertify.ui.Messages.*;
+import static suncertify.util.Constants.DEFAULT_TEXTFIELD_SIZE;
+import static suncertify.util.Utils.isNonNumeric;
+
+import suncertify.business.rmi.RmiReplicaServer;
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseAccessException;
+import suncertify.db.DatabaseFactory;
+import suncertify.util.Config;
+
+import java.awt.Dimension;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.rmi.RemoteException;
+import java.util.logging.Logger;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+
+/**
+ * The class ReplicaConfigWindow is responsible for configuring and launching a read replica
+ * server, which follows the mutation log of a primary server and serves searches from its own RMI
+ * registry. It acts as a configuration JFrame where the details of the primary server and the port
+ * of the replica are entered and verified before attempting to start the replica. It extends
+ * {@link AbstractWindow} and implements {@link LaunchManager}.
+ */
+public final class ReplicaConfigWindow extends AbstractWindow implements LaunchManager {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The Global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The primary ip address label. */
+  private final JLabel primaryIpAddressLabel = new JLabel(PRIMARY_IP_ADDRESS_LABEL_TEXT);
+
+  /** The primary port number label. */
+  private final JLabel primaryPortLabel = new JLabel(PRIMARY_PORT_NUMBER_LABEL_TEXT);
+
+  /** The primary replication port number label. */
+  private final JLabel replicationPortLabel = new JLabel(PRIMARY_REPLICATION_PORT_LABEL_TEXT);
+
+  /** The replica port number label. */
+  private final JLabel portLabel = new JLabel(REPLICA_PORT_NUMBER_LABEL_TEXT);
+
+  /** The primary ip address field. */
+  private final JTextField primaryIpAddressField = new JTextField(DEFAULT_TEXTFIELD_SIZE);
+
+  /** The primary port number field. */
+  private final JTextField primaryPortField = new JTextField(DEFAULT_TEXTFIELD_SIZE);
+
+  /** The primary replication port number field. */
+  private final JTextField replicationPortField = new JTextField(DEFAULT_TEXTFIELD_SIZE);
+
+  /** The replica port number field. */
+  private final JTextField portField = new JTextField(DEFAULT_TEXTFIELD_SIZE);
+
+  /** The confirm button. */
+  private final JButton confirmButton = new JButton(CONFIRM_BUTTON_TEXT);
+
+  /** The content panel. */
+  private JPanel contentPanel;
+
+  /**
+   * Constructs a new replica configuration window.
+   */
+  public ReplicaConfigWindow() {
+    super(REPLICA_CONFIG_FRAME_TITLE_TEXT);
+    setSize(new Dimension(500, 240));
+    setMinimumSize(new Dimension(500, 240));
+    initializeComponents();
+    getContentPane().add(contentPanel);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public JPanel createContentPanel() {
+    final JPanel panel = new JPanel(new GridBagLayout());
+    final GridBagConstraints constraints = new GridBagConstraints();
+    constraints.ipady = 7;
+    constraints.weighty = 0.1;
+    final JLabel[] labels = { primaryIpAddressLabel, primaryPortLabel, replicationPortLabel,
+        portLabel };
+    final JTextField[] fields = { primaryIpAddressField, primaryPortField, replicationPortField,
+        portField };
+    for (int row = 0; row < labels.length; row++) {
+      constraints.gridx = 0;
+      constraints.gridy = row;
+      constraints.anchor = GridBagConstraints.LINE_END;
+      panel.add(labels[row], constraints);
+      constraints.gridx = 1;
+      constraints.anchor = GridBagConstraints.LINE_START;
+      panel.add(fields[row], constraints);
+    }
+    constraints.gridx = 2;
+    constraints.gridy = labels.length;
+    constraints.ipady = 0;
+    constraints.weighty = 0.8;
+    constraints.anchor = GridBagConstraints.LAST_LINE_START;
+    panel.add(confirmButton, constraints);
+    return panel;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void initializeComponents() {
+    contentPanel = createContentPanel();
+    contentPanel.setBorder(BorderFactory.createTitledBorder(CONFIG_PANEL_BORDER_TITLE));
+    primaryIpAddressField.setText(Config.getReplicaPrimaryIpAddress());
+    primaryIpAddressField.setToolTipText(PRIMARY_IP_ADDRESS_TOOLTIP_TEXT);
+    primaryIpAddressField.addActionListener(action -> saveAndLaunch());
+    primaryPortField.setText(Config.getReplicaPrimaryPortNumber());
+    primaryPortField.setToolTipText(PRIMARY_PORT_NUMBER_TOOLTIP_TEXT);
+    primaryPortField.addActionListener(action -> saveAndLaunch());
+    replicationPortField.setText(Config.getReplicaReplicationPortNumber());
+    replicationPortField.setToolTipText(PRIMARY_REPLICATION_PORT_TOOLTIP_TEXT);
+    replicationPortField.addActionListener(action -> saveAndLaunch());
+    portField.setText(Config.getReplicaPortNumber());
+    portField.setToolTipText(REPLICA_PORT_NUMBER_TOOLTIP_TEXT);
+    portField.addActionListener(action -> saveAndLaunch());
+    confirmButton.setToolTipText(CONFIRM_BUTTON_TOOLTIP_TEXT);
+    confirmButton.addActionListener(action -> saveAndLaunch());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isConfigValid() {
+    boolean isConfigValid = true;
+    if (getText(primaryIpAddressField).isEmpty()) {
+      displayMessage(INVALID_IP_MESSAGE_TEXT, INVALID_INPUT_MESSAGE_TITLE);
+      isConfigValid = false;
+    } else if (isNonNumeric(getText(primaryPortField))
+        || isNonNumeric(getText(replicationPortField)) || isNonNumeric(getText(portField))) {
+      displayMessage(INVALID_PORT_NUMBER_MESSAGE_TEXT, INVALID_INPUT_MESSAGE_TITLE);
+      isConfigValid = false;
+    }
+    return isConfigValid;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void launch() {
+    try {
+      final String primaryIpAddress = Config.getReplicaPrimaryIpAddress();
+      final int primaryPort = Integer.parseInt(Config.getReplicaPrimaryPortNumber());
+      final int replicationPort = Integer.parseInt(Config.getReplicaReplicationPortNumber());
+      final int portNumber = Integer.parseInt(Config.getReplicaPortNumber());
+      LOGGER.info("Starting replica server...");
+      final DBMainExtended replica = DatabaseFactory.getReplica(primaryIpAddress, replicationPort);
+      final RmiReplicaServer server = new RmiReplicaServer(replica, primaryIpAddress, primaryPort);
+      server.startServer(portNumber);
+      final JFrame serverWindow = new ServerWindow(server, portNumber, replica);
+      serverWindow.setVisible(true);
+      dispose();
+    } catch (final RemoteException exception) {
+      handleFatalException(START_FAILURE_MESSAGE + REMOTE_EXCEPTION_MESSAGE_TEXT, exception);
+    } catch (final DatabaseAccessException exception) {
+      handleFatalException(START_FAILURE_MESSAGE + exception.getMessage(), exception);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void saveAndLaunch() {
+    if (isConfigValid()) {
+      saveConfig();
+      launch();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void saveConfig() {
+    Config.setReplicaPrimaryIpAddress(getText(primaryIpAddressField));
+    Config.setReplicaPrimaryPortNumber(getText(primaryPortField));
+    Config.setReplicaReplicationPortNumber(getText(replicationPortField));
+    Config.setReplicaPortNumber(getText(portField));
+    Config.saveProperties();
+  }
+
+  /**
+   * Gets the trimmed text of the specified {@code field}.
+   *
+   * @param field
+   *          the text field.
+   * @return the trimmed text of the field.
+   */
+  private String getText(final JTextField field) {
+    return field.getText().trim();
+  }
+}
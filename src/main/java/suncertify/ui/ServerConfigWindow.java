@@ -23,6 +23,7 @@ import suncertify.util.Config;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.io.IOException;
 import java.rmi.RemoteException;
 import java.util.logging.Logger;
 
@@ -55,12 +56,18 @@ public final class ServerConfigWindow extends AbstractWindow implements LaunchMa
   /** The database file path label. */
   private final JLabel dbFileLabel = new JLabel(DATABASE_FILE_LOCATION_LABEL_TEXT);
 
+  /** The replication port label. */
+  private final JLabel replicationPortLabel = new JLabel(REPLICATION_PORT_LABEL_TEXT);
+
   /** The port field. */
   private final JTextField portField = new JTextField(DEFAULT_TEXTFIELD_SIZE);
 
   /** The database file path field. */
   private final JTextField dbFileField = new JTextField(DEFAULT_TEXTFIELD_SIZE);
 
+  /** The replication port field. */
+  private final JTextField replicationPortField = new JTextField(DEFAULT_TEXTFIELD_SIZE);
+
   /** The browse button. */
   private final JButton browseButton = new JButton(BROWSE_BUTTON_TEXT);
 
@@ -78,8 +85,8 @@ public final class ServerConfigWindow extends AbstractWindow implements LaunchMa
    */
   public ServerConfigWindow() {
     super(SERVER_CONFIG_FRAME_TITLE_TEXT);
-    setSize(new Dimension(460, 192));
-    setMinimumSize(new Dimension(460, 192));
+    setSize(new Dimension(460, 222));
+    setMinimumSize(new Dimension(460, 222));
     initializeComponents();
     getContentPane().add(contentPanel);
   }
@@ -115,8 +122,16 @@ public final class ServerConfigWindow extends AbstractWindow implements LaunchMa
     constraints.gridy = 1;
     constraints.anchor = GridBagConstraints.LINE_START;
     panel.add(portField, constraints);
-    constraints.gridx = 2;
+    constraints.gridx = 0;
     constraints.gridy = 2;
+    constraints.anchor = GridBagConstraints.LINE_END;
+    panel.add(replicationPortLabel, constraints);
+    constraints.gridx = 1;
+    constraints.gridy = 2;
+    constraints.anchor = GridBagConstraints.LINE_START;
+    panel.add(replicationPortField, constraints);
+    constraints.gridx = 2;
+    constraints.gridy = 3;
     constraints.weighty = 0.8;
     constraints.ipady = 0;
     constraints.anchor = GridBagConstraints.LAST_LINE_END;
@@ -137,6 +152,9 @@ public final class ServerConfigWindow extends AbstractWindow implements LaunchMa
     portField.setText(Config.getServerPortNumber());
     portField.setToolTipText(PORT_NUMBER_TOOLTIP_TEXT);
     portField.addActionListener(action -> saveAndLaunch());
+    replicationPortField.setText(Config.getServerReplicationPortNumber());
+    replicationPortField.setToolTipText(REPLICATION_PORT_TOOLTIP_TEXT);
+    replicationPortField.addActionListener(action -> saveAndLaunch());
     confirmButton.setToolTipText(CONFIRM_BUTTON_TOOLTIP_TEXT);
     confirmButton.addActionListener(action -> saveAndLaunch());
     browseButton.setToolTipText(BROWSE_BUTTON_TOOLTIP_TEXT);
@@ -162,6 +180,10 @@ public final class ServerConfigWindow extends AbstractWindow implements LaunchMa
     } else if (isNonNumeric(getPortNumber())) {
       displayMessage(INVALID_PORT_NUMBER_MESSAGE_TEXT, INVALID_INPUT_MESSAGE_TITLE);
       isConfigValid = false;
+    } else if (!getReplicationPortNumber().isEmpty()
+        && isNonNumeric(getReplicationPortNumber())) {
+      displayMessage(INVALID_REPLICATION_PORT_MESSAGE_TEXT, INVALID_INPUT_MESSAGE_TITLE);
+      isConfigValid = false;
     }
     return isConfigValid;
   }
@@ -172,16 +194,23 @@ public final class ServerConfigWindow extends AbstractWindow implements LaunchMa
   @Override
   public void launch() {
     try {
-      final DBMainExtended data = DatabaseFactory.getDatabase(Config.getServerDbLocation());
+      final DBMainExtended data = DatabaseFactory.getDatabase(Config.getServerDbLocation(),
+          Config.isServerSingleWriterEnabled());
       final int portNumber = Integer.parseInt(Config.getServerPortNumber());
       LOGGER.info("Starting server...");
-      new RmiServer(data).startServer(portNumber);
-      final JFrame serverWindow = new ServerWindow(portNumber);
+      final RmiServer server = new RmiServer(data);
+      server.startServer(portNumber);
+      final String replicationPort = Config.getServerReplicationPortNumber();
+      if (!replicationPort.isEmpty()) {
+        DatabaseFactory.startReplicationPublisher(Config.getServerReplicationAddress(),
+            Integer.parseInt(replicationPort));
+      }
+      final JFrame serverWindow = new ServerWindow(server, portNumber, data);
       serverWindow.setVisible(true);
       dispose();
     } catch (final RemoteException exception) {
       handleFatalException(START_FAILURE_MESSAGE + REMOTE_EXCEPTION_MESSAGE_TEXT, exception);
-    } catch (final DatabaseAccessException exception) {
+    } catch (final DatabaseAccessException | IOException exception) {
       handleFatalException(START_FAILURE_MESSAGE + exception.getMessage(), exception);
     }
   }
@@ -204,6 +233,7 @@ public final class ServerConfigWindow extends AbstractWindow implements LaunchMa
   public void saveConfig() {
     Config.setServerDbFileLocation(getDbFilePath());
     Config.setServerPortNumber(getPortNumber());
+    Config.setServerReplicationPortNumber(getReplicationPortNumber());
     Config.saveProperties();
   }
 
@@ -224,4 +254,13 @@ public final class ServerConfigWindow extends AbstractWindow implements LaunchMa
   private String getPortNumber() {
     return portField.getText().trim();
   }
+
+  /**
+   * Gets the replication port number.
+   *
+   * @return the replication port number, or an empty string if replication is disabled.
+   */
+  private String getReplicationPortNumber() {
+    return replicationPortField.getText().trim();
+  }
 }
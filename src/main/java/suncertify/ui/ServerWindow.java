@@ -12,30 +12,140 @@ package suncertify.ui;
 
 import static suncertify.ui.Messages.*;
 
-import suncertify.util.Config;
+import suncertify.business.rmi.RmiServer;
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseOperation;
+import suncertify.db.OperationStats;
+import suncertify.db.RecordContention;
+import suncertify.db.RecordLockInfo;
 
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.awt.Insets;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableModel;
 
 /**
  * The class ServerWindow is direct subclass of {@link AbstractWindow} and provides a very simple
- * GUI for the RMI server. A user can use this GUI to shutdown the server if need be.
+ * GUI for the RMI server. A user can use this GUI to shutdown the server if need be, and to watch
+ * the server while it runs: service calls per second, booking and search latencies, held locks and
+ * their waiters, connected clients, heap use and the time the records were last written to disk,
+ * as well as the statistics of every database operation, which record locks are held and which
+ * records are most contended.
+ *
+ * <p>The server is sampled every second. Each sample is taken on a background thread so that the
+ * GUI never waits for the database, and a sample is skipped if the previous one is still being
+ * taken, so a saturated server slows the display rather than piling up work behind it.
  */
 public final class ServerWindow extends AbstractWindow {
 
   /** The serial version UID. */
   private static final long serialVersionUID = 17011991;
 
+  /** The number of most contended records displayed. */
+  private static final int HOT_RECORD_LIMIT = 10;
+
+  /** The interval between two samples of the server, in milliseconds. */
+  private static final int REFRESH_INTERVAL_MILLIS = 1000;
+
+  /** The number of throughput samples charted, one minute's worth. */
+  private static final int CHART_SAMPLES = 60;
+
+  /** The number of bytes in a mebibyte. */
+  private static final long BYTES_PER_MEBIBYTE = 1024 * 1024;
+
+  /** The number of microseconds in a millisecond. */
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The port number the server is listening on. */
   private final int portNumber;
-  
+
+  /** The server. */
+  private final transient RmiServer server;
+
+  /** The data access object served by the server. */
+  private final transient DBMainExtended data;
+
+  /** The column names of the operations table. */
+  private final String[] operationColumnNames = { OPERATION_COLUMN_TEXT,
+      CALLS_COLUMN_TEXT, PER_SECOND_COLUMN_TEXT, P50_COLUMN_TEXT, P95_COLUMN_TEXT, P99_COLUMN_TEXT,
+      MAX_COLUMN_TEXT };
+
+  /** The column names of the held locks table. */
+  private final String[] heldLockColumnNames = { RECORD_COLUMN_TEXT,
+      HOLDER_COLUMN_TEXT, HELD_COLUMN_TEXT, WAITERS_COLUMN_TEXT, LONGEST_WAIT_COLUMN_TEXT };
+
+  /** The column names of the hot records table. */
+  private final String[] hotRecordColumnNames = { RECORD_COLUMN_TEXT,
+      CONTENDED_REQUESTS_COLUMN_TEXT, TOTAL_WAIT_COLUMN_TEXT, LONGEST_WAIT_COLUMN_TEXT };
+
+  /** The model of the operations table, with one row per {@link DatabaseOperation}. */
+  private final DefaultTableModel operationsModel = new ReadOnlyTableModel(
+      operationColumnNames);
+
+  /** The model of the held locks table. */
+  private final DefaultTableModel heldLocksModel = new ReadOnlyTableModel(heldLockColumnNames);
+
+  /** The model of the hot records table. */
+  private final DefaultTableModel hotRecordsModel = new ReadOnlyTableModel(hotRecordColumnNames);
+
+  /** The chart of the service calls per second over the last minute. */
+  private final ThroughputChart throughputChart = new ThroughputChart(CHART_SAMPLES);
+
+  /** The label displaying the service calls per second. */
+  private final JLabel throughputLabel = new JLabel();
+
+  /** The label displaying the booking latency percentiles. */
+  private final JLabel bookingLatencyLabel = new JLabel();
+
+  /** The label displaying the search latency percentiles. */
+  private final JLabel searchLatencyLabel = new JLabel();
+
+  /** The label displaying the number of held locks and waiting lock requests. */
+  private final JLabel locksLabel = new JLabel();
+
+  /** The label displaying the number of connected clients. */
+  private final JLabel clientsLabel = new JLabel();
+
+  /** The label displaying the heap use. */
+  private final JLabel heapLabel = new JLabel();
+
+  /** The label displaying the time the records were last written to disk. */
+  private final JLabel lastFlushLabel = new JLabel();
+
+  /** Formats the time the records were last written to disk. */
+  private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+
+  /** The timer which samples the server. */
+  private final Timer refreshTimer = new Timer(REFRESH_INTERVAL_MILLIS, action -> refresh());
+
+  /** True while a sample of the server is being taken. */
+  private boolean refreshing;
+
+  /** The previous sample, {@code null} until the first sample has been displayed. */
+  private transient Sample previousSample;
+
   /** The content panel. */
   private JPanel contentPanel;
 
@@ -48,16 +158,26 @@ public final class ServerWindow extends AbstractWindow {
   /**
    * Constructs a new server window.
    * 
+   * @param server
+   *          the server.
    * @param portNumber
    *          the port number the server is listening on.
+   * @param data
+   *          the data access object served by the server.
    */
-  public ServerWindow(int portNumber) {
+  public ServerWindow(final RmiServer server, int portNumber, final DBMainExtended data) {
     super(SERVER_WINDOW_TITLE);
+    this.server = server;
     this.portNumber=portNumber;
-    setSize(new Dimension(460, 192));
-    setMinimumSize(new Dimension(460, 192));
+    this.data = data;
+    for (final DatabaseOperation operation : DatabaseOperation.values()) {
+      operationsModel.addRow(new Object[] { operation, 0L, 0.0, 0.0, 0.0, 0.0, 0.0 });
+    }
+    setSize(new Dimension(640, 460));
+    setMinimumSize(new Dimension(460, 360));
     initializeComponents();
     getContentPane().add(contentPanel);
+    refreshTimer.start();
   }
 
   @Override
@@ -70,8 +190,22 @@ public final class ServerWindow extends AbstractWindow {
     constraints.weighty = 0.1;
     constraints.anchor = GridBagConstraints.CENTER;
     panel.add(serverStatusLabel, constraints);
+    final JTabbedPane lockPane = new JTabbedPane();
+    lockPane.addTab(OVERVIEW_TAB_TITLE, createOverviewPanel());
+    lockPane.addTab(OPERATIONS_TAB_TITLE, new JScrollPane(new JTable(operationsModel)));
+    lockPane.addTab(HELD_LOCKS_TAB_TITLE, new JScrollPane(new JTable(heldLocksModel)));
+    lockPane.addTab(HOT_RECORDS_TAB_TITLE, new JScrollPane(new JTable(hotRecordsModel)));
     constraints.gridx = 0;
     constraints.gridy = 1;
+    constraints.weightx = 1;
+    constraints.weighty = 1;
+    constraints.fill = GridBagConstraints.BOTH;
+    panel.add(lockPane, constraints);
+    constraints.gridx = 0;
+    constraints.gridy = 2;
+    constraints.weightx = 0;
+    constraints.weighty = 0.1;
+    constraints.fill = GridBagConstraints.NONE;
     panel.add(stopButton, constraints);
     return panel;
   }
@@ -95,12 +229,277 @@ public final class ServerWindow extends AbstractWindow {
     });
   }
 
+  /**
+   * Creates the overview panel, which shows the throughput chart above the headline figures of
+   * the server.
+   *
+   * @return the overview panel.
+   */
+  private JPanel createOverviewPanel() {
+    final JPanel panel = new JPanel(new GridBagLayout());
+    final GridBagConstraints constraints = new GridBagConstraints();
+    constraints.gridx = 0;
+    constraints.gridy = 0;
+    constraints.gridwidth = 2;
+    constraints.weightx = 1;
+    constraints.weighty = 1;
+    constraints.fill = GridBagConstraints.BOTH;
+    constraints.insets = new Insets(4, 4, 4, 4);
+    panel.add(throughputChart, constraints);
+    final String[] names = { SERVICE_CALLS_PER_SECOND_LABEL_TEXT, BOOKING_LATENCY_LABEL_TEXT,
+        SEARCH_LATENCY_LABEL_TEXT, HELD_LOCKS_LABEL_TEXT, CONNECTED_CLIENTS_LABEL_TEXT,
+        HEAP_LABEL_TEXT, LAST_FLUSH_LABEL_TEXT };
+    final JLabel[] values = { throughputLabel, bookingLatencyLabel, searchLatencyLabel,
+        locksLabel, clientsLabel, heapLabel, lastFlushLabel };
+    constraints.gridwidth = 1;
+    constraints.weighty = 0;
+    constraints.insets = new Insets(1, 4, 1, 4);
+    for (int i = 0; i < names.length; i++) {
+      constraints.gridy = i + 1;
+      constraints.gridx = 0;
+      constraints.weightx = 0;
+      constraints.fill = GridBagConstraints.NONE;
+      constraints.anchor = GridBagConstraints.LINE_END;
+      panel.add(new JLabel(names[i]), constraints);
+      constraints.gridx = 1;
+      constraints.weightx = 1;
+      constraints.fill = GridBagConstraints.HORIZONTAL;
+      constraints.anchor = GridBagConstraints.LINE_START;
+      panel.add(values[i], constraints);
+    }
+    return panel;
+  }
+
+  /**
+   * Takes a sample of the server on a background thread and displays it, unless the previous
+   * sample is still being taken.
+   */
+  private void refresh() {
+    if (refreshing) {
+      return;
+    }
+    refreshing = true;
+    new SwingWorker<Sample, Void>() {
+
+      @Override
+      protected Sample doInBackground() {
+        return new Sample(server, data);
+      }
+
+      @Override
+      protected void done() {
+        refreshing = false;
+        try {
+          final Sample sample = get();
+          displayOverview(sample);
+          displayOperations(sample.operationStats);
+          displayHeldLocks(sample.heldLocks);
+          displayHotRecords(sample.hotRecords);
+          previousSample = sample;
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+          LOGGER.log(Level.WARNING, "Could not sample the server.", e.getCause());
+        }
+      }
+    }.execute();
+  }
+
+  /**
+   * Displays the headline figures of the specified {@code sample} and charts its throughput.
+   * Service calls per second are measured between the previous sample and this one, so the chart
+   * follows the load as it changes rather than averaging it over a minute.
+   *
+   * @param sample
+   *          the sample of the server.
+   */
+  private void displayOverview(final Sample sample) {
+    if (previousSample != null) {
+      final double seconds = (sample.takenAtNanos - previousSample.takenAtNanos) / 1e9;
+      final double throughput = (sample.serviceCalls - previousSample.serviceCalls) / seconds;
+      throughputChart.addSample(throughput);
+      throughputLabel.setText(String.format("%.1f", throughput));
+    }
+    bookingLatencyLabel.setText(formatLatency(
+        sample.operationStats.get(DatabaseOperation.BOOK.ordinal())));
+    searchLatencyLabel.setText(formatLatency(
+        sample.operationStats.get(DatabaseOperation.QUERY.ordinal())));
+    int waiters = 0;
+    for (final RecordLockInfo lock : sample.heldLocks) {
+      waiters += lock.getWaiters();
+    }
+    locksLabel.setText(String.format(HELD_LOCKS_FORMAT, sample.heldLocks.size(), waiters));
+    clientsLabel.setText(String.format(CONNECTED_CLIENTS_FORMAT, sample.clientHosts,
+        sample.connections));
+    heapLabel.setText(String.format(HEAP_FORMAT, sample.heapUsedBytes / BYTES_PER_MEBIBYTE,
+        sample.heapMaxBytes / BYTES_PER_MEBIBYTE));
+    lastFlushLabel.setText(sample.lastFlushTime == 0 ? NEVER_FLUSHED_TEXT
+        : timeFormat.format(new Date(sample.lastFlushTime)));
+  }
+
+  /**
+   * Formats the latency percentiles of the specified {@code stats} over the last minute.
+   *
+   * @param stats
+   *          the statistics of an operation.
+   * @return the formatted percentiles.
+   */
+  private static String formatLatency(final OperationStats stats) {
+    return String.format(LATENCY_FORMAT,
+        stats.getP50Micros() / MICROS_PER_MILLI, stats.getP95Micros() / MICROS_PER_MILLI,
+        stats.getP99Micros() / MICROS_PER_MILLI);
+  }
+
+  /**
+   * Updates the rows of the operations table in place with the specified {@code operationStats}.
+   *
+   * @param operationStats
+   *          the statistics, one per operation, in the order of {@link DatabaseOperation}.
+   */
+  private void displayOperations(final List<OperationStats> operationStats) {
+    for (int row = 0; row < operationStats.size(); row++) {
+      final OperationStats stats = operationStats.get(row);
+      operationsModel.setValueAt(stats.getTotalCount(), row, 1);
+      operationsModel.setValueAt(Math.round(stats.getThroughput() * 10) / 10.0, row, 2);
+      operationsModel.setValueAt(toMillis(stats.getP50Micros()), row, 3);
+      operationsModel.setValueAt(toMillis(stats.getP95Micros()), row, 4);
+      operationsModel.setValueAt(toMillis(stats.getP99Micros()), row, 5);
+      operationsModel.setValueAt(toMillis(stats.getMaxMicros()), row, 6);
+    }
+  }
+
+  /**
+   * Converts the specified {@code micros} to milliseconds, rounded to two decimal places.
+   *
+   * @param micros
+   *          a latency in microseconds.
+   * @return the latency in milliseconds.
+   */
+  private static double toMillis(final double micros) {
+    return Math.round(micros / 10) / 100.0;
+  }
+
+  /**
+   * Replaces the rows of the held locks table with the specified {@code heldLocks}.
+   *
+   * @param heldLocks
+   *          the held locks.
+   */
+  private void displayHeldLocks(final List<RecordLockInfo> heldLocks) {
+    heldLocksModel.setRowCount(0);
+    for (final RecordLockInfo lock : heldLocks) {
+      heldLocksModel.addRow(new Object[] { lock.getRecordNumber(), lock.getHolder(),
+          lock.getHeldMillis(), lock.getWaiters(), lock.getLongestWaitMillis() });
+    }
+  }
+
+  /**
+   * Replaces the rows of the hot records table with the specified {@code hotRecords}.
+   *
+   * @param hotRecords
+   *          the most contended records.
+   */
+  private void displayHotRecords(final List<RecordContention> hotRecords) {
+    hotRecordsModel.setRowCount(0);
+    for (final RecordContention record : hotRecords) {
+      hotRecordsModel.addRow(new Object[] { record.getRecordNumber(),
+          record.getContendedRequests(), record.getTotalWaitMillis(),
+          record.getMaxWaitMillis() });
+    }
+  }
+
   /**
    * Closes the window and shuts down the server.
    */
   private void shutdown() {
+    refreshTimer.stop();
     dispose();
     System.exit(0);
   }
 
+  /**
+   * A sample of the server, taken on a background thread.
+   */
+  private static final class Sample {
+
+    /** The value of {@link System#nanoTime()} when the sample was taken. */
+    private final long takenAtNanos = System.nanoTime();
+
+    /** The statistics of each operation, in the order of {@link DatabaseOperation}. */
+    private final List<OperationStats> operationStats;
+
+    /** The total number of completed calls to the service. */
+    private final long serviceCalls;
+
+    /** The held locks. */
+    private final List<RecordLockInfo> heldLocks;
+
+    /** The most contended records. */
+    private final List<RecordContention> hotRecords;
+
+    /** The number of connected client hosts. */
+    private final int clientHosts;
+
+    /** The number of open client connections. */
+    private final int connections;
+
+    /** The heap in use, in bytes. */
+    private final long heapUsedBytes;
+
+    /** The maximum heap size, in bytes. */
+    private final long heapMaxBytes;
+
+    /** The time the records were last written to disk, in milliseconds since the epoch. */
+    private final long lastFlushTime;
+
+    /**
+     * Takes a sample of the specified {@code server} and the {@code data} access object it
+     * serves.
+     *
+     * @param server
+     *          the server.
+     * @param data
+     *          the data access object served by the server.
+     */
+    Sample(final RmiServer server, final DBMainExtended data) {
+      operationStats = data.getOperationStats();
+      serviceCalls = server.getCompletedCallCount();
+      heldLocks = data.getHeldLocks();
+      hotRecords = data.getHotRecords(HOT_RECORD_LIMIT);
+      clientHosts = server.getClientHostCount();
+      connections = server.getConnectionCount();
+      final Runtime runtime = Runtime.getRuntime();
+      heapUsedBytes = runtime.totalMemory() - runtime.freeMemory();
+      heapMaxBytes = runtime.maxMemory();
+      lastFlushTime = data.getLastFlushTime();
+    }
+  }
+
+  /**
+   * A table model whose cells cannot be edited.
+   */
+  private static final class ReadOnlyTableModel extends DefaultTableModel {
+
+    /** The serial version UID. */
+    private static final long serialVersionUID = 17011991;
+
+    /**
+     * Constructs a new table model with the specified {@code columnNames} and no rows.
+     *
+     * @param columnNames
+     *          the column names.
+     */
+    ReadOnlyTableModel(final String[] columnNames) {
+      super(columnNames, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isCellEditable(final int row, final int column) {
+      return false;
+    }
+  }
+
 }
@@ -0,0 +1,118 @@
+/*
+ * ThroughputChart.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+import javax.swing.JComponent;
+
+/**
+ * A line chart of the most recent throughput samples of the server, newest on the right, scaled
+ * to the highest sample shown. The samples are kept in a fixed size ring buffer and the chart is
+ * drawn as a single polyline, so adding a sample and repainting costs next to nothing.
+ */
+final class ThroughputChart extends JComponent {
+
+  /** The serial version UID. */
+  private static final long serialVersionUID = 17011991;
+
+  /** The gap between the chart and the edges of the component, in pixels. */
+  private static final int INSET = 4;
+
+  /** The samples, oldest first starting at {@link #next}. */
+  private final double[] samples;
+
+  /** The x coordinates of the points of the polyline, reused on every repaint. */
+  private final int[] xPoints;
+
+  /** The y coordinates of the points of the polyline, reused on every repaint. */
+  private final int[] yPoints;
+
+  /** The index the next sample is stored at. */
+  private int next;
+
+  /** The number of samples added, up to the capacity of the chart. */
+  private int size;
+
+  /**
+   * Constructs a new chart showing at most {@code capacity} samples.
+   *
+   * @param capacity
+   *          the maximum number of samples shown.
+   * @throws IllegalArgumentException
+   *           if {@code capacity} is less than two.
+   */
+  ThroughputChart(final int capacity) throws IllegalArgumentException {
+    if (capacity < 2) {
+      throw new IllegalArgumentException("A chart must show at least two samples.");
+    }
+    samples = new double[capacity];
+    xPoints = new int[capacity];
+    yPoints = new int[capacity];
+    setPreferredSize(new Dimension(capacity * 4, 80));
+    setOpaque(true);
+    setBackground(Color.WHITE);
+  }
+
+  /**
+   * Adds the specified {@code sample}, discarding the oldest if the chart is full, and repaints
+   * the chart. Must be invoked on the event dispatch thread.
+   *
+   * @param sample
+   *          the throughput, in operations per second.
+   */
+  void addSample(final double sample) {
+    samples[next] = sample;
+    next = (next + 1) % samples.length;
+    size = Math.min(size + 1, samples.length);
+    repaint();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void paintComponent(final Graphics graphics) {
+    final int width = getWidth();
+    final int height = getHeight();
+    graphics.setColor(getBackground());
+    graphics.fillRect(0, 0, width, height);
+    if (size < 2) {
+      return;
+    }
+    final int first = (next - size + samples.length) % samples.length;
+    double peak = 1;
+    for (int i = 0; i < size; i++) {
+      peak = Math.max(peak, samples[(first + i) % samples.length]);
+    }
+    final int chartWidth = width - 2 * INSET;
+    final int chartHeight = height - 2 * INSET;
+    for (int i = 0; i < size; i++) {
+      final double sample = samples[(first + i) % samples.length];
+      xPoints[i] = INSET + chartWidth * (samples.length - size + i) / (samples.length - 1);
+      yPoints[i] = INSET + chartHeight - (int) Math.round(chartHeight * sample / peak);
+    }
+    final Graphics2D graphics2d = (Graphics2D) graphics;
+    graphics2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+        RenderingHints.VALUE_ANTIALIAS_ON);
+    graphics2d.setColor(Color.LIGHT_GRAY);
+    graphics2d.drawLine(INSET, INSET, INSET + chartWidth, INSET);
+    graphics2d.setColor(Color.BLUE.darker());
+    graphics2d.drawPolyline(xPoints, yPoints, size);
+    graphics2d.setColor(Color.DARK_GRAY);
+    graphics2d.drawString(String.format("%.0f/s", peak), INSET + 2,
+        INSET + graphics2d.getFontMetrics().getAscent());
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * AsyncLogHandler.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.util;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * A log handler which never makes the logging thread wait. A record is published by placing it in
+ * a bounded, lock-free ring buffer; a background writer thread takes the records from the buffer
+ * in batches, formats them and writes each batch to the output stream with a single write and
+ * flush. If the buffer is full the record is dropped rather than waiting for room, and the number
+ * of records dropped is written with the next batch.
+ *
+ * <p>The ring buffer is an array of slots, each with a sequence number telling whether it is free
+ * for the publisher claiming a given position or full for the writer reading it. Publishers claim
+ * a position with a compare-and-set on the tail; the writer is the only consumer, so the head is
+ * a plain field of the writer thread. The writer parks when the buffer is empty and a publisher
+ * only unparks it if it is parked.
+ *
+ * <p>A record is formatted by the writer thread, so its parameters must not be modified after it
+ * has been logged. A record is shown with the name of its logger and of the logging thread, never
+ * its source class and method: asking a record for its source walks the stack to infer it, which
+ * costs a stack walk per record and, on the writer thread, cannot find the caller anyway.
+ *
+ * <p>The handler is closed, writing any records still queued, when the {@link
+ * java.util.logging.LogManager} is reset at shutdown. A publisher may have passed the check for
+ * a closed handler before it claims a position, so the writer only finishes by sealing the tail
+ * when no position beyond the head has been claimed: a record is then either written or, if its
+ * publisher finds the tail sealed, discarded as if published after the handler was closed.
+ */
+public final class AsyncLogHandler extends Handler {
+
+  /** The default number of records the buffer can hold, a power of two. */
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  /** The maximum number of records written with a single write. */
+  private static final int BATCH_SIZE = 256;
+
+  /** The longest time the writer parks for when the buffer is empty, in nanoseconds. */
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /** The value of the tail once the writer has finished, so that no position can be claimed. */
+  private static final long SEALED = -1;
+
+  /** The longest time {@link #close()} waits for the writer to finish, in milliseconds. */
+  private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+  /** The format of a record: date, logger, thread, level, message and thrown exception. */
+  private static final String FORMAT = "%1$tb %1$td, %1$tY %1$tl:%1$tM:%1$tS %1$Tp %2$s [%3$s]%n"
+      + "%4$s: %5$s%6$s%n";
+
+  /** The stream the records are written to. */
+  private final PrintStream output;
+
+  /** The records in the buffer, indexed by position modulo the capacity. */
+  private final LogRecord[] records;
+
+  /** The names of the threads which logged the records in the buffer. */
+  private final String[] threadNames;
+
+  /**
+   * The sequence number of each slot: equal to a position when the slot is free for the publisher
+   * of that position, and one more than the position when the record there is ready to be
+   * written.
+   */
+  private final AtomicLongArray sequences;
+
+  /** The mask giving the slot of a position. */
+  private final int mask;
+
+  /** The next position to be claimed by a publisher, or {@link #SEALED} once the writer is done. */
+  private final AtomicLong tail = new AtomicLong();
+
+  /** The number of records dropped since the last batch was written. */
+  private final AtomicLong dropped = new AtomicLong();
+
+  /** The writer thread. */
+  private final Thread writer;
+
+  /** The next position to be read by the writer; only accessed by the writer thread. */
+  private long head;
+
+  /** True while the writer is parked, or about to park, waiting for records. */
+  private volatile boolean idle;
+
+  /** True once the handler has been closed. */
+  private volatile boolean closed;
+
+  /**
+   * Constructs a new handler writing to {@link System#err} with the default capacity.
+   */
+  public AsyncLogHandler() {
+    this(System.err, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs a new handler writing to the specified {@code output}, holding at most
+   * {@code capacity} records waiting to be written.
+   *
+   * @param output
+   *          the stream the records are written to.
+   * @param capacity
+   *          the number of records the buffer can hold, a power of two.
+   * @throws IllegalArgumentException
+   *           if {@code output} is null or {@code capacity} is not a positive power of two.
+   */
+  public AsyncLogHandler(final PrintStream output, final int capacity)
+      throws IllegalArgumentException {
+    if (output == null) {
+      throw new IllegalArgumentException("Output stream cannot be null.");
+    }
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+    }
+    this.output = output;
+    records = new LogRecord[capacity];
+    threadNames = new String[capacity];
+    sequences = new AtomicLongArray(capacity);
+    for (int index = 0; index < capacity; index++) {
+      sequences.set(index, index);
+    }
+    mask = capacity - 1;
+    setFormatter(new SimpleFormatter());
+    writer = new Thread(this::writeRecords, "log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Queues the specified {@code record} to be written if it is loggable, without waiting. If the
+   * buffer is full the record is dropped and counted.
+   *
+   * @param record
+   *          the record.
+   */
+  @Override
+  public void publish(final LogRecord record) {
+    if (closed || !isLoggable(record)) {
+      return;
+    }
+    long position = tail.get();
+    while (true) {
+      if (position == SEALED) {
+        return;
+      }
+      final int slot = (int) position & mask;
+      final long available = sequences.get(slot) - position;
+      if (available == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          break;
+        }
+        position = tail.get();
+      } else if (available < 0) {
+        dropped.incrementAndGet();
+        return;
+      } else {
+        position = tail.get();
+      }
+    }
+    final int slot = (int) position & mask;
+    records[slot] = record;
+    threadNames[slot] = Thread.currentThread().getName();
+    sequences.set(slot, position + 1);
+    if (idle) {
+      LockSupport.unpark(writer);
+    }
+  }
+
+  /**
+   * Wakes the writer so that any queued records are written without waiting for more.
+   */
+  @Override
+  public void flush() {
+    LockSupport.unpark(writer);
+  }
+
+  /**
+   * Stops accepting records, waits for the writer to write the records already queued and then
+   * flushes the output stream. The output stream itself is not closed.
+   *
+   * @throws SecurityException
+   *           if a security manager exists and the caller does not have permission to control
+   *           logging.
+   */
+  @Override
+  public void close() throws SecurityException {
+    closed = true;
+    LockSupport.unpark(writer);
+    try {
+      writer.join(CLOSE_TIMEOUT_MILLIS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Gets the number of records dropped because the buffer was full and not yet reported.
+   *
+   * @return the number of records dropped.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Takes records from the buffer in batches and writes them until the handler is closed, the
+   * buffer is empty and the tail has been sealed with no position left unwritten.
+   */
+  private void writeRecords() {
+    final StringBuilder batch = new StringBuilder(BATCH_SIZE * 128);
+    while (true) {
+      final long lost = dropped.getAndSet(0);
+      if (lost > 0) {
+        batch.append(lost).append(" log records were dropped; the log buffer was full.")
+            .append(System.lineSeparator());
+      }
+      int count = 0;
+      while (count < BATCH_SIZE && appendNext(batch)) {
+        count++;
+      }
+      if (batch.length() > 0) {
+        output.print(batch);
+        output.flush();
+        batch.setLength(0);
+      }
+      if (count == BATCH_SIZE) {
+        continue;
+      }
+      if (closed) {
+        if (!isReady() && dropped.get() == 0 && tail.compareAndSet(head, SEALED)) {
+          return;
+        }
+        continue;
+      }
+      idle = true;
+      if (!isReady() && !closed) {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+      }
+      idle = false;
+    }
+  }
+
+  /**
+   * Checks if the record at the head of the buffer is ready to be written.
+   *
+   * @return true, if there is a record to write.
+   */
+  private boolean isReady() {
+    return sequences.get((int) head & mask) == head + 1;
+  }
+
+  /**
+   * Removes the record at the head of the buffer, if there is one, and appends it to the
+   * specified {@code batch}.
+   *
+   * @param batch
+   *          the batch being written.
+   * @return true, if a record was removed.
+   */
+  private boolean appendNext(final StringBuilder batch) {
+    if (!isReady()) {
+      return false;
+    }
+    final int slot = (int) head & mask;
+    final LogRecord record = records[slot];
+    final String threadName = threadNames[slot];
+    records[slot] = null;
+    threadNames[slot] = null;
+    sequences.set(slot, head + records.length);
+    head++;
+    try {
+      batch.append(format(record, threadName));
+    } catch (final RuntimeException e) {
+      reportError("Could not format a log record.", e, ErrorManager.FORMAT_FAILURE);
+    }
+    return true;
+  }
+
+  /**
+   * Formats the specified {@code record}, logged by the thread with the specified
+   * {@code threadName}.
+   *
+   * @param record
+   *          the record.
+   * @param threadName
+   *          the name of the thread which logged the record.
+   * @return the formatted record.
+   */
+  private String format(final LogRecord record, final String threadName) {
+    String thrown = "";
+    if (record.getThrown() != null) {
+      final StringWriter stackTrace = new StringWriter();
+      stackTrace.append(System.lineSeparator());
+      try (PrintWriter writer = new PrintWriter(stackTrace)) {
+        record.getThrown().printStackTrace(writer);
+      }
+      thrown = stackTrace.toString();
+    }
+    return String.format(FORMAT, record.getMillis(), record.getLoggerName(), threadName,
+        record.getLevel().getLocalizedName(), getFormatter().formatMessage(record), thrown);
+  }
+}
@@ -55,9 +55,49 @@ public final class Config {
   /** The key in the properties file for the port number the client connects to. */
   private static final String CLIENT_PORT = "client.serverPort";
 
+  /**
+   * The key in the properties file for the port number the server publishes its mutation log on.
+   * Left blank if replication is disabled.
+   */
+  private static final String SERVER_REPLICATION_PORT = "server.replicationPort";
+
+  /**
+   * The key in the properties file for the address the server accepts replicas on. Not shown in
+   * the GUI; defaults to the loopback address, so replicas on other machines cannot connect until
+   * it is changed.
+   */
+  private static final String SERVER_REPLICATION_ADDRESS = "server.replicationAddress";
+
+  /** The key in the properties file for the ip address of the primary server a replica follows. */
+  private static final String REPLICA_PRIMARY_IP = "replica.primaryIpaddress";
+
+  /** The key in the properties file for the RMI port number of the primary server. */
+  private static final String REPLICA_PRIMARY_PORT = "replica.primaryPort";
+
+  /** The key in the properties file for the port number the primary publishes its log on. */
+  private static final String REPLICA_REPLICATION_PORT = "replica.replicationPort";
+
+  /** The key in the properties file for the port number the replica server will run on. */
+  private static final String REPLICA_PORT = "replica.port";
+
+  /**
+   * The key in the properties file for whether the server applies mutations through a single
+   * writer thread. Not shown in the GUI; defaults to false.
+   */
+  private static final String SERVER_SINGLE_WRITER = "server.singleWriter";
+
+  /**
+   * The prefix of the keys in the properties file for the thresholds above which operations are
+   * logged as slow, in milliseconds, e.g. "server.slowThresholdMillis.find". Not shown in the GUI.
+   */
+  private static final String SLOW_THRESHOLD_PREFIX = "server.slowThresholdMillis.";
+
   /** The default RMI port number. */
   private static final String RMI_PORT = "1099";
 
+  /** The loopback address, which replicas are accepted on by default. */
+  private static final String LOOPBACK_ADDRESS = "127.0.0.1";
+
   /** The properties list which stores all the configuration values specified by the user. */
   private static final Properties PROPERTIES = new Properties();
 
@@ -93,6 +133,42 @@ public final class Config {
     return PROPERTIES.getProperty(CLIENT_PORT);
   }
 
+  /**
+   * Gets the ip address of the primary server that a replica server follows.
+   *
+   * @return the ip address of the primary server.
+   */
+  public static String getReplicaPrimaryIpAddress() {
+    return PROPERTIES.getProperty(REPLICA_PRIMARY_IP, EMPTY_STRING);
+  }
+
+  /**
+   * Gets the RMI port number of the primary server that a replica server forwards bookings to.
+   *
+   * @return the RMI port number of the primary server.
+   */
+  public static String getReplicaPrimaryPortNumber() {
+    return PROPERTIES.getProperty(REPLICA_PRIMARY_PORT, RMI_PORT);
+  }
+
+  /**
+   * Gets the port number the replica server will run on.
+   *
+   * @return the port number of the replica server.
+   */
+  public static String getReplicaPortNumber() {
+    return PROPERTIES.getProperty(REPLICA_PORT, RMI_PORT);
+  }
+
+  /**
+   * Gets the port number on which the primary server publishes its mutation log to replicas.
+   *
+   * @return the replication port number of the primary server.
+   */
+  public static String getReplicaReplicationPortNumber() {
+    return PROPERTIES.getProperty(REPLICA_REPLICATION_PORT, EMPTY_STRING);
+  }
+
   /**
    * Gets the server's database file location.
    *
@@ -120,6 +196,65 @@ public final class Config {
     return PROPERTIES.getProperty(SERVER_PORT);
   }
 
+  /**
+   * Gets the port number the server publishes its mutation log to replicas on. Blank if
+   * replication is disabled.
+   *
+   * @return the replication port number, or an empty string if replication is disabled.
+   */
+  public static String getServerReplicationPortNumber() {
+    return PROPERTIES.getProperty(SERVER_REPLICATION_PORT, EMPTY_STRING);
+  }
+
+  /**
+   * Gets the host name or IP address the server accepts replicas on. The loopback address unless
+   * another is specified.
+   *
+   * @return the replication address.
+   */
+  public static String getServerReplicationAddress() {
+    return PROPERTIES.getProperty(SERVER_REPLICATION_ADDRESS, LOOPBACK_ADDRESS);
+  }
+
+  /**
+   * Gets the threshold above which the specified {@code operation} is logged as slow.
+   *
+   * @param operation
+   *          the name of the operation, e.g. "find".
+   * @param defaultMillis
+   *          the threshold used if none is specified, or the one specified is not a number or is
+   *          negative.
+   * @return the threshold, in milliseconds.
+   */
+  public static long getSlowOperationThresholdMillis(final String operation,
+      final long defaultMillis) {
+    final String threshold = PROPERTIES.getProperty(SLOW_THRESHOLD_PREFIX + operation);
+    if (threshold == null) {
+      return defaultMillis;
+    }
+    try {
+      final long thresholdMillis = Long.parseLong(threshold.trim());
+      if (thresholdMillis < 0) {
+        throw new NumberFormatException("Negative threshold: " + threshold);
+      }
+      return thresholdMillis;
+    } catch (final NumberFormatException exception) {
+      LOGGER.warning("Invalid threshold for slow " + operation + " operations: " + threshold
+          + ". Using " + defaultMillis + " ms.");
+      return defaultMillis;
+    }
+  }
+
+  /**
+   * Checks if the server applies mutations through a single writer thread, so that reads never
+   * wait for writes.
+   *
+   * @return true, if single-writer mode is enabled.
+   */
+  public static boolean isServerSingleWriterEnabled() {
+    return Boolean.parseBoolean(PROPERTIES.getProperty(SERVER_SINGLE_WRITER, "false"));
+  }
+
   /**
    * Writes the current properties list contained in the properties object {@code PROPERTIES} to the
    * suncertify.properties file.
@@ -151,6 +286,72 @@ public final class Config {
     PROPERTIES.setProperty(CLIENT_PORT, portNumber);
   }
 
+  /**
+   * Sets the ip address of the primary server that a replica server follows with the specified
+   * {@code primaryIpAddress}. Throws {@link IllegalArgumentException} if the ip address is left
+   * blank.
+   *
+   * @param primaryIpAddress
+   *          the new ip address of the primary server.
+   * @throws IllegalArgumentException
+   *           if the ip address is left blank.
+   */
+  public static void setReplicaPrimaryIpAddress(final String primaryIpAddress)
+      throws IllegalArgumentException {
+    if (primaryIpAddress.isEmpty()) {
+      throw new IllegalArgumentException("IP address field cannot be left blank.");
+    }
+    PROPERTIES.setProperty(REPLICA_PRIMARY_IP, primaryIpAddress);
+  }
+
+  /**
+   * Sets the RMI port number of the primary server that a replica server forwards bookings to with
+   * the specified {@code portNumber}. Throws {@link IllegalArgumentException} if the port number
+   * contains any non-numeric characters or is left blank.
+   *
+   * @param portNumber
+   *          the new RMI port number of the primary server.
+   * @throws IllegalArgumentException
+   *           if the port number contains any non-numeric characters or is left blank.
+   */
+  public static void setReplicaPrimaryPortNumber(final String portNumber)
+      throws IllegalArgumentException {
+    checkPortNumber(portNumber);
+    PROPERTIES.setProperty(REPLICA_PRIMARY_PORT, portNumber);
+  }
+
+  /**
+   * Sets the port number the replica server will run on with the specified {@code portNumber}.
+   * Throws {@link IllegalArgumentException} if the port number contains any non-numeric characters
+   * or is left blank.
+   *
+   * @param portNumber
+   *          the new port number the replica server will run on.
+   * @throws IllegalArgumentException
+   *           if the port number contains any non-numeric characters or is left blank.
+   */
+  public static void setReplicaPortNumber(final String portNumber)
+      throws IllegalArgumentException {
+    checkPortNumber(portNumber);
+    PROPERTIES.setProperty(REPLICA_PORT, portNumber);
+  }
+
+  /**
+   * Sets the port number on which the primary server publishes its mutation log to replicas with
+   * the specified {@code portNumber}. Throws {@link IllegalArgumentException} if the port number
+   * contains any non-numeric characters or is left blank.
+   *
+   * @param portNumber
+   *          the new replication port number of the primary server.
+   * @throws IllegalArgumentException
+   *           if the port number contains any non-numeric characters or is left blank.
+   */
+  public static void setReplicaReplicationPortNumber(final String portNumber)
+      throws IllegalArgumentException {
+    checkPortNumber(portNumber);
+    PROPERTIES.setProperty(REPLICA_REPLICATION_PORT, portNumber);
+  }
+
   /**
    * Sets the location of the database file on the server with the specified {@code dbFileLocation}.
    * Throws {@link IllegalArgumentException} if the database's file location is left blank.
@@ -186,6 +387,24 @@ public final class Config {
     PROPERTIES.setProperty(SERVER_IP, serverIpAddress);
   }
 
+  /**
+   * Sets the port number the server publishes its mutation log to replicas on with the specified
+   * {@code portNumber}. A blank port number disables replication. Throws
+   * {@link IllegalArgumentException} if the port number contains any non-numeric characters.
+   *
+   * @param portNumber
+   *          the new replication port number, or an empty string to disable replication.
+   * @throws IllegalArgumentException
+   *           if the port number contains any non-numeric characters.
+   */
+  public static void setServerReplicationPortNumber(final String portNumber)
+      throws IllegalArgumentException {
+    if (!portNumber.isEmpty()) {
+      checkPortNumber(portNumber);
+    }
+    PROPERTIES.setProperty(SERVER_REPLICATION_PORT, portNumber);
+  }
+
   /**
    * Sets the port number the server will run on with the specified {@code portNumber}. Throws
    * {@link IllegalArgumentException} if the port number contains any non-numeric characters or is
@@ -222,6 +441,21 @@ public final class Config {
     PROPERTIES.setProperty(LOCAL_DB, dbFileLocation);
   }
 
+  /**
+   * Checks that the specified {@code portNumber} contains only numeric characters.
+   *
+   * @param portNumber
+   *          the port number to check.
+   * @throws IllegalArgumentException
+   *           if the port number contains any non-numeric characters or is left blank.
+   */
+  private static void checkPortNumber(final String portNumber) throws IllegalArgumentException {
+    if (isNonNumeric(portNumber)) {
+      throw new IllegalArgumentException(
+          "Port number cannot contain any non-numeric characters or be left blank.");
+    }
+  }
+
   /**
    * Initializes {@code PROPERTIES} with default property values and write these properties to the
    * suncertify.properties file, creating it in the process.
@@ -232,6 +466,13 @@ public final class Config {
     PROPERTIES.setProperty(SERVER_PORT, RMI_PORT);
     PROPERTIES.setProperty(CLIENT_PORT, RMI_PORT);
     PROPERTIES.setProperty(LOCAL_DB, EMPTY_STRING);
+    PROPERTIES.setProperty(SERVER_REPLICATION_PORT, EMPTY_STRING);
+    PROPERTIES.setProperty(SERVER_REPLICATION_ADDRESS, LOOPBACK_ADDRESS);
+    PROPERTIES.setProperty(REPLICA_PRIMARY_IP, EMPTY_STRING);
+    PROPERTIES.setProperty(REPLICA_PRIMARY_PORT, RMI_PORT);
+    PROPERTIES.setProperty(REPLICA_REPLICATION_PORT, EMPTY_STRING);
+    PROPERTIES.setProperty(REPLICA_PORT, RMI_PORT);
+    PROPERTIES.setProperty(SERVER_SINGLE_WRITER, Boolean.FALSE.toString());
     saveProperties();
   }
 
@@ -0,0 +1,446 @@
+/*
+ * SlowOperationLog.java  1.0  18-Oct-2026
+ *
+ * Candidate: Tiernan Scully
+ * Oracle Testing ID: OC1539331
+ * Registration ID 292125773
+ *
+ * 1Z0-855 - Java SE 6 Developer Certified Master Assignment - English (ENU)
+ */
+
+package suncertify.util;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.rmi.server.RemoteServer;
+import java.rmi.server.ServerNotActiveException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The class SlowOperationLog logs searches, bookings, lock waits and flushes which take longer than
+ * a threshold, with the time spent in each phase of the operation, its criteria, its result size
+ * and the client which called it. Each operation has a default threshold, which the launcher
+ * replaces with the one in the suncertify.properties file through
+ * {@link #setThresholdMillis(Operation, long)} before the database is opened, so that the database
+ * layer does not depend on the configuration.
+ *
+ * <p>A request thread only compares the duration of an operation with its threshold; an
+ * {@link Entry} is only created for a slow operation and is then handed to a background writer
+ * thread through a bounded queue, which formats and logs it. If the queue is full the entry is
+ * dropped and counted rather than making the request wait, and the number of dropped entries is
+ * logged with the next entry written.
+ *
+ * <p>For an operation called over RMI the result is marshalled after the service method has
+ * returned, so the serialization phase cannot be timed on the request thread. Instead the writer
+ * thread serializes the result of a slow remote call once more, discarding the bytes, and reports
+ * the time it took and the size of the result.
+ */
+public final class SlowOperationLog {
+
+  /** The capacity of the queue of entries waiting to be logged. */
+  private static final int QUEUE_CAPACITY = 1024;
+
+  /** The number of nanoseconds in a millisecond. */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** The global logger. */
+  private static final Logger LOGGER = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+  /** The thresholds of the operations, in nanoseconds, indexed by ordinal. */
+  private static final AtomicLongArray THRESHOLDS_NANOS =
+      new AtomicLongArray(Operation.values().length);
+
+  static {
+    for (final Operation operation : Operation.values()) {
+      setThresholdMillis(operation, operation.defaultThresholdMillis);
+    }
+  }
+
+  /**
+   * Private constructor to prevent instantiation by other classes.
+   */
+  private SlowOperationLog() {
+
+  }
+
+  /**
+   * Checks if an operation which took the specified {@code elapsedNanos} is slow.
+   *
+   * @param operation
+   *          the operation.
+   * @param elapsedNanos
+   *          the duration of the operation, in nanoseconds.
+   * @return true, if the operation took longer than its threshold.
+   */
+  public static boolean isSlow(final Operation operation, final long elapsedNanos) {
+    return elapsedNanos > THRESHOLDS_NANOS.get(operation.ordinal());
+  }
+
+  /**
+   * Sets the threshold above which the specified {@code operation} is logged as slow.
+   *
+   * @param operation
+   *          the operation.
+   * @param thresholdMillis
+   *          the threshold, in milliseconds.
+   * @throws IllegalArgumentException
+   *           if {@code operation} is null or {@code thresholdMillis} is negative.
+   */
+  public static void setThresholdMillis(final Operation operation, final long thresholdMillis)
+      throws IllegalArgumentException {
+    if (operation == null) {
+      throw new IllegalArgumentException("Operation cannot be null.");
+    }
+    if (thresholdMillis < 0) {
+      throw new IllegalArgumentException("Threshold cannot be negative: " + thresholdMillis);
+    }
+    THRESHOLDS_NANOS.set(operation.ordinal(), TimeUnit.MILLISECONDS.toNanos(thresholdMillis));
+  }
+
+  /**
+   * Creates an entry for a slow operation, to be completed and then submitted. The client is the
+   * host of the RMI client if invoked on behalf of one, and the name of the calling thread
+   * otherwise.
+   *
+   * @param operation
+   *          the operation.
+   * @param elapsedNanos
+   *          the duration of the operation, in nanoseconds.
+   * @return the entry.
+   */
+  public static Entry entry(final Operation operation, final long elapsedNanos) {
+    try {
+      return new Entry(operation, elapsedNanos, RemoteServer.getClientHost(), true);
+    } catch (final ServerNotActiveException e) {
+      return new Entry(operation, elapsedNanos, Thread.currentThread().getName(), false);
+    }
+  }
+
+  /**
+   * The operations whose duration is checked.
+   */
+  public enum Operation {
+
+    /** A search for contractors, from the call of the service to the return of the result. */
+    FIND("find", 500),
+
+    /** A booking of one or more contractors. */
+    BOOK("book", 1000),
+
+    /** A wait for another client to unlock a record. */
+    LOCK_WAIT("lockWait", 1000),
+
+    /** A save of every record to the database file. */
+    FLUSH("flush", 5000);
+
+    /** The name of the operation in log messages and in the properties file. */
+    private final String key;
+
+    /** The threshold used if none is specified in the properties file, in milliseconds. */
+    private final long defaultThresholdMillis;
+
+    /**
+     * Constructs a new operation.
+     *
+     * @param key
+     *          the name of the operation in log messages and in the properties file.
+     * @param defaultThresholdMillis
+     *          the threshold used if none is specified in the properties file, in milliseconds.
+     */
+    Operation(final String key, final long defaultThresholdMillis) {
+      this.key = key;
+      this.defaultThresholdMillis = defaultThresholdMillis;
+    }
+
+    /**
+     * Gets the name of the operation in log messages and in the properties file.
+     *
+     * @return the name of the operation.
+     */
+    public String getKey() {
+      return key;
+    }
+
+    /**
+     * Gets the threshold used if none is specified in the properties file.
+     *
+     * @return the default threshold, in milliseconds.
+     */
+    public long getDefaultThresholdMillis() {
+      return defaultThresholdMillis;
+    }
+  }
+
+  /**
+   * A slow operation, completed by the request thread and then handed to the writer thread. Any
+   * objects attached to an entry are formatted or serialized by the writer thread, so they must
+   * not be modified once the entry has been submitted.
+   */
+  public static final class Entry {
+
+    /** The operation. */
+    private final Operation operation;
+
+    /** The duration of the operation, in nanoseconds. */
+    private final long elapsedNanos;
+
+    /** The names of the phases of the operation, in order. */
+    private final List<String> phaseNames = new ArrayList<>(4);
+
+    /** The durations of the phases of the operation, in nanoseconds. */
+    private final List<Long> phaseNanos = new ArrayList<>(4);
+
+    /** True if the operation was called over RMI. */
+    private final boolean remote;
+
+    /** The client on whose behalf the operation was performed. */
+    private String client;
+
+    /** The criteria of the operation, {@code null} if none. */
+    private Object criteria;
+
+    /** The number of records or contractors in the result, -1 if unknown. */
+    private int resultSize = -1;
+
+    /** The result returned to a remote client, {@code null} if not to be serialized. */
+    private Object result;
+
+    /**
+     * Constructs a new entry.
+     *
+     * @param operation
+     *          the operation.
+     * @param elapsedNanos
+     *          the duration of the operation, in nanoseconds.
+     * @param client
+     *          the client on whose behalf the operation was performed.
+     * @param remote
+     *          true if the operation was called over RMI.
+     */
+    private Entry(final Operation operation, final long elapsedNanos, final String client,
+        final boolean remote) {
+      this.operation = operation;
+      this.elapsedNanos = elapsedNanos;
+      this.client = client;
+      this.remote = remote;
+    }
+
+    /**
+     * Sets the client on whose behalf the operation was performed, if it wasn't the caller.
+     *
+     * @param requester
+     *          the client.
+     * @return this entry.
+     */
+    public Entry client(final String requester) {
+      this.client = requester;
+      return this;
+    }
+
+    /**
+     * Sets the criteria of the operation, formatted by the writer thread. Arrays are formatted
+     * element by element.
+     *
+     * @param operationCriteria
+     *          the criteria.
+     * @return this entry.
+     */
+    public Entry criteria(final Object operationCriteria) {
+      this.criteria = operationCriteria;
+      return this;
+    }
+
+    /**
+     * Adds a phase of the operation.
+     *
+     * @param name
+     *          the name of the phase.
+     * @param nanos
+     *          the duration of the phase, in nanoseconds.
+     * @return this entry.
+     */
+    public Entry phase(final String name, final long nanos) {
+      phaseNames.add(name);
+      phaseNanos.add(nanos);
+      return this;
+    }
+
+    /**
+     * Sets the result returned to the client. If the operation was called over RMI, the writer
+     * thread serializes the result to time the serialization phase.
+     *
+     * @param operationResult
+     *          the result, {@code null} if the operation failed.
+     * @param size
+     *          the number of records or contractors in the result.
+     * @return this entry.
+     */
+    public Entry result(final Object operationResult, final int size) {
+      this.resultSize = size;
+      this.result = remote ? operationResult : null;
+      return this;
+    }
+
+    /**
+     * Sets the number of records or contractors in the result.
+     *
+     * @param size
+     *          the size of the result.
+     * @return this entry.
+     */
+    public Entry resultSize(final int size) {
+      this.resultSize = size;
+      return this;
+    }
+
+    /**
+     * Hands this entry to the writer thread without waiting. If too many entries are waiting to
+     * be written, this entry is dropped.
+     */
+    public void submit() {
+      Writer.submit(this);
+    }
+
+    /**
+     * Formats this entry as a log message, serializing the result first if there is one.
+     *
+     * @return the log message.
+     */
+    private String format() {
+      final StringBuilder message = new StringBuilder("Slow ").append(operation.key)
+          .append(" took ").append(formatMillis(elapsedNanos)).append(" [");
+      for (int index = 0; index < phaseNames.size(); index++) {
+        message.append(index == 0 ? "" : ", ").append(phaseNames.get(index)).append(' ')
+            .append(formatMillis(phaseNanos.get(index)));
+      }
+      if (result != null) {
+        final ByteCounter counter = new ByteCounter();
+        final long start = System.nanoTime();
+        try (ObjectOutputStream output = new ObjectOutputStream(counter)) {
+          output.writeObject(result);
+        } catch (final IOException e) {
+          LOGGER.log(Level.FINE, "Could not serialize the result of a slow operation.", e);
+        }
+        message.append(phaseNames.isEmpty() ? "" : ", ").append("serialization ")
+            .append(formatMillis(System.nanoTime() - start)).append(" (")
+            .append(counter.count).append(" bytes)");
+      }
+      message.append(']');
+      if (criteria != null) {
+        message.append(" criteria=").append(criteria instanceof Object[]
+            ? Arrays.toString((Object[]) criteria) : criteria);
+      }
+      if (resultSize >= 0) {
+        message.append(" results=").append(resultSize);
+      }
+      return message.append(" client=").append(client).toString();
+    }
+
+    /**
+     * Formats the specified {@code nanos} as milliseconds with one decimal place.
+     *
+     * @param nanos
+     *          a duration in nanoseconds.
+     * @return the formatted duration.
+     */
+    private static String formatMillis(final long nanos) {
+      return String.format("%.1f ms", nanos / NANOS_PER_MILLI);
+    }
+  }
+
+  /**
+   * An output stream which discards the bytes written to it, only counting them.
+   */
+  private static final class ByteCounter extends OutputStream {
+
+    /** The number of bytes written. */
+    private long count;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final int b) {
+      count++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      count += len;
+    }
+  }
+
+  /**
+   * The writer thread, started when the first slow operation is submitted.
+   */
+  private static final class Writer {
+
+    /** The entries waiting to be logged. */
+    private static final BlockingQueue<Entry> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    /** The number of entries dropped since the last entry was logged. */
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    static {
+      final Thread thread = new Thread(Writer::writeEntries, "slow-operation-log");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    /**
+     * Private constructor to prevent instantiation by other classes.
+     */
+    private Writer() {
+
+    }
+
+    /**
+     * Queues the specified {@code entry}, or drops it if the queue is full.
+     *
+     * @param entry
+     *          the entry.
+     */
+    static void submit(final Entry entry) {
+      if (!QUEUE.offer(entry)) {
+        DROPPED.incrementAndGet();
+      }
+    }
+
+    /**
+     * Takes entries from the queue and logs them until the JVM exits.
+     */
+    private static void writeEntries() {
+      while (true) {
+        final Entry entry;
+        try {
+          entry = QUEUE.take();
+        } catch (final InterruptedException e) {
+          LOGGER.log(Level.WARNING, "Slow operation log writer interrupted; ignoring.", e);
+          continue;
+        }
+        final long dropped = DROPPED.getAndSet(0);
+        if (dropped > 0) {
+          LOGGER.warning(dropped + " slow operations were not logged; the log queue was full.");
+        }
+        try {
+          LOGGER.warning(entry.format());
+        } catch (final RuntimeException e) {
+          LOGGER.log(Level.WARNING, "Could not log a slow " + entry.operation.key + ".", e);
+        }
+      }
+    }
+  }
+}
@@ -14,7 +14,6 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.charset.Charset;
 import java.util.Arrays;
-import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -86,7 +85,8 @@ public final class Utils {
 
   /**
    * Initializes the global logger to the specified {@code level}. Also configures the logger to
-   * output logs to System.err which is displayed in the console.
+   * output logs to System.err which is displayed in the console, through an
+   * {@link AsyncLogHandler} so that logging never makes the calling thread wait for the console.
    *
    * @param level
    *          the level of the messages that will be logged.
@@ -94,7 +94,7 @@ public final class Utils {
   public static void initializeLogger(final Level level) {
     LOGGER.setLevel(level);
     LOGGER.setUseParentHandlers(false);
-    final ConsoleHandler handler = new ConsoleHandler();
+    final AsyncLogHandler handler = new AsyncLogHandler();
     handler.setLevel(level);
     LOGGER.addHandler(handler);
   }
@@ -2,6 +2,7 @@
  * A collection of miscellaneous utility classes. Includes a Utils class with common
  * helper methods, a ContractorConverter class for converting string arrays to domain objects, a
  * Constants class containing common application constants and a Config class for reading/writing
- * database configurations to a properties file.
+ * database configurations to a properties file. Also includes an AsyncLogHandler which writes log
+ * records from a background thread so that logging never makes the caller wait.
  */
 package suncertify.util;
\ No newline at end of file
@@ -0,0 +1,342 @@
+package suncertify.test.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseFactory;
+import suncertify.db.DuplicateKeyException;
+
+/**
+ * A benchmark suite for the database layer: find with selective, unselective and empty criteria, read, create with its
+ * duplicate key check, update, lock/unlock uncontended and contended, loading the record cache and saving the records.
+ * Every benchmark is run for a number of warmup iterations, whose results are discarded, and then for a number of
+ * measurement iterations, each of a fixed duration; the mean time per operation is reported with its standard
+ * deviation and the throughput. Results are consumed by a sink so that the JIT cannot discard the work.
+ *
+ * <p>Each dataset is measured in its own JVM, started from the same class path, so that the JIT profile and heap of
+ * one dataset don't affect the next. The dataset "original" is a copy of the bundled database file; a number builds a
+ * synthetic file of that many records by repeating the records of the bundled file with numbered names, so the mix of
+ * locations, specialties and bookings stays the same. Each JVM works on its files in a temporary directory, deleted
+ * afterwards, and the bundled file is never modified.
+ *
+ * <p>The find benchmarks run with the query result cache disabled, so each call scans the records, except for
+ * find.cached which repeats the selective criteria with the cache enabled. The iteration counts and duration can be
+ * set with the system properties benchmark.warmup, benchmark.iterations and benchmark.millis, the heap of each forked
+ * JVM with benchmark.heap and the number of threads of the contended lock benchmark with benchmark.threads.
+ *
+ * <pre>
+ * java suncertify.test.util.DataBenchmark [database file] [sizes, e.g. original,10000,100000,1000000]
+ * </pre>
+ */
+public class DataBenchmark {
+
+	private interface Operation {
+
+		void run() throws Exception;
+	}
+
+	private static final String FORK = "--fork";
+
+	private static final String ORIGINAL = "original";
+
+	private static final String DEFAULT_SIZES = ORIGINAL + ",10000,100000,1000000";
+
+	private static final int WARMUP_ITERATIONS = Integer.getInteger("benchmark.warmup", 3);
+
+	private static final int MEASUREMENT_ITERATIONS = Integer.getInteger("benchmark.iterations", 5);
+
+	private static final long ITERATION_NANOS = Long.getLong("benchmark.millis", 1000) * 1000000;
+
+	private static final int CONTENDED_THREADS = Integer.getInteger("benchmark.threads", 4);
+
+	private static final String HEAP = System.getProperty("benchmark.heap", "3g");
+
+	private static final int HEADER_LENGTH = 70;
+
+	private static final int RECORD_LENGTH = 184;
+
+	private static final int NAME_OFFSET = 2;
+
+	private static final int NAME_LENGTH = 32;
+
+	private static final String DATASET_FILE_NAME = "benchmark.db";
+
+	private static final String CACHE_CAPACITY = "QueryResultCacheCapacity";
+
+	private static long sink;
+
+	private final DBMainExtended data;
+
+	private final String dbFile;
+
+	private final int[] recordNumbers;
+
+	private final String[] sample;
+
+	private final String commonLocation;
+
+	private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+	private final ObjectName stats;
+
+	public static void main(final String[] args) throws Exception {
+		if (args.length == 3 && args[0].equals(FORK)) {
+			final Path dbFile = Paths.get(DATASET_FILE_NAME).toAbsolutePath();
+			createDataset(Paths.get(args[1]), dbFile, args[2]);
+			new DataBenchmark(dbFile.toString()).startBenchmark(args[2]);
+			// Skips the shutdown hooks, which would save the records once for every time the cache was loaded.
+			Runtime.getRuntime().halt(0);
+		}
+		final String source = new File(args.length > 0 ? args[0] : Constants.DEFAULT_DB_LOCATION_STANDALONE)
+				.getAbsolutePath();
+		final String sizes = args.length > 1 ? args[1] : DEFAULT_SIZES;
+		for (final String size : sizes.split(",")) {
+			fork(source, size.trim());
+		}
+		System.out.println("FINISHED");
+	}
+
+	public DataBenchmark(final String dbFile) throws Exception {
+		this.dbFile = dbFile;
+		this.data = DatabaseFactory.getDatabase(dbFile);
+		this.stats = new ObjectName("suncertify.db:type=DatabaseStats");
+		this.recordNumbers = data.find(new String[0]);
+		this.sample = data.read(recordNumbers[recordNumbers.length / 2]);
+		final Map<String, Integer> locations = new HashMap<String, Integer>();
+		for (final int recNo : recordNumbers) {
+			locations.merge(data.read(recNo)[1], 1, Integer::sum);
+		}
+		this.commonLocation = locations.entrySet().stream().max(Comparator.comparing(Map.Entry::getValue)).get()
+				.getKey();
+	}
+
+	public void startBenchmark(final String dataset) throws Exception {
+		System.out.println();
+		System.out.println("Dataset " + dataset + ": " + recordNumbers.length + " records, " + WARMUP_ITERATIONS
+				+ " warmup and " + MEASUREMENT_ITERATIONS + " measurement iterations of " + ITERATION_NANOS / 1000000
+				+ " ms");
+		System.out.println(String.format("%-24s %14s %12s %14s", "Benchmark", "ns/op", "+/-", "ops/s"));
+
+		// Loading the cache must come first, before any mutation leaves log entries to replay.
+		measure("loadCache", () -> data.initialize(dbFile));
+
+		final Random random = new Random(42);
+		final int[] shuffled = recordNumbers.clone();
+		for (int i = shuffled.length - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final int swap = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = swap;
+		}
+		final int[] next = new int[1];
+		measure("read", () -> sink += data.read(shuffled[next[0]++ % shuffled.length]).length);
+
+		final int cacheCapacity = (Integer) server.getAttribute(stats, CACHE_CAPACITY);
+		server.setAttribute(stats, new Attribute(CACHE_CAPACITY, 0));
+		final String[] selective = { sample[0], sample[1] };
+		final String[] unselective = { "", commonLocation };
+		measure("find.selective", () -> sink += data.find(selective).length);
+		measure("find.unselective", () -> sink += data.find(unselective).length);
+		measure("find.empty", () -> sink += data.find(new String[0]).length);
+		server.setAttribute(stats, new Attribute(CACHE_CAPACITY, Math.max(cacheCapacity, 1)));
+		measure("find.cached", () -> sink += data.find(selective).length);
+		server.setAttribute(stats, new Attribute(CACHE_CAPACITY, cacheCapacity));
+
+		final int lockedRecord = recordNumbers[0];
+		measure("lockUnlock", () -> {
+			data.lock(lockedRecord);
+			data.unlock(lockedRecord);
+		});
+		measureContended("lockUnlock.contended", Arrays.copyOf(recordNumbers, Math.min(2, recordNumbers.length)));
+
+		final String[] values = data.read(lockedRecord);
+		measure("update", () -> data.update(lockedRecord, values));
+
+		final List<Integer> created = new ArrayList<Integer>();
+		final long[] nextName = new long[1];
+		measure("create", () -> {
+			final String[] record = sample.clone();
+			record[0] = "Benchmark " + nextName[0]++;
+			created.add(data.create(record));
+		}, () -> {
+			for (final int recNo : created) {
+				data.delete(recNo);
+			}
+			created.clear();
+		});
+		measure("create.duplicate", () -> {
+			try {
+				sink += data.create(sample);
+			} catch (final DuplicateKeyException e) {
+				sink++;
+			}
+		});
+
+		measure("saveRecords", () -> data.saveRecords());
+		System.out.println("(sink " + sink + ")");
+	}
+
+	private static void measure(final String name, final Operation operation) throws Exception {
+		measure(name, operation, () -> {
+		});
+	}
+
+	private static void measure(final String name, final Operation operation, final Operation tearDown)
+			throws Exception {
+		final double[] results = new double[MEASUREMENT_ITERATIONS];
+		for (int i = 0; i < WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS; i++) {
+			long operations = 0;
+			int batch = 1;
+			final long start = System.nanoTime();
+			long elapsed;
+			do {
+				for (int j = 0; j < batch; j++) {
+					operation.run();
+				}
+				operations += batch;
+				elapsed = System.nanoTime() - start;
+				if (elapsed < ITERATION_NANOS / 100) {
+					batch *= 2;
+				}
+			} while (elapsed < ITERATION_NANOS);
+			tearDown.run();
+			if (i >= WARMUP_ITERATIONS) {
+				results[i - WARMUP_ITERATIONS] = (double) elapsed / operations;
+			}
+		}
+		report(name, results);
+	}
+
+	private void measureContended(final String name, final int[] records) throws Exception {
+		final double[] results = new double[MEASUREMENT_ITERATIONS];
+		for (int i = 0; i < WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS; i++) {
+			final AtomicBoolean running = new AtomicBoolean(true);
+			final long[] operations = new long[CONTENDED_THREADS];
+			final Thread[] threads = new Thread[CONTENDED_THREADS];
+			for (int t = 0; t < CONTENDED_THREADS; t++) {
+				final int thread = t;
+				threads[t] = new Thread(() -> {
+					int n = thread;
+					try {
+						while (running.get()) {
+							final int recNo = records[n++ % records.length];
+							data.lock(recNo);
+							data.unlock(recNo);
+							operations[thread]++;
+						}
+					} catch (final Exception e) {
+						System.out.println(Thread.currentThread().getId() + " couldn't lock record: " + e);
+					}
+				});
+			}
+			final long start = System.nanoTime();
+			for (final Thread thread : threads) {
+				thread.start();
+			}
+			Thread.sleep(ITERATION_NANOS / 1000000);
+			running.set(false);
+			for (final Thread thread : threads) {
+				thread.join();
+			}
+			final long elapsed = System.nanoTime() - start;
+			if (i >= WARMUP_ITERATIONS) {
+				results[i - WARMUP_ITERATIONS] = (double) elapsed / Arrays.stream(operations).sum();
+			}
+		}
+		report(name + " (" + CONTENDED_THREADS + "t)", results);
+	}
+
+	private static void report(final String name, final double[] results) {
+		final double mean = Arrays.stream(results).average().orElse(0);
+		final double variance = Arrays.stream(results).map(result -> (result - mean) * (result - mean)).sum()
+				/ Math.max(1, results.length - 1);
+		System.out.println(String.format("%-24s %14.1f %12.1f %14.1f", name, mean, Math.sqrt(variance),
+				1000000000 / mean));
+	}
+
+	private static void fork(final String source, final String size) throws IOException, InterruptedException {
+		final Path directory = Files.createTempDirectory("benchmark");
+		try {
+			final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+			final Process process = new ProcessBuilder(java, "-Xmx" + HEAP,
+					"-Dbenchmark.warmup=" + WARMUP_ITERATIONS, "-Dbenchmark.iterations=" + MEASUREMENT_ITERATIONS,
+					"-Dbenchmark.millis=" + ITERATION_NANOS / 1000000, "-Dbenchmark.threads=" + CONTENDED_THREADS,
+					"-cp", System.getProperty("java.class.path"), DataBenchmark.class.getName(), FORK, source, size)
+							.directory(directory.toFile()).inheritIO().start();
+			if (process.waitFor() != 0) {
+				System.out.println("Benchmark of dataset " + size + " failed with exit code " + process.exitValue());
+			}
+		} finally {
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+
+	private static void createDataset(final Path source, final Path target, final String size) throws IOException {
+		if (size.equals(ORIGINAL)) {
+			Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+			return;
+		}
+		final int records = Integer.parseInt(size);
+		final byte[] bytes = Files.readAllBytes(source);
+		final int templates = (bytes.length - HEADER_LENGTH) / RECORD_LENGTH;
+		final ByteBuffer buffer = ByteBuffer.allocate(RECORD_LENGTH * 1024);
+		try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel.write(ByteBuffer.wrap(bytes, 0, HEADER_LENGTH));
+			for (int i = 0; i < records; i++) {
+				if (buffer.remaining() < RECORD_LENGTH) {
+					write(channel, buffer);
+				}
+				final int offset = buffer.position();
+				buffer.put(bytes, HEADER_LENGTH + (i % templates) * RECORD_LENGTH, RECORD_LENGTH);
+				if (i >= templates) {
+					final String suffix = " " + i / templates;
+					final String name = new String(bytes, HEADER_LENGTH + (i % templates) * RECORD_LENGTH + NAME_OFFSET,
+							NAME_LENGTH, StandardCharsets.US_ASCII).trim();
+					final byte[] padded = new byte[NAME_LENGTH];
+					Arrays.fill(padded, (byte) ' ');
+					final byte[] numbered = (name.substring(0, Math.min(name.length(), NAME_LENGTH - suffix.length()))
+							+ suffix).getBytes(StandardCharsets.US_ASCII);
+					System.arraycopy(numbered, 0, padded, 0, numbered.length);
+					buffer.position(offset + NAME_OFFSET);
+					buffer.put(padded);
+					buffer.position(offset + RECORD_LENGTH);
+				}
+			}
+			write(channel, buffer);
+		}
+	}
+
+	private static void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
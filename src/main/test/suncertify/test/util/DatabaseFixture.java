@@ -0,0 +1,51 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.Constants.DB_FILE_NAME;
+import static suncertify.test.util.Constants.DEFAULT_DB_LOCATION_STANDALONE;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Runs a test against a copy of the database in a temporary directory, so that the database in
+ * the working directory is never changed, and deletes the directory with everything the test
+ * left in it, such as log segments and checkpoints, once the test has finished.
+ */
+public final class DatabaseFixture {
+
+	private DatabaseFixture() {
+	}
+
+	public static void run(final String name, final DatabaseTest test) throws Exception {
+		final Path directory = Files.createTempDirectory(name);
+		try {
+			test.run(copyDatabase(directory));
+		} finally {
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+		System.exit(0);
+	}
+
+	public static Path copyDatabase(final Path directory) throws IOException {
+		final Path database = directory.resolve(DB_FILE_NAME);
+		Files.copy(Paths.get(DEFAULT_DB_LOCATION_STANDALONE), database);
+		return database;
+	}
+
+	public static void check(final boolean condition, final String message) {
+		if (!condition) {
+			throw new IllegalStateException("Failed: " + message);
+		}
+	}
+
+	public interface DatabaseTest {
+
+		void run(Path database) throws Exception;
+	}
+}
@@ -0,0 +1,135 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.Constants.DEFAULT_DB_LOCATION_STANDALONE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import suncertify.db.DBMain;
+import suncertify.db.DatabaseAccessException;
+import suncertify.db.DatabaseFactory;
+
+/**
+ * A contention benchmark for the record locks, in the spirit of {@link DataConcurrencyTest}. A
+ * number of threads repeatedly lock, read, rewrite and unlock records picked from a zipfian
+ * distribution, so a few hot records receive most of the requests, and the time each thread waits
+ * for a lock is reported as p50, p99 and max. Records are rewritten with their own values, so the
+ * database is left unchanged.
+ *
+ * <pre>
+ * java suncertify.test.util.LockContentionBenchmark [threads] [operations per thread] [exponent]
+ * </pre>
+ */
+public class LockContentionBenchmark {
+
+	private class Worker extends Thread {
+
+		private final Random random;
+
+		private final long[] waits = new long[operations];
+
+		Worker(final long seed) {
+			this.random = new Random(seed);
+		}
+
+		@Override
+		public void run() {
+			for (int i = 0; i < operations; i++) {
+				final int recNo = recordNumbers[sampleZipf(random)];
+				try {
+					final long start = System.nanoTime();
+					data.lock(recNo);
+					waits[i] = System.nanoTime() - start;
+					try {
+						data.update(recNo, data.read(recNo));
+					} finally {
+						data.unlock(recNo);
+					}
+				} catch (final Exception e) {
+					System.out.println(Thread.currentThread().getId() + " couldn't update record #" + recNo + ": " + e);
+				}
+			}
+		}
+	}
+
+	private static DBMain data;
+
+	private final int threads;
+
+	private final int operations;
+
+	private final int[] recordNumbers;
+
+	private final double[] cumulativeProbabilities;
+
+	public static void main(final String[] args) throws Exception {
+		final int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+		final int operations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		final double exponent = args.length > 2 ? Double.parseDouble(args[2]) : 1.2;
+		new LockContentionBenchmark(threads, operations, exponent).startBenchmark();
+	}
+
+	public LockContentionBenchmark(final int threads, final int operations, final double exponent)
+			throws DatabaseAccessException, Exception {
+		LockContentionBenchmark.data = DatabaseFactory.getDatabase(DEFAULT_DB_LOCATION_STANDALONE);
+		this.threads = threads;
+		this.operations = operations;
+		this.recordNumbers = data.find(new String[0]);
+		this.cumulativeProbabilities = new double[recordNumbers.length];
+		double total = 0;
+		for (int rank = 0; rank < recordNumbers.length; rank++) {
+			total += 1 / Math.pow(rank + 1, exponent);
+			cumulativeProbabilities[rank] = total;
+		}
+		for (int rank = 0; rank < recordNumbers.length; rank++) {
+			cumulativeProbabilities[rank] /= total;
+		}
+	}
+
+	public void startBenchmark() throws InterruptedException {
+		final List<Worker> workers = new ArrayList<Worker>();
+		for (int i = 0; i < threads; i++) {
+			workers.add(new Worker(i));
+		}
+		final long start = System.nanoTime();
+		for (final Worker worker : workers) {
+			worker.start();
+		}
+		for (final Worker worker : workers) {
+			worker.join();
+		}
+		final long elapsed = System.nanoTime() - start;
+
+		final long[] waits = new long[threads * operations];
+		final long[] worstPerThread = new long[threads];
+		for (int i = 0; i < threads; i++) {
+			final long[] threadWaits = workers.get(i).waits;
+			System.arraycopy(threadWaits, 0, waits, i * operations, operations);
+			worstPerThread[i] = Arrays.stream(threadWaits).max().orElse(0);
+		}
+		Arrays.sort(waits);
+		Arrays.sort(worstPerThread);
+		System.out.println(threads + " threads x " + operations + " lock/update/unlock over " + recordNumbers.length
+				+ " records in " + elapsed / 1000000 + " ms");
+		System.out.println("lock wait p50=" + micros(percentile(waits, 50)) + " p99=" + micros(percentile(waits, 99))
+				+ " max=" + micros(waits[waits.length - 1]));
+		System.out.println("worst wait per thread: best thread=" + micros(worstPerThread[0]) + " worst thread="
+				+ micros(worstPerThread[threads - 1]));
+		System.out.println("FINISHED");
+	}
+
+	private int sampleZipf(final Random random) {
+		final int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+		return Math.min(index < 0 ? -index - 1 : index, recordNumbers.length - 1);
+	}
+
+	private static long percentile(final long[] sorted, final int percentile) {
+		return sorted[Math.max(0, (int) Math.ceil(sorted.length * percentile / 100.0) - 1)];
+	}
+
+	private static String micros(final long nanos) {
+		return nanos / 1000 + "us";
+	}
+}
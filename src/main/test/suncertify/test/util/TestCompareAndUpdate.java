@@ -0,0 +1,137 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.DatabaseFixture.check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseFactory;
+import suncertify.db.RecordNotFoundException;
+
+/**
+ * Checks both forms of compareAndUpdate: a matching record is updated, a record whose values or
+ * version no longer match is left unchanged, a locked record is never updated even if it matches,
+ * a missing record is reported, and of several clients racing to book the same record exactly one
+ * succeeds.
+ */
+public class TestCompareAndUpdate {
+
+	private static final int RACERS = 8;
+
+	private static DBMainExtended data;
+
+	public static void main(final String[] args) throws Exception {
+		DatabaseFixture.run("cas", database -> {
+			data = DatabaseFactory.getDatabase(database.toString());
+			testValues();
+			testVersion();
+			testMissingRecord();
+			testRace();
+			System.out.println("All compareAndUpdate tests passed.");
+		});
+	}
+
+	private static void testValues() throws Exception {
+		final String[] current = data.read(0);
+		final String[] expected = new String[current.length];
+		expected[0] = current[0];
+		expected[5] = current[5];
+		check(data.compareAndUpdate(0, expected, withCustomer(current, "12121212")),
+				"matching expected values, with null wildcards, should update the record");
+		check(data.read(0)[5].equals("12121212"), "the record should hold the new values");
+
+		final long version = data.getVersion();
+		check(!data.compareAndUpdate(0, expected, withCustomer(current, "34343434")),
+				"stale expected values should not match");
+		check(data.read(0)[5].equals("12121212") && data.getVersion() == version,
+				"a mismatch should leave the record and the version unchanged");
+
+		final String[] booked = data.read(0);
+		data.lock(0);
+		try {
+			check(!data.compareAndUpdate(0, booked, withCustomer(booked, "56565656")),
+					"a locked record should never match");
+			check(data.read(0)[5].equals("12121212"), "a locked record should be left unchanged");
+		} finally {
+			data.unlock(0);
+		}
+		check(data.compareAndUpdate(0, booked, withCustomer(booked, "56565656")),
+				"the record should match again once unlocked");
+		System.out.println("compare values: passed");
+	}
+
+	private static void testVersion() throws Exception {
+		final long version = data.getRecordVersion(1);
+		final String[] current = data.read(1);
+		check(data.compareAndUpdate(1, version, withCustomer(current, "78787878")),
+				"the current version should update the record");
+		check(!data.compareAndUpdate(1, version, withCustomer(current, "90909090")),
+				"a stale version should not match");
+		check(data.read(1)[5].equals("78787878"), "a version mismatch should leave the record unchanged");
+		final long updated = data.getRecordVersion(1);
+		data.lock(1);
+		try {
+			check(!data.compareAndUpdate(1, updated, withCustomer(current, "90909090")),
+					"a locked record should never match its version");
+		} finally {
+			data.unlock(1);
+		}
+		check(data.getRecordVersion(1) == updated && data.read(1)[5].equals("78787878"),
+				"a locked record should be left unchanged");
+		System.out.println("compare version: passed");
+	}
+
+	private static void testMissingRecord() throws Exception {
+		try {
+			data.compareAndUpdate(Integer.MAX_VALUE, new String[6], data.read(0));
+			check(false, "a missing record should be reported");
+		} catch (final RecordNotFoundException e) {
+		}
+		System.out.println("missing record: passed");
+	}
+
+	private static void testRace() throws Exception {
+		final String[] free = withCustomer(data.read(2), "");
+		data.lock(2);
+		data.update(2, free);
+		data.unlock(2);
+		final String[] expected = new String[free.length];
+		expected[5] = "";
+		final CountDownLatch start = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(RACERS);
+		try {
+			final List<Future<Boolean>> racers = new ArrayList<Future<Boolean>>();
+			for (int racer = 0; racer < RACERS; racer++) {
+				final String customer = String.format("%08d", racer);
+				racers.add(executor.submit(() -> {
+					start.await();
+					return data.compareAndUpdate(2, expected, withCustomer(free, customer));
+				}));
+			}
+			start.countDown();
+			int winners = 0;
+			for (final Future<Boolean> racer : racers) {
+				if (racer.get(10, TimeUnit.SECONDS)) {
+					winners++;
+				}
+			}
+			check(winners == 1, "exactly one racer should book the record, not " + winners);
+		} finally {
+			executor.shutdown();
+		}
+		System.out.println("race: passed, booked by " + Arrays.toString(data.read(2)));
+	}
+
+	private static String[] withCustomer(final String[] record, final String customer) {
+		final String[] copy = record.clone();
+		copy[5] = customer;
+		return copy;
+	}
+}
@@ -0,0 +1,196 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.DatabaseFixture.check;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseFactory;
+import suncertify.db.Query;
+import suncertify.db.QueryCriteria;
+import suncertify.db.RecordNotFoundException;
+import suncertify.db.SortOrder;
+
+/**
+ * Checks that the secondary indexes and the query planner return exactly the records a full scan
+ * finds, before and after records are deleted, booked, changed and created again in deleted
+ * slots. Every indexed search and a set of planned queries, each with its plan printed, are
+ * compared with a scan which reads every record and applies the criteria itself.
+ */
+public class TestIndexes {
+
+	private static final String CUSTOMER = "13131313";
+
+	private static final String[] CREATED = { "Index Inn", "Smallville", "Roofing, Plumbing", "5", "$45.00", "" };
+
+	private static DBMainExtended data;
+
+	private static final List<Integer> recordNumbers = new ArrayList<Integer>();
+
+	public static void main(final String[] args) throws Exception {
+		DatabaseFixture.run("indexes", database -> {
+			data = DatabaseFactory.getDatabase(database.toString());
+			for (final int recNo : data.find(new String[] { "" })) {
+				recordNumbers.add(recNo);
+			}
+			compareAll("loaded");
+
+			final int[] roofers = data.findBySpecialties(new String[] { "Roofing" }, true);
+			check(roofers.length >= 4, "need at least four roofers");
+			for (int index = 0; index < 3; index++) {
+				delete(roofers[index]);
+			}
+			book(roofers[3]);
+			final int changed = recordNumbers.stream().filter(recNo -> exists(recNo)).filter(recNo -> recNo != roofers[3])
+					.findFirst().get();
+			final String[] values = data.read(changed);
+			values[2] = "Roofing, Painting";
+			values[3] = "4";
+			values[4] = "$10.00";
+			update(changed, values);
+			compareAll("deleted, booked and changed");
+
+			final int created = data.create(CREATED.clone());
+			check(created == roofers[0] || created == roofers[1] || created == roofers[2],
+					"create should reuse a deleted slot");
+			delete(roofers[3]);
+			compareAll("created in a deleted slot and deleted a booked record");
+			System.out.println("All index tests passed.");
+		});
+	}
+
+	private static void compareAll(final String state) throws Exception {
+		compare("findAvailable", search(() -> data.findAvailable(new String[] { "", "Small" })),
+				record -> !isBooked(record) && startsWith(record[1], "Small"));
+		compare("findBySpecialties all", search(() -> data.findBySpecialties(new String[] { "Roofing", "Painting" }, true)),
+				record -> offers(record, "Roofing") && offers(record, "Painting"));
+		compare("findBySpecialties any", search(() -> data.findBySpecialties(new String[] { "Roofing", "Painting" }, false)),
+				record -> offers(record, "Roofing") || offers(record, "Painting"));
+		compare("findByRateAndSize",
+				sorted(search(() -> data.findByRateAndSize(0, 6000, 3, 10, SortOrder.RATE_ASCENDING, true))),
+				record -> !isBooked(record) && cents(record) <= 6000 && size(record) >= 3 && size(record) <= 10);
+		compare("findByOwner", search(() -> data.findByOwner(CUSTOMER)), record -> record[5].trim().equals(CUSTOMER));
+		compare("execute", search(() -> data.execute(Query.and(Query.prefix("location", "S"), Query.range("rate", 0, 8000)))),
+				record -> startsWith(record[1], "S") && cents(record) <= 8000);
+
+		final QueryCriteria available = new QueryCriteria();
+		available.setLocationPrefix("Small");
+		available.setAvailableOnly(true);
+		compareQuery(available, record -> !isBooked(record) && startsWith(record[1], "Small"));
+
+		final QueryCriteria cheapRoofers = new QueryCriteria();
+		cheapRoofers.setSpecialties("Roofing");
+		cheapRoofers.setRateRange(0, 8000);
+		compareQuery(cheapRoofers, record -> offers(record, "Roofing") && cents(record) <= 8000);
+
+		final QueryCriteria mixed = new QueryCriteria();
+		mixed.setNamePrefix("");
+		mixed.setSizeRange(3, 7);
+		mixed.setSpecialties("Painting", "Roofing");
+		compareQuery(mixed, record -> size(record) >= 3 && size(record) <= 7 && offers(record, "Painting")
+				&& offers(record, "Roofing"));
+
+		compareQuery(new QueryCriteria(), record -> true);
+		System.out.println(state + ": passed");
+	}
+
+	private static void compareQuery(final QueryCriteria criteria, final Predicate<String[]> predicate) throws Exception {
+		System.out.println(data.explain(criteria));
+		compare("query " + criteria, search(() -> data.query(criteria)), predicate);
+	}
+
+	private static void compare(final String name, final int[] found, final Predicate<String[]> predicate)
+			throws Exception {
+		final List<Integer> expected = new ArrayList<Integer>();
+		for (final int recNo : recordNumbers) {
+			if (exists(recNo) && predicate.test(data.read(recNo))) {
+				expected.add(recNo);
+			}
+		}
+		final int[] scanned = expected.stream().mapToInt(Integer::intValue).toArray();
+		check(Arrays.equals(found, scanned),
+				name + " found " + Arrays.toString(found) + " but a scan found " + Arrays.toString(scanned));
+	}
+
+	private static int[] search(final Search search) throws Exception {
+		try {
+			return search.run();
+		} catch (final RecordNotFoundException e) {
+			return new int[0];
+		}
+	}
+
+	private static int[] sorted(final int[] recordNumbers) {
+		final int[] copy = recordNumbers.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+	private static boolean exists(final int recNo) {
+		try {
+			data.read(recNo);
+			return true;
+		} catch (final RecordNotFoundException e) {
+			return false;
+		}
+	}
+
+	private static boolean startsWith(final String value, final String prefix) {
+		return value.toUpperCase(Locale.ENGLISH).startsWith(prefix.toUpperCase(Locale.ENGLISH));
+	}
+
+	private static boolean offers(final String[] record, final String specialty) {
+		for (final String offered : record[2].split(",")) {
+			if (offered.trim().equalsIgnoreCase(specialty)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isBooked(final String[] record) {
+		return record[5].trim().matches("\\d{8}");
+	}
+
+	private static long cents(final String[] record) {
+		return new BigDecimal(record[4].trim().replace("$", "").replace(",", "")).movePointRight(2).longValueExact();
+	}
+
+	private static int size(final String[] record) {
+		return Integer.parseInt(record[3].trim());
+	}
+
+	private static void delete(final int recNo) throws Exception {
+		data.lock(recNo);
+		try {
+			data.delete(recNo);
+		} finally {
+			data.unlock(recNo);
+		}
+	}
+
+	private static void book(final int recNo) throws Exception {
+		final String[] values = data.read(recNo);
+		values[5] = CUSTOMER;
+		update(recNo, values);
+	}
+
+	private static void update(final int recNo, final String[] values) throws Exception {
+		data.lock(recNo);
+		try {
+			data.update(recNo, values);
+		} finally {
+			data.unlock(recNo);
+		}
+	}
+
+	private interface Search {
+
+		int[] run() throws Exception;
+	}
+}
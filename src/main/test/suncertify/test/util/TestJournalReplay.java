@@ -0,0 +1,150 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.Constants.DEFAULT_DB_LOCATION_STANDALONE;
+import static suncertify.test.util.DatabaseFixture.check;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import suncertify.db.DBMainExtended;
+import suncertify.db.Data;
+import suncertify.db.DatabaseAccessException;
+import suncertify.db.DatabaseFactory;
+import suncertify.db.RecordNotFoundException;
+
+/**
+ * Checks that the changes logged before a crash are replayed when the database is opened again. A
+ * copy of the database is changed in a forked JVM, which then halts without saving the records, as
+ * a crash would; the copy is then opened in this JVM and the changes are checked, including an
+ * update with fewer fields than a record, which is completed with empty fields, and an update with
+ * a null field, which must be rejected before it changes anything. A second copy is changed until
+ * checkpoints have made its first log segments redundant and they have been deleted; with its
+ * checkpoints lost as well, opening it must fail rather than replay the remaining log segments
+ * on top of a database file they don't follow on from.
+ */
+public class TestJournalReplay {
+
+	private static final String CRASH = "crash";
+
+	private static final String CHECKPOINT = "checkpoint";
+
+	private static final String OPEN = "open";
+
+	private static final String CUSTOMER = "13572468";
+
+	private static final String[] CREATED = { "Replay Inn", "Crashville", "Roofing", "4", "$80.00", "" };
+
+	public static void main(final String[] args) throws Exception {
+		if (args.length > 0 && args[0].equals(CRASH)) {
+			crash(args[1]);
+			return;
+		}
+		if (args.length > 0 && args[0].equals(CHECKPOINT)) {
+			checkpoint(args[1]);
+			return;
+		}
+		if (args.length > 0 && args[0].equals(OPEN)) {
+			open(args[1]);
+			return;
+		}
+		DatabaseFixture.run("replay", database -> {
+			check(fork(CRASH, database) == 0, "crashing JVM should halt normally");
+			check(Files.size(database) == Files.size(Paths.get(DEFAULT_DB_LOCATION_STANDALONE)),
+					"records should not have been saved before the crash");
+			verify(DatabaseFactory.getDatabase(database.toString()));
+
+			final Path pruned = DatabaseFixture.copyDatabase(Files.createDirectory(database.resolveSibling("pruned")));
+			check(fork(CHECKPOINT, pruned) == 0, "checkpointing JVM should halt normally");
+			try (Stream<Path> files = Files.list(pruned.getParent())) {
+				files.filter(path -> path.getFileName().toString().contains(".ckpt.")).forEach(path -> path.toFile().delete());
+			}
+			check(fork(OPEN, pruned) == 0, "opening a database whose first log segments are missing should fail");
+			System.out.println("Journal replay test passed.");
+		});
+	}
+
+	private static int fork(final String mode, final Path database) throws Exception {
+		final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		final Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				TestJournalReplay.class.getName(), mode, database.toString()).directory(database.getParent().toFile())
+						.inheritIO().start();
+		return process.waitFor();
+	}
+
+	private static void crash(final String database) throws Exception {
+		final DBMainExtended data = DatabaseFactory.getDatabase(database);
+		final String[] record0 = data.read(0);
+		record0[5] = CUSTOMER;
+		data.lock(0);
+		data.update(0, record0);
+		data.unlock(0);
+
+		data.lock(1);
+		data.update(1, Arrays.copyOf(data.read(1), 5));
+		data.unlock(1);
+		check(data.read(1).length == 6 && data.read(1)[5].isEmpty(), "short update should be completed");
+
+		final String[] before3 = data.read(3);
+		final String[] invalid = before3.clone();
+		invalid[2] = null;
+		data.lock(3);
+		try {
+			data.update(3, invalid);
+			check(false, "update with a null field should be rejected");
+		} catch (final IllegalArgumentException e) {
+			check(Arrays.equals(data.read(3), before3), "rejected update should not change the record");
+		} finally {
+			data.unlock(3);
+		}
+
+		data.create(CREATED.clone());
+		data.lock(2);
+		data.delete(2);
+		data.unlock(2);
+		Runtime.getRuntime().halt(0);
+	}
+
+	private static void checkpoint(final String database) throws Exception {
+		final DBMainExtended data = DatabaseFactory.getDatabase(database);
+		Data.getInstance().setCheckpointInterval(2);
+		final Path firstSegment = Paths.get(database + ".log.1");
+		for (int update = 0; Files.exists(firstSegment); update++) {
+			check(update < 200, "checkpoints should make the first log segment redundant");
+			final String[] record0 = data.read(0);
+			record0[5] = String.format("%08d", update);
+			data.lock(0);
+			data.update(0, record0);
+			data.unlock(0);
+			Thread.sleep(20);
+		}
+		Runtime.getRuntime().halt(0);
+	}
+
+	private static void open(final String database) {
+		try {
+			DatabaseFactory.getDatabase(database);
+			System.out.println("Opened the database although its first log segments are missing.");
+			Runtime.getRuntime().halt(1);
+		} catch (final DatabaseAccessException e) {
+			System.out.println("Refused to open: " + e.getCause().getMessage());
+			Runtime.getRuntime().halt(0);
+		}
+	}
+
+	private static void verify(final DBMainExtended data) throws Exception {
+		check(data.read(0)[5].equals(CUSTOMER), "update of record 0 should be replayed");
+		check(data.read(1).length == 6 && data.read(1)[5].isEmpty(), "short update of record 1 should be replayed");
+		try {
+			data.read(2);
+			check(false, "delete of record 2 should be replayed");
+		} catch (final RecordNotFoundException e) {
+		}
+		final int[] created = data.find(new String[] { CREATED[0], CREATED[1] });
+		check(created.length == 1 && Arrays.equals(data.read(created[0]), CREATED), "create should be replayed");
+		System.out.println("Replayed: " + Arrays.toString(data.read(0)) + ", " + Arrays.toString(data.read(1)) + ", "
+				+ Arrays.toString(data.read(created[0])));
+	}
+}
@@ -0,0 +1,123 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.DatabaseFixture.check;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseFactory;
+
+/**
+ * Checks that the query result cache of {@code find} is invalidated by updates and deletes which
+ * change the result of a cached query, and only by those: a repeated search is answered from the
+ * cache, an update of a field the search doesn't read leaves the result cached, and an update or
+ * delete moving a record into or out of the result invalidates it. Each result is also compared
+ * with a search made with the cache disabled.
+ */
+public class TestQueryResultCache {
+
+	private static final String CACHE_CAPACITY = "QueryResultCacheCapacity";
+
+	private static final String[] SMALLVILLE = { "", "Smallville" };
+
+	private static DBMainExtended data;
+
+	private static MBeanServer server;
+
+	private static ObjectName stats;
+
+	public static void main(final String[] args) throws Exception {
+		DatabaseFixture.run("cache", database -> {
+			data = DatabaseFactory.getDatabase(database.toString());
+			server = ManagementFactory.getPlatformMBeanServer();
+			stats = new ObjectName("suncertify.db:type=DatabaseStats");
+
+			final int[] first = data.find(SMALLVILLE);
+			check(first.length >= 2, "need at least two records in Smallville");
+			long hits = hits();
+			check(Arrays.equals(data.find(SMALLVILLE), first) && hits() == hits + 1,
+					"repeated search should be answered from the cache");
+			System.out.println("repeated search: passed");
+
+			final String[] booked = data.read(first[0]);
+			booked[5] = "24681357";
+			update(first[0], booked);
+			hits = hits();
+			check(Arrays.equals(data.find(SMALLVILLE), first) && hits() == hits + 1,
+					"update of a field the search doesn't read should not invalidate the result");
+			System.out.println("update of unread field: passed");
+
+			final String[] moved = data.read(first[0]);
+			moved[1] = "Elsewhere";
+			update(first[0], moved);
+			long misses = misses();
+			int[] result = data.find(SMALLVILLE);
+			check(misses() == misses + 1, "update moving a record out of the result should invalidate it");
+			check(!contains(result, first[0]), "moved record should no longer match");
+			check(Arrays.equals(result, scan(SMALLVILLE)), "result should match an uncached search");
+			System.out.println("update out of result: passed");
+
+			final int outsider = IntStream.of(data.find(new String[] { "" })).filter(recNo -> !contains(first, recNo))
+					.findFirst().getAsInt();
+			data.find(SMALLVILLE);
+			final String[] arrived = data.read(outsider);
+			arrived[1] = "Smallville";
+			update(outsider, arrived);
+			misses = misses();
+			result = data.find(SMALLVILLE);
+			check(misses() == misses + 1, "update moving a record into the result should invalidate it");
+			check(contains(result, outsider), "moved record should now match");
+			check(Arrays.equals(result, scan(SMALLVILLE)), "result should match an uncached search");
+			System.out.println("update into result: passed");
+
+			data.find(SMALLVILLE);
+			data.lock(first[1]);
+			data.delete(first[1]);
+			data.unlock(first[1]);
+			misses = misses();
+			result = data.find(SMALLVILLE);
+			check(misses() == misses + 1, "delete of a matching record should invalidate the result");
+			check(!contains(result, first[1]), "deleted record should no longer match");
+			check(Arrays.equals(result, scan(SMALLVILLE)), "result should match an uncached search");
+			System.out.println("delete: passed");
+			System.out.println("All query result cache tests passed.");
+		});
+	}
+
+	private static void update(final int recNo, final String[] values) throws Exception {
+		data.lock(recNo);
+		try {
+			data.update(recNo, values);
+		} finally {
+			data.unlock(recNo);
+		}
+	}
+
+	private static int[] scan(final String[] criteria) throws Exception {
+		final int capacity = (Integer) server.getAttribute(stats, CACHE_CAPACITY);
+		server.setAttribute(stats, new Attribute(CACHE_CAPACITY, 0));
+		try {
+			return data.find(criteria);
+		} finally {
+			server.setAttribute(stats, new Attribute(CACHE_CAPACITY, capacity));
+		}
+	}
+
+	private static long hits() throws Exception {
+		return (Long) server.getAttribute(stats, "QueryResultCacheHits");
+	}
+
+	private static long misses() throws Exception {
+		return (Long) server.getAttribute(stats, "QueryResultCacheMisses");
+	}
+
+	private static boolean contains(final int[] recordNumbers, final int recNo) {
+		return IntStream.of(recordNumbers).anyMatch(candidate -> candidate == recNo);
+	}
+}
@@ -0,0 +1,102 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.Constants.DEFAULT_DB_LOCATION_SERVER;
+import static suncertify.test.util.Constants.DEFAULT_PORT_NUMBER;
+import static suncertify.test.util.Constants.DEFAULT_SERVER_IPADDRESS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import suncertify.business.ContractorService;
+import suncertify.business.rmi.RmiClient;
+import suncertify.business.rmi.RmiReplicaServer;
+import suncertify.business.rmi.RmiServer;
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseFactory;
+import suncertify.domain.Contractor;
+import suncertify.domain.ContractorPk;
+
+/**
+ * Exercises log-shipping replication with several local JVMs. Start each role in its own JVM, in
+ * this order:
+ *
+ * <pre>
+ * java suncertify.test.util.TestReplication primary
+ * java suncertify.test.util.TestReplication replica 1101
+ * java suncertify.test.util.TestReplication replica 1102
+ * java suncertify.test.util.TestReplication client 1101
+ * java suncertify.test.util.TestReplication bookAll 1102
+ * </pre>
+ *
+ * The client books a contractor through a replica, which forwards the booking to the primary, and
+ * then polls the replica until the booking has been shipped back to it. The bookAll client does the
+ * same with two contractors booked together through {@link ContractorService#bookAll}.
+ */
+public class TestReplication {
+
+	private static final int REPLICATION_PORT = 1100;
+
+	public static void main(final String[] args) throws Exception {
+		final String role = args.length > 0 ? args[0] : "primary";
+		if (role.equals("primary")) {
+			final DBMainExtended data = DatabaseFactory.getDatabase(DEFAULT_DB_LOCATION_SERVER);
+			new RmiServer(data).startServer(DEFAULT_PORT_NUMBER);
+			DatabaseFactory.startReplicationPublisher(DEFAULT_SERVER_IPADDRESS, REPLICATION_PORT);
+			System.out.println("Primary running on " + DEFAULT_PORT_NUMBER + ", replication on " + REPLICATION_PORT);
+			Thread.sleep(Long.MAX_VALUE);
+		} else if (role.equals("replica")) {
+			final int port = Integer.parseInt(args[1]);
+			final DBMainExtended replica = DatabaseFactory.getReplica(DEFAULT_SERVER_IPADDRESS, REPLICATION_PORT);
+			new RmiReplicaServer(replica, DEFAULT_SERVER_IPADDRESS, DEFAULT_PORT_NUMBER).startServer(port);
+			System.out.println("Replica running on " + port);
+			Thread.sleep(Long.MAX_VALUE);
+		} else if (role.equals("bookAll")) {
+			final int port = Integer.parseInt(args[1]);
+			final ContractorService service = new RmiClient(DEFAULT_SERVER_IPADDRESS, port);
+			final List<Contractor> available = new ArrayList<Contractor>();
+			for (final Contractor contractor : service.find(new ContractorPk()).values()) {
+				if (!contractor.isBooked() && available.size() < 2) {
+					contractor.setCustomerId("87654321");
+					available.add(contractor);
+				}
+			}
+			if (available.size() < 2) {
+				System.out.println("Not enough available contractors to book.");
+				return;
+			}
+			service.bookAll(available);
+			System.out.println("Booked " + available.size() + " contractors together through replica " + port);
+			final long start = System.nanoTime();
+			for (final Contractor contractor : available) {
+				while (!service.find(contractor.getPrimaryKey()).values().iterator().next().isBooked()) {
+					Thread.sleep(1);
+				}
+			}
+			System.out.println("Bookings visible on replica after " + (System.nanoTime() - start) / 1000 + " us");
+		} else {
+			final int port = Integer.parseInt(args[1]);
+			final ContractorService service = new RmiClient(DEFAULT_SERVER_IPADDRESS, port);
+			final Map<Integer, Contractor> all = service.find(new ContractorPk());
+			Contractor available = null;
+			for (final Contractor contractor : all.values()) {
+				if (!contractor.isBooked()) {
+					available = contractor;
+					break;
+				}
+			}
+			if (available == null) {
+				System.out.println("No available contractor to book.");
+				return;
+			}
+			available.setCustomerId("12345678");
+			service.book(available);
+			System.out.println("Booked " + available.getPrimaryKey() + " through replica " + port);
+			final long start = System.nanoTime();
+			while (!service.find(available.getPrimaryKey()).values().iterator().next().isBooked()) {
+				Thread.sleep(1);
+			}
+			System.out.println("Booking visible on replica after " + (System.nanoTime() - start) / 1000 + " us");
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.DatabaseFixture.check;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.management.ObjectName;
+
+import suncertify.db.ChangeEvent;
+import suncertify.db.ChangeSubscription;
+import suncertify.db.DBMainExtended;
+import suncertify.db.Data;
+import suncertify.db.DatabaseFactory;
+
+/**
+ * Checks the ordering guarantees of single-writer mode. Several clients each update their own
+ * record with an increasing counter while a reader reads the records without locking: every
+ * change must be applied exactly once in a single order, with consecutive versions, each client's
+ * changes in the order it made them, and a reader must never see a record go back to an older
+ * value. Of several clients racing to book the same record through compareAndUpdate, exactly one
+ * must win. An update whose mutation listener throws an error must fail with that error alone,
+ * leaving the writer to apply the next update.
+ */
+public class TestSingleWriter {
+
+	private static final int WRITERS = 4;
+
+	private static final int UPDATES = 500;
+
+	private static DBMainExtended data;
+
+	public static void main(final String[] args) throws Exception {
+		DatabaseFixture.run("writer", database -> {
+			data = DatabaseFactory.getDatabase(database.toString(), true);
+			check((Boolean) ManagementFactory.getPlatformMBeanServer()
+					.getAttribute(new ObjectName("suncertify.db:type=DatabaseStats"), "SingleWriter"),
+					"the database should be in single-writer mode");
+			testOrdering();
+			testRace();
+			testFailingOperation();
+			System.out.println("All single-writer tests passed.");
+		});
+	}
+
+	private static void testOrdering() throws Exception {
+		final BlockingQueue<ChangeEvent> events = new LinkedBlockingQueue<ChangeEvent>();
+		final ChangeSubscription subscription = data.subscribe(events::add, WRITERS * UPDATES * 2);
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		final ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+		try {
+			final Future<Integer> reader = executor.submit(() -> {
+				final int[] lastSeen = new int[WRITERS];
+				int reads = 0;
+				while (writing.get()) {
+					for (int recNo = 0; recNo < WRITERS; recNo++) {
+						final int counter = counter(data.read(recNo));
+						check(counter >= lastSeen[recNo], "record " + recNo + " went back from " + lastSeen[recNo]
+								+ " to " + counter);
+						lastSeen[recNo] = counter;
+						reads++;
+					}
+				}
+				return reads;
+			});
+			final List<Future<?>> writers = new ArrayList<Future<?>>();
+			for (int writer = 0; writer < WRITERS; writer++) {
+				final int recNo = writer;
+				writers.add(executor.submit(() -> {
+					for (int update = 1; update <= UPDATES; update++) {
+						final String[] values = data.read(recNo);
+						values[5] = String.format("%08d", update);
+						data.lock(recNo);
+						try {
+							data.update(recNo, values);
+						} finally {
+							data.unlock(recNo);
+						}
+					}
+					return null;
+				}));
+			}
+			for (final Future<?> writer : writers) {
+				writer.get(60, TimeUnit.SECONDS);
+			}
+			writing.set(false);
+			System.out.println("reader made " + reader.get(10, TimeUnit.SECONDS) + " reads without going back");
+		} finally {
+			executor.shutdown();
+		}
+
+		final int[] lastApplied = new int[WRITERS];
+		long version = subscription.getStartVersion();
+		for (int change = 0; change < WRITERS * UPDATES; change++) {
+			final ChangeEvent event = events.poll(10, TimeUnit.SECONDS);
+			check(event != null, "every change should be delivered, only " + change + " were");
+			check(event.getVersion() == version + 1, "versions should be consecutive, " + event.getVersion()
+					+ " followed " + version);
+			version = event.getVersion();
+			final int recNo = event.getRecordNumber();
+			final int counter = counter(event.getNewValues());
+			check(counter == lastApplied[recNo] + 1, "client " + recNo + " applied " + counter + " after "
+					+ lastApplied[recNo]);
+			lastApplied[recNo] = counter;
+		}
+		subscription.cancel();
+		check(version == data.getVersion(), "no other change should have been applied");
+		for (int recNo = 0; recNo < WRITERS; recNo++) {
+			check(counter(data.read(recNo)) == UPDATES, "record " + recNo + " should hold the last update");
+		}
+		System.out.println("ordering: passed");
+	}
+
+	private static void testRace() throws Exception {
+		final String[] free = data.read(WRITERS);
+		free[5] = "";
+		data.lock(WRITERS);
+		data.update(WRITERS, free);
+		data.unlock(WRITERS);
+		final String[] expected = new String[free.length];
+		expected[5] = "";
+		final CountDownLatch start = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+		try {
+			final List<Future<Boolean>> racers = new ArrayList<Future<Boolean>>();
+			for (int racer = 1; racer <= WRITERS; racer++) {
+				final String[] booked = free.clone();
+				booked[5] = String.format("%08d", racer);
+				racers.add(executor.submit(() -> {
+					start.await();
+					return data.compareAndUpdate(WRITERS, expected, booked);
+				}));
+			}
+			start.countDown();
+			int winners = 0;
+			for (final Future<Boolean> racer : racers) {
+				if (racer.get(10, TimeUnit.SECONDS)) {
+					winners++;
+				}
+			}
+			check(winners == 1, "exactly one racer should book the record, not " + winners);
+		} finally {
+			executor.shutdown();
+		}
+		System.out.println("race: passed");
+	}
+
+	private static void testFailingOperation() throws Exception {
+		final AtomicBoolean failed = new AtomicBoolean();
+		final Class<?> listenerType = Class.forName("suncertify.db.MutationListener");
+		final Object listener = Proxy.newProxyInstance(listenerType.getClassLoader(), new Class<?>[] { listenerType },
+				(proxy, method, arguments) -> {
+					if (method.getName().equals("mutationApplied") && failed.compareAndSet(false, true)) {
+						throw new AssertionError("listener failed");
+					}
+					return null;
+				});
+		final Method add = Data.class.getDeclaredMethod("addMutationListener", listenerType);
+		add.setAccessible(true);
+		add.invoke(data, listener);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Future<?> failing = executor.submit(() -> {
+				update(WRITERS + 1, "11110000");
+				return null;
+			});
+			try {
+				failing.get(10, TimeUnit.SECONDS);
+				check(false, "the error thrown by the listener should fail the update");
+			} catch (final ExecutionException e) {
+				check(e.getCause() instanceof AssertionError, "the update should fail with the listener's error, not "
+						+ e.getCause());
+			}
+			final Future<?> next = executor.submit(() -> {
+				update(WRITERS + 1, "22220000");
+				return null;
+			});
+			try {
+				next.get(10, TimeUnit.SECONDS);
+			} catch (final TimeoutException e) {
+				check(false, "the writer should apply the next update after an error");
+			}
+			check(data.read(WRITERS + 1)[5].equals("22220000"), "the next update should be applied");
+		} finally {
+			executor.shutdownNow();
+		}
+		System.out.println("failing operation: passed");
+	}
+
+	private static void update(final int recNo, final String customer) throws Exception {
+		final String[] values = data.read(recNo);
+		values[5] = customer;
+		data.lock(recNo);
+		try {
+			data.update(recNo, values);
+		} finally {
+			data.unlock(recNo);
+		}
+	}
+
+	private static int counter(final String[] values) {
+		final String customer = values[5].trim();
+		return customer.matches("\\d{8}") ? Integer.parseInt(customer) : 0;
+	}
+}
@@ -0,0 +1,131 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.DatabaseFixture.check;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseFactory;
+import suncertify.db.Transaction;
+
+/**
+ * Exercises {@link DBMainExtended#commit(Transaction, long)}: a commit applying every write, a
+ * rollback when an expectation doesn't hold, a commit queued behind a held lock, a commit timing
+ * out, and concurrent commits over the same records in different orders.
+ */
+public class TestTransaction {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	private static DBMainExtended data;
+
+	public static void main(final String[] args) throws Exception {
+		DatabaseFixture.run("transaction", database -> {
+			data = DatabaseFactory.getDatabase(database.toString());
+			testCommit();
+			testRollback();
+			testCommitWaitsForLock();
+			testCommitTimesOut();
+			testConcurrentCommits();
+			System.out.println("All transaction tests passed.");
+		});
+	}
+
+	private static void testCommit() throws Exception {
+		final String[] record0 = withCustomer(data.read(0), "11111111");
+		final String[] record1 = withCustomer(data.read(1), "11111111");
+		final Transaction transaction = new Transaction().expect(0, data.read(0)).update(0, record0)
+				.expect(1, data.read(1)).update(1, record1);
+		check(data.commit(transaction, TIMEOUT_MILLIS), "commit should apply");
+		check(Arrays.equals(data.read(0), record0) && Arrays.equals(data.read(1), record1),
+				"both writes should be applied");
+		check(!data.isLocked(0) && !data.isLocked(1), "locks should be released after commit");
+		System.out.println("commit: passed");
+	}
+
+	private static void testRollback() throws Exception {
+		final String[] before0 = data.read(0);
+		final String[] before1 = data.read(1);
+		final String[] stale = withCustomer(data.read(1), "99999999");
+		final Transaction transaction = new Transaction().update(0, withCustomer(before0, "22222222"))
+				.expect(1, stale).update(1, withCustomer(before1, "22222222"));
+		check(!data.commit(transaction, TIMEOUT_MILLIS), "commit should fail on a stale expectation");
+		check(Arrays.equals(data.read(0), before0) && Arrays.equals(data.read(1), before1),
+				"no write should be applied after a rollback");
+		check(!data.isLocked(0) && !data.isLocked(1), "locks should be released after rollback");
+		System.out.println("rollback: passed");
+	}
+
+	private static void testCommitWaitsForLock() throws Exception {
+		final String[] record1 = withCustomer(data.read(1), "33333333");
+		data.lock(1);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Future<Boolean> commit = executor
+					.submit(() -> data.commit(new Transaction().update(1, record1), TIMEOUT_MILLIS));
+			Thread.sleep(200);
+			check(!commit.isDone(), "commit should wait for the held lock");
+			data.unlock(1);
+			check(commit.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "commit should apply once unlocked");
+			check(Arrays.equals(data.read(1), record1), "write should be applied");
+		} finally {
+			executor.shutdown();
+		}
+		System.out.println("commit waits for lock: passed");
+	}
+
+	private static void testCommitTimesOut() throws Exception {
+		final String[] before0 = data.read(0);
+		data.lock(1);
+		try {
+			final Transaction transaction = new Transaction().update(0, withCustomer(before0, "44444444"))
+					.update(1, withCustomer(data.read(1), "44444444"));
+			check(!data.commit(transaction, 100), "commit should time out while record 1 is locked");
+			check(Arrays.equals(data.read(0), before0), "no write should be applied after a timeout");
+			check(!data.isLocked(0), "record 0 should be unlocked after a timeout");
+			check(data.getHeldLocks().get(0).getWaiters() == 0, "timed out request should be withdrawn");
+		} finally {
+			data.unlock(1);
+		}
+		check(!data.isLocked(1), "record 1 should be unlocked");
+		System.out.println("commit timeout: passed");
+	}
+
+	private static void testConcurrentCommits() throws Exception {
+		final int rounds = 200;
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final Future<Integer> forward = executor.submit(() -> commitRounds(rounds, 0, 1, "55555555"));
+			final Future<Integer> backward = executor.submit(() -> commitRounds(rounds, 1, 0, "66666666"));
+			final int applied = forward.get(60, TimeUnit.SECONDS) + backward.get(60, TimeUnit.SECONDS);
+			check(applied == 2 * rounds, "every commit should apply, applied " + applied);
+		} finally {
+			executor.shutdown();
+		}
+		check(data.read(0)[5].equals(data.read(1)[5]), "records should be written together");
+		System.out.println("concurrent commits: passed");
+	}
+
+	private static int commitRounds(final int rounds, final int first, final int second, final String customer)
+			throws Exception {
+		int applied = 0;
+		for (int round = 0; round < rounds; round++) {
+			final Transaction transaction = new Transaction().update(first, withCustomer(data.read(first), customer))
+					.update(second, withCustomer(data.read(second), customer));
+			if (data.commit(transaction, TIMEOUT_MILLIS)) {
+				applied++;
+			}
+		}
+		return applied;
+	}
+
+	private static String[] withCustomer(final String[] record, final String customer) {
+		final String[] copy = record.clone();
+		copy[5] = customer;
+		return copy;
+	}
+}
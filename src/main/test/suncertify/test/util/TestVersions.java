@@ -0,0 +1,148 @@
+package suncertify.test.util;
+
+import static suncertify.test.util.DatabaseFixture.check;
+
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import suncertify.db.ChangeEvent;
+import suncertify.db.ChangeListener;
+import suncertify.db.ChangeSubscription;
+import suncertify.db.DBMainExtended;
+import suncertify.db.DatabaseFactory;
+import suncertify.db.Mutation;
+import suncertify.db.Query;
+import suncertify.db.Versioned;
+
+/**
+ * Checks the versions of the database and its records, and the change subscriptions built on
+ * them: every change increases the version by one, executeVersioned reports the version its result
+ * was found at, a subscriber receives each change made after it subscribed in order with the
+ * values before and after, a listener which falls too far behind is told it lost changes, and a
+ * cancelled subscription receives nothing more.
+ */
+public class TestVersions {
+
+	private static final long TIMEOUT_SECONDS = 5;
+
+	private static final String[] CREATED = { "Version Inn", "Versionville", "Roofing", "3", "$70.00", "" };
+
+	private static DBMainExtended data;
+
+	public static void main(final String[] args) throws Exception {
+		DatabaseFixture.run("versions", database -> {
+			data = DatabaseFactory.getDatabase(database.toString());
+			testVersions();
+			testSubscription();
+			testLostChanges();
+			testCancel();
+			System.out.println("All version tests passed.");
+		});
+	}
+
+	private static void testVersions() throws Exception {
+		final long version = data.getVersion();
+		final long record1Version = data.getRecordVersion(1);
+		update(0, "11223344");
+		check(data.getVersion() == version + 1, "an update should increase the version by one");
+		check(data.getRecordVersion(0) == version + 1, "the updated record should have the new version");
+		check(data.getRecordVersion(1) == record1Version, "other records should keep their version");
+		check(data.getVersion() == version + 1, "reads should not change the version");
+		final Versioned<int[]> result = data.executeVersioned(Query.exact("location", data.read(0)[1]));
+		check(result.getVersion() == data.getVersion(), "executeVersioned should report the current version");
+		check(Arrays.stream(result.getValue()).anyMatch(recNo -> recNo == 0), "record 0 should match its location");
+		System.out.println("versions: passed");
+	}
+
+	private static void testSubscription() throws Exception {
+		update(0, "22334455");
+		final BlockingQueue<ChangeEvent> events = new LinkedBlockingQueue<ChangeEvent>();
+		final ChangeSubscription subscription = data.subscribe(events::add, 16);
+		try {
+			check(subscription.getStartVersion() == data.getVersion(), "start version should be the current version");
+			final String[] before = data.read(0);
+			update(0, "33445566");
+			final int created = data.create(CREATED.clone());
+			data.lock(created);
+			data.delete(created);
+			data.unlock(created);
+
+			final ChangeEvent updated = next(events);
+			check(updated.getType() == Mutation.Type.UPDATE && updated.getRecordNumber() == 0,
+					"first event should be the update of record 0, not the change before subscribing");
+			check(Arrays.equals(updated.getOldValues(), before) && updated.getNewValues()[5].equals("33445566"),
+					"update event should carry the values before and after");
+			check(updated.getVersion() == subscription.getStartVersion() + 1, "first event should have the next version");
+			final ChangeEvent create = next(events);
+			check(create.getType() == Mutation.Type.CREATE && create.getRecordNumber() == created
+					&& Arrays.equals(create.getNewValues(), CREATED), "second event should be the create");
+			check(create.getVersion() == updated.getVersion() + 1, "versions should be consecutive");
+			final ChangeEvent delete = next(events);
+			check(delete.getType() == Mutation.Type.DELETE && delete.getNewValues() == null
+					&& Arrays.equals(delete.getOldValues(), CREATED), "third event should be the delete");
+			check(delete.getVersion() == data.getVersion(), "last event should have the current version");
+			check(events.poll(200, TimeUnit.MILLISECONDS) == null, "no other event should be delivered");
+		} finally {
+			subscription.cancel();
+		}
+		System.out.println("subscription: passed");
+	}
+
+	private static void testLostChanges() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch lost = new CountDownLatch(1);
+		final ChangeSubscription subscription = data.subscribe(new ChangeListener() {
+
+			@Override
+			public void recordChanged(final ChangeEvent event) {
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			@Override
+			public void changesLost() {
+				lost.countDown();
+			}
+		}, 1);
+		for (int change = 0; change < 5; change++) {
+			update(0, String.format("%08d", change));
+		}
+		check(!subscription.isActive(), "a listener falling behind should lose its subscription");
+		release.countDown();
+		check(lost.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "the listener should be told it lost changes");
+		System.out.println("lost changes: passed");
+	}
+
+	private static void testCancel() throws Exception {
+		final BlockingQueue<ChangeEvent> events = new LinkedBlockingQueue<ChangeEvent>();
+		final ChangeSubscription subscription = data.subscribe(events::add, 16);
+		subscription.cancel();
+		check(!subscription.isActive(), "a cancelled subscription should not be active");
+		update(0, "44556677");
+		check(events.poll(1500, TimeUnit.MILLISECONDS) == null, "a cancelled subscription should receive nothing");
+		System.out.println("cancel: passed");
+	}
+
+	private static ChangeEvent next(final BlockingQueue<ChangeEvent> events) throws InterruptedException {
+		final ChangeEvent event = events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		check(event != null, "an event should be delivered");
+		return event;
+	}
+
+	private static void update(final int recNo, final String customer) throws Exception {
+		final String[] values = data.read(recNo);
+		values[5] = customer;
+		data.lock(recNo);
+		try {
+			data.update(recNo, values);
+		} finally {
+			data.unlock(recNo);
+		}
+	}
+}